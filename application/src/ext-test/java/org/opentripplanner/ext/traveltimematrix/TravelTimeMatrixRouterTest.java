@@ -0,0 +1,77 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixRouter.UNREACHED;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+class TravelTimeMatrixRouterTest implements RaptorTestConstants {
+
+  private static final int DEPARTURE_TIME = T00_00;
+
+  /** Stop A is reached by walking, B and C by transit. */
+  private final StopArrivals arrivals = new StopArrivals() {
+    private final Map<Integer, Integer> transit = Map.of(STOP_B, T00_10, STOP_C, T00_30);
+    private final Map<Integer, Integer> overall = Map.of(STOP_A, T00_02, STOP_B, T00_10, STOP_C, T00_30);
+
+    @Override
+    public boolean reached(int stopIndex) {
+      return overall.containsKey(stopIndex);
+    }
+
+    @Override
+    public int bestArrivalTime(int stopIndex) {
+      return overall.get(stopIndex);
+    }
+
+    @Override
+    public boolean reachedByTransit(int stopIndex) {
+      return transit.containsKey(stopIndex);
+    }
+
+    @Override
+    public int bestTransitArrivalTime(int stopIndex) {
+      return transit.get(stopIndex);
+    }
+  };
+
+  @Test
+  void bestEgressIsUsed() {
+    var egress = List.of(
+      List.of(TestAccessEgress.walk(STOP_B, D5m), TestAccessEgress.walk(STOP_C, D1m))
+    );
+    assertArrayEquals(new int[] { D10m + D5m }, travelTimes(egress));
+  }
+
+  @Test
+  void walkingEgressMustFollowTransit() {
+    var egress = List.of(
+      List.of(TestAccessEgress.walk(STOP_A, D1m)),
+      List.of(TestAccessEgress.flex(STOP_A, D5m))
+    );
+    assertArrayEquals(new int[] { UNREACHED, T00_02 + D5m }, travelTimes(egress));
+  }
+
+  @Test
+  void egressOpeningHours() {
+    var egress = List.of(List.of(TestAccessEgress.walk(STOP_B, D1m).openingHours(T00_30, T01_00)));
+    assertArrayEquals(new int[] { T00_30 + D1m }, travelTimes(egress));
+
+    var closed = List.of(List.of(TestAccessEgress.walk(STOP_B, D1m).openingHoursClosed()));
+    assertArrayEquals(new int[] { UNREACHED }, travelTimes(closed));
+  }
+
+  @Test
+  void noEgress() {
+    assertArrayEquals(new int[] { UNREACHED }, travelTimes(List.of(List.of())));
+  }
+
+  private int[] travelTimes(List<List<TestAccessEgress>> egressByDestination) {
+    return TravelTimeMatrixRouter.travelTimes(arrivals, DEPARTURE_TIME, egressByDestination);
+  }
+}
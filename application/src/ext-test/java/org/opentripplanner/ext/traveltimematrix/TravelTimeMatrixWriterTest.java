@@ -0,0 +1,52 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixRouter.UNREACHED;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeMatrixWriterTest {
+
+  @Test
+  void csv() {
+    var out = new StringWriter();
+    var subject = new CsvTravelTimeMatrixWriter(out, List.of("O1", "O2"), List.of("D1", "D2"));
+
+    subject.write(1, new int[] { 600, UNREACHED });
+    subject.write(0, new int[] { 120, 1800 });
+    subject.flush();
+
+    assertEquals(
+      """
+      origin,destination,travelTime
+      O2,D1,600
+      O1,D1,120
+      O1,D2,1800
+      """,
+      out.toString()
+    );
+  }
+
+  @Test
+  void binary() throws IOException {
+    var out = new ByteArrayOutputStream();
+    var subject = new BinaryTravelTimeMatrixWriter(out, 2, 2);
+
+    subject.write(1, new int[] { 600, UNREACHED });
+    subject.write(0, new int[] { 120, 1800 });
+    subject.flush();
+
+    var in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    int[] expected = { 2, 2, 1, 600, UNREACHED, 0, 120, 1800 };
+    for (int it : expected) {
+      assertEquals(it, in.readInt());
+    }
+    assertEquals(0, in.available());
+  }
+}
@@ -2,7 +2,10 @@ package org.opentripplanner.ext.flex.flexpathcalculator;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
@@ -11,6 +14,7 @@ import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.state.State;
@@ -33,6 +37,12 @@ import org.opentripplanner.street.search.strategy.DominanceFunctions;
 public class StreetFlexPathCalculator implements FlexPathCalculator {
 
   private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> cache = new HashMap<>();
+
+  /**
+   * The request vertices found as destinations so far. The edges leading to them are only visible
+   * to the searches which include them, see {@link StreetSearchBuilder#setTemporaryVertices}.
+   */
+  private final Set<Vertex> temporaryVertices = new HashSet<>();
   private final boolean reverseDirection;
   private final Duration maxFlexTripDuration;
 
@@ -53,6 +63,12 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     Vertex originVertex = reverseDirection ? tov : fromv;
     Vertex destinationVertex = reverseDirection ? fromv : tov;
 
+    if (
+      TemporaryVertex.isRequestScoped(destinationVertex) && temporaryVertices.add(destinationVertex)
+    ) {
+      cache.clear();
+    }
+
     ShortestPathTree<State, Edge, Vertex> shortestPathTree;
     if (cache.containsKey(originVertex)) {
       shortestPathTree = cache.get(originVertex);
@@ -91,6 +107,7 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
       .setStreetRequest(new StreetRequest(StreetMode.CAR))
       .setFrom(reverseDirection ? null : vertex)
       .setTo(reverseDirection ? vertex : null)
+      .setTemporaryVertices(List.copyOf(temporaryVertices))
       .getShortestPathTree();
   }
 }
@@ -8,7 +8,9 @@ import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,6 +18,7 @@ import java.util.function.Consumer;
 import javax.xml.stream.XMLStreamException;
 import org.apache.hc.core5.net.URIBuilder;
 import org.opentripplanner.updater.siri.SiriTimetableSnapshotSource;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.ResultLogger;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
@@ -47,6 +50,11 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
     this.recordMetrics = TripUpdateMetrics.streaming(config);
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   @Override
   protected void messageConsumer(ServiceBusReceivedMessageContext messageContext) {
     var message = messageContext.getMessage();
@@ -8,7 +8,9 @@ import java.net.URISyntaxException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
@@ -20,6 +22,7 @@ import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.opentripplanner.updater.alert.TransitAlertProvider;
 import org.opentripplanner.updater.siri.SiriAlertsUpdateHandler;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.rutebanken.siri20.util.SiriXml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +49,12 @@ public class SiriAzureSXUpdater extends AbstractAzureSiriUpdater implements Tran
     this.updateHandler = new SiriAlertsUpdateHandler(feedId, transitAlertService, Duration.ZERO);
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    // The trips are resolved with the real-time transit data
+    return EnumSet.of(GraphWriterResource.ALERTS, GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   @Override
   protected void messageConsumer(ServiceBusReceivedMessageContext messageContext) {
     var message = messageContext.getMessage();
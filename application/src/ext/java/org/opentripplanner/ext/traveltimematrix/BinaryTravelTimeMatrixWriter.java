@@ -0,0 +1,54 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Write the matrix as a compact binary stream of big-endian 32-bit integers. The stream starts
+ * with the number of origins and the number of destinations. Then follows one row for each
+ * origin: the origin index, followed by the travel-time in seconds to each destination, or -1 if
+ * the destination is not reached. The rows are not sorted.
+ * <pre>
+ * nOrigins nDestinations
+ * originIndex travelTime[0] .. travelTime[nDestinations-1]
+ * ...
+ * </pre>
+ */
+public class BinaryTravelTimeMatrixWriter implements TravelTimeMatrixWriter {
+
+  private final DataOutputStream out;
+
+  public BinaryTravelTimeMatrixWriter(OutputStream out, int nOrigins, int nDestinations) {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    try {
+      this.out.writeInt(nOrigins);
+      this.out.writeInt(nDestinations);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void write(int originIndex, int[] travelTimes) {
+    try {
+      out.writeInt(originIndex);
+      for (int it : travelTimes) {
+        out.writeInt(it);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void flush() {
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
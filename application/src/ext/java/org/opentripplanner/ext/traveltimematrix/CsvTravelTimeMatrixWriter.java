@@ -0,0 +1,72 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Write the matrix as CSV with one line for each origin-destination pair reached:
+ * <pre>
+ * origin,destination,travelTime
+ * A,B,1260
+ * </pre>
+ * The travel-time is in seconds. Unreached pairs are not written.
+ */
+public class CsvTravelTimeMatrixWriter implements TravelTimeMatrixWriter {
+
+  static final String HEADER = "origin,destination,travelTime\n";
+
+  private final Writer out;
+  private final List<String> originIds;
+  private final List<String> destinationIds;
+
+  public CsvTravelTimeMatrixWriter(
+    Writer out,
+    List<String> originIds,
+    List<String> destinationIds
+  ) {
+    this.out = out;
+    this.originIds = originIds;
+    this.destinationIds = destinationIds;
+    try {
+      out.write(HEADER);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(int originIndex, int[] travelTimes) {
+    var buf = new StringBuilder();
+    var origin = originIds.get(originIndex);
+
+    for (int i = 0; i < travelTimes.length; ++i) {
+      if (travelTimes[i] != TravelTimeMatrixRouter.UNREACHED) {
+        buf
+          .append(origin)
+          .append(',')
+          .append(destinationIds.get(i))
+          .append(',')
+          .append(travelTimes[i])
+          .append('\n');
+      }
+    }
+    synchronized (this) {
+      try {
+        out.write(buf.toString());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void flush() {
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
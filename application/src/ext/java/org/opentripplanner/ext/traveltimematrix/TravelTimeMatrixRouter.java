@@ -0,0 +1,243 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RoutingAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+
+/**
+ * Compute the transit travel-time from each origin to each destination, departing at the
+ * request date-time.
+ * <p>
+ * The access and egress street searches are done once for each origin and destination, and the
+ * transit data is created once for all origins. Then one standard Raptor search is performed for
+ * each origin, finding the best arrival time at all stops. The travel-time to each destination
+ * is the best arrival time at the egress stops plus the egress duration. The Raptor searches run
+ * in parallel on the Raptor thread-pool, if configured.
+ */
+public class TravelTimeMatrixRouter {
+
+  /** The travel-time used for destinations not reached. */
+  public static final int UNREACHED = -1;
+
+  private final OtpServerRequestContext serverContext;
+  private final RouteRequest request;
+  private final Duration maxTravelTime;
+  private final ZonedDateTime transitSearchTimeZero;
+
+  public TravelTimeMatrixRouter(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    Duration maxTravelTime
+  ) {
+    this.serverContext = serverContext;
+    this.request = request;
+    this.maxTravelTime = maxTravelTime;
+    this.transitSearchTimeZero =
+      ServiceDateUtils.asStartOfService(
+        request.dateTime(),
+        serverContext.transitService().getTimeZone()
+      );
+  }
+
+  /**
+   * Compute the matrix and write one row for each origin. The rows are written as soon as they
+   * are computed, and not necessarily in the same order as the origins.
+   */
+  public void route(
+    List<GenericLocation> origins,
+    List<GenericLocation> destinations,
+    TravelTimeMatrixWriter writer
+  ) {
+    List<List<RoutingAccessEgress>> egressByDestination = destinations
+      .stream()
+      .map(it -> findAccessEgress(it, AccessEgressType.EGRESS))
+      .toList();
+    List<RaptorAccessEgress> egressPaths = egressByDestination
+      .stream()
+      .flatMap(Collection::stream)
+      .map(RaptorAccessEgress.class::cast)
+      .toList();
+
+    List<RaptorRequest<TripSchedule>> requests = new ArrayList<>();
+    List<Integer> originIndexes = new ArrayList<>();
+    int departureTime = (int) (
+      request.dateTime().getEpochSecond() - transitSearchTimeZero.toEpochSecond()
+    );
+
+    for (int i = 0; i < origins.size(); ++i) {
+      var accessPaths = findAccessEgress(origins.get(i), AccessEgressType.ACCESS);
+      if (accessPaths.isEmpty() || egressPaths.isEmpty()) {
+        writer.write(i, unreachedRow(destinations.size()));
+      } else {
+        requests.add(raptorRequest(departureTime, accessPaths, egressPaths));
+        originIndexes.add(i);
+      }
+    }
+
+    if (!requests.isEmpty()) {
+      new RaptorService<>(serverContext.raptorConfig())
+        .oneToAll(
+          requests,
+          createTransitData(),
+          (index, arrivals) ->
+            writer.write(
+              originIndexes.get(index),
+              travelTimes(arrivals, departureTime, egressByDestination)
+            )
+        );
+    }
+    writer.flush();
+  }
+
+  /**
+   * Find the best arrival at each destination. An egress path starting by walking must follow a
+   * transit arrival, the same rule as Raptor apply.
+   */
+  static int[] travelTimes(
+    StopArrivals arrivals,
+    int departureTime,
+    List<? extends List<? extends RaptorAccessEgress>> egressByDestination
+  ) {
+    int[] travelTimes = unreachedRow(egressByDestination.size());
+
+    for (int i = 0; i < travelTimes.length; ++i) {
+      int bestArrivalTime = RaptorConstants.TIME_NOT_SET;
+
+      for (var egress : egressByDestination.get(i)) {
+        int stop = egress.stop();
+        int stopArrivalTime;
+
+        if (egress.stopReachedByWalking()) {
+          if (!arrivals.reachedByTransit(stop)) {
+            continue;
+          }
+          stopArrivalTime = arrivals.bestTransitArrivalTime(stop);
+        } else {
+          if (!arrivals.reached(stop)) {
+            continue;
+          }
+          stopArrivalTime = arrivals.bestArrivalTime(stop);
+        }
+        int egressDepartureTime = egress.earliestDepartureTime(stopArrivalTime);
+        if (egressDepartureTime == RaptorConstants.TIME_NOT_SET) {
+          continue;
+        }
+        int arrivalTime = egressDepartureTime + egress.durationInSeconds();
+        if (bestArrivalTime == RaptorConstants.TIME_NOT_SET || arrivalTime < bestArrivalTime) {
+          bestArrivalTime = arrivalTime;
+        }
+      }
+      if (bestArrivalTime != RaptorConstants.TIME_NOT_SET) {
+        travelTimes[i] = bestArrivalTime - departureTime;
+      }
+    }
+    return travelTimes;
+  }
+
+  private RaptorRequest<TripSchedule> raptorRequest(
+    int departureTime,
+    Collection<? extends RaptorAccessEgress> accessPaths,
+    Collection<RaptorAccessEgress> egressPaths
+  ) {
+    int maxTransfers = request.preferences().transfer().maxTransfers();
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+    builder
+      .profile(RaptorProfile.STANDARD)
+      .searchDirection(SearchDirection.FORWARD)
+      .searchParams()
+      .earliestDepartureTime(departureTime)
+      .latestArrivalTime(departureTime + (int) maxTravelTime.toSeconds())
+      .searchOneIterationOnly()
+      .maxNumberOfTransfers(maxTransfers)
+      // Do not stop the search when the closest destination is reached
+      .numberOfAdditionalTransfers(maxTransfers)
+      .addAccessPaths(List.copyOf(accessPaths))
+      .addEgressPaths(egressPaths);
+    return builder.build();
+  }
+
+  private List<RoutingAccessEgress> findAccessEgress(
+    GenericLocation location,
+    AccessEgressType type
+  ) {
+    OTPRequestTimeoutException.checkForTimeout();
+
+    var streetRequest = type.isAccess() ? request.journey().access() : request.journey().egress();
+    var accessEgressRequest = request.clone();
+    var unknown = new GenericLocation(null, null);
+    accessEgressRequest.setFrom(type.isAccess() ? location : unknown);
+    accessEgressRequest.setTo(type.isAccess() ? unknown : location);
+
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        accessEgressRequest.from(),
+        accessEgressRequest.to(),
+        request.journey().access().mode(),
+        request.journey().egress().mode()
+      )
+    ) {
+      var preferences = accessEgressRequest.preferences().street().accessEgress();
+      var nearbyStops = AccessEgressRouter.findAccessEgresses(
+        accessEgressRequest,
+        temporaryVertices,
+        streetRequest,
+        serverContext.dataOverlayContext(accessEgressRequest),
+        type,
+        preferences.maxDuration().valueOf(streetRequest.mode()),
+        preferences.maxStopCount()
+      );
+      return AccessEgressMapper.mapNearbyStops(nearbyStops, type);
+    }
+  }
+
+  private RaptorRoutingRequestTransitData createTransitData() {
+    var transitLayer = request.preferences().transit().ignoreRealtimeUpdates()
+      ? serverContext.transitService().getTransitLayer()
+      : serverContext.transitService().getRealtimeTransitLayer();
+
+    // Include the next day, the travel-time may pass midnight
+    int additionalFutureSearchDays = 1;
+
+    return new RaptorRoutingRequestTransitData(
+      transitLayer,
+      TransitGroupPriorityService.empty(),
+      transitSearchTimeZero,
+      0,
+      additionalFutureSearchDays,
+      new RouteRequestTransitDataProviderFilter(request),
+      request
+    );
+  }
+
+  private static int[] unreachedRow(int size) {
+    int[] row = new int[size];
+    Arrays.fill(row, UNREACHED);
+    return row;
+  }
+}
@@ -0,0 +1,22 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+/**
+ * Write the travel-time matrix, one row for each origin. The rows are written as they are
+ * computed, possibly from different threads and in any order.
+ * <p>
+ * THE IMPLEMENTATION MUST BE THREAD-SAFE.
+ */
+public interface TravelTimeMatrixWriter {
+  /**
+   * @param originIndex the index of the origin in the request.
+   * @param travelTimes the travel-time in seconds to each destination, in the same order as the
+   *                    destinations in the request. The value is
+   *                    {@link TravelTimeMatrixRouter#UNREACHED} if the destination is not reached.
+   */
+  void write(int originIndex, int[] travelTimes);
+
+  /**
+   * Flush any buffered output, called when all rows are written.
+   */
+  void flush();
+}
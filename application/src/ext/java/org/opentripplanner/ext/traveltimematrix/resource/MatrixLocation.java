@@ -0,0 +1,19 @@
+package org.opentripplanner.ext.traveltimematrix.resource;
+
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * An origin or destination in the matrix request. The location is either a stop/station id, or
+ * a coordinate. The id is used to identify the location in the CSV output.
+ */
+public record MatrixLocation(String id, String stopId, Double lat, Double lon) {
+  GenericLocation toGenericLocation() {
+    return new GenericLocation(
+      id,
+      stopId == null ? null : FeedScopedId.parse(stopId),
+      lat,
+      lon
+    );
+  }
+}
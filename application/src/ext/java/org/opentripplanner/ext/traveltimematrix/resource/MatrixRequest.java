@@ -0,0 +1,8 @@
+package org.opentripplanner.ext.traveltimematrix.resource;
+
+import java.util.List;
+
+/**
+ * The JSON body of a travel-time matrix request.
+ */
+public record MatrixRequest(List<MatrixLocation> origins, List<MatrixLocation> destinations) {}
@@ -0,0 +1,156 @@
+package org.opentripplanner.ext.traveltimematrix.resource;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+import org.opentripplanner.ext.traveltimematrix.BinaryTravelTimeMatrixWriter;
+import org.opentripplanner.ext.traveltimematrix.CsvTravelTimeMatrixWriter;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixRouter;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixWriter;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Compute a transit travel-time matrix for a list of origins and destinations. The result is
+ * streamed to the client as CSV or binary, one origin at the time. See the sandbox documentation
+ * for the formats.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  private static final String TEXT_CSV = "text/csv";
+  private static final Duration DEFAULT_MAX_TRAVEL_TIME = Duration.ofHours(2);
+  private static final Duration MAX_TRAVEL_TIME_LIMIT = Duration.ofHours(24);
+
+  private final OtpServerRequestContext serverContext;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces({ TEXT_CSV, MediaType.APPLICATION_OCTET_STREAM })
+  public Response matrix(
+    MatrixRequest body,
+    @QueryParam("time") String time,
+    @QueryParam("maxTravelTime") String maxTravelTime,
+    @QueryParam("format") @DefaultValue("csv") String format
+  ) {
+    if (body == null || isEmpty(body.origins()) || isEmpty(body.destinations())) {
+      throw new BadRequestException("At least one origin and one destination is required.");
+    }
+    var origins = mapLocations(body.origins());
+    var destinations = mapLocations(body.destinations());
+
+    var request = serverContext.defaultRouteRequest().clone();
+    request.setDateTime(parseTime(time));
+    var router = new TravelTimeMatrixRouter(
+      serverContext,
+      request,
+      parseMaxTravelTime(maxTravelTime)
+    );
+
+    return switch (format) {
+      case "csv" -> Response
+        .ok(
+          stream(
+            router,
+            origins,
+            destinations,
+            out ->
+              new CsvTravelTimeMatrixWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                ids(body.origins()),
+                ids(body.destinations())
+              )
+          ),
+          TEXT_CSV
+        )
+        .build();
+      case "binary" -> Response
+        .ok(
+          stream(
+            router,
+            origins,
+            destinations,
+            out -> new BinaryTravelTimeMatrixWriter(out, origins.size(), destinations.size())
+          ),
+          MediaType.APPLICATION_OCTET_STREAM
+        )
+        .build();
+      default -> throw new BadRequestException("Unknown format: " + format);
+    };
+  }
+
+  private static StreamingOutput stream(
+    TravelTimeMatrixRouter router,
+    List<GenericLocation> origins,
+    List<GenericLocation> destinations,
+    Function<OutputStream, TravelTimeMatrixWriter> writerFactory
+  ) {
+    return out -> router.route(origins, destinations, writerFactory.apply(out));
+  }
+
+  private static List<GenericLocation> mapLocations(List<MatrixLocation> locations) {
+    try {
+      return locations.stream().map(MatrixLocation::toGenericLocation).toList();
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException(e.getMessage());
+    }
+  }
+
+  private static List<String> ids(List<MatrixLocation> locations) {
+    return locations.stream().map(MatrixLocation::id).toList();
+  }
+
+  private static Instant parseTime(String time) {
+    if (time == null) {
+      return Instant.now();
+    }
+    try {
+      return OffsetDateTime.parse(time).toInstant();
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Unable to parse time: " + time);
+    }
+  }
+
+  private static Duration parseMaxTravelTime(String maxTravelTime) {
+    if (maxTravelTime == null) {
+      return DEFAULT_MAX_TRAVEL_TIME;
+    }
+    try {
+      var value = Duration.parse(maxTravelTime);
+      if (value.isNegative() || value.isZero() || value.compareTo(MAX_TRAVEL_TIME_LIMIT) > 0) {
+        throw new BadRequestException(
+          "The maxTravelTime must be positive and not exceed " + MAX_TRAVEL_TIME_LIMIT
+        );
+      }
+      return value;
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Unable to parse maxTravelTime: " + maxTravelTime);
+    }
+  }
+
+  private static boolean isEmpty(List<?> list) {
+    return list == null || list.isEmpty();
+  }
+}
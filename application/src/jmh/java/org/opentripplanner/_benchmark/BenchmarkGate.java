@@ -0,0 +1,154 @@
+package org.opentripplanner._benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare two JMH result files in JSON format, a baseline and a candidate. The gate fail, exit
+ * with code 1, if the primary score or the normalized allocation rate of any benchmark in the
+ * candidate is worse than the baseline by more than the given threshold (percent).
+ * <p>
+ * Benchmarks which only exist in one of the files are listed, but ignored.
+ * <p>
+ * Usage: {@code BenchmarkGate <baseline.json> <candidate.json> [threshold-percent]}
+ */
+public class BenchmarkGate {
+
+  private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+  private static final double DEFAULT_THRESHOLD_PERCENT = 5.0;
+
+  /**
+   * Allocation is often reported as a few bytes per operation for allocation free code, the
+   * relative threshold is not applied below this limit.
+   */
+  private static final double ALLOC_NOISE_LIMIT_BYTES = 16.0;
+
+  private final double thresholdPercent;
+  private final List<String> failures = new ArrayList<>();
+
+  private BenchmarkGate(double thresholdPercent) {
+    this.thresholdPercent = thresholdPercent;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println(
+        "Usage: BenchmarkGate <baseline.json> <candidate.json> [threshold-percent]"
+      );
+      System.exit(2);
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+    var gate = new BenchmarkGate(threshold);
+    boolean ok = gate.compare(read(new File(args[0])), read(new File(args[1])));
+    System.exit(ok ? 0 : 1);
+  }
+
+  private boolean compare(Map<String, JsonNode> baseline, Map<String, JsonNode> candidate) {
+    for (var e : candidate.entrySet()) {
+      var base = baseline.get(e.getKey());
+      if (base == null) {
+        System.out.printf("NEW      %s%n", e.getKey());
+        continue;
+      }
+      compareResult(e.getKey(), base, e.getValue());
+    }
+    for (String key : baseline.keySet()) {
+      if (!candidate.containsKey(key)) {
+        System.out.printf("MISSING  %s%n", key);
+      }
+    }
+    if (failures.isEmpty()) {
+      System.out.printf("%nOK - no regression above %.1f%%%n", thresholdPercent);
+      return true;
+    }
+    System.out.printf(
+      "%nFAILED - %d regression(s) above %.1f%%:%n",
+      failures.size(),
+      thresholdPercent
+    );
+    failures.forEach(it -> System.out.println("  " + it));
+    return false;
+  }
+
+  private void compareResult(String name, JsonNode base, JsonNode candidate) {
+    boolean higherIsBetter = "thrpt".equals(candidate.path("mode").asText());
+    var basePrimary = base.path("primaryMetric");
+    var candPrimary = candidate.path("primaryMetric");
+    check(
+      name,
+      candPrimary.path("scoreUnit").asText(),
+      basePrimary.path("score").asDouble(),
+      candPrimary.path("score").asDouble(),
+      higherIsBetter,
+      0.0
+    );
+
+    var baseAlloc = base.path("secondaryMetrics").path(ALLOC_RATE_NORM);
+    var candAlloc = candidate.path("secondaryMetrics").path(ALLOC_RATE_NORM);
+    if (!baseAlloc.isMissingNode() && !candAlloc.isMissingNode()) {
+      check(
+        name,
+        candAlloc.path("scoreUnit").asText(),
+        baseAlloc.path("score").asDouble(),
+        candAlloc.path("score").asDouble(),
+        false,
+        ALLOC_NOISE_LIMIT_BYTES
+      );
+    }
+  }
+
+  private void check(
+    String name,
+    String unit,
+    double base,
+    double candidate,
+    boolean higherIsBetter,
+    double absoluteLimit
+  ) {
+    double change = base == 0.0 ? 0.0 : 100.0 * (candidate - base) / base;
+    double regression = higherIsBetter ? -change : change;
+    boolean failed = regression > thresholdPercent && Math.abs(candidate - base) > absoluteLimit;
+
+    System.out.printf(
+      "%-8s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+      failed ? "WORSE" : "OK",
+      name,
+      base,
+      candidate,
+      unit,
+      change
+    );
+    if (failed) {
+      failures.add("%s [%s] %+.1f%%".formatted(name, unit, change));
+    }
+  }
+
+  /**
+   * Read the JMH result and index it by the benchmark name and parameters.
+   */
+  private static Map<String, JsonNode> read(File file) throws IOException {
+    Map<String, JsonNode> result = new LinkedHashMap<>();
+    for (JsonNode node : new ObjectMapper().readTree(file)) {
+      result.put(key(node), node);
+    }
+    return result;
+  }
+
+  private static String key(JsonNode node) {
+    var params = new TreeMap<String, String>();
+    var it = node.path("params").fields();
+    while (it.hasNext()) {
+      var e = it.next();
+      params.put(e.getKey(), e.getValue().asText());
+    }
+    var name = node.path("benchmark").asText();
+    return params.isEmpty() ? name : name + params;
+  }
+}
@@ -0,0 +1,39 @@
+package org.opentripplanner._benchmark;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+
+/**
+ * Load a serialized graph ({@code graph.obj}) to use as a benchmark fixture. The graph is loaded
+ * once per benchmark JVM fork and shared by all benchmarks in the fork. Loading a large graph takes
+ * time, so the benchmark setup should be done at {@code Level.Trial}.
+ */
+public class SerializedGraphFixture {
+
+  /**
+   * Use this as the graph parameter value to indicate that the benchmark should use a small
+   * synthetic fixture, not a serialized graph.
+   */
+  public static final String SYNTHETIC = "synthetic";
+
+  private static final Map<String, SerializedGraphObject> CACHE = new HashMap<>();
+
+  public static boolean isSynthetic(String graphPath) {
+    return graphPath == null || graphPath.isBlank() || SYNTHETIC.equals(graphPath);
+  }
+
+  public static synchronized SerializedGraphObject load(String graphPath) {
+    return CACHE.computeIfAbsent(
+      graphPath,
+      path -> {
+        var file = new File(path);
+        if (!file.exists()) {
+          throw new IllegalArgumentException("Graph file not found: " + file.getAbsolutePath());
+        }
+        return SerializedGraphObject.load(file);
+      }
+    );
+  }
+}
@@ -0,0 +1,225 @@
+package org.opentripplanner.astar;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner._benchmark.SerializedGraphFixture;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.BucketQueue;
+import org.opentripplanner.astar.model.IndexedDaryHeap;
+import org.opentripplanner.astar.model.SearchQueue;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+/**
+ * Compare the {@link SearchQueue} implementations in a duration-limited street search, like the
+ * access and egress searches. Each operation is a walk search from one of {@code nOrigins}
+ * random street vertices. The secondary metrics are totals for all searches in an iteration:
+ * <ul>
+ *   <li>{@code searches} - the number of searches.</li>
+ *   <li>{@code extracted} - the states extracted from the queue, including dominated states
+ *   which are skipped.</li>
+ *   <li>{@code settled} - the states visited, the extracted states which are not dominated.</li>
+ * </ul>
+ * <p>
+ * The search runs in a synthetic grid, or in a serialized graph if the {@code graph} parameter is
+ * set to the path of a {@code graph.obj} file:
+ * <pre>
+ * -p graph=test/performance/norway/graph.obj
+ * </pre>
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AStarSearchQueueBenchmark {
+
+  private static final int GRID_SIZE = 200;
+  private static final double GRID_STEP_DEGREES = 0.001;
+
+  @Param({ SerializedGraphFixture.SYNTHETIC })
+  public String graph;
+
+  @Param({ "BinHeap", "IndexedDaryHeap", "BucketQueue" })
+  public String queue;
+
+  @Param({ "15" })
+  public int maxDurationMinutes;
+
+  @Param({ "100" })
+  public int nOrigins;
+
+  private Vertex[] origins;
+  private RouteRequest request;
+  private int next = 0;
+
+  @org.openjdk.jmh.annotations.State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters implements TraverseVisitor<State, Edge> {
+
+    public long searches;
+    public long extracted;
+    public long settled;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      searches = 0;
+      extracted = 0;
+      settled = 0;
+    }
+
+    @Override
+    public void visitEdge(Edge edge) {}
+
+    @Override
+    public void visitVertex(State state) {
+      ++settled;
+    }
+
+    @Override
+    public void visitEnqueue() {}
+  }
+
+  /** Count the states extracted from the queue. */
+  private record CountingQueue(SearchQueue<State> delegate, Counters counters)
+    implements SearchQueue<State> {
+    @Override
+    public void insert(State e, double p) {
+      delegate.insert(e, p);
+    }
+
+    @Override
+    public boolean replace(State old, State e, double p) {
+      return delegate.replace(old, e, p);
+    }
+
+    @Override
+    public State extract_min() {
+      ++counters.extracted;
+      return delegate.extract_min();
+    }
+
+    @Override
+    public double peek_min_key() {
+      return delegate.peek_min_key();
+    }
+
+    @Override
+    public boolean empty() {
+      return delegate.empty();
+    }
+
+    @Override
+    public int size() {
+      return delegate.size();
+    }
+  }
+
+  @Setup
+  public void setup() {
+    var streetEdges = SerializedGraphFixture.isSynthetic(graph)
+      ? createGrid()
+      : new ArrayList<>(SerializedGraphFixture.load(graph).graph.getStreetEdges());
+
+    var sample = new ArrayList<Vertex>();
+    for (StreetEdge e : streetEdges) {
+      if (e.canTraverse(TraverseMode.WALK)) {
+        sample.add(e.getFromVertex());
+      }
+    }
+    Collections.shuffle(sample, new Random(5));
+    this.origins = sample.subList(0, Math.min(nOrigins, sample.size())).toArray(new Vertex[0]);
+    this.request = new RouteRequest();
+  }
+
+  @Benchmark
+  public int search(Counters counters) {
+    ++counters.searches;
+    var origin = origins[next];
+    next = (next + 1) % origins.length;
+
+    var spt = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(Duration.ofMinutes(maxDurationMinutes)))
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(StreetMode.WALK))
+      .setFrom(origin)
+      .setTraverseVisitor(counters)
+      .setSearchQueue(() -> new CountingQueue(createQueue(), counters))
+      .getShortestPathTree();
+    return spt.getVertexCount();
+  }
+
+  private SearchQueue<State> createQueue() {
+    return switch (queue) {
+      case "BinHeap" -> new BinHeap<>(1000);
+      case "IndexedDaryHeap" -> new IndexedDaryHeap<>();
+      case "BucketQueue" -> new BucketQueue<>(1.0);
+      default -> throw new IllegalArgumentException("Unknown queue: " + queue);
+    };
+  }
+
+  private static List<StreetEdge> createGrid() {
+    var graph = new Graph(new Deduplicator());
+    var vertices = new IntersectionVertex[GRID_SIZE][GRID_SIZE];
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        vertices[i][j] =
+          intersectionVertex(
+            "V" + i + "_" + j,
+            59.9 + i * GRID_STEP_DEGREES,
+            10.7 + j * GRID_STEP_DEGREES
+          );
+        graph.addVertex(vertices[i][j]);
+      }
+    }
+    var edges = new ArrayList<StreetEdge>();
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        if (i + 1 < GRID_SIZE) {
+          edges.add(streetEdge(vertices[i][j], vertices[i + 1][j]));
+          edges.add(streetEdge(vertices[i + 1][j], vertices[i][j]));
+        }
+        if (j + 1 < GRID_SIZE) {
+          edges.add(streetEdge(vertices[i][j], vertices[i][j + 1]));
+          edges.add(streetEdge(vertices[i][j + 1], vertices[i][j]));
+        }
+      }
+    }
+    return edges;
+  }
+}
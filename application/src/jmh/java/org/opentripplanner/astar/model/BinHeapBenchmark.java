@@ -0,0 +1,87 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the {@link BinHeap} used as priority queue in the A* street search.
+ * <ul>
+ *   <li>{@code insertThenExtractAll} - insert all elements, then empty the queue.</li>
+ *   <li>{@code searchPattern} - simulate a Dijkstra/A* search; each extracted element is replaced
+ *   by a few new elements with a higher priority (weight), until the queue is empty.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class BinHeapBenchmark {
+
+  private static final int BRANCHING = 3;
+
+  @Param({ "1000", "100000" })
+  public int size;
+
+  private Integer[] elements;
+  private double[] priorities;
+  private double[] edgeWeights;
+
+  @Setup
+  public void setup() {
+    var random = new Random(11);
+    this.elements = new Integer[size];
+    this.priorities = new double[size];
+    this.edgeWeights = new double[size * BRANCHING];
+    for (int i = 0; i < size; ++i) {
+      elements[i] = i;
+      priorities[i] = random.nextDouble() * 10_000.0;
+    }
+    for (int i = 0; i < edgeWeights.length; ++i) {
+      edgeWeights[i] = 1.0 + random.nextDouble() * 100.0;
+    }
+  }
+
+  @Benchmark
+  public int insertThenExtractAll() {
+    var heap = new BinHeap<Integer>();
+    for (int i = 0; i < size; ++i) {
+      heap.insert(elements[i], priorities[i]);
+    }
+    int sum = 0;
+    while (!heap.empty()) {
+      sum += heap.extract_min();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int searchPattern() {
+    var heap = new BinHeap<Integer>();
+    heap.insert(elements[0], 0.0);
+    int inserted = 1;
+    int w = 0;
+    int sum = 0;
+
+    while (!heap.empty()) {
+      double weight = heap.peek_min_key();
+      sum += heap.extract_min();
+      for (int b = 0; b < BRANCHING && inserted < size; ++b) {
+        heap.insert(elements[inserted++], weight + edgeWeights[w++]);
+      }
+    }
+    return sum;
+  }
+}
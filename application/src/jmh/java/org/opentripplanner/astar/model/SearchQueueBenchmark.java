@@ -0,0 +1,131 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the {@link SearchQueue} implementations, with the same operations as the
+ * {@link BinHeapBenchmark}, and a search where some elements are replaced by an element with a
+ * lower key:
+ * <ul>
+ *   <li>{@code insertThenExtractAll} - insert all elements, then empty the queue.</li>
+ *   <li>{@code searchPattern} - each extracted element is followed by a few new elements with a
+ *   higher key, until the queue is empty.</li>
+ *   <li>{@code searchPatternWithReplace} - as {@code searchPattern}, but every fourth new element
+ *   replaces the previous element with a lower key. Queues which do not support replace insert
+ *   the element, and the dominated element is extracted and skipped later.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SearchQueueBenchmark {
+
+  private static final int BRANCHING = 3;
+
+  /** Weights in seconds, the bucket queue use buckets of one second. */
+  private static final double BUCKET_WIDTH = 1.0;
+
+  @Param({ "BinHeap", "IndexedDaryHeap", "BucketQueue" })
+  public String queue;
+
+  @Param({ "1000", "100000" })
+  public int size;
+
+  private Integer[] elements;
+  private double[] priorities;
+  private double[] edgeWeights;
+
+  @Setup
+  public void setup() {
+    var random = new Random(11);
+    this.elements = new Integer[size];
+    this.priorities = new double[size];
+    this.edgeWeights = new double[size * BRANCHING];
+    for (int i = 0; i < size; ++i) {
+      elements[i] = i;
+      priorities[i] = random.nextDouble() * 10_000.0;
+    }
+    for (int i = 0; i < edgeWeights.length; ++i) {
+      edgeWeights[i] = 1.0 + random.nextDouble() * 100.0;
+    }
+  }
+
+  @Benchmark
+  public int insertThenExtractAll() {
+    var heap = createQueue();
+    for (int i = 0; i < size; ++i) {
+      heap.insert(elements[i], priorities[i]);
+    }
+    int sum = 0;
+    while (!heap.empty()) {
+      sum += heap.extract_min();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int searchPattern() {
+    var heap = createQueue();
+    heap.insert(elements[0], 0.0);
+    int inserted = 1;
+    int w = 0;
+    int sum = 0;
+
+    while (!heap.empty()) {
+      double weight = heap.peek_min_key();
+      sum += heap.extract_min();
+      for (int b = 0; b < BRANCHING && inserted < size; ++b) {
+        heap.insert(elements[inserted++], weight + edgeWeights[w++]);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int searchPatternWithReplace() {
+    var heap = createQueue();
+    heap.insert(elements[0], 0.0);
+    int inserted = 1;
+    int w = 0;
+    int extracted = 0;
+
+    while (!heap.empty()) {
+      double weight = heap.peek_min_key();
+      heap.extract_min();
+      ++extracted;
+      for (int b = 0; b < BRANCHING && inserted < size; ++b) {
+        double p = weight + edgeWeights[w++];
+        Integer e = elements[inserted++];
+        if (inserted % 4 == 0 && heap.replace(elements[inserted - 2], e, p - 1.0)) {
+          continue;
+        }
+        heap.insert(e, p);
+      }
+    }
+    return extracted;
+  }
+
+  private SearchQueue<Integer> createQueue() {
+    return switch (queue) {
+      case "BinHeap" -> new BinHeap<>();
+      case "IndexedDaryHeap" -> new IndexedDaryHeap<>();
+      case "BucketQueue" -> new BucketQueue<>(BUCKET_WIDTH);
+      default -> throw new IllegalArgumentException("Unknown queue: " + queue);
+    };
+  }
+}
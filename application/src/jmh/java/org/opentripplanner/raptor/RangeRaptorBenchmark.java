@@ -0,0 +1,148 @@
+package org.opentripplanner.raptor;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.GeneralizedCostParameters;
+
+/**
+ * Benchmark a complete Range Raptor search on a synthetic network. This includes the
+ * {@link org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker}, the worker state and
+ * the heuristic searches. The network is random, but generated with a fixed seed, so it is the
+ * same for all runs.
+ * <p>
+ * This is not a replacement for the SpeedTest, the synthetic network does not have the same
+ * characteristics as a real network. Use it to detect regressions in the algorithm
+ * implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+public class RangeRaptorBenchmark {
+
+  private static final int SERVICE_START = 5 * 3600;
+  private static final int SERVICE_END = 24 * 3600;
+  private static final int EDT = 8 * 3600;
+  private static final int LAT = 12 * 3600;
+  private static final int N_STOPS_IN_PATTERN = 20;
+  private static final int N_TRANSFERS_PER_STOP = 3;
+  private static final int N_ACCESS_EGRESS = 5;
+
+  @Param({ "STANDARD", "MULTI_CRITERIA" })
+  public RaptorProfile profile;
+
+  @Param({ "2000" })
+  public int nStops;
+
+  @Param({ "300" })
+  public int nRoutes;
+
+  @Param({ "3600" })
+  public int searchWindowSeconds;
+
+  private final RaptorService<TestTripSchedule> service = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+  private TestTransitData data;
+  private RaptorRequest<TestTripSchedule> request;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    this.data = new BenchmarkTransitData();
+
+    for (int r = 0; r < nRoutes; ++r) {
+      // Routes wander through neighbouring stop indexes, this make the routes intersect
+      var stops = new int[N_STOPS_IN_PATTERN];
+      stops[0] = random.nextInt(nStops);
+      for (int i = 1; i < N_STOPS_IN_PATTERN; ++i) {
+        int next = stops[i - 1] + 1 + random.nextInt(nStops / 50);
+        stops[i] = next % nStops;
+      }
+      var route = TestRoute.route(TestTripPattern.pattern("R" + r, stops));
+      int headway = 300 + 60 * random.nextInt(25);
+      int hopTime = 60 + 30 * random.nextInt(6);
+
+      for (int t = SERVICE_START + random.nextInt(headway); t < SERVICE_END; t += headway) {
+        var times = new int[N_STOPS_IN_PATTERN];
+        times[0] = t;
+        for (int i = 1; i < N_STOPS_IN_PATTERN; ++i) {
+          times[i] = times[i - 1] + hopTime;
+        }
+        route.withTimetable(TestTripSchedule.schedule().times(times));
+      }
+      data.withRoute(route);
+    }
+
+    for (int s = 0; s < nStops; ++s) {
+      for (int i = 0; i < N_TRANSFERS_PER_STOP; ++i) {
+        int toStop = (s + 1 + random.nextInt(10)) % nStops;
+        data.withTransfer(s, TestTransfer.transfer(toStop, 60 + random.nextInt(600)));
+      }
+    }
+
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .earliestDepartureTime(EDT)
+      .latestArrivalTime(LAT)
+      .searchWindowInSeconds(searchWindowSeconds)
+      .timetable(true);
+
+    for (int i = 0; i < N_ACCESS_EGRESS; ++i) {
+      builder
+        .searchParams()
+        .addAccessPaths(TestAccessEgress.walk(random.nextInt(nStops / 10), 60 + 60 * i));
+      builder
+        .searchParams()
+        .addEgressPaths(
+          TestAccessEgress.walk(nStops / 2 + random.nextInt(nStops / 10), 60 + 60 * i)
+        );
+    }
+    this.request = builder.build();
+  }
+
+  @Benchmark
+  public int route() {
+    return service.route(request, data).paths().size();
+  }
+
+  /**
+   * The test data has a fixed size array for the stop board/alight costs, which is too small for
+   * the benchmark network. The benchmark does not use these costs.
+   */
+  private static class BenchmarkTransitData extends TestTransitData {
+
+    @Override
+    public RaptorCostCalculator<TestTripSchedule> multiCriteriaCostCalculator() {
+      var parameters = GeneralizedCostParameters.of().build();
+      return CostCalculatorFactory.createCostCalculator(parameters, null);
+    }
+  }
+}
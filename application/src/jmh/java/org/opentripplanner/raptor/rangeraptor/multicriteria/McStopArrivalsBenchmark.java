@@ -0,0 +1,129 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.rangeraptor.debug.DebugHandlerFactory;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
+import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+
+/**
+ * Benchmark the {@link McStopArrivals} and the {@link StopArrivalParetoSet}s it holds, one set
+ * per stop. The benchmark simulates the rounds of a multi-criteria search: a set of pre-generated
+ * stop arrivals are added round by round, and the stop markers are reset at the end of each
+ * round. The arrivals are random, so many of them are rejected or dropped by the pareto sets.
+ * <p>
+ * The stop arrivals are created up front, so the allocation reported is the allocation done by the
+ * stop arrival state itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class McStopArrivalsBenchmark {
+
+  private static final int DEPARTURE_TIME = 8 * 3600;
+  private static final StopArrivalFactoryC1<TestTripSchedule> STOP_ARRIVAL_FACTORY = new StopArrivalFactoryC1<>();
+  private static final ArrivalParetoSetComparatorFactory<McStopArrival<TestTripSchedule>> COMPARATOR_FACTORY = ArrivalParetoSetComparatorFactory.factory(
+    RelaxFunction.NORMAL,
+    null
+  );
+
+  @Param({ "10000" })
+  public int nStops;
+
+  @Param({ "5" })
+  public int nRounds;
+
+  @Param({ "2000", "20000" })
+  public int arrivalsPerRound;
+
+  private McStopArrival<TestTripSchedule>[][] rounds;
+  private EgressPaths egressPaths;
+  private DebugHandlerFactory<TestTripSchedule> debugHandlerFactory;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    var random = new Random(17);
+    this.egressPaths = EgressPaths.create(List.of(), RaptorProfile.MULTI_CRITERIA);
+    this.debugHandlerFactory =
+      new DebugHandlerFactory<>(
+        new RaptorRequestBuilder<TestTripSchedule>().debug().build(),
+        new LifeCycleSubscriptions()
+      );
+    this.rounds = new McStopArrival[nRounds + 1][];
+
+    // Round 0 is the access arrivals
+    var access = new McStopArrival[Math.min(nStops, 100)];
+    for (int i = 0; i < access.length; ++i) {
+      var path = TestAccessEgress.walk(random.nextInt(nStops), 60 + random.nextInt(1200));
+      access[i] = STOP_ARRIVAL_FACTORY.createAccessStopArrival(DEPARTURE_TIME, path);
+    }
+    rounds[0] = access;
+
+    for (int r = 1; r <= nRounds; ++r) {
+      var prevRound = rounds[r - 1];
+      var round = new McStopArrival[arrivalsPerRound];
+      for (int i = 0; i < arrivalsPerRound; ++i) {
+        var prev = prevRound[random.nextInt(prevRound.length)];
+        int duration = 30 + random.nextInt(900);
+        var transfer = TestTransfer.transfer(
+          random.nextInt(nStops),
+          duration,
+          random.nextInt(100_000)
+        );
+        round[i] =
+          STOP_ARRIVAL_FACTORY.createTransferStopArrival(
+            prev,
+            transfer,
+            prev.arrivalTime() + duration
+          );
+      }
+      rounds[r] = round;
+    }
+  }
+
+  @Benchmark
+  public boolean addStopArrivals() {
+    var subject = new McStopArrivals<>(
+      nStops,
+      egressPaths,
+      null,
+      null,
+      null,
+      STOP_ARRIVAL_FACTORY,
+      COMPARATOR_FACTORY,
+      debugHandlerFactory
+    );
+    for (var round : rounds) {
+      for (var arrival : round) {
+        subject.addStopArrival(arrival);
+      }
+      subject.clearTouchedStopsAndSetStopMarkers();
+    }
+    return subject.updateExist();
+  }
+}
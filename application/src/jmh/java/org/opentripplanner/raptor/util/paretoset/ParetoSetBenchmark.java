@@ -0,0 +1,71 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark {@link ParetoSet#add(Object)}. A fixed sequence of random vectors is added to an empty
+ * set. The number of criteria and the size of the value range controls how many elements are
+ * kept in the set. A small range gives many equal elements, and few elements in the set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<TestVector> TWO_CRITERIA = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2;
+  private static final ParetoComparator<TestVector> THREE_CRITERIA = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3;
+
+  @Param({ "2", "3" })
+  public int criteria;
+
+  @Param({ "1000" })
+  public int numberOfElements;
+
+  @Param({ "100", "10000" })
+  public int valueRange;
+
+  private TestVector[] vectors;
+  private ParetoComparator<TestVector> comparator;
+
+  @Setup
+  public void setup() {
+    var random = new Random(13);
+    this.comparator = criteria == 2 ? TWO_CRITERIA : THREE_CRITERIA;
+    this.vectors = new TestVector[numberOfElements];
+    for (int i = 0; i < numberOfElements; ++i) {
+      vectors[i] =
+        new TestVector(
+          "V" + i,
+          random.nextInt(valueRange),
+          random.nextInt(valueRange),
+          random.nextInt(valueRange)
+        );
+    }
+  }
+
+  @Benchmark
+  public int add() {
+    var set = new ParetoSet<>(comparator);
+    for (TestVector v : vectors) {
+      set.add(v);
+    }
+    return set.size();
+  }
+}
@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.algorithm.filterchain;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Place;
+import org.opentripplanner.model.plan.SortOrder;
+import org.opentripplanner.model.plan.TestItineraryBuilder;
+import org.opentripplanner.routing.api.request.framework.CostLinearFunction;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+
+/**
+ * Benchmark the default {@link ItineraryListFilterChain}. The input is a list of random
+ * itineraries: walk-only, direct bus and bus + rail with a transfer. The filters flag the
+ * itineraries for removal, so a new list is created before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ItineraryListFilterChainBenchmark {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final Place A = Place.forStop(TEST_MODEL.stop("A").build());
+  private static final Place B = Place.forStop(TEST_MODEL.stop("B").build());
+  private static final Place C = Place.forStop(TEST_MODEL.stop("C").build());
+  private static final Place D = Place.forStop(TEST_MODEL.stop("D").build());
+
+  private static final int START_TIME = 11 * 3600;
+  private static final Duration SEARCH_WINDOW = Duration.ofHours(1);
+
+  @Param({ "20", "200" })
+  public int nItineraries;
+
+  private ItineraryListFilterChain chain;
+  private List<Itinerary> itineraries;
+  private Random random;
+
+  @Setup(Level.Trial)
+  public void setupChain() {
+    this.random = new Random(5);
+    this.chain =
+      new ItineraryListFilterChainBuilder(SortOrder.STREET_AND_ARRIVAL_TIME)
+        .withMaxNumberOfItineraries(50)
+        .withRemoveTransitWithHigherCostThanBestOnStreetOnly(
+          CostLinearFunction.of(Duration.ofMinutes(30), 2.0)
+        )
+        .withSearchWindow(TestItineraryBuilder.newTime(START_TIME).toInstant(), SEARCH_WINDOW)
+        .build();
+  }
+
+  @Setup(Level.Invocation)
+  public void setupItineraries() {
+    var list = new ArrayList<Itinerary>(nItineraries);
+    // One walk-all-the-way itinerary
+    list.add(newItinerary(A, START_TIME).walk(3600, D).build());
+
+    for (int i = 1; i < nItineraries; ++i) {
+      int t = START_TIME + random.nextInt((int) SEARCH_WINDOW.toSeconds());
+      int ride = 300 + random.nextInt(1800);
+      if (random.nextBoolean()) {
+        list.add(newItinerary(A, t).walk(120, B).bus(i, t + 180, t + 180 + ride, D).build());
+      } else {
+        int t2 = t + 180 + ride + 120 + random.nextInt(600);
+        list.add(
+          newItinerary(A, t)
+            .walk(120, B)
+            .bus(i, t + 180, t + 180 + ride, C)
+            .rail(i, t2, t2 + ride, D)
+            .build()
+        );
+      }
+    }
+    this.itineraries = list;
+  }
+
+  @Benchmark
+  public int filter() {
+    return chain.filter(itineraries).size();
+  }
+}
@@ -0,0 +1,127 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor._data.transit.TestTripSearchTimetable;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Benchmark the {@link TripScheduleBoardSearch}. The pattern has a fixed number of stops and
+ * {@code nTrips} trips with a random headway, spread over the service day. Each benchmark
+ * operation performs {@link #N_SEARCHES} searches with random board times and stop positions.
+ * <p>
+ * The {@code boardUnbounded} benchmark is the first search in a Raptor round, while
+ * {@code boardWithUpperBound} simulates the following Range Raptor iterations, where the search
+ * starts at the trip found in the previous iteration.
+ * <p>
+ * The {@code useDepartureTimeIndex} parameter compares the binary search with the
+ * {@link DepartureTimeIndex}, the index is created in the setup, not in the benchmark.
+ * <p>
+ * The {@code createDepartureTimeIndexes} benchmark measures the first-use cost: creating the
+ * index for all stop positions in the pattern. It does not depend on the
+ * {@code useDepartureTimeIndex} parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final int N_STOPS = 10;
+  private static final int N_SEARCHES = 1024;
+  private static final int BINARY_SEARCH_THRESHOLD = 50;
+  private static final int SERVICE_START = 4 * 3600;
+  private static final int SERVICE_END = 26 * 3600;
+
+  @Param({ "20", "200", "2000", "20000" })
+  public int nTrips;
+
+  @Param({ "false", "true" })
+  public boolean useDepartureTimeIndex;
+
+  private TestTripSearchTimetable timetable;
+  private RaptorTripScheduleSearch<TestTripSchedule> search;
+  private final int[] boardTimes = new int[N_SEARCHES];
+  private final int[] stopPositions = new int[N_SEARCHES];
+
+  @Setup
+  public void setup() {
+    var random = new Random(7);
+    var stops = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i;
+    }
+    var route = TestRoute.route(TestTripPattern.pattern("R1", stops));
+    int avgHeadway = (SERVICE_END - SERVICE_START) / nTrips;
+    int time = SERVICE_START;
+
+    for (int i = 0; i < nTrips; ++i) {
+      time += 1 + random.nextInt(2 * avgHeadway);
+      var times = new int[N_STOPS];
+      times[0] = time;
+      for (int s = 1; s < N_STOPS; ++s) {
+        times[s] = times[s - 1] + 120;
+      }
+      route.withTimetable(TestTripSchedule.schedule().times(times));
+    }
+    this.timetable = new TestTripSearchTimetable(route);
+    for (int s = 0; s < N_STOPS; ++s) {
+      timetable.getDepartureTimeIndex(s);
+    }
+    this.search =
+      new TripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD, useDepartureTimeIndex);
+
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      boardTimes[i] = SERVICE_START + random.nextInt(SERVICE_END - SERVICE_START);
+      stopPositions[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public int boardUnbounded() {
+    int sum = 0;
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      sum += search.search(boardTimes[i], stopPositions[i]).tripIndex();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int createDepartureTimeIndexes() {
+    int sum = 0;
+    for (int s = 0; s < N_STOPS; ++s) {
+      var index = DepartureTimeIndex.of(timetable.getDepartureTimes(s), nTrips);
+      sum += index.tripIndexUpperBound(SERVICE_START);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int boardWithUpperBound() {
+    int sum = 0;
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      // Simulate the next Range Raptor iteration, one minute earlier
+      int upperBound = search.search(boardTimes[i], stopPositions[i]).tripIndex();
+      if (upperBound >= 0) {
+        sum += search.search(boardTimes[i] - 60, stopPositions[i], upperBound).tripIndex();
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,132 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner._benchmark.SerializedGraphFixture;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Benchmark {@link StreetEdge#traverse(State)}. A random sample of {@code nEdges} street edges
+ * which allow the given mode is traversed, one state per edge. The states are created during
+ * setup, so only the allocations done by the traversal are measured.
+ * <p>
+ * The edges are taken from a synthetic grid, or from a serialized graph if the {@code graph}
+ * parameter is set to the path of a {@code graph.obj} file:
+ * <pre>
+ * -p graph=test/performance/norway/graph.obj
+ * </pre>
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StreetEdgeTraverseBenchmark {
+
+  private static final int GRID_SIZE = 100;
+  private static final double GRID_STEP_DEGREES = 0.001;
+
+  @Param({ SerializedGraphFixture.SYNTHETIC })
+  public String graph;
+
+  @Param({ "WALK", "BICYCLE", "CAR" })
+  public TraverseMode mode;
+
+  @Param({ "10000" })
+  public int nEdges;
+
+  private StreetEdge[] edges;
+  private State[] states;
+
+  @Setup
+  public void setup() {
+    var allEdges = SerializedGraphFixture.isSynthetic(graph)
+      ? createGrid()
+      : new ArrayList<>(SerializedGraphFixture.load(graph).graph.getStreetEdges());
+
+    var modes = new TraverseModeSet(mode);
+    var sample = new ArrayList<StreetEdge>();
+    for (StreetEdge e : allEdges) {
+      if (e.canTraverse(modes)) {
+        sample.add(e);
+      }
+    }
+    Collections.shuffle(sample, new Random(3));
+
+    int n = Math.min(nEdges, sample.size());
+    var request = StreetSearchRequest.of().withMode(streetMode()).build();
+    this.edges = new StreetEdge[n];
+    this.states = new State[n];
+    for (int i = 0; i < n; ++i) {
+      edges[i] = sample.get(i);
+      states[i] = new State(edges[i].getFromVertex(), request);
+    }
+  }
+
+  @Benchmark
+  public void traverse(Blackhole bh) {
+    for (int i = 0; i < edges.length; ++i) {
+      bh.consume(edges[i].traverse(states[i]));
+    }
+  }
+
+  private StreetMode streetMode() {
+    return switch (mode) {
+      case WALK -> StreetMode.WALK;
+      case BICYCLE -> StreetMode.BIKE;
+      case CAR -> StreetMode.CAR;
+      default -> throw new IllegalArgumentException("Mode not supported: " + mode);
+    };
+  }
+
+  private static List<StreetEdge> createGrid() {
+    var vertices = new IntersectionVertex[GRID_SIZE][GRID_SIZE];
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        vertices[i][j] =
+          intersectionVertex(
+            "V" + i + "_" + j,
+            59.9 + i * GRID_STEP_DEGREES,
+            10.7 + j * GRID_STEP_DEGREES
+          );
+      }
+    }
+    var edges = new ArrayList<StreetEdge>();
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        if (i + 1 < GRID_SIZE) {
+          edges.add(streetEdge(vertices[i][j], vertices[i + 1][j]));
+          edges.add(streetEdge(vertices[i + 1][j], vertices[i][j]));
+        }
+        if (j + 1 < GRID_SIZE) {
+          edges.add(streetEdge(vertices[i][j], vertices[i][j + 1]));
+          edges.add(streetEdge(vertices[i][j + 1], vertices[i][j]));
+        }
+      }
+    }
+    return edges;
+  }
+}
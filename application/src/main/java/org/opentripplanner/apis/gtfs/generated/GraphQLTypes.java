@@ -3350,6 +3350,7 @@ public class GraphQLTypes {
     private String after;
     private String before;
     private GraphQLPlanDateTimeInput dateTime;
+    private Boolean departureProfile;
     private GraphQLPlanLabeledLocationInput destination;
     private Integer first;
     private GraphQLPlanItineraryFilterInput itineraryFilter;
@@ -3365,6 +3366,7 @@ public class GraphQLTypes {
         this.after = (String) args.get("after");
         this.before = (String) args.get("before");
         this.dateTime = new GraphQLPlanDateTimeInput((Map<String, Object>) args.get("dateTime"));
+        this.departureProfile = (Boolean) args.get("departureProfile");
         this.destination =
           new GraphQLPlanLabeledLocationInput((Map<String, Object>) args.get("destination"));
         this.first = (Integer) args.get("first");
@@ -3392,6 +3394,10 @@ public class GraphQLTypes {
       return this.dateTime;
     }
 
+    public Boolean getGraphQLDepartureProfile() {
+      return this.departureProfile;
+    }
+
     public GraphQLPlanLabeledLocationInput getGraphQLDestination() {
       return this.destination;
     }
@@ -3440,6 +3446,10 @@ public class GraphQLTypes {
       this.dateTime = dateTime;
     }
 
+    public void setGraphQLDepartureProfile(Boolean departureProfile) {
+      this.departureProfile = departureProfile;
+    }
+
     public void setGraphQLDestination(GraphQLPlanLabeledLocationInput destination) {
       this.destination = destination;
     }
@@ -39,6 +39,10 @@ public class RouteRequestMapper {
     request.setFrom(parseGenericLocation(args.getGraphQLOrigin()));
     request.setTo(parseGenericLocation(args.getGraphQLDestination()));
     request.setLocale(GraphQLUtils.getLocale(environment, args.getGraphQLLocale()));
+    if (Boolean.TRUE.equals(args.getGraphQLDepartureProfile())) {
+      request.setDepartureProfile(true);
+    }
+
     if (args.getGraphQLSearchWindow() != null) {
       request.setSearchWindow(
         DurationUtils.requireNonNegativeMax2days(args.getGraphQLSearchWindow(), "searchWindow")
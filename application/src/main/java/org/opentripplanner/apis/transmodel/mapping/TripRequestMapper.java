@@ -69,6 +69,7 @@ public class TripRequestMapper {
     );
     callWith.argument("pageCursor", request::setPageCursorFromEncoded);
     callWith.argument("timetableView", request::setTimetableView);
+    callWith.argument("departureProfile", request::setDepartureProfile);
     callWith.argument("wheelchairAccessible", request::setWheelchair);
     callWith.argument("numTripPatterns", request::setNumItineraries);
     callWith.argument("arriveBy", request::setArriveBy);
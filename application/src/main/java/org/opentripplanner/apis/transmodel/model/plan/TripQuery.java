@@ -160,6 +160,22 @@ public class TripQuery {
           .type(Scalars.GraphQLBoolean)
           .build()
       )
+      .argument(
+        GraphQLArgument
+          .newArgument()
+          .name("departureProfile")
+          .description(
+            "Return all pareto-optimal trip patterns departing within the search window, " +
+            "not only the first `numTripPatterns`. The search is done as one Range Raptor " +
+            "search, this is much faster than paging through the same period. If the " +
+            "`searchWindow` is not set, the next 24 hours are searched(limited by the max " +
+            "search window). This can not be combined with `arriveBy=true`, and the " +
+            "`timetableView` is always `true`."
+          )
+          .type(Scalars.GraphQLBoolean)
+          .defaultValue(false)
+          .build()
+      )
       .argument(
         GraphQLArgument
           .newArgument()
@@ -7,13 +7,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.opentripplanner.astar.model.BinHeap;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.AdjacencyOverlay;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.SearchQueue;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
-import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -46,8 +47,11 @@ public class AStar<
   private final TraverseVisitor<State, Edge> traverseVisitor;
   private final Duration timeout;
 
+  @Nullable
+  private final AdjacencyOverlay<State, Edge, Vertex> adjacencyOverlay;
+
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final SearchQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -61,9 +65,11 @@ public class AStar<
     Set<Vertex> fromVertices,
     Set<Vertex> toVertices,
     SearchTerminationStrategy<State> terminationStrategy,
-    DominanceFunction<State> dominanceFunction,
+    ShortestPathTree<State, Edge, Vertex> spt,
     Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    SearchQueue<State> searchQueue,
+    @Nullable AdjacencyOverlay<State, Edge, Vertex> adjacencyOverlay
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -73,11 +79,10 @@ public class AStar<
     this.arriveBy = arriveBy;
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
+    this.adjacencyOverlay = adjacencyOverlay;
 
-    this.spt = new ShortestPathTree<>(dominanceFunction);
-
-    // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.spt = spt;
+    this.pq = searchQueue;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -133,8 +138,7 @@ public class AStar<
       LOG.debug("   vertex {}", u_vertex);
     }
 
-    Collection<Edge> edges = arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing();
-    for (Edge edge : edges) {
+    for (Edge edge : edges(u_vertex)) {
       if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
         continue;
       }
@@ -174,7 +178,11 @@ public class AStar<
           if (traverseVisitor != null) {
             traverseVisitor.visitEnqueue();
           }
-          pq.insert(v, estimate);
+          // drop the dominated state from the queue, if the queue supports it
+          State replaced = spt.getReplacedState();
+          if (replaced == null || !pq.replace(replaced, v, estimate)) {
+            pq.insert(v, estimate);
+          }
         }
       }
     }
@@ -182,6 +190,13 @@ public class AStar<
     return true;
   }
 
+  private Collection<Edge> edges(Vertex vertex) {
+    if (adjacencyOverlay == null) {
+      return arriveBy ? vertex.getIncoming() : vertex.getOutgoing();
+    }
+    return arriveBy ? adjacencyOverlay.getIncoming(vertex) : adjacencyOverlay.getOutgoing(vertex);
+  }
+
   private void runSearch() {
     OTPRequestTimeoutException.checkForTimeout();
     long abortTime = DateUtils.absoluteTimeout(timeout);
@@ -6,7 +6,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.AdjacencyOverlay;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.SearchQueue;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -35,6 +40,9 @@ public abstract class AStarBuilder<
   private DominanceFunction<State> dominanceFunction;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  // Initialized with a reasonable size, see #4445
+  private Supplier<SearchQueue<State>> searchQueueFactory = () -> new BinHeap<>(1000);
+  private ShortestPathTree<State, Edge, Vertex> shortestPathTree;
 
   protected AStarBuilder() {}
 
@@ -109,6 +117,28 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * The priority queue used by the search, a new queue is created for each search. The default
+   * is a {@link BinHeap}. Use an {@link org.opentripplanner.astar.model.IndexedDaryHeap} to drop
+   * dominated states from the queue, or a {@link org.opentripplanner.astar.model.BucketQueue} for
+   * searches with a small range of weights.
+   */
+  public Builder setSearchQueue(Supplier<SearchQueue<State>> searchQueueFactory) {
+    this.searchQueueFactory = searchQueueFactory;
+    return builder;
+  }
+
+  /**
+   * Reuse the given tree for the search instead of creating a new one. The tree is cleared before
+   * the search, and its dominance function is used instead of the one set with
+   * {@link #setDominanceFunction(DominanceFunction)}. The result of a previous search using the
+   * tree is not valid after this.
+   */
+  public Builder setShortestPathTree(ShortestPathTree<State, Edge, Vertex> shortestPathTree) {
+    this.shortestPathTree = shortestPathTree;
+    return builder;
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
     return build().getShortestPathTree();
   }
@@ -146,12 +176,37 @@ public abstract class AStarBuilder<
       origin,
       destination,
       terminationStrategy,
-      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      createShortestPathTree(),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      searchQueueFactory.get(),
+      createAdjacencyOverlay(origin, destination, initialStates)
     );
   }
 
+  private ShortestPathTree<State, Edge, Vertex> createShortestPathTree() {
+    if (shortestPathTree != null) {
+      shortestPathTree.clear();
+      return shortestPathTree;
+    }
+    return new ShortestPathTree<>(
+      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction)
+    );
+  }
+
+  /**
+   * Create the overlay with the edges only visible to this search, see {@link AdjacencyOverlay}.
+   * Return {@code null} if there are none, this is the default.
+   */
+  @Nullable
+  protected AdjacencyOverlay<State, Edge, Vertex> createAdjacencyOverlay(
+    @Nullable Set<Vertex> origin,
+    @Nullable Set<Vertex> destination,
+    Collection<State> initialStates
+  ) {
+    return null;
+  }
+
   protected abstract Collection<State> createInitialStates(Set<Vertex> originVertices);
 
   protected abstract void prepareInitialStates(Collection<State> initialStates);
@@ -0,0 +1,68 @@
+package org.opentripplanner.astar.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+
+/**
+ * Edges which are only visible to a single search. The edges linking the origin and destination
+ * of a request to the graph are only added to the edge lists of the temporary vertices created
+ * for the request, not to the graph vertices they connect to. This keeps the graph unchanged
+ * while routing, so concurrent requests do not contend on the edge lists or see each other's
+ * edges. The overlay adds these edges to the graph vertices for the duration of the search.
+ */
+public class AdjacencyOverlay<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private final Map<Vertex, List<Edge>> outgoing = new IdentityHashMap<>();
+  private final Map<Vertex, List<Edge>> incoming = new IdentityHashMap<>();
+
+  /** Add an edge to the outgoing edges of its from vertex. */
+  public void addOutgoing(Edge edge) {
+    add(outgoing, edge.getFromVertex(), edge);
+  }
+
+  /** Add an edge to the incoming edges of its to vertex. */
+  public void addIncoming(Edge edge) {
+    add(incoming, edge.getToVertex(), edge);
+  }
+
+  public boolean isEmpty() {
+    return outgoing.isEmpty() && incoming.isEmpty();
+  }
+
+  /** The outgoing edges of the vertex, including the edges of this overlay. */
+  public Collection<Edge> getOutgoing(Vertex vertex) {
+    return combine(vertex.getOutgoing(), outgoing.get(vertex));
+  }
+
+  /** The incoming edges of the vertex, including the edges of this overlay. */
+  public Collection<Edge> getIncoming(Vertex vertex) {
+    return combine(vertex.getIncoming(), incoming.get(vertex));
+  }
+
+  private void add(Map<Vertex, List<Edge>> edges, Vertex vertex, Edge edge) {
+    var list = edges.computeIfAbsent(vertex, v -> new ArrayList<>(2));
+    if (!list.contains(edge)) {
+      list.add(edge);
+    }
+  }
+
+  private static <E> Collection<E> combine(Collection<E> edges, List<E> extra) {
+    if (extra == null) {
+      return edges;
+    }
+    var result = new ArrayList<E>(edges.size() + extra.size());
+    result.addAll(edges);
+    result.addAll(extra);
+    return result;
+  }
+}
@@ -0,0 +1,157 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+
+/**
+ * A bucket queue for searches with a small range of keys, like the duration-limited access and
+ * egress searches. The keys are grouped into buckets of a fixed width, kept in a ring of
+ * {@link #NUMBER_OF_BUCKETS} buckets starting at the bucket of the last extracted element.
+ * Insert is constant time, and extract only scans the elements in the first non-empty bucket.
+ * <p>
+ * Keys beyond the last bucket in the ring are kept in an overflow heap, and moved into the ring
+ * as the search advances. The queue returns the elements in exact key order, also if a key is
+ * lower than the key of the last extracted element, like with an inconsistent heuristic.
+ */
+public class BucketQueue<T> implements SearchQueue<T> {
+
+  private static final int NUMBER_OF_BUCKETS = 1024;
+
+  /**
+   * Very large and infinite keys, like from a heuristic returning infinity, share the last bucket,
+   * so the bucket numbers in the ring do not overflow.
+   */
+  private static final long MAX_BUCKET = Long.MAX_VALUE - NUMBER_OF_BUCKETS;
+  private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+  private final double bucketWidth;
+  private final Object[][] bucketElem = new Object[NUMBER_OF_BUCKETS][];
+  private final double[][] bucketPrio = new double[NUMBER_OF_BUCKETS][];
+  private final int[] bucketSize = new int[NUMBER_OF_BUCKETS];
+  private final BinHeap<T> overflow = new BinHeap<>();
+
+  /** The bucket number of the first bucket in the ring, all lower buckets are empty. */
+  private long current = 0;
+  private int sizeInRing = 0;
+
+  /** The position of the minimum element in the current bucket, or -1 if not known. */
+  private int minIndex = -1;
+
+  /**
+   * @param bucketWidth the range of keys in each bucket, the number of elements in each bucket
+   *                    should be small.
+   */
+  public BucketQueue(double bucketWidth) {
+    if (!(bucketWidth > 0.0)) {
+      throw new IllegalArgumentException("The bucket width must be positive: " + bucketWidth);
+    }
+    this.bucketWidth = bucketWidth;
+  }
+
+  @Override
+  public int size() {
+    return sizeInRing + overflow.size();
+  }
+
+  @Override
+  public boolean empty() {
+    return size() == 0;
+  }
+
+  @Override
+  public void insert(T e, double p) {
+    long bucket = Math.max(bucket(p), current);
+    if (bucket >= current + NUMBER_OF_BUCKETS) {
+      overflow.insert(e, p);
+      return;
+    }
+    int b = (int) (bucket % NUMBER_OF_BUCKETS);
+    add(b, e, p);
+    if (bucket == current) {
+      minIndex = -1;
+    }
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (empty()) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    findMin();
+    return bucketPrio[ringIndex()][minIndex];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T extract_min() {
+    if (empty()) {
+      return null;
+    }
+    findMin();
+    int b = ringIndex();
+    Object[] elem = bucketElem[b];
+    double[] prio = bucketPrio[b];
+    T min = (T) elem[minIndex];
+    int last = --bucketSize[b];
+    elem[minIndex] = elem[last];
+    prio[minIndex] = prio[last];
+    elem[last] = null;
+    --sizeInRing;
+    minIndex = -1;
+    return min;
+  }
+
+  /** Advance to the first non-empty bucket and find the minimum element in it. */
+  private void findMin() {
+    if (minIndex >= 0) {
+      return;
+    }
+    if (sizeInRing == 0) {
+      current = Math.max(current, bucket(overflow.peek_min_key()));
+      moveOverflowIntoRing();
+    }
+    while (bucketSize[ringIndex()] == 0) {
+      ++current;
+      moveOverflowIntoRing();
+    }
+    int b = ringIndex();
+    double[] prio = bucketPrio[b];
+    int min = 0;
+    for (int i = 1; i < bucketSize[b]; ++i) {
+      if (prio[i] < prio[min]) {
+        min = i;
+      }
+    }
+    minIndex = min;
+  }
+
+  private void moveOverflowIntoRing() {
+    long end = current + NUMBER_OF_BUCKETS;
+    while (!overflow.empty() && bucket(overflow.peek_min_key()) < end) {
+      double p = overflow.peek_min_key();
+      add((int) (Math.max(bucket(p), current) % NUMBER_OF_BUCKETS), overflow.extract_min(), p);
+    }
+  }
+
+  private void add(int b, Object e, double p) {
+    int n = bucketSize[b];
+    if (bucketElem[b] == null) {
+      bucketElem[b] = new Object[INITIAL_BUCKET_CAPACITY];
+      bucketPrio[b] = new double[INITIAL_BUCKET_CAPACITY];
+    } else if (n == bucketElem[b].length) {
+      bucketElem[b] = Arrays.copyOf(bucketElem[b], n * 2);
+      bucketPrio[b] = Arrays.copyOf(bucketPrio[b], n * 2);
+    }
+    bucketElem[b][n] = e;
+    bucketPrio[b][n] = p;
+    bucketSize[b] = n + 1;
+    ++sizeInRing;
+  }
+
+  private int ringIndex() {
+    return (int) (current % NUMBER_OF_BUCKETS);
+  }
+
+  private long bucket(double p) {
+    return p <= 0.0 ? 0 : Math.min((long) (p / bucketWidth), MAX_BUCKET);
+  }
+}
@@ -0,0 +1,204 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+
+/**
+ * A d-ary heap with decrease-key. The position of each element in the heap is kept in an identity
+ * hash table, so an element can be replaced by another with a lower key without inserting a
+ * duplicate. The A* search uses this to drop dominated states from the queue, instead of skipping
+ * them when they come out.
+ * <p>
+ * A higher arity than two gives a shallower heap, fewer element moves on insert and decrease-key
+ * and fewer position updates, at the cost of more comparisons in extract.
+ */
+public class IndexedDaryHeap<T> implements SearchQueue<T> {
+
+  private static final int ARITY = 4;
+  private static final int NOT_FOUND = -1;
+
+  private Object[] elem;
+  private double[] prio;
+  private int size = 0;
+
+  /** The element of each slot in the position table, or null. */
+  private Object[] keys;
+
+  /** The heap position of the element in the same slot of {@link #keys}. */
+  private int[] positions;
+
+  public IndexedDaryHeap() {
+    this(1000);
+  }
+
+  public IndexedDaryHeap(int capacity) {
+    capacity = Math.max(capacity, 16);
+    this.elem = new Object[capacity];
+    this.prio = new double[capacity];
+    int tableSize = Integer.highestOneBit(capacity * 2 - 1) * 2;
+    this.keys = new Object[tableSize];
+    this.positions = new int[tableSize];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return prio[0];
+  }
+
+  @Override
+  public void insert(T e, double p) {
+    if (size == elem.length) {
+      elem = Arrays.copyOf(elem, size * 2);
+      prio = Arrays.copyOf(prio, size * 2);
+      rehash(keys.length * 2);
+    }
+    siftUp(size++, e, p);
+  }
+
+  @Override
+  public boolean replace(T old, T e, double p) {
+    int slot = slot(old);
+    if (keys[slot] == null) {
+      return false;
+    }
+    int i = positions[slot];
+    removeSlot(slot);
+    if (p <= prio[i]) {
+      siftUp(i, e, p);
+    } else {
+      siftDown(i, e, p);
+    }
+    return true;
+  }
+
+  /** @return true if the element is in the queue. */
+  public boolean contains(T e) {
+    return keys[slot(e)] != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T extract_min() {
+    if (size == 0) {
+      return null;
+    }
+    T min = (T) elem[0];
+    removeSlot(slot(min));
+    --size;
+    if (size > 0) {
+      Object last = elem[size];
+      double lastPrio = prio[size];
+      elem[size] = null;
+      siftDown(0, last, lastPrio);
+    } else {
+      elem[0] = null;
+    }
+    return min;
+  }
+
+  private void siftUp(int i, Object e, double p) {
+    while (i > 0) {
+      int parent = (i - 1) / ARITY;
+      if (prio[parent] <= p) {
+        break;
+      }
+      move(parent, i);
+      i = parent;
+    }
+    place(i, e, p);
+  }
+
+  private void siftDown(int i, Object e, double p) {
+    while (true) {
+      int first = i * ARITY + 1;
+      if (first >= size) {
+        break;
+      }
+      int end = Math.min(first + ARITY, size);
+      int min = first;
+      for (int c = first + 1; c < end; ++c) {
+        if (prio[c] < prio[min]) {
+          min = c;
+        }
+      }
+      if (prio[min] >= p) {
+        break;
+      }
+      move(min, i);
+      i = min;
+    }
+    place(i, e, p);
+  }
+
+  private void move(int from, int to) {
+    elem[to] = elem[from];
+    prio[to] = prio[from];
+    positions[slot(elem[to])] = to;
+  }
+
+  private void place(int i, Object e, double p) {
+    elem[i] = e;
+    prio[i] = p;
+    int slot = slot(e);
+    keys[slot] = e;
+    positions[slot] = i;
+  }
+
+  /** Find the slot of the element in the position table, or the free slot to put it in. */
+  private int slot(Object e) {
+    int mask = keys.length - 1;
+    int slot = (System.identityHashCode(e) * 0x9E3779B9) & mask;
+    while (keys[slot] != null && keys[slot] != e) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Remove the element in the slot, and shift the following elements in the probe sequence back
+   * to keep all elements reachable without tombstones.
+   */
+  private void removeSlot(int slot) {
+    int mask = keys.length - 1;
+    int free = slot;
+    int i = slot;
+    while (true) {
+      i = (i + 1) & mask;
+      Object key = keys[i];
+      if (key == null) {
+        break;
+      }
+      int home = (System.identityHashCode(key) * 0x9E3779B9) & mask;
+      // move the key to the free slot, unless its home is cyclically between the free slot and i
+      boolean between = free <= i ? (free < home && home <= i) : (free < home || home <= i);
+      if (!between) {
+        keys[free] = key;
+        positions[free] = positions[i];
+        free = i;
+      }
+    }
+    keys[free] = null;
+  }
+
+  private void rehash(int tableSize) {
+    keys = new Object[tableSize];
+    positions = new int[tableSize];
+    for (int i = 0; i < size; ++i) {
+      int slot = slot(elem[i]);
+      keys[slot] = elem[i];
+      positions[slot] = i;
+    }
+  }
+}
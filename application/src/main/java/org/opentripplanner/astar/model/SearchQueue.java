@@ -0,0 +1,32 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * The priority queue of states in the A* search, ordered by the weight plus the remaining weight
+ * estimate. The method names follow {@link BinHeap}, which is the default implementation.
+ * <p>
+ * An element is only inserted once, a new state is a new element.
+ */
+public interface SearchQueue<T> {
+  void insert(T e, double p);
+
+  /**
+   * Replace an element in the queue with a new element with the given key. This is used when a
+   * new state dominates a state which is not yet visited, the dominated state is then not kept in
+   * the queue. Queues that can not find an element return false, and the caller inserts the new
+   * element instead.
+   *
+   * @return false if the old element is not in the queue, or the queue does not support replacing
+   * elements
+   */
+  default boolean replace(T old, T e, double p) {
+    return false;
+  }
+
+  T extract_min();
+
+  double peek_min_key();
+
+  boolean empty();
+
+  int size();
+}
@@ -3,13 +3,13 @@ package org.opentripplanner.astar.model;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -33,6 +33,11 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * Most vertices only ever have a single state, for example in a search with a minimum weight
+ * dominance function without rental or parking. The states are kept in an open addressing hash
+ * table keyed on {@link AStarVertex#getIndex()}, and a vertex with a single state stores the
+ * state itself, not a list. A list is only created when a second, co-dominant state is added.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -42,17 +47,29 @@ public class ShortestPathTree<
 
   private static final Logger LOG = LoggerFactory.getLogger(ShortestPathTree.class);
 
+  /** Initialized with a reasonable size, see #4445 */
+  private static final int INITIAL_CAPACITY = 1 << 14;
+
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  /** The vertex of each slot in the hash table, or null if the slot is free. */
+  private Object[] vertices;
+
+  /** The state of each vertex, or a {@link StateSet} if it has more than one state. */
+  private Object[] states;
+
+  private int vertexCount = 0;
+
+  /** The state replaced by the last call to {@link #add(AStarState)}, see {@link #getReplacedState()}. */
+  private State replacedState;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
     this.dominanceFunction = dominanceFunction;
-    // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
+    this.vertices = new Object[INITIAL_CAPACITY];
+    this.states = new Object[INITIAL_CAPACITY];
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -85,9 +102,11 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
-      int size = states.size();
+    for (Object value : states) {
+      if (value == null) {
+        continue;
+      }
+      int size = value instanceof StateSet<?> set ? set.size() : 1;
       histogram.add(size);
       statesCount += size;
       if (size > maxSize) {
@@ -96,13 +115,13 @@ public class ShortestPathTree<
     }
     LOG.info(
       "SPT: vertices: " +
-      stateSets.size() +
+      vertexCount +
       " states: total: " +
       statesCount +
       " per vertex max: " +
       maxSize +
       " avg: " +
-      (statesCount * 1.0 / stateSets.size())
+      (statesCount * 1.0 / vertexCount)
     );
     List<Integer> nStates = new ArrayList<>(histogram.elementSet());
     Collections.sort(nStates);
@@ -111,8 +130,15 @@ public class ShortestPathTree<
     }
   }
 
+  @SuppressWarnings("unchecked")
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    Set<Vertex> result = Collections.newSetFromMap(new IdentityHashMap<>(vertexCount));
+    for (Object vertex : vertices) {
+      if (vertex != null) {
+        result.add((Vertex) vertex);
+      }
+    }
+    return result;
   }
 
   /**
@@ -125,21 +151,43 @@ public class ShortestPathTree<
    * @return a boolean value indicating whether the state was added to the tree and should therefore
    * be enqueued
    */
+  @SuppressWarnings("unchecked")
   public boolean add(State newState) {
+    replacedState = null;
     Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
+    int slot = slot(vertex);
+    Object value = states[slot];
 
     // if the vertex has no states, add one and return
-    if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
-      states.add(newState);
+    if (value == null) {
+      vertices[slot] = vertex;
+      states[slot] = newState;
+      if (++vertexCount * 2 > vertices.length) {
+        grow();
+      }
+      return true;
+    }
+
+    // the common case: a single state, which either dominates, is dominated by or is co-dominant
+    // with the new state
+    if (!(value instanceof StateSet<?>)) {
+      State oldState = (State) value;
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        states[slot] = newState;
+        replacedState = oldState;
+      } else {
+        states[slot] = new StateSet<>(oldState, newState);
+      }
       return true;
     }
 
     // if the vertex has any states that dominate the new state, don't add the state
     // if the new state dominates any old states, remove them
-    Iterator<State> it = states.iterator();
+    StateSet<State> stateSet = (StateSet<State>) value;
+    Iterator<State> it = stateSet.iterator();
     while (it.hasNext()) {
       State oldState = it.next();
       // order is important, because in the case of a tie
@@ -153,24 +201,39 @@ public class ShortestPathTree<
     }
 
     // any states remaining are co-dominant with the new state
-    states.add(newState);
+    stateSet.add(newState);
     return true;
   }
 
+  /**
+   * The state removed from the tree by the last call to {@link #add(AStarState)}, if the new state
+   * replaced the only state at the vertex. The search can then replace the old state in the queue,
+   * instead of adding the new state and skipping the old one when it is visited. Other dominated
+   * states are not reported, and are skipped by {@link #visit(AStarState)}.
+   */
+  public State getReplacedState() {
+    return replacedState;
+  }
+
   /**
    * Returns the 'best' state for the given Vertex, where 'best' depends on the implementation.
    *
    * @param dest the vertex of interest
    * @return a 'best' state at that vertex
    */
+  @SuppressWarnings("unchecked")
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
-    if (states == null) {
+    Object value = states[slot(dest)];
+    if (value == null) {
       return null;
     }
+    if (!(value instanceof StateSet<?>)) {
+      State s = (State) value;
+      return s.isFinal() ? s : null;
+    }
     State ret = null;
     // TODO are we only checking path parser acceptance when we fetch states via this specific method?
-    for (State s : states) {
+    for (State s : (StateSet<State>) value) {
       if ((ret == null || s.getWeight() < ret.getWeight()) && s.isFinal()) {
         ret = s;
       }
@@ -187,13 +250,21 @@ public class ShortestPathTree<
    * @param dest the vertex of interest
    * @return a collection of 'interesting' states at that vertex
    */
+  @SuppressWarnings("unchecked")
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    Object value = states[slot(dest)];
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof StateSet<?>) {
+      return (StateSet<State>) value;
+    }
+    return List.of((State) value);
   }
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return vertexCount;
   }
 
   /**
@@ -221,21 +292,30 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
-    boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
-      if (s == state) {
-        ret = true;
-        break;
+    Object value = states[slot(state.getVertex())];
+    if (value == state) {
+      return true;
+    }
+    if (value instanceof StateSet<?> stateSet) {
+      for (Object s : stateSet) {
+        if (s == state) {
+          return true;
+        }
       }
     }
-    return ret;
+    return false;
   }
 
   /** @return every state in this tree */
+  @SuppressWarnings("unchecked")
   public Collection<State> getAllStates() {
-    ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
-      allStates.addAll(stateSet);
+    ArrayList<State> allStates = new ArrayList<>(vertexCount);
+    for (Object value : states) {
+      if (value instanceof StateSet<?>) {
+        allStates.addAll((StateSet<State>) value);
+      } else if (value != null) {
+        allStates.add((State) value);
+      }
     }
     return allStates;
   }
@@ -244,7 +324,66 @@ public class ShortestPathTree<
     aborted = true;
   }
 
+  /**
+   * Remove all states, so the tree can be reused for a new search with the same dominance
+   * function. The capacity of the tree is kept, this avoids growing a new tree for each search
+   * when many searches are done in a row.
+   */
+  public void clear() {
+    if (vertexCount > 0) {
+      Arrays.fill(vertices, null);
+      Arrays.fill(states, null);
+    }
+    vertexCount = 0;
+    replacedState = null;
+    aborted = false;
+  }
+
   public String toString() {
-    return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
+    return "ShortestPathTree(" + vertexCount + " vertices)";
+  }
+
+  /**
+   * Find the slot of the given vertex, or the free slot where it should be added. Vertices
+   * without an index, like temporary vertices, fall back to the identity hash code.
+   */
+  private int slot(Vertex vertex) {
+    int index = vertex.getIndex();
+    int hash = index == AStarVertex.NO_INDEX ? System.identityHashCode(vertex) : index;
+    int mask = vertices.length - 1;
+    // Fibonacci hashing spreads the consecutive indexes of neighbouring vertices over the table
+    int slot = (hash * 0x9E3779B9) & mask;
+    while (true) {
+      Object v = vertices[slot];
+      if (v == vertex || v == null) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void grow() {
+    Object[] oldVertices = vertices;
+    Object[] oldStates = states;
+    vertices = new Object[oldVertices.length * 2];
+    states = new Object[oldStates.length * 2];
+    for (int i = 0; i < oldVertices.length; ++i) {
+      if (oldVertices[i] != null) {
+        int slot = slot((Vertex) oldVertices[i]);
+        vertices[slot] = oldVertices[i];
+        states[slot] = oldStates[i];
+      }
+    }
+  }
+
+  /** The co-dominant states at a vertex with more than one state. */
+  private static class StateSet<S> extends ArrayList<S> {
+
+    StateSet(S first, S second) {
+      super(4);
+      add(first);
+      add(second);
+    }
   }
 }
@@ -7,6 +7,8 @@ public interface AStarVertex<
   Edge extends AStarEdge<State, Edge, Vertex>,
   Vertex extends AStarVertex<State, Edge, Vertex>
 > {
+  int NO_INDEX = -1;
+
   /**
    * Get a collection containing all the edges leading from this vertex to other vertices. There is
    * probably some overhead to creating the wrapper ArrayList objects, but this allows filtering and
@@ -16,4 +18,13 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A small non-negative number identifying the vertex within its graph, or {@link #NO_INDEX} if
+   * the vertex is not part of a graph, like the temporary vertices created for a request. The
+   * shortest path tree uses it as a cheap hash key.
+   */
+  default int getIndex() {
+    return NO_INDEX;
+  }
 }
@@ -0,0 +1,533 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable hash map with structural sharing, implemented as a hash array mapped trie (HAMT).
+ * Adding or removing an element creates a new map, but only the path from the root to the changed
+ * element is copied; the rest of the trie is shared with the original map. The cost of
+ * {@link #plus(Object, Object)} and {@link #minus(Object)} is {@code O(log32 n)}, compared with
+ * {@code O(n)} for copying a {@link java.util.HashMap}.
+ * <p>
+ * Use this when a new version of a large map is published often, with only a few changes each
+ * time, and the old versions must stay unchanged - for example because they are in use by other
+ * threads.
+ * <p>
+ * Null keys and values are not allowed. The iteration order is not defined, but is the same for
+ * two maps with the same content, if the keys have the same hash codes.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class PersistentHashMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  @Nullable
+  private final Node root;
+
+  private final int size;
+
+  private PersistentHashMap(@Nullable Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> of() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  public static <K, V> PersistentHashMap<K, V> copyOf(Map<K, V> map) {
+    PersistentHashMap<K, V> result = of();
+    for (var e : map.entrySet()) {
+      result = result.plus(e.getKey(), e.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Create a map with the given elements as both keys and values. This is useful if you need a
+   * persistent set.
+   */
+  public static <T> PersistentHashMap<T, T> copyOfSet(Collection<? extends T> elements) {
+    PersistentHashMap<T, T> result = of();
+    for (T it : elements) {
+      result = result.plus(it, it);
+    }
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    return root == null ? null : (V) root.find(0, hash(key), key);
+  }
+
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Return a new map with the given key mapped to the given value. The same instance is returned
+   * if the key is already mapped to the same value instance.
+   */
+  public PersistentHashMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    var added = new boolean[1];
+    Node newRoot = (root == null ? BitmapNode.EMPTY : root).plus(0, hash(key), key, value, added);
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Return a new map without the given key. The same instance is returned if the key does not
+   * exist.
+   */
+  public PersistentHashMap<K, V> minus(Object key) {
+    if (root == null) {
+      return this;
+    }
+    Node newRoot = root.minus(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? of() : new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  /**
+   * Return a new map without the keys matching the given predicate. The same instance is returned
+   * if no key matches. This visits all elements, the cost is {@code O(n)}.
+   */
+  public PersistentHashMap<K, V> minusIf(Predicate<? super K> predicate) {
+    var result = this;
+    for (K key : keys()) {
+      if (predicate.test(key)) {
+        result = result.minus(key);
+      }
+    }
+    return result;
+  }
+
+  public void forEach(BiConsumer<? super K, ? super V> body) {
+    var it = new EntryIterator(root);
+    while (it.hasNext()) {
+      it.next();
+      body.accept(it.key(), it.value());
+    }
+  }
+
+  /**
+   * A read-only view of the keys. The view is immutable like the map.
+   */
+  public Collection<K> keys() {
+    return new View<>(0);
+  }
+
+  /**
+   * A read-only view of the values. The view is immutable like the map.
+   */
+  public Collection<V> values() {
+    return new View<>(1);
+  }
+
+  /**
+   * A read-only {@link Map} view of this map, for code which needs the standard interface. The
+   * view is immutable like the map, and lookups have the same cost as on the map.
+   */
+  public Map<K, V> asMap() {
+    return new MapView();
+  }
+
+  @Override
+  public String toString() {
+    return "PersistentHashMap{size: " + size + "}";
+  }
+
+  /* private methods */
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    // Spread the higher bits, the first levels in the trie use the lower bits
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitpos(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int i, Object value) {
+    var clone = array.clone();
+    clone[i] = value;
+    return clone;
+  }
+
+  /**
+   * The nodes store keys and values in pairs in an array. Both node types use the same layout,
+   * for a {@link BitmapNode} a {@code null} key means the value is a sub-node. This allows the
+   * iterator to treat all nodes the same way.
+   */
+  private abstract static class Node {
+
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    @Nullable
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node plus(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /** Return {@code null} if the node is empty after the element is removed. */
+    @Nullable
+    abstract Node minus(int shift, int hash, Object key);
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int i = 2 * index(bit);
+      Object k = array[i];
+      if (k == null) {
+        return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equals(k) ? array[i + 1] : null;
+    }
+
+    @Override
+    Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitpos(hash, shift);
+      int i = 2 * index(bit);
+
+      if ((bitmap & bit) == 0) {
+        var newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, i);
+        newArray[i] = key;
+        newArray[i + 1] = value;
+        System.arraycopy(array, i, newArray, i + 2, array.length - i);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      Object k = array[i];
+      Object v = array[i + 1];
+
+      if (k == null) {
+        var node = ((Node) v).plus(shift + BITS, hash, key, value, added);
+        return node == v ? this : new BitmapNode(bitmap, cloneAndSet(array, i + 1, node));
+      }
+      if (key.equals(k)) {
+        return value == v ? this : new BitmapNode(bitmap, cloneAndSet(array, i + 1, value));
+      }
+      added[0] = true;
+      var node = createNode(shift + BITS, k, v, hash, key, value);
+      var newArray = cloneAndSet(array, i, null);
+      newArray[i + 1] = node;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    @Override
+    Node minus(int shift, int hash, Object key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int i = 2 * index(bit);
+      Object k = array[i];
+      Object v = array[i + 1];
+
+      if (k == null) {
+        var node = ((Node) v).minus(shift + BITS, hash, key);
+        if (node == v) {
+          return this;
+        }
+        if (node != null) {
+          return new BitmapNode(bitmap, cloneAndSet(array, i + 1, node));
+        }
+      } else if (!key.equals(k)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      var newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+      return new BitmapNode(bitmap ^ bit, newArray);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static Node createNode(
+      int shift,
+      Object key1,
+      Object value1,
+      int hash2,
+      Object key2,
+      Object value2
+    ) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+      }
+      var ignore = new boolean[1];
+      return EMPTY
+        .plus(shift, hash1, key1, value1, ignore)
+        .plus(shift, hash2, key2, value2, ignore);
+    }
+  }
+
+  /**
+   * All keys in this node have the same hash code.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    private CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int i = indexOf(key);
+      return i < 0 ? null : array[i + 1];
+    }
+
+    @Override
+    Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // Push this node one level down in the trie
+        return new BitmapNode(bitpos(this.hash, shift), new Object[] { null, this })
+          .plus(shift, hash, key, value, added);
+      }
+      int i = indexOf(key);
+      if (i >= 0) {
+        return array[i + 1] == value
+          ? this
+          : new CollisionNode(hash, cloneAndSet(array, i + 1, value));
+      }
+      var newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node minus(int shift, int hash, Object key) {
+      int i = indexOf(key);
+      if (i < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      var newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+      return new CollisionNode(hash, newArray);
+    }
+
+    private int indexOf(Object key) {
+      if (hash(key) != hash) {
+        return -1;
+      }
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Depth-first iterator over all key-value pairs in the trie. The current pair is available
+   * with {@link #key()} and {@link #value()} after {@link #next()} is called.
+   */
+  private static final class EntryIterator {
+
+    private final ArrayDeque<Object[]> arrays = new ArrayDeque<>();
+    private final ArrayDeque<Integer> positions = new ArrayDeque<>();
+    private Object[] array;
+    private int pos;
+    private Object[] currentArray;
+    private int currentPos;
+
+    private EntryIterator(@Nullable Node root) {
+      this.array = root == null ? new Object[0] : root.array;
+      this.pos = 0;
+      advance();
+    }
+
+    boolean hasNext() {
+      return array != null;
+    }
+
+    void next() {
+      if (array == null) {
+        throw new NoSuchElementException();
+      }
+      currentArray = array;
+      currentPos = pos;
+      pos += 2;
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    <K> K key() {
+      return (K) currentArray[currentPos];
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V value() {
+      return (V) currentArray[currentPos + 1];
+    }
+
+    /** Move to the next key-value pair, set array to null if no more pairs exist. */
+    private void advance() {
+      while (true) {
+        if (pos < array.length) {
+          if (array[pos] != null) {
+            return;
+          }
+          arrays.push(array);
+          positions.push(pos + 2);
+          array = ((Node) array[pos + 1]).array;
+          pos = 0;
+        } else if (arrays.isEmpty()) {
+          array = null;
+          return;
+        } else {
+          array = arrays.pop();
+          pos = positions.pop();
+        }
+      }
+    }
+  }
+
+  private final class View<T> extends AbstractCollection<T> {
+
+    /** 0 for keys, 1 for values */
+    private final int offset;
+
+    private View(int offset) {
+      this.offset = offset;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      var it = new EntryIterator(root);
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public T next() {
+          it.next();
+          return offset == 0 ? it.key() : it.value();
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return offset == 0 ? o != null && containsKey(o) : super.contains(o);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private final class MapView extends AbstractMap<K, V> {
+
+    @Override
+    public V get(Object key) {
+      return key == null ? null : PersistentHashMap.this.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          var it = new EntryIterator(root);
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return it.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+              it.next();
+              return new SimpleImmutableEntry<>(it.key(), it.value());
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package org.opentripplanner.framework.concurrent;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run a set of named tasks on a fork-join pool, each task starts as soon as the tasks it depends
+ * on are done. This is used to run independent steps, like building the indexes at startup,
+ * concurrently. The time used by each task is logged, and recorded in the
+ * {@code <metric-name>_duration} timer of the global Micrometer registry, tagged with the task
+ * name.
+ * <p>
+ * Tasks must be added before {@link #run()} is called, and the graph can only be run once. The
+ * pool is shut down when the graph is closed.
+ * <pre>
+ * try (var tasks = new TaskGraph("startup")) {
+ *   var a = tasks.add("a", this::a);
+ *   tasks.add("b", this::b, a);
+ *   tasks.run();
+ * }
+ * </pre>
+ */
+public class TaskGraph implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TaskGraph.class);
+
+  private final String metricName;
+  private final ForkJoinPool pool = new ForkJoinPool();
+  private final CompletableFuture<Void> start = new CompletableFuture<>();
+  private final List<Task> tasks = new ArrayList<>();
+
+  public TaskGraph(String metricName) {
+    this.metricName = metricName;
+  }
+
+  /**
+   * Add a task which is run when all the given tasks are done. If a task fails, the tasks
+   * depending on it are not run.
+   */
+  public Task add(String name, Runnable action, Task... dependsOn) {
+    CompletableFuture<?> ready = dependsOn.length == 0
+      ? start
+      : CompletableFuture.allOf(
+        Arrays.stream(dependsOn).map(it -> it.future).toArray(CompletableFuture[]::new)
+      );
+    var task = new Task(name, ready.thenRunAsync(() -> runTimed(name, action), pool));
+    tasks.add(task);
+    return task;
+  }
+
+  /**
+   * Run all tasks and wait for them to complete. The exception of the first failed task is
+   * rethrown, after all other tasks are done.
+   */
+  public void run() {
+    long start = System.nanoTime();
+    this.start.complete(null);
+
+    RuntimeException error = null;
+    for (Task task : tasks) {
+      try {
+        task.future.join();
+      } catch (CompletionException e) {
+        if (error == null) {
+          error =
+            e.getCause() instanceof RuntimeException runtimeException
+              ? runtimeException
+              : new IllegalStateException(e.getCause());
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+    LOG.info("{} tasks done in {} ms.", metricName, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  private void runTimed(String name, Runnable action) {
+    var timer = Timer
+      .builder(metricName + "_duration")
+      .description("Time used by the " + metricName + " tasks")
+      .tag("task", name)
+      .register(Metrics.globalRegistry);
+    long start = System.nanoTime();
+    try {
+      action.run();
+    } finally {
+      var duration = Duration.ofNanos(System.nanoTime() - start);
+      timer.record(duration);
+      LOG.info("{} task '{}' done in {} ms.", metricName, name, duration.toMillis());
+    }
+  }
+
+  /** A task in the graph, used to add the dependencies of other tasks. */
+  public static final class Task {
+
+    private final String name;
+    private final CompletableFuture<Void> future;
+
+    private Task(String name, CompletableFuture<Void> future) {
+      this.name = name;
+      this.future = future;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
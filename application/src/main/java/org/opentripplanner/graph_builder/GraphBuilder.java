@@ -160,6 +160,14 @@ public class GraphBuilder implements Runnable {
 
     if (loadStreetGraph || hasOsm) {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
+
+      // Run after all modules changing the street graph, new vertices are not part of the tables
+      if (config.streetLandmarks > 0) {
+        graphBuilder.addModule(factory.streetLandmarkModule());
+      }
+      if (config.carContractionHierarchy) {
+        graphBuilder.addModule(factory.carContractionHierarchyModule());
+      }
     }
 
     if (OTPFeature.Co2Emissions.isOn()) {
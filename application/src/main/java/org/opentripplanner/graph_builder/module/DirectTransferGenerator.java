@@ -1,12 +1,21 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
+import com.google.common.collect.Multimap;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -78,95 +87,59 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       stops.size()
     );
 
-    AtomicInteger nTransfersTotal = new AtomicInteger();
-    AtomicInteger nLinkedStops = new AtomicInteger();
-
-    // This is a synchronizedMultimap so that a parallel stream may be used to insert elements.
-    var transfersByStop = Multimaps.<StopLocation, PathTransfer>synchronizedMultimap(
-      HashMultimap.create()
+    // Each stop has its own slot, so the searches can run in parallel without locking
+    List<Collection<PathTransfer>> transfersByStopIndex = new ArrayList<>(
+      Collections.nCopies(stops.size(), null)
     );
+    var statistics = transferRequests.stream().map(TransferStatistics::new).toList();
 
-    stops
-      .stream()
-      .parallel()
-      .forEach(ts0 -> {
-        /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
-         * Use map based on the list of edges, so that only distinct transfers are stored. */
-        Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
-        RegularStop stop = ts0.getStop();
-
-        if (stop.transfersNotAllowed()) {
-          return;
-        }
-
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
-
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+    // The searches reuse their search state on each thread, so run them on a dedicated pool which
+    // releases the state when it is shut down. The work is balanced by work stealing.
+    var pool = new ForkJoinPool();
+    try {
+      pool
+        .submit(() ->
+          IntStream
+            .range(0, stops.size())
+            .parallel()
+            .forEach(i -> {
+              transfersByStopIndex.set(
+                i,
+                findTransfers(stops.get(i), nearbyStopFinder, statistics)
               );
-            }
-          }
-        }
-
-        LOG.debug(
-          "Linked stop {} with {} transfers to stops with different patterns.",
-          stop,
-          distinctTransfers.size()
-        );
-        if (distinctTransfers.isEmpty()) {
-          issueStore.add(new StopNotLinkedForTransfers(ts0));
-        } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
-          nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
-        }
+              //Keep lambda! A method-ref would causes incorrect class and line number to be logged
+              //noinspection Convert2MethodRef
+              progress.step(m -> LOG.info(m));
+            })
+        )
+        .get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while creating transfers.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
 
-        //Keep lambda! A method-ref would causes incorrect class and line number to be logged
-        //noinspection Convert2MethodRef
-        progress.step(m -> LOG.info(m));
-      });
+    Multimap<StopLocation, PathTransfer> transfersByStop = HashMultimap.create();
+    int nTransfersTotal = 0;
+    int nLinkedStops = 0;
+    for (Collection<PathTransfer> transfers : transfersByStopIndex) {
+      if (transfers != null) {
+        transfers.forEach(transfer -> transfersByStop.put(transfer.from, transfer));
+        nTransfersTotal += transfers.size();
+        ++nLinkedStops;
+      }
+    }
 
     timetableRepository.addAllTransfersByStops(transfersByStop);
 
     LOG.info(progress.completeMessage());
+    statistics.forEach(it -> LOG.info(it.toString()));
     LOG.info(
       "Done connecting stops to one another. Created a total of {} transfers from {} stops.",
       nTransfersTotal,
@@ -174,6 +147,89 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     );
   }
 
+  /**
+   * Make transfers from the stop to each nearby stop that has lowest weight on some trip pattern.
+   *
+   * @return the transfers, or {@code null} if the stop is not linked to any other stop
+   */
+  @Nullable
+  private Collection<PathTransfer> findTransfers(
+    TransitStopVertex ts0,
+    NearbyStopFinder nearbyStopFinder,
+    List<TransferStatistics> statistics
+  ) {
+    /* Use map based on the list of edges, so that only distinct transfers are stored. */
+    Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
+    RegularStop stop = ts0.getStop();
+
+    if (stop.transfersNotAllowed()) {
+      return null;
+    }
+
+    LOG.debug("Linking stop '{}' {}", stop, ts0);
+
+    for (TransferStatistics requestStatistics : statistics) {
+      RouteRequest transferProfile = requestStatistics.request;
+      long start = System.nanoTime();
+      int nearbyStops = 0;
+
+      for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
+        ts0,
+        transferProfile,
+        transferProfile.journey().transfer(),
+        false
+      )) {
+        ++nearbyStops;
+        // Skip the origin stop, loop transfers are not needed.
+        if (sd.stop == stop) {
+          continue;
+        }
+        if (sd.stop.transfersNotAllowed()) {
+          continue;
+        }
+        distinctTransfers.put(
+          new TransferKey(stop, sd.stop, sd.edges),
+          new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
+        );
+      }
+      if (OTPFeature.FlexRouting.isOn()) {
+        // This code is for finding transfers from AreaStops to Stops, transfers
+        // from Stops to AreaStops and between Stops are already covered above.
+        for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
+          ts0,
+          transferProfile,
+          transferProfile.journey().transfer(),
+          true
+        )) {
+          ++nearbyStops;
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop instanceof RegularStop) {
+            continue;
+          }
+          distinctTransfers.put(
+            new TransferKey(sd.stop, stop, sd.edges),
+            new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+          );
+        }
+      }
+      requestStatistics.add(nearbyStops, System.nanoTime() - start);
+    }
+
+    LOG.debug(
+      "Linked stop {} with {} transfers to stops with different patterns.",
+      stop,
+      distinctTransfers.size()
+    );
+    if (distinctTransfers.isEmpty()) {
+      issueStore.add(new StopNotLinkedForTransfers(ts0));
+      return null;
+    }
+    return List.copyOf(distinctTransfers.values());
+  }
+
   /**
    * Factory method for creating a NearbyStopFinder. Will create different finders depending on
    * whether the graph has a street network and if ConsiderPatternsForDirectTransfers feature is
@@ -189,7 +245,7 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       finder = new StraightLineNearbyStopFinder(transitService, radiusByDuration);
     } else {
       LOG.info("Creating direct transfer edges between stops using the street network from OSM...");
-      finder = new StreetNearbyStopFinder(radiusByDuration, 0, null);
+      finder = new StreetNearbyStopFinder(radiusByDuration, 0, null, Set.of(), true);
     }
 
     if (OTPFeature.ConsiderPatternsForDirectTransfers.isOn()) {
@@ -200,4 +256,38 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   }
 
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
+
+  /** The number of searches and the time spent searching for one of the transfer requests. */
+  private static class TransferStatistics {
+
+    private final RouteRequest request;
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nearbyStops = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private TransferStatistics(RouteRequest request) {
+      this.request = request;
+    }
+
+    private void add(int nearbyStops, long nanos) {
+      this.searches.increment();
+      this.nearbyStops.add(nearbyStops);
+      this.nanos.add(nanos);
+    }
+
+    @Override
+    public String toString() {
+      long n = searches.sum();
+      double seconds = nanos.sum() / 1e9;
+      return String.format(
+        Locale.ROOT,
+        "Transfers by %s: %d searches, %d stops found, %.1f s, %.0f searches/s per thread",
+        request.journey().transfer().mode(),
+        n,
+        nearbyStops.sum(),
+        seconds,
+        seconds > 0 ? n / seconds : 0.0
+      );
+    }
+  }
 }
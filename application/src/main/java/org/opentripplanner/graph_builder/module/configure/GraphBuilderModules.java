@@ -26,7 +26,9 @@ import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueSto
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.RouteToCentroidStationIdsValidator;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
+import org.opentripplanner.graph_builder.module.contraction.CarContractionHierarchyModule;
 import org.opentripplanner.graph_builder.module.islandpruning.PruneIslands;
+import org.opentripplanner.graph_builder.module.landmark.StreetLandmarkModule;
 import org.opentripplanner.graph_builder.module.ned.DegreeGridNEDTileSource;
 import org.opentripplanner.graph_builder.module.ned.ElevationModule;
 import org.opentripplanner.graph_builder.module.ned.GeotiffGridCoverageFactoryImpl;
@@ -83,6 +85,7 @@ public class GraphBuilderModules {
       .withStaticParkAndRide(config.staticParkAndRide)
       .withStaticBikeParkAndRide(config.staticBikeParkAndRide)
       .withMaxAreaNodes(config.maxAreaNodes)
+      .withMemoryMappedNodes(config.osmMemoryMappedNodes)
       .withBoardingAreaRefTags(config.boardingLocationTags)
       .withIssueStore(issueStore)
       .withStreetLimitationParameters(streetLimitationParameters)
@@ -241,6 +244,18 @@ public class GraphBuilderModules {
     );
   }
 
+  @Provides
+  @Singleton
+  static StreetLandmarkModule provideStreetLandmarkModule(BuildConfig config, Graph graph) {
+    return new StreetLandmarkModule(graph, config.streetLandmarks);
+  }
+
+  @Provides
+  @Singleton
+  static CarContractionHierarchyModule provideCarContractionHierarchyModule(Graph graph) {
+    return new CarContractionHierarchyModule(graph);
+  }
+
   @Provides
   @Singleton
   static DirectTransferAnalyzer provideDirectTransferAnalyzer(
@@ -0,0 +1,66 @@
+package org.opentripplanner.graph_builder.module.contraction;
+
+import java.util.stream.IntStream;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.compact.CompactStreetGraph;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build a contraction hierarchy over the car street network, used to speed up direct car
+ * searches, and store it in the graph. This must run after all modules changing the street
+ * graph.
+ * <p>
+ * The hierarchy uses the default car and turn reluctance, and intersection traversal model.
+ * Requests with other values are routed without it.
+ */
+public class CarContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CarContractionHierarchyModule.class);
+
+  private final Graph graph;
+
+  public CarContractionHierarchyModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    var streetGraph = CompactStreetGraph.of(graph);
+    int[] carEdges = IntStream
+      .range(0, streetGraph.numberOfEdges())
+      .filter(e -> streetGraph.edge(e) instanceof StreetEdge edge && isContracted(edge))
+      .toArray();
+    if (carEdges.length == 0) {
+      LOG.info("No streets can be traversed by car, no contraction hierarchy added.");
+      return;
+    }
+    LOG.info("Computing car contraction hierarchy for {} street edges...", carEdges.length);
+    var builder = new ContractionHierarchyBuilder(
+      streetGraph,
+      carEdges,
+      new RouteRequest().preferences()
+    );
+    var hierarchy = builder.build();
+    graph.setCarContractionHierarchy(hierarchy);
+    LOG.info(
+      "Car contraction hierarchy added, {} nodes and {} arcs.",
+      hierarchy.numberOfNodes(),
+      hierarchy.numberOfArcs()
+    );
+  }
+
+  /**
+   * No-through-traffic streets are left out, they are only used at the start and end of a trip.
+   * Stairs have a different reluctance, and are not used by cars in practice.
+   */
+  private static boolean isContracted(StreetEdge edge) {
+    return (
+      edge.canTraverse(TraverseMode.CAR) && !edge.isMotorVehicleNoThruTraffic() && !edge.isStairs()
+    );
+  }
+}
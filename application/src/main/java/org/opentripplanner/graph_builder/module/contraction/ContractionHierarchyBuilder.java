@@ -0,0 +1,446 @@
+package org.opentripplanner.graph_builder.module.contraction;
+
+import static org.opentripplanner.street.model.contraction.CarContractionHierarchy.NO_MIDDLE;
+
+import java.util.Arrays;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.TurnRestrictionType;
+import org.opentripplanner.street.model.compact.CompactStreetGraph;
+import org.opentripplanner.street.model.contraction.CarContractionHierarchy;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+
+/**
+ * Build an edge-based {@link CarContractionHierarchy}. The nodes are contracted one by one in
+ * order of priority: the edge difference (the number of shortcuts added minus the number of arcs
+ * removed), plus the number of contracted neighbours and the depth in the hierarchy, which spread
+ * the contraction evenly over the graph. The edge difference is expensive to compute, so it is
+ * only recomputed lazily before a node is contracted. When a neighbour is contracted, only the
+ * other terms are updated.
+ * <p>
+ * When a node v is contracted, a shortcut from u to x is added for each pair of arcs u to v and
+ * v to x, unless a witness search finds a path from u to x not passing v that is at most as
+ * expensive. The witness search is limited to a number of settled nodes, so an unnecessary
+ * shortcut is sometimes added, but a necessary shortcut is never missed.
+ */
+class ContractionHierarchyBuilder {
+
+  /** The max number of nodes settled by the witness search when simulating a contraction. */
+  private static final int SIMULATION_SETTLED_LIMIT = 30;
+
+  /** The max number of nodes settled by the witness search when contracting a node. */
+  private static final int CONTRACTION_SETTLED_LIMIT = 100;
+
+  private final RoutingPreferences preferences;
+  private final IntersectionTraversalCalculator calculator;
+  private final double turnReluctanceRatio;
+
+  private final StreetEdge[] edges;
+  private final float[] nodeCost;
+
+  /** The arcs between not yet contracted nodes. */
+  private final ArcList[] out;
+  private final ArcList[] in;
+
+  /** The arcs to and from higher ranked nodes, set when a node is contracted. */
+  private final ArcList[] up;
+  private final ArcList[] down;
+
+  private final boolean[] contracted;
+  private final int[] contractedNeighbours;
+  private final int[] level;
+  private final int[] edgeDifference;
+
+  /* Witness search state, reset after each search */
+  private final float[] witnessCost;
+  private final int[] touched;
+  private final boolean[] isTarget;
+  private int numberOfTouched = 0;
+  private final BinHeap<Integer> witnessQueue = new BinHeap<>();
+
+  /**
+   * @param carEdges the ids of the street edges in the street graph to contract.
+   */
+  ContractionHierarchyBuilder(
+    CompactStreetGraph streetGraph,
+    int[] carEdges,
+    RoutingPreferences preferences
+  ) {
+    this.preferences = preferences;
+    this.calculator =
+      IntersectionTraversalCalculator.create(
+        preferences.street().intersectionTraversalModel(),
+        preferences.street().drivingDirection()
+      );
+    this.turnReluctanceRatio =
+      preferences.street().turnReluctance() / preferences.car().reluctance();
+
+    int n = carEdges.length;
+    this.edges = new StreetEdge[n];
+    this.nodeCost = new float[n];
+    this.out = new ArcList[n];
+    this.in = new ArcList[n];
+    this.up = new ArcList[n];
+    this.down = new ArcList[n];
+    this.contracted = new boolean[n];
+    this.contractedNeighbours = new int[n];
+    this.witnessCost = new float[n];
+    this.touched = new int[n];
+    this.isTarget = new boolean[n];
+    this.level = new int[n];
+    this.edgeDifference = new int[n];
+    Arrays.fill(witnessCost, Float.POSITIVE_INFINITY);
+
+    // The node of each edge in the street graph, or -1 if the edge is not contracted
+    int[] node = new int[streetGraph.numberOfEdges()];
+    Arrays.fill(node, -1);
+    for (int i = 0; i < n; ++i) {
+      int edge = carEdges[i];
+      node[edge] = i;
+      edges[i] = (StreetEdge) streetGraph.edge(edge);
+      nodeCost[i] = (float) (streetGraph.lengthMm(edge) / 1000.0 / streetGraph.carSpeed(edge));
+      out[i] = new ArcList();
+      in[i] = new ArcList();
+    }
+    for (int a = 0; a < n; ++a) {
+      int via = streetGraph.toVertex(carEdges[a]);
+      int end = streetGraph.firstOutgoing(via) + streetGraph.outDegree(via);
+      for (int next = streetGraph.firstOutgoing(via); next < end; ++next) {
+        int b = node[next];
+        if (b >= 0 && b != a && isTurnAllowed(edges[a], edges[b])) {
+          addArc(a, b, (float) (turnCost(edges[a], edges[b]) + nodeCost[b]), NO_MIDDLE);
+        }
+      }
+    }
+  }
+
+  CarContractionHierarchy build() {
+    int n = edges.length;
+    double[] priority = new double[n];
+    var queue = new BinHeap<Integer>(n);
+    for (int v = 0; v < n; ++v) {
+      priority[v] = priority(v);
+      queue.insert(v, priority[v]);
+    }
+
+    int[] rank = new int[n];
+    int nextRank = 0;
+    while (!queue.empty()) {
+      double key = queue.peek_min_key();
+      int v = queue.extract_min();
+      if (contracted[v] || key != priority[v]) {
+        continue;
+      }
+      // Lazy update, the edge difference may have increased since it was last computed
+      priority[v] = priority(v);
+      if (!queue.empty() && priority[v] > queue.peek_min_key()) {
+        queue.insert(v, priority[v]);
+        continue;
+      }
+      int[] neighbours = contract(v);
+      rank[v] = nextRank++;
+      for (int x : neighbours) {
+        ++contractedNeighbours[x];
+        level[x] = Math.max(level[x], level[v] + 1);
+        priority[x] = priority(x, edgeDifference[x]);
+        queue.insert(x, priority[x]);
+      }
+    }
+    return createHierarchy(rank);
+  }
+
+  /* private methods */
+
+  /**
+   * Car turn restrictions are part of the graph topology. Restrictions only active at certain
+   * times are ignored here, paths using them are rejected when the path is traversed.
+   */
+  private static boolean isTurnAllowed(StreetEdge from, StreetEdge to) {
+    if (from.isReverseOf(to)) {
+      return false;
+    }
+    for (TurnRestriction restriction : from.getTurnRestrictions()) {
+      if (restriction.time != null || !restriction.modes.contains(TraverseMode.CAR)) {
+        continue;
+      }
+      boolean isRestrictionTo = to.isEquivalentTo(restriction.to);
+      if (restriction.type == TurnRestrictionType.ONLY_TURN ? !isRestrictionTo : isRestrictionTo) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The turn cost in the same unit as the node cost, see {@link StreetEdge#traverse}. */
+  private double turnCost(StreetEdge from, StreetEdge to) {
+    if (!(to.getFromVertex() instanceof IntersectionVertex intersection)) {
+      return 0;
+    }
+    double duration = calculator.computeTraversalDuration(
+      intersection,
+      from,
+      to,
+      TraverseMode.CAR,
+      from.getCarSpeed(),
+      to.getCarSpeed()
+    );
+    return turnReluctanceRatio * duration;
+  }
+
+  private void addArc(int from, int to, float weight, int middle) {
+    if (out[from].add(to, weight, middle)) {
+      in[to].add(from, weight, middle);
+    }
+  }
+
+  /** Simulate the contraction of v, and compute the priority with the new edge difference. */
+  private double priority(int v) {
+    edgeDifference[v] = processShortcuts(v, false) - in[v].size - out[v].size;
+    return priority(v, edgeDifference[v]);
+  }
+
+  private double priority(int v, int edgeDifference) {
+    return 2 * edgeDifference + contractedNeighbours[v] + level[v];
+  }
+
+  /**
+   * Add the shortcuts needed to contract v, and move the arcs of v to the up and down arcs.
+   *
+   * @return the neighbours of v.
+   */
+  private int[] contract(int v) {
+    processShortcuts(v, true);
+
+    ArcList outgoing = out[v];
+    ArcList incoming = in[v];
+    for (int i = 0; i < outgoing.size; ++i) {
+      in[outgoing.nodes[i]].remove(v);
+    }
+    for (int i = 0; i < incoming.size; ++i) {
+      out[incoming.nodes[i]].remove(v);
+    }
+    up[v] = outgoing;
+    down[v] = incoming;
+    out[v] = null;
+    in[v] = null;
+    contracted[v] = true;
+
+    int[] neighbours = new int[outgoing.size + incoming.size];
+    System.arraycopy(outgoing.nodes, 0, neighbours, 0, outgoing.size);
+    System.arraycopy(incoming.nodes, 0, neighbours, outgoing.size, incoming.size);
+    return Arrays.stream(neighbours).distinct().toArray();
+  }
+
+  /**
+   * Find the shortcuts needed to contract v.
+   *
+   * @param add add the shortcuts if true, otherwise only count them.
+   * @return the number of shortcuts needed.
+   */
+  private int processShortcuts(int v, boolean add) {
+    ArcList incoming = in[v];
+    ArcList outgoing = out[v];
+    if (outgoing.size == 0) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < incoming.size; ++i) {
+      int u = incoming.nodes[i];
+      float toV = incoming.weights[i];
+      float maxCost = 0f;
+      for (int j = 0; j < outgoing.size; ++j) {
+        if (outgoing.nodes[j] != u) {
+          maxCost = Math.max(maxCost, toV + outgoing.weights[j]);
+        }
+      }
+      int targets = 0;
+      for (int j = 0; j < outgoing.size; ++j) {
+        int x = outgoing.nodes[j];
+        if (x != u && !isTarget[x]) {
+          isTarget[x] = true;
+          ++targets;
+        }
+      }
+      witnessSearch(
+        u,
+        v,
+        maxCost,
+        targets,
+        add ? CONTRACTION_SETTLED_LIMIT : SIMULATION_SETTLED_LIMIT
+      );
+
+      for (int j = 0; j < outgoing.size; ++j) {
+        int x = outgoing.nodes[j];
+        float cost = toV + outgoing.weights[j];
+        isTarget[x] = false;
+        if (x == u || witnessCost[x] <= cost) {
+          continue;
+        }
+        ++count;
+        if (add) {
+          addArc(u, x, cost, v);
+        }
+      }
+      resetWitnessSearch();
+    }
+    return count;
+  }
+
+  /**
+   * Dijkstra from the source over the not yet contracted nodes, except the ignored node. The
+   * search stops when all targets are settled.
+   */
+  private void witnessSearch(
+    int source,
+    int ignore,
+    float maxCost,
+    int targets,
+    int settledLimit
+  ) {
+    touch(source, 0f);
+    witnessQueue.insert(source, 0f);
+    int settled = 0;
+
+    while (!witnessQueue.empty()) {
+      double cost = witnessQueue.peek_min_key();
+      int x = witnessQueue.extract_min();
+      if (cost > witnessCost[x]) {
+        continue;
+      }
+      if (cost > maxCost || ++settled > settledLimit) {
+        break;
+      }
+      if (isTarget[x] && --targets == 0) {
+        break;
+      }
+      ArcList arcs = out[x];
+      for (int i = 0; i < arcs.size; ++i) {
+        int y = arcs.nodes[i];
+        float next = (float) cost + arcs.weights[i];
+        if (y != ignore && next <= maxCost && next < witnessCost[y]) {
+          touch(y, next);
+          witnessQueue.insert(y, next);
+        }
+      }
+    }
+  }
+
+  private void touch(int node, float cost) {
+    if (witnessCost[node] == Float.POSITIVE_INFINITY) {
+      touched[numberOfTouched++] = node;
+    }
+    witnessCost[node] = cost;
+  }
+
+  private void resetWitnessSearch() {
+    for (int i = 0; i < numberOfTouched; ++i) {
+      witnessCost[touched[i]] = Float.POSITIVE_INFINITY;
+    }
+    numberOfTouched = 0;
+    witnessQueue.reset();
+  }
+
+  /** Renumber the nodes by rank and store the arcs in compressed sparse row format. */
+  private CarContractionHierarchy createHierarchy(int[] rank) {
+    int n = edges.length;
+    StreetEdge[] rankedEdges = new StreetEdge[n];
+    float[] rankedNodeCost = new float[n];
+    ArcList[] rankedUp = new ArcList[n];
+    ArcList[] rankedDown = new ArcList[n];
+    for (int v = 0; v < n; ++v) {
+      rankedEdges[rank[v]] = edges[v];
+      rankedNodeCost[rank[v]] = nodeCost[v];
+      rankedUp[rank[v]] = up[v];
+      rankedDown[rank[v]] = down[v];
+    }
+    return new CarContractionHierarchy(
+      rankedEdges,
+      rankedNodeCost,
+      toArcs(rankedUp, rank),
+      toArcs(rankedDown, rank),
+      turnReluctanceRatio,
+      preferences.street().intersectionTraversalModel(),
+      preferences.street().drivingDirection()
+    );
+  }
+
+  private static CarContractionHierarchy.Arcs toArcs(ArcList[] lists, int[] rank) {
+    int[] start = new int[lists.length + 1];
+    for (int v = 0; v < lists.length; ++v) {
+      start[v + 1] = start[v] + lists[v].size;
+    }
+    int size = start[lists.length];
+    int[] node = new int[size];
+    float[] weight = new float[size];
+    int[] middle = new int[size];
+    for (int v = 0; v < lists.length; ++v) {
+      ArcList list = lists[v];
+      for (int i = 0; i < list.size; ++i) {
+        int arc = start[v] + i;
+        node[arc] = rank[list.nodes[i]];
+        weight[arc] = list.weights[i];
+        middle[arc] = list.middles[i] == NO_MIDDLE ? NO_MIDDLE : rank[list.middles[i]];
+      }
+    }
+    return new CarContractionHierarchy.Arcs(start, node, weight, middle);
+  }
+
+  /** The arcs of one node while contracting, there is at most one arc to each other node. */
+  private static final class ArcList {
+
+    private int[] nodes = new int[4];
+    private float[] weights = new float[4];
+    private int[] middles = new int[4];
+    private int size = 0;
+
+    /**
+     * Add an arc, or reduce the weight of the existing arc to the same node.
+     *
+     * @return true if the arc was added or changed.
+     */
+    boolean add(int node, float weight, int middle) {
+      int i = indexOf(node);
+      if (i >= 0) {
+        if (weight >= weights[i]) {
+          return false;
+        }
+        weights[i] = weight;
+        middles[i] = middle;
+        return true;
+      }
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+        middles = Arrays.copyOf(middles, size * 2);
+      }
+      nodes[size] = node;
+      weights[size] = weight;
+      middles[size] = middle;
+      ++size;
+      return true;
+    }
+
+    void remove(int node) {
+      int i = indexOf(node);
+      if (i >= 0) {
+        --size;
+        nodes[i] = nodes[size];
+        weights[i] = weights[size];
+        middles[i] = middles[size];
+      }
+    }
+
+    private int indexOf(int node) {
+      for (int i = 0; i < size; ++i) {
+        if (nodes[i] == node) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
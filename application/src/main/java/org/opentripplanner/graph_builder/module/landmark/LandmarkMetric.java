@@ -0,0 +1,105 @@
+package org.opentripplanner.graph_builder.module.landmark;
+
+import java.util.Map;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The edge cost used to compute the landmark distances for a street mode. The cost must be a
+ * lower bound of the edge weight for the mode, apart from a factor depending only on the request
+ * preferences. Edges which can not be traversed in the mode return {@link #NOT_TRAVERSABLE}.
+ * Other edges than street edges are included with a zero cost, this is always a valid lower
+ * bound.
+ */
+enum LandmarkMetric {
+  /** The driving time in seconds. */
+  CAR(StreetMode.CAR) {
+    @Override
+    double streetEdgeCost(StreetEdge edge) {
+      float speed = edge.getCarSpeed();
+      if (!edge.getPermission().allows(TraverseMode.CAR) || speed <= 0) {
+        return NOT_TRAVERSABLE;
+      }
+      return edge.getDistanceMeters() / speed;
+    }
+  },
+  /**
+   * The effective cycling distance in meters. Edges without cycling permission are included,
+   * because you are allowed to walk the bike.
+   */
+  BIKE(StreetMode.BIKE) {
+    @Override
+    double streetEdgeCost(StreetEdge edge) {
+      var permission = edge.getPermission();
+      if (!permission.allows(TraverseMode.BICYCLE) && !permission.allows(TraverseMode.WALK)) {
+        return NOT_TRAVERSABLE;
+      }
+      return Math.min(edge.getDistanceMeters(), edge.getEffectiveBikeDistance());
+    }
+
+    @Override
+    void addWeightRatios(StreetEdge edge, Map<VehicleRoutingOptimizeType, Double> ratios) {
+      double cost = streetEdgeCost(edge);
+      if (cost <= 0 || !edge.getPermission().allows(TraverseMode.BICYCLE)) {
+        return;
+      }
+      addRatio(
+        ratios,
+        VehicleRoutingOptimizeType.SHORTEST_DURATION,
+        edge.getEffectiveBikeDistance() / cost
+      );
+      addRatio(
+        ratios,
+        VehicleRoutingOptimizeType.SAFE_STREETS,
+        edge.getEffectiveBicycleSafetyDistance() / cost
+      );
+      addRatio(
+        ratios,
+        VehicleRoutingOptimizeType.FLAT_STREETS,
+        edge.getEffectiveBikeDistanceForWorkCost() / cost
+      );
+      // The weight of the safest streets is reduced further, by a factor 0.66 at most
+      addRatio(
+        ratios,
+        VehicleRoutingOptimizeType.SAFEST_STREETS,
+        0.66 * edge.getBicycleSafetyFactor() * edge.getDistanceMeters() / cost
+      );
+    }
+  };
+
+  static final double NOT_TRAVERSABLE = -1.0;
+
+  private final StreetMode mode;
+
+  LandmarkMetric(StreetMode mode) {
+    this.mode = mode;
+  }
+
+  StreetMode mode() {
+    return mode;
+  }
+
+  /** @return the cost of traversing the edge, or {@link #NOT_TRAVERSABLE}. */
+  double cost(Edge edge) {
+    return edge instanceof StreetEdge streetEdge ? streetEdgeCost(streetEdge) : 0.0;
+  }
+
+  abstract double streetEdgeCost(StreetEdge edge);
+
+  /**
+   * Keep the smallest ratio between the weight distance of each optimize type and the cost of
+   * this metric. Nothing is added by default.
+   */
+  void addWeightRatios(StreetEdge edge, Map<VehicleRoutingOptimizeType, Double> ratios) {}
+
+  private static void addRatio(
+    Map<VehicleRoutingOptimizeType, Double> ratios,
+    VehicleRoutingOptimizeType type,
+    double ratio
+  ) {
+    ratios.merge(type, ratio, Math::min);
+  }
+}
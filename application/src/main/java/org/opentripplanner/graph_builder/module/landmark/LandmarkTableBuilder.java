@@ -0,0 +1,251 @@
+package org.opentripplanner.graph_builder.module.landmark;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.compact.CompactStreetGraph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.landmark.LandmarkTable;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Compute the {@link LandmarkTable} for one {@link LandmarkMetric}. The edges of the
+ * {@link CompactStreetGraph} which can be traversed with the metric are copied into a forward and
+ * reverse adjacency array with their cost, then the landmarks are selected using the
+ * farthest-point method: each new landmark is the vertex farthest away from the landmarks already
+ * selected. The distances from each landmark are computed while selecting the landmarks, the
+ * distances to the landmarks are computed in parallel afterward.
+ */
+class LandmarkTableBuilder {
+
+  /** Try a few start vertices to avoid selecting all landmarks on a small island. */
+  private static final int MAX_START_VERTEX_ATTEMPTS = 10;
+
+  private final CompactStreetGraph graph;
+  private final Adjacency forward;
+  private final Adjacency reverse;
+  private final Map<VehicleRoutingOptimizeType, Double> weightRatios = new EnumMap<>(
+    VehicleRoutingOptimizeType.class
+  );
+
+  LandmarkTableBuilder(LandmarkMetric metric, CompactStreetGraph graph) {
+    this.graph = graph;
+    this.forward = new Adjacency(graph.numberOfVertices());
+    this.reverse = new Adjacency(graph.numberOfVertices());
+
+    double[] costs = new double[graph.numberOfEdges()];
+    for (int e = 0; e < costs.length; ++e) {
+      Edge edge = graph.edge(e);
+      costs[e] = metric.cost(edge);
+      if (costs[e] == LandmarkMetric.NOT_TRAVERSABLE) {
+        continue;
+      }
+      forward.count(graph.fromVertex(e));
+      reverse.count(graph.toVertex(e));
+      if (edge instanceof StreetEdge streetEdge) {
+        metric.addWeightRatios(streetEdge, weightRatios);
+      }
+    }
+    forward.allocate();
+    reverse.allocate();
+
+    for (int e = 0; e < costs.length; ++e) {
+      if (costs[e] != LandmarkMetric.NOT_TRAVERSABLE) {
+        forward.add(graph.fromVertex(e), graph.toVertex(e), costs[e]);
+        reverse.add(graph.toVertex(e), graph.fromVertex(e), costs[e]);
+      }
+    }
+  }
+
+  /**
+   * @return the table, or {@code null} if no edges can be traversed with the metric.
+   */
+  @Nullable
+  LandmarkTable build(int numberOfLandmarks) {
+    int start = findStartVertex();
+    if (start < 0) {
+      return null;
+    }
+    int[] landmarks = new int[numberOfLandmarks];
+    float[][] fromLandmark = new float[numberOfLandmarks][];
+
+    // The distance from the closest landmark to each vertex
+    float[] closest = new float[graph.numberOfVertices()];
+    Arrays.fill(closest, LandmarkTable.UNREACHED);
+
+    int size = 0;
+    float[] fromStart = forward.shortestDistances(start);
+    int next = farthest(fromStart, closest);
+
+    while (size < numberOfLandmarks && next >= 0) {
+      landmarks[size] = next;
+      fromLandmark[size] = forward.shortestDistances(next);
+      for (int i = 0; i < closest.length; ++i) {
+        closest[i] = Math.min(closest[i], fromLandmark[size][i]);
+      }
+      ++size;
+      next = farthest(fromStart, closest);
+    }
+
+    final int[] selected = Arrays.copyOf(landmarks, size);
+    float[][] toLandmark = IntStream
+      .range(0, size)
+      .parallel()
+      .mapToObj(i -> reverse.shortestDistances(selected[i]))
+      .toArray(float[][]::new);
+
+    return new LandmarkTable(
+      Arrays.stream(selected).mapToObj(graph::vertex).toArray(Vertex[]::new),
+      Arrays.copyOf(fromLandmark, size),
+      toLandmark,
+      weightRatios
+    );
+  }
+
+  /**
+   * Find a vertex in a large component of the graph, reaching at least half of the vertices
+   * with traversable edges.
+   */
+  private int findStartVertex() {
+    int verticesWithEdges = 0;
+    int n = graph.numberOfVertices();
+    for (int i = 0; i < n; ++i) {
+      if (forward.degree(i) > 0) {
+        ++verticesWithEdges;
+      }
+    }
+    int best = -1;
+    int bestReached = 0;
+    int attempts = 0;
+
+    for (int i = 0; i < n && attempts < MAX_START_VERTEX_ATTEMPTS; ++i) {
+      if (forward.degree(i) == 0) {
+        continue;
+      }
+      ++attempts;
+      int reached = countReached(forward.shortestDistances(i));
+      if (reached > bestReached) {
+        best = i;
+        bestReached = reached;
+      }
+      if (2 * reached >= verticesWithEdges) {
+        break;
+      }
+      // Spread the attempts over the graph
+      i += n / MAX_START_VERTEX_ATTEMPTS;
+    }
+    return best;
+  }
+
+  /**
+   * Return the vertex reached from the start vertex with the longest positive distance to the
+   * closest landmark. A vertex not reached from any landmark is farther away than all others,
+   * and ties are broken by the distance from the start. A landmark can be a dead end, for
+   * example at the end of a one-way street, so this is common. Return -1 if no such vertex
+   * exists.
+   */
+  private static int farthest(float[] fromStart, float[] closest) {
+    int farthest = -1;
+    float maxClosest = 0f;
+    float maxFromStart = 0f;
+    for (int i = 0; i < fromStart.length; ++i) {
+      float c = closest[i];
+      float d = fromStart[i];
+      if (d == LandmarkTable.UNREACHED || c <= 0f) {
+        continue;
+      }
+      if (c > maxClosest || (c == maxClosest && d > maxFromStart)) {
+        farthest = i;
+        maxClosest = c;
+        maxFromStart = d;
+      }
+    }
+    return farthest;
+  }
+
+  private static int countReached(float[] distances) {
+    int count = 0;
+    for (float d : distances) {
+      if (d != LandmarkTable.UNREACHED) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  /** A compact adjacency array with the edges of each vertex stored in one block. */
+  private static class Adjacency {
+
+    private final int[] start;
+    private int[] insertPos;
+    private int[] target;
+    private float[] cost;
+
+    private Adjacency(int nVertices) {
+      this.start = new int[nVertices + 1];
+    }
+
+    private void count(int vertex) {
+      ++start[vertex + 1];
+    }
+
+    private void allocate() {
+      for (int i = 1; i < start.length; ++i) {
+        start[i] += start[i - 1];
+      }
+      insertPos = Arrays.copyOf(start, start.length - 1);
+      target = new int[start[start.length - 1]];
+      cost = new float[target.length];
+    }
+
+    private void add(int vertex, int to, double cost) {
+      int pos = insertPos[vertex]++;
+      this.target[pos] = to;
+      // Round down, the distances must be lower bounds
+      float c = (float) cost;
+      this.cost[pos] = c > cost ? Math.nextDown(c) : c;
+    }
+
+    private int degree(int vertex) {
+      return start[vertex + 1] - start[vertex];
+    }
+
+    /** Dijkstra's algorithm, the distance is {@link LandmarkTable#UNREACHED} if not reached. */
+    private float[] shortestDistances(int origin) {
+      double[] dist = new double[start.length - 1];
+      Arrays.fill(dist, Double.POSITIVE_INFINITY);
+      BinHeap<Integer> queue = new BinHeap<>(1000);
+      dist[origin] = 0.0;
+      queue.insert(origin, 0.0);
+
+      while (!queue.empty()) {
+        double d = queue.peek_min_key();
+        int u = queue.extract_min();
+        if (d > dist[u]) {
+          // A shorter distance is already processed
+          continue;
+        }
+        for (int i = start[u]; i < start[u + 1]; ++i) {
+          int v = target[i];
+          double nd = d + cost[i];
+          if (nd < dist[v]) {
+            dist[v] = nd;
+            queue.insert(v, nd);
+          }
+        }
+      }
+
+      float[] result = new float[dist.length];
+      for (int i = 0; i < dist.length; ++i) {
+        float f = (float) dist[i];
+        result[i] = f > dist[i] ? Math.nextDown(f) : f;
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package org.opentripplanner.graph_builder.module.landmark;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.compact.CompactStreetGraph;
+import org.opentripplanner.street.model.landmark.LandmarkDistances;
+import org.opentripplanner.street.model.landmark.LandmarkTable;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the landmark distances used by the ALT heuristic in direct car and bicycle street
+ * searches, and store them in the graph. This must run after all modules changing the street
+ * graph, vertices added later are not part of the tables.
+ * <p>
+ * The tables use {@code 2 * numberOfLandmarks} floats for each vertex and street mode, so the
+ * number of landmarks should be kept small. 8-16 landmarks is usually enough.
+ */
+public class StreetLandmarkModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StreetLandmarkModule.class);
+
+  private final Graph graph;
+  private final int numberOfLandmarks;
+
+  public StreetLandmarkModule(Graph graph, int numberOfLandmarks) {
+    this.graph = graph;
+    this.numberOfLandmarks = numberOfLandmarks;
+  }
+
+  @Override
+  public void buildGraph() {
+    if (numberOfLandmarks <= 0) {
+      return;
+    }
+    var streetGraph = CompactStreetGraph.of(graph);
+
+    Map<StreetMode, LandmarkTable> tables = new EnumMap<>(StreetMode.class);
+    for (LandmarkMetric metric : LandmarkMetric.values()) {
+      LOG.info("Computing {} street landmarks for {}...", numberOfLandmarks, metric.mode());
+      var table = new LandmarkTableBuilder(metric, streetGraph).build(numberOfLandmarks);
+      if (table == null) {
+        LOG.info("No streets can be traversed by {}, no landmarks added.", metric.mode());
+      } else {
+        tables.put(metric.mode(), table);
+        LOG.info("{} landmarks added for {}.", table.numberOfLandmarks(), metric.mode());
+      }
+    }
+    Vertex[] vertices = new Vertex[streetGraph.numberOfVertices()];
+    Arrays.setAll(vertices, streetGraph::vertex);
+    graph.setLandmarkDistances(new LandmarkDistances(vertices, tables));
+  }
+}
@@ -8,8 +8,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
@@ -43,6 +47,13 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
   private final DataOverlayContext dataOverlayContext;
   private final Set<Vertex> ignoreVertices;
 
+  /**
+   * The search queue and shortest path tree reused by the searches on each thread, by street mode.
+   * This is null if a new queue and tree are created for each search.
+   */
+  @Nullable
+  private final ThreadLocal<Map<StreetMode, SearchState>> searchState;
+
   /**
    * Construct a NearbyStopFinder for the given graph and search radius.
    *
@@ -69,11 +80,34 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     int maxStopCount,
     DataOverlayContext dataOverlayContext,
     Set<Vertex> ignoreVertices
+  ) {
+    this(durationLimit, maxStopCount, dataOverlayContext, ignoreVertices, false);
+  }
+
+  /**
+   * Construct a NearbyStopFinder for the given graph and search radius.
+   *
+   * @param maxStopCount     The maximum stops to return. 0 means no limit. Regardless of the
+   *                         maxStopCount we will always return all the directly connected stops.
+   * @param ignoreVertices   A set of stop vertices to ignore and not return NearbyStops for.
+   * @param reuseSearchState Reuse the search queue and shortest path tree for the searches on the
+   *                         same thread. This avoids growing a new tree for each search when
+   *                         searching from many stops, but the memory is kept as long as the
+   *                         thread is alive, so only use this with a dedicated thread pool.
+   */
+  public StreetNearbyStopFinder(
+    Duration durationLimit,
+    int maxStopCount,
+    DataOverlayContext dataOverlayContext,
+    Set<Vertex> ignoreVertices,
+    boolean reuseSearchState
   ) {
     this.dataOverlayContext = dataOverlayContext;
     this.durationLimit = durationLimit;
     this.maxStopCount = maxStopCount;
     this.ignoreVertices = ignoreVertices;
+    this.searchState =
+      reuseSearchState ? ThreadLocal.withInitial(() -> new EnumMap<>(StreetMode.class)) : null;
   }
 
   /**
@@ -123,7 +157,7 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     }
     stopsFound = new ArrayList<>(stopsFound);
 
-    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
+    var search = StreetSearchBuilder
       .of()
       .setSkipEdgeStrategy(getSkipEdgeStrategy())
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
@@ -132,8 +166,17 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
       .setStreetRequest(streetRequest)
       .setFrom(reverseDirection ? null : originVertices)
       .setTo(reverseDirection ? originVertices : null)
-      .setDataOverlayContext(dataOverlayContext)
-      .getShortestPathTree();
+      .setDataOverlayContext(dataOverlayContext);
+
+    if (searchState != null) {
+      // Searches with different modes reach very different numbers of vertices, so keep one tree
+      // for each mode to avoid clearing a large tree after a small search.
+      var state = searchState.get().computeIfAbsent(streetRequest.mode(), m -> new SearchState());
+      state.queue.reset();
+      search.setSearchQueue(() -> state.queue).setShortestPathTree(state.tree);
+    }
+
+    ShortestPathTree<State, Edge, Vertex> spt = search.getShortestPathTree();
 
     // Only used if OTPFeature.FlexRouting.isOn()
     Multimap<AreaStop, State> locationsMap = ArrayListMultimap.create();
@@ -224,4 +267,12 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
       vertex instanceof TransitStopVertex && state.isFinal() && !ignoreVertices.contains(vertex)
     );
   }
+
+  private static class SearchState {
+
+    private final BinHeap<State> queue = new BinHeap<>(1000);
+    private final ShortestPathTree<State, Edge, Vertex> tree = new ShortestPathTree<>(
+      new DominanceFunctions.MinimumWeight()
+    );
+  }
 }
@@ -0,0 +1,38 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import javax.annotation.Nullable;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * Keep the nodes as objects on the heap. This is the fastest store, and the default.
+ */
+class HeapOsmNodeStore implements OsmNodeStore {
+
+  private final TLongObjectMap<OsmNode> nodesById = new TLongObjectHashMap<>();
+
+  @Override
+  public void put(OsmNode node) {
+    nodesById.put(node.getId(), node);
+  }
+
+  @Override
+  @Nullable
+  public OsmNode get(long id) {
+    return nodesById.get(id);
+  }
+
+  @Override
+  public boolean containsKey(long id) {
+    return nodesById.containsKey(id);
+  }
+
+  @Override
+  public int size() {
+    return nodesById.size();
+  }
+
+  @Override
+  public void close() {}
+}
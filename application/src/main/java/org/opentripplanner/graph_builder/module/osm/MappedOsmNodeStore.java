@@ -0,0 +1,260 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * Store the nodes in memory-mapped temporary files instead of as objects on the heap, so the
+ * operating system can page them out when memory is short. Each node is a fixed size record with
+ * the id, the coordinate in fixed point with a precision of 1e-7 degrees (the precision of the OSM
+ * data), and a reference to its tags. The tags are stored as pairs of indexes into a dictionary of
+ * the distinct strings, which is kept on the heap.
+ * <p>
+ * The nodes of an OSM file are sorted by id, so the records are appended in runs of increasing
+ * ids, and a node is found with a binary search in each run. A new run is started when a node is
+ * added out of order, for example when reading the next file. The virtual nodes created during
+ * the processing have negative ids and coordinates which are not rounded to the OSM precision, so
+ * they are kept on the heap.
+ * <p>
+ * {@link #get(long)} creates a new {@link OsmNode} for each call, nodes are compared by id.
+ */
+class MappedOsmNodeStore implements OsmNodeStore {
+
+  private static final int RECORD_SIZE = 32;
+  private static final int ID = 0;
+  private static final int LAT = 8;
+  private static final int LON = 12;
+  private static final int TAGS = 16;
+  private static final int TAG_COUNT = 24;
+  private static final int PROVIDER = 28;
+
+  private static final double FIXED_POINT = 1e7;
+
+  private final MappedFile records;
+  private final MappedFile tags;
+
+  private final HeapOsmNodeStore virtualNodes = new HeapOsmNodeStore();
+  private final Map<String, Integer> stringIndex = new HashMap<>();
+  private final List<String> strings = new ArrayList<>();
+  private final List<OsmProvider> providers = new ArrayList<>();
+
+  /** The index of the first record of each run of increasing ids. */
+  private final TLongList runStart = new TLongArrayList();
+
+  private int size = 0;
+  private long tagsSize = 0;
+
+  MappedOsmNodeStore() {
+    try {
+      this.records = new MappedFile(Files.createTempFile("otp-osm-nodes", ".bin"));
+      this.tags = new MappedFile(Files.createTempFile("otp-osm-node-tags", ".bin"));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void put(OsmNode node) {
+    long id = node.getId();
+    if (id < 0) {
+      virtualNodes.put(node);
+      return;
+    }
+    if (size == 0 || id <= records.getLong((long) (size - 1) * RECORD_SIZE + ID)) {
+      runStart.add(size);
+    }
+
+    long record = (long) size * RECORD_SIZE;
+    records.putLong(record + ID, id);
+    records.putInt(record + LAT, (int) Math.round(node.lat * FIXED_POINT));
+    records.putInt(record + LON, (int) Math.round(node.lon * FIXED_POINT));
+    records.putLong(record + TAGS, tagsSize);
+    records.putInt(record + TAG_COUNT, node.getTags().size());
+    records.putInt(record + PROVIDER, providerIndex(node.getOsmProvider()));
+
+    for (var tag : node.getTags().entrySet()) {
+      tags.putInt(tagsSize * Integer.BYTES, stringIndex(tag.getKey()));
+      tags.putInt((tagsSize + 1) * Integer.BYTES, stringIndex(tag.getValue()));
+      tagsSize += 2;
+    }
+    ++size;
+  }
+
+  @Override
+  @Nullable
+  public OsmNode get(long id) {
+    if (id < 0) {
+      return virtualNodes.get(id);
+    }
+    long index = find(id);
+    return index < 0 ? null : read(index);
+  }
+
+  @Override
+  public boolean containsKey(long id) {
+    return id < 0 ? virtualNodes.containsKey(id) : find(id) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size + virtualNodes.size();
+  }
+
+  @Override
+  public void close() {
+    records.close();
+    tags.close();
+  }
+
+  /** Return the record index of the node with the given id, or -1 if not found. */
+  private long find(long id) {
+    // Search the latest run first, a node is usually looked up in the file it was read from
+    for (int r = runStart.size() - 1; r >= 0; --r) {
+      long low = runStart.get(r);
+      long high = (r + 1 < runStart.size() ? runStart.get(r + 1) : size) - 1;
+      while (low <= high) {
+        long mid = (low + high) >>> 1;
+        long midId = records.getLong(mid * RECORD_SIZE + ID);
+        if (midId < id) {
+          low = mid + 1;
+        } else if (midId > id) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private OsmNode read(long index) {
+    long record = index * RECORD_SIZE;
+    var node = new OsmNode();
+    node.setId(records.getLong(record + ID));
+    // Same arithmetic as the PBF parser, to get exactly the same coordinates as on the heap
+    node.lat = (100L * records.getInt(record + LAT)) * .000000001;
+    node.lon = (100L * records.getInt(record + LON)) * .000000001;
+
+    int provider = records.getInt(record + PROVIDER);
+    if (provider >= 0) {
+      node.setOsmProvider(providers.get(provider));
+    }
+
+    long tag = records.getLong(record + TAGS);
+    int tagCount = records.getInt(record + TAG_COUNT);
+    for (int i = 0; i < tagCount; ++i, tag += 2) {
+      node.addTag(
+        strings.get(tags.getInt(tag * Integer.BYTES)),
+        strings.get(tags.getInt((tag + 1) * Integer.BYTES))
+      );
+    }
+    return node;
+  }
+
+  private int stringIndex(String value) {
+    return stringIndex.computeIfAbsent(
+      value,
+      it -> {
+        strings.add(it);
+        return strings.size() - 1;
+      }
+    );
+  }
+
+  private int providerIndex(@Nullable OsmProvider provider) {
+    if (provider == null) {
+      return -1;
+    }
+    for (int i = 0; i < providers.size(); ++i) {
+      if (providers.get(i) == provider) {
+        return i;
+      }
+    }
+    providers.add(provider);
+    return providers.size() - 1;
+  }
+
+  /**
+   * A temporary file mapped into memory in fixed size segments, which are added as the file grows.
+   * The values are aligned to their size, so they never cross a segment boundary.
+   */
+  private static class MappedFile {
+
+    private static final int SEGMENT_BITS = 26;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    MappedFile(Path path) throws IOException {
+      this.channel =
+        FileChannel.open(
+          path,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.DELETE_ON_CLOSE
+        );
+    }
+
+    long getLong(long position) {
+      return segment(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+      segment(position).putLong(offset(position), value);
+    }
+
+    int getInt(long position) {
+      return segment(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+      segment(position).putInt(offset(position), value);
+    }
+
+    void close() {
+      segments.clear();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private MappedByteBuffer segment(long position) {
+      int segment = (int) (position >>> SEGMENT_BITS);
+      while (segments.size() <= segment) {
+        try {
+          segments.add(
+            channel.map(
+              FileChannel.MapMode.READ_WRITE,
+              (long) segments.size() << SEGMENT_BITS,
+              1L << SEGMENT_BITS
+            )
+          );
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return segments.get(segment);
+    }
+
+    private static int offset(long position) {
+      return (int) (position & SEGMENT_MASK);
+    }
+  }
+}
@@ -60,7 +60,7 @@ public class OsmDatabase {
   private final DataImportIssueStore issueStore;
 
   /* Map of all nodes used in ways/areas keyed by their OSM ID */
-  private final TLongObjectMap<OsmNode> nodesById = new TLongObjectHashMap<>();
+  private final OsmNodeStore nodesById;
 
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OsmNode> bikeParkingNodes = new TLongObjectHashMap<>();
@@ -131,7 +131,12 @@ public class OsmDatabase {
   public boolean noZeroLevels = true;
 
   public OsmDatabase(DataImportIssueStore issueStore) {
+    this(issueStore, new HeapOsmNodeStore());
+  }
+
+  OsmDatabase(DataImportIssueStore issueStore, OsmNodeStore nodeStore) {
     this.issueStore = issueStore;
+    this.nodesById = nodeStore;
   }
 
   public OsmNode getNode(Long nodeId) {
@@ -154,6 +159,11 @@ public class OsmDatabase {
     return nodesById.size();
   }
 
+  /** Release the resources of the node store, the nodes can not be looked up after this. */
+  public void close() {
+    nodesById.close();
+  }
+
   public int wayCount() {
     return waysById.size();
   }
@@ -230,7 +240,7 @@ public class OsmDatabase {
     if (nodesById.containsKey(node.getId())) {
       return;
     }
-    nodesById.put(node.getId(), node);
+    nodesById.put(node);
   }
 
   public void addWay(OsmWay way) {
@@ -636,7 +646,7 @@ public class OsmDatabase {
     node.setId(virtualNodeId);
     virtualNodeId--;
     waysNodeIds.add(node.getId());
-    nodesById.put(node.getId(), node);
+    nodesById.put(node);
     return node;
   }
 
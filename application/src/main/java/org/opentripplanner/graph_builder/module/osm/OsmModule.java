@@ -69,7 +69,11 @@ public class OsmModule implements GraphBuilderModule {
     this.graph = graph;
     this.issueStore = issueStore;
     this.params = params;
-    this.osmdb = new OsmDatabase(issueStore);
+    this.osmdb =
+      new OsmDatabase(
+        issueStore,
+        params.memoryMappedNodes() ? new MappedOsmNodeStore() : new HeapOsmNodeStore()
+      );
     this.vertexGenerator = new VertexGenerator(osmdb, graph, params.boardingAreaRefTags());
     this.normalizer = new SafetyValueNormalizer(graph, issueStore);
     this.streetLimitationParameters = Objects.requireNonNull(streetLimitationParameters);
@@ -85,18 +89,22 @@ public class OsmModule implements GraphBuilderModule {
 
   @Override
   public void buildGraph() {
-    for (OsmProvider provider : providers) {
-      LOG.info("Gathering OSM from provider: {}", provider);
-      LOG.info(
-        "Using OSM way configuration from {}.",
-        provider.getOsmTagMapper().getClass().getSimpleName()
-      );
-      provider.readOsm(osmdb);
-    }
-    osmdb.postLoad();
+    try {
+      for (OsmProvider provider : providers) {
+        LOG.info("Gathering OSM from provider: {}", provider);
+        LOG.info(
+          "Using OSM way configuration from {}.",
+          provider.getOsmTagMapper().getClass().getSimpleName()
+        );
+        provider.readOsm(osmdb);
+      }
+      osmdb.postLoad();
 
-    LOG.info("Building street graph from OSM");
-    build();
+      LOG.info("Building street graph from OSM");
+      build();
+    } finally {
+      osmdb.close();
+    }
     graph.hasStreets = true;
     streetLimitationParameters.initMaxCarSpeed(getMaxCarSpeed());
   }
@@ -24,6 +24,7 @@ public class OsmModuleBuilder {
   private boolean platformEntriesLinking = false;
   private boolean staticParkAndRide = false;
   private boolean staticBikeParkAndRide = false;
+  private boolean memoryMappedNodes = false;
   private int maxAreaNodes;
   private StreetLimitationParameters streetLimitationParameters = new StreetLimitationParameters();
 
@@ -67,6 +68,11 @@ public class OsmModuleBuilder {
     return this;
   }
 
+  public OsmModuleBuilder withMemoryMappedNodes(boolean memoryMappedNodes) {
+    this.memoryMappedNodes = memoryMappedNodes;
+    return this;
+  }
+
   public OsmModuleBuilder withMaxAreaNodes(int maxAreaNodes) {
     this.maxAreaNodes = maxAreaNodes;
     return this;
@@ -90,7 +96,8 @@ public class OsmModuleBuilder {
         areaVisibility,
         platformEntriesLinking,
         staticParkAndRide,
-        staticBikeParkAndRide
+        staticBikeParkAndRide,
+        memoryMappedNodes
       )
     );
   }
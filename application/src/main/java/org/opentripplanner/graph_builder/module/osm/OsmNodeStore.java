@@ -0,0 +1,24 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import javax.annotation.Nullable;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * Storage for the OSM nodes kept by the {@link OsmDatabase}, keyed by their OSM id. The nodes are
+ * the largest part of the OSM data, so the storage can be chosen to trade lookup speed for memory.
+ * Nodes are not modified after they are added.
+ */
+interface OsmNodeStore {
+  /** Add a node, there must not be a node with the same id in the store. */
+  void put(OsmNode node);
+
+  @Nullable
+  OsmNode get(long id);
+
+  boolean containsKey(long id);
+
+  int size();
+
+  /** Release the resources held by the store, it can not be used after this. */
+  void close();
+}
@@ -1,24 +1,17 @@
 package org.opentripplanner.model;
 
-import static org.opentripplanner.framework.collection.CollectionUtils.getByNullableKey;
-
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.PersistentHashMap;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
@@ -70,10 +63,12 @@ import org.slf4j.LoggerFactory;
  * transit network. It would also be possible to make the realtime version of Timetables or
  * TripTimes the primary view, and include references back to their scheduled versions.
  * <p>
- * Implementation note: when a snapshot is committed, the mutable state of this class is stored
- * in final fields and completely initialized in the constructor. This provides an additional
- * guarantee of safe-publication without synchronization.
- * (see <a href="https://docs.oracle.com/javase/specs/jls/se7/html/jls-17.html#jls-17.5">final Field Semantics</a>)
+ * Implementation note: the realtime state is kept in persistent maps, which share their structure
+ * with the previous versions. A commit hands the current versions over to the read-only snapshot
+ * without copying them, so the cost of a commit does not depend on the amount of realtime data,
+ * and the cost of an update is proportional to the number of changed entries. The read-only
+ * snapshot never reassigns its fields, and is published to the readers with the synchronization
+ * in {@link org.opentripplanner.routing.util.ConcurrentPublished}.
  */
 public class TimetableSnapshot {
 
@@ -106,7 +101,7 @@ public class TimetableSnapshot {
    * The compound key approach better reflects the fact that there should be only one Timetable per
    * TripPattern and date.
    */
-  private final Map<TripPattern, SortedSet<Timetable>> timetables;
+  private PersistentHashMap<TripPattern, SortedSet<Timetable>> timetables;
 
   /**
    * For cases where the trip pattern (sequence of stops visited) has been changed by a realtime
@@ -117,29 +112,29 @@ public class TimetableSnapshot {
    * .
    * TODO RT_AB: clarify if this is an index or the original source of truth.
    */
-  private final Map<TripIdAndServiceDate, TripPattern> realTimeNewTripPatternsForModifiedTrips;
+  private PersistentHashMap<TripIdAndServiceDate, TripPattern> realTimeNewTripPatternsForModifiedTrips;
 
   /**
    * This is an index of TripPatterns, not the primary collection. It tracks which TripPatterns
    * that were updated or newly created by realtime messages contain which stops. This allows them
    * to be readily found and included in API responses containing stop times at a specific stop.
-   * This is a SetMultimap, so that each pattern is only retained once per stop even if it's added
-   * more than once.
+   * The patterns of each stop are a persistent set, so that each pattern is only retained once per
+   * stop even if it's added more than once.
    * TODO RT_AB: More general handling of all realtime indexes outside primary data structures.
    */
-  private final SetMultimap<StopLocation, TripPattern> patternsForStop;
+  private PersistentHashMap<StopLocation, PersistentHashMap<TripPattern, TripPattern>> patternsForStop;
 
   /**
    * The realTimeAdded* maps are indexes on the trips created at runtime (extra-journey), and the
    * Route, TripPattern, TripOnServiceDate they refer to.
    * They are meant to override the corresponding indexes in TimetableRepositoryIndex.
    */
-  private final Map<FeedScopedId, Route> realtimeAddedRoutes;
-  private final Map<FeedScopedId, Trip> realTimeAddedTrips;
-  private final Map<Trip, TripPattern> realTimeAddedPatternForTrip;
-  private final Multimap<Route, TripPattern> realTimeAddedPatternsForRoute;
-  private final Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
-  private final Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
+  private PersistentHashMap<FeedScopedId, Route> realtimeAddedRoutes;
+  private PersistentHashMap<FeedScopedId, Trip> realTimeAddedTrips;
+  private PersistentHashMap<Trip, TripPattern> realTimeAddedPatternForTrip;
+  private PersistentHashMap<Route, PersistentHashMap<TripPattern, TripPattern>> realTimeAddedPatternsForRoute;
+  private PersistentHashMap<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
+  private PersistentHashMap<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
 
   /**
    * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it
@@ -155,29 +150,29 @@ public class TimetableSnapshot {
 
   public TimetableSnapshot() {
     this(
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
+      PersistentHashMap.of(),
       false
     );
   }
 
   private TimetableSnapshot(
-    Map<TripPattern, SortedSet<Timetable>> timetables,
-    Map<TripIdAndServiceDate, TripPattern> realTimeNewTripPatternsForModifiedTrips,
-    Map<FeedScopedId, Route> realtimeAddedRoutes,
-    Map<FeedScopedId, Trip> realtimeAddedTrips,
-    Map<Trip, TripPattern> realTimeAddedPatternForTrip,
-    Multimap<Route, TripPattern> realTimeAddedPatternsForRoute,
-    Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
-    Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
-    SetMultimap<StopLocation, TripPattern> patternsForStop,
+    PersistentHashMap<TripPattern, SortedSet<Timetable>> timetables,
+    PersistentHashMap<TripIdAndServiceDate, TripPattern> realTimeNewTripPatternsForModifiedTrips,
+    PersistentHashMap<FeedScopedId, Route> realtimeAddedRoutes,
+    PersistentHashMap<FeedScopedId, Trip> realtimeAddedTrips,
+    PersistentHashMap<Trip, TripPattern> realTimeAddedPatternForTrip,
+    PersistentHashMap<Route, PersistentHashMap<TripPattern, TripPattern>> realTimeAddedPatternsForRoute,
+    PersistentHashMap<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
+    PersistentHashMap<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
+    PersistentHashMap<StopLocation, PersistentHashMap<TripPattern, TripPattern>> patternsForStop,
     boolean readOnly
   ) {
     this.timetables = timetables;
@@ -238,7 +233,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<Route> listRealTimeAddedRoutes() {
-    return Collections.unmodifiableCollection(realtimeAddedRoutes.values());
+    return realtimeAddedRoutes.values();
   }
 
   /**
@@ -250,7 +245,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<Trip> listRealTimeAddedTrips() {
-    return Collections.unmodifiableCollection(realTimeAddedTrips.values());
+    return realTimeAddedTrips.values();
   }
 
   /**
@@ -265,7 +260,7 @@ public class TimetableSnapshot {
    * Return the trip patterns created by the updater for the given route.
    */
   public Collection<TripPattern> getRealTimeAddedPatternForRoute(Route route) {
-    return realTimeAddedPatternsForRoute.get(route);
+    return valuesOf(realTimeAddedPatternsForRoute.get(route));
   }
 
   /**
@@ -287,7 +282,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<? extends TripOnServiceDate> listRealTimeAddedTripOnServiceDate() {
-    return Collections.unmodifiableCollection(realTimeAddedTripOnServiceDateForTripAndDay.values());
+    return realTimeAddedTripOnServiceDateForTripAndDay.values();
   }
 
   /**
@@ -319,7 +314,8 @@ public class TimetableSnapshot {
       // Remember this pattern for the added trip id and service date
       FeedScopedId tripId = trip.getId();
       TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-      realTimeNewTripPatternsForModifiedTrips.put(tripIdAndServiceDate, pattern);
+      realTimeNewTripPatternsForModifiedTrips =
+        realTimeNewTripPatternsForModifiedTrips.plus(tripIdAndServiceDate, pattern);
     }
 
     // To make these trip patterns visible for departureRow searches.
@@ -328,21 +324,23 @@ public class TimetableSnapshot {
     Route route = trip.getRoute();
 
     if (realTimeTripUpdate.routeCreation()) {
-      realtimeAddedRoutes.put(route.getId(), route);
+      realtimeAddedRoutes = realtimeAddedRoutes.plus(route.getId(), route);
     }
     if (realTimeTripUpdate.tripCreation()) {
       FeedScopedId tripId = trip.getId();
-      realTimeAddedTrips.put(tripId, trip);
-      realTimeAddedPatternForTrip.put(trip, pattern);
-      realTimeAddedPatternsForRoute.put(route, pattern);
+      realTimeAddedTrips = realTimeAddedTrips.plus(tripId, trip);
+      realTimeAddedPatternForTrip = realTimeAddedPatternForTrip.plus(trip, pattern);
+      realTimeAddedPatternsForRoute = plusToSet(realTimeAddedPatternsForRoute, route, pattern);
       TripOnServiceDate tripOnServiceDate = realTimeTripUpdate.addedTripOnServiceDate();
 
       if (tripOnServiceDate != null) {
-        realTimeAddedTripOnServiceDateById.put(tripOnServiceDate.getId(), tripOnServiceDate);
-        realTimeAddedTripOnServiceDateForTripAndDay.put(
-          new TripIdAndServiceDate(tripId, serviceDate),
-          tripOnServiceDate
-        );
+        realTimeAddedTripOnServiceDateById =
+          realTimeAddedTripOnServiceDateById.plus(tripOnServiceDate.getId(), tripOnServiceDate);
+        realTimeAddedTripOnServiceDateForTripAndDay =
+          realTimeAddedTripOnServiceDateForTripAndDay.plus(
+            new TripIdAndServiceDate(tripId, serviceDate),
+            tripOnServiceDate
+          );
       }
     }
 
@@ -352,12 +350,9 @@ public class TimetableSnapshot {
   }
 
   /**
-   * This produces a small delay of typically around 50ms, which is almost entirely due to the
-   * indexing step. Cloning the map is much faster (2ms). It is perhaps better to index timetables
-   * as they are changed to avoid experiencing all this lag at once, but we want to avoid
-   * re-indexing when receiving multiple updates for the same timetable in rapid succession. This
-   * compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater. The indexing
-   * could be made much more efficient as well.
+   * The maps are persistent, so the committed snapshot shares them with this buffer without
+   * copying. The cost of a commit is dominated by updating the transit layer with the dirty
+   * timetables, not by the amount of realtime data accumulated.
    *
    * @return an immutable copy of this TimetableSnapshot with all updates applied
    */
@@ -372,20 +367,20 @@ public class TimetableSnapshot {
       return null;
     }
     TimetableSnapshot ret = new TimetableSnapshot(
-      Map.copyOf(timetables),
-      Map.copyOf(realTimeNewTripPatternsForModifiedTrips),
-      Map.copyOf(realtimeAddedRoutes),
-      Map.copyOf(realTimeAddedTrips),
-      Map.copyOf(realTimeAddedPatternForTrip),
-      ImmutableSetMultimap.copyOf(realTimeAddedPatternsForRoute),
-      Map.copyOf(realTimeAddedTripOnServiceDateById),
-      Map.copyOf(realTimeAddedTripOnServiceDateForTripAndDay),
-      ImmutableSetMultimap.copyOf(patternsForStop),
+      timetables,
+      realTimeNewTripPatternsForModifiedTrips,
+      realtimeAddedRoutes,
+      realTimeAddedTrips,
+      realTimeAddedPatternForTrip,
+      realTimeAddedPatternsForRoute,
+      realTimeAddedTripOnServiceDateById,
+      realTimeAddedTripOnServiceDateForTripAndDay,
+      patternsForStop,
       true
     );
 
     if (transitLayerUpdater != null) {
-      transitLayerUpdater.update(dirtyTimetables.values(), timetables);
+      transitLayerUpdater.update(dirtyTimetables.values(), timetables.asMap());
     }
 
     this.dirtyTimetables.clear();
@@ -437,7 +432,10 @@ public class TimetableSnapshot {
     if (pattern != null) {
       // Dissociate the given trip from any realtime-added pattern.
       // The trip will then fall back to its original scheduled pattern.
-      realTimeNewTripPatternsForModifiedTrips.remove(new TripIdAndServiceDate(tripId, serviceDate));
+      realTimeNewTripPatternsForModifiedTrips =
+        realTimeNewTripPatternsForModifiedTrips.minus(
+          new TripIdAndServiceDate(tripId, serviceDate)
+        );
       // Remove times for the trip from any timetables
       // under that now-obsolete realtime-added pattern.
       SortedSet<Timetable> sortedTimetables = this.timetables.get(pattern);
@@ -483,8 +481,8 @@ public class TimetableSnapshot {
     validateNotReadOnly();
 
     boolean modified = false;
-    for (Iterator<TripPattern> it = timetables.keySet().iterator(); it.hasNext();) {
-      TripPattern pattern = it.next();
+    // The key view belongs to the current version of the map, so it is not affected by the changes
+    for (TripPattern pattern : timetables.keys()) {
       SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
       SortedSet<Timetable> toKeepTimetables = new TreeSet<>(new SortedTimetableComparator());
       for (Timetable timetable : sortedTimetables) {
@@ -496,24 +494,19 @@ public class TimetableSnapshot {
       }
 
       if (toKeepTimetables.isEmpty()) {
-        it.remove();
-      } else {
-        timetables.put(pattern, ImmutableSortedSet.copyOfSorted(toKeepTimetables));
+        timetables = timetables.minus(pattern);
+      } else if (toKeepTimetables.size() < sortedTimetables.size()) {
+        timetables = timetables.plus(pattern, ImmutableSortedSet.copyOfSorted(toKeepTimetables));
       }
     }
 
     // Also remove last added trip pattern for days that are purged
-    for (
-      Iterator<Entry<TripIdAndServiceDate, TripPattern>> iterator = realTimeNewTripPatternsForModifiedTrips
-        .entrySet()
-        .iterator();
-      iterator.hasNext();
-    ) {
-      TripIdAndServiceDate tripIdAndServiceDate = iterator.next().getKey();
-      if (!serviceDate.isBefore(tripIdAndServiceDate.serviceDate())) {
-        iterator.remove();
-        modified = true;
-      }
+    var purged = realTimeNewTripPatternsForModifiedTrips.minusIf(tripIdAndServiceDate ->
+      !serviceDate.isBefore(tripIdAndServiceDate.serviceDate())
+    );
+    if (purged != realTimeNewTripPatternsForModifiedTrips) {
+      realTimeNewTripPatternsForModifiedTrips = purged;
+      modified = true;
     }
 
     return modified;
@@ -532,7 +525,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
-    return patternsForStop.get(stop);
+    return valuesOf(patternsForStop.get(stop));
   }
 
   /**
@@ -553,7 +546,10 @@ public class TimetableSnapshot {
    * @return true if the timetable changed as a result of the call
    */
   private boolean clearTimetables(String feedId) {
-    return timetables.keySet().removeIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    var cleared = timetables.minusIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    boolean modified = cleared != timetables;
+    timetables = cleared;
+    return modified;
   }
 
   /**
@@ -563,9 +559,12 @@ public class TimetableSnapshot {
    * @return true if the newTripPatternForModifiedTrip changed as a result of the call
    */
   private boolean clearNewTripPatternsForModifiedTrips(String feedId) {
-    return realTimeNewTripPatternsForModifiedTrips
-      .keySet()
-      .removeIf(tripIdAndServiceDate -> feedId.equals(tripIdAndServiceDate.tripId().getFeedId()));
+    var cleared = realTimeNewTripPatternsForModifiedTrips.minusIf(tripIdAndServiceDate ->
+      feedId.equals(tripIdAndServiceDate.tripId().getFeedId())
+    );
+    boolean modified = cleared != realTimeNewTripPatternsForModifiedTrips;
+    realTimeNewTripPatternsForModifiedTrips = cleared;
+    return modified;
   }
 
   /**
@@ -575,18 +574,20 @@ public class TimetableSnapshot {
   private boolean clearEntriesForRealtimeAddedTrips(String feedId) {
     // it is sufficient to test for the removal of added trips, since other indexed entities are
     // added only if a new trip is added.
-    boolean removedEntry = realTimeAddedTrips
-      .keySet()
-      .removeIf(id -> feedId.equals(id.getFeedId()));
-    realTimeAddedPatternForTrip.keySet().removeIf(trip -> feedId.equals(trip.getId().getFeedId()));
-    realTimeAddedTripOnServiceDateForTripAndDay
-      .keySet()
-      .removeIf(tripOnServiceDate -> feedId.equals(tripOnServiceDate.tripId().getFeedId()));
-    realTimeAddedTripOnServiceDateById.keySet().removeIf(id -> feedId.equals(id.getFeedId()));
-    realTimeAddedPatternsForRoute
-      .keySet()
-      .removeIf(route -> feedId.equals(route.getId().getFeedId()));
-    realtimeAddedRoutes.keySet().removeIf(id -> feedId.equals(id.getFeedId()));
+    var trips = realTimeAddedTrips.minusIf(id -> feedId.equals(id.getFeedId()));
+    boolean removedEntry = trips != realTimeAddedTrips;
+    realTimeAddedTrips = trips;
+    realTimeAddedPatternForTrip =
+      realTimeAddedPatternForTrip.minusIf(trip -> feedId.equals(trip.getId().getFeedId()));
+    realTimeAddedTripOnServiceDateForTripAndDay =
+      realTimeAddedTripOnServiceDateForTripAndDay.minusIf(tripOnServiceDate ->
+        feedId.equals(tripOnServiceDate.tripId().getFeedId())
+      );
+    realTimeAddedTripOnServiceDateById =
+      realTimeAddedTripOnServiceDateById.minusIf(id -> feedId.equals(id.getFeedId()));
+    realTimeAddedPatternsForRoute =
+      realTimeAddedPatternsForRoute.minusIf(route -> feedId.equals(route.getId().getFeedId()));
+    realtimeAddedRoutes = realtimeAddedRoutes.minusIf(id -> feedId.equals(id.getFeedId()));
     return removedEntry;
   }
 
@@ -598,7 +599,7 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        patternsForStop = plusToSet(patternsForStop, stop, tripPattern);
       }
     }
   }
@@ -628,7 +629,7 @@ public class TimetableSnapshot {
       sortedTimetables.remove(original);
     }
     sortedTimetables.add(updated);
-    timetables.put(pattern, ImmutableSortedSet.copyOfSorted(sortedTimetables));
+    timetables = timetables.plus(pattern, ImmutableSortedSet.copyOfSorted(sortedTimetables));
 
     // if the timetable was already modified by a previous real-time update in the same snapshot
     // and for the same service date,
@@ -638,6 +639,28 @@ public class TimetableSnapshot {
     dirty = true;
   }
 
+  /**
+   * Add the value to the persistent set of the given key, a set is a persistent map with the
+   * values as both keys and values.
+   */
+  private static <K, V> PersistentHashMap<K, PersistentHashMap<V, V>> plusToSet(
+    PersistentHashMap<K, PersistentHashMap<V, V>> map,
+    K key,
+    V value
+  ) {
+    var set = map.get(key);
+    return map.plus(key, (set == null ? PersistentHashMap.<V, V>of() : set).plus(value, value));
+  }
+
+  private static <V> Collection<V> valuesOf(@Nullable PersistentHashMap<V, V> set) {
+    return set == null ? List.of() : set.keys();
+  }
+
+  @Nullable
+  private static <K, V> V getByNullableKey(@Nullable K key, PersistentHashMap<K, V> map) {
+    return key == null ? null : map.get(key);
+  }
+
   private void validateNotReadOnly() {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
@@ -0,0 +1,181 @@
+package org.opentripplanner.osm;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read the blocks of a PBF file and parse them on a pool of worker threads. The blocks are read
+ * from the stream by the calling thread, and decompressed and decoded by the workers. The parsed
+ * entities are added to the {@link OsmDatabase} by the calling thread in the order of the blocks
+ * in the file, so the result is the same for any number of threads, and the database does not
+ * need to be thread-safe. Only a limited number of blocks are parsed ahead of the database, to
+ * bound the memory used by the parsed entities.
+ */
+class OsmBlockReader implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OsmBlockReader.class);
+
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
+  /** The max size of a blob header and a blob, from the PBF format specification. */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final OsmProvider provider;
+  private final Map<String, String> stringTable = new ConcurrentHashMap<>();
+
+  @Nullable
+  private final ExecutorService executor;
+
+  private final int maxBlocksAhead;
+
+  /**
+   * @param threads the number of worker threads, the blocks are parsed by the calling thread
+   *                if less than 2.
+   */
+  OsmBlockReader(OsmProvider provider, int threads) {
+    this.provider = provider;
+    this.executor =
+      threads > 1
+        ? Executors.newFixedThreadPool(
+          threads,
+          new ThreadFactoryBuilder().setNameFormat("osm-parser-%d").setDaemon(true).build()
+        )
+        : null;
+    this.maxBlocksAhead = 2 * threads;
+  }
+
+  /** Read all blocks in the input and add the entities of the given phase to the database. */
+  void read(InputStream input, OsmParserPhase phase, OsmDatabase osmdb) throws IOException {
+    Deque<Future<OsmParser>> pending = new ArrayDeque<>();
+    try {
+      Fileformat.BlobHeader header;
+      while ((header = readBlobHeader(input)) != null) {
+        byte[] blob = readFully(input, header.getDatasize(), MAX_BLOB_SIZE);
+        String type = header.getType();
+        if (!OSM_HEADER.equals(type) && !OSM_DATA.equals(type)) {
+          LOG.info("Skipped OSM block of unknown type: {}", type);
+          continue;
+        }
+        if (executor == null) {
+          parse(phase, type, blob).addTo(osmdb);
+        } else {
+          pending.add(executor.submit(() -> parse(phase, type, blob)));
+          if (pending.size() > maxBlocksAhead) {
+            get(pending.poll()).addTo(osmdb);
+          }
+        }
+      }
+      while (!pending.isEmpty()) {
+        get(pending.poll()).addTo(osmdb);
+      }
+    } finally {
+      pending.forEach(it -> it.cancel(true));
+    }
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private OsmParser parse(OsmParserPhase phase, String type, byte[] blob) throws IOException {
+    ByteString data = decompress(Fileformat.Blob.parseFrom(blob));
+    var parser = new OsmParser(provider, phase, stringTable);
+    if (OSM_HEADER.equals(type)) {
+      parser.parse(Osmformat.HeaderBlock.parseFrom(data));
+    } else {
+      parser.parse(Osmformat.PrimitiveBlock.parseFrom(data));
+    }
+    return parser;
+  }
+
+  private static ByteString decompress(Fileformat.Blob blob) throws IOException {
+    if (blob.hasRaw()) {
+      return blob.getRaw();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported OSM block compression, only zlib is supported.");
+    }
+    byte[] data = new byte[blob.getRawSize()];
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      inflater.inflate(data);
+      if (!inflater.finished()) {
+        throw new IOException("The OSM block is larger than its declared size.");
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Invalid compressed OSM block.", e);
+    } finally {
+      inflater.end();
+    }
+    return ByteString.copyFrom(data);
+  }
+
+  /** Read the size and header of the next blob, or return {@code null} at the end of input. */
+  @Nullable
+  private static Fileformat.BlobHeader readBlobHeader(InputStream input) throws IOException {
+    byte[] size = input.readNBytes(4);
+    if (size.length == 0) {
+      return null;
+    }
+    if (size.length < 4) {
+      throw new EOFException("Unexpected end of OSM file.");
+    }
+    int headerSize = ByteBuffer.wrap(size).getInt();
+    return Fileformat.BlobHeader.parseFrom(readFully(input, headerSize, MAX_HEADER_SIZE));
+  }
+
+  private static byte[] readFully(InputStream input, int size, int maxSize) throws IOException {
+    if (size < 0 || size > maxSize) {
+      throw new IOException("Invalid OSM block size: " + size);
+    }
+    byte[] bytes = input.readNBytes(size);
+    if (bytes.length < size) {
+      throw new EOFException("Unexpected end of OSM file.");
+    }
+    return bytes;
+  }
+
+  private static OsmParser get(Future<OsmParser> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing OSM data.", e);
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      if (cause instanceof IOException ioException) {
+        throw ioException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+}
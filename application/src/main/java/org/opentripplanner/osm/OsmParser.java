@@ -1,6 +1,6 @@
 package org.opentripplanner.osm;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -15,20 +15,30 @@ import org.opentripplanner.osm.model.OsmTag;
 import org.opentripplanner.osm.model.OsmWay;
 
 /**
- * Parser for the OpenStreetMap PBF Format.
+ * Parser for one block of the OpenStreetMap PBF Format. The entities of the current phase are
+ * kept until they are added to the {@link OsmDatabase} with {@link #addTo(OsmDatabase)}, so
+ * several blocks can be parsed in parallel, see {@link OsmBlockReader}.
  *
  * @since 0.4
  */
 class OsmParser extends BinaryParser {
 
-  private final OsmDatabase osmdb;
-  private final Map<String, String> stringTable = new HashMap<>();
   private final OsmProvider provider;
-  private OsmParserPhase parsePhase;
+  private final OsmParserPhase parsePhase;
+  private final Map<String, String> stringTable;
 
-  public OsmParser(OsmDatabase osmdb, OsmProvider provider) {
-    this.osmdb = Objects.requireNonNull(osmdb);
+  private final List<OsmRelation> parsedRelations = new ArrayList<>();
+  private final List<OsmWay> parsedWays = new ArrayList<>();
+  private final List<OsmNode> parsedNodes = new ArrayList<>();
+
+  /**
+   * @param stringTable the table used to internalize strings, shared by the parsers of all blocks
+   *                    and thread-safe.
+   */
+  OsmParser(OsmProvider provider, OsmParserPhase phase, Map<String, String> stringTable) {
     this.provider = Objects.requireNonNull(provider);
+    this.parsePhase = Objects.requireNonNull(phase);
+    this.stringTable = Objects.requireNonNull(stringTable);
   }
 
   // The strings are already being pulled from a string table in the PBF file,
@@ -36,12 +46,8 @@ class OsmParser extends BinaryParser {
   // String.intern grinds to a halt on large PBF files (as it did on GTFS import), so
   // we implement our own.
   public String internalize(String s) {
-    String fromTable = stringTable.get(s);
-    if (fromTable == null) {
-      stringTable.put(s, s);
-      return s;
-    }
-    return fromTable;
+    String fromTable = stringTable.putIfAbsent(s, s);
+    return fromTable == null ? s : fromTable;
   }
 
   @Override
@@ -49,11 +55,11 @@ class OsmParser extends BinaryParser {
     // Jump in circles
   }
 
-  /**
-   * Set the phase to be parsed
-   */
-  public void setPhase(OsmParserPhase phase) {
-    this.parsePhase = phase;
+  /** Add the entities parsed from the block to the database, in the order they were read. */
+  void addTo(OsmDatabase osmdb) {
+    parsedRelations.forEach(osmdb::addRelation);
+    parsedWays.forEach(osmdb::addWay);
+    parsedNodes.forEach(osmdb::addNode);
   }
 
   @Override
@@ -99,7 +105,7 @@ class OsmParser extends BinaryParser {
         tmp.addMember(relMember);
       }
 
-      osmdb.addRelation(tmp);
+      parsedRelations.add(tmp);
     }
   }
 
@@ -144,7 +150,7 @@ class OsmParser extends BinaryParser {
         j++; // Skip over the '0' delimiter.
       }
 
-      osmdb.addNode(tmp);
+      parsedNodes.add(tmp);
     }
   }
 
@@ -171,7 +177,7 @@ class OsmParser extends BinaryParser {
         tmp.addTag(tag);
       }
 
-      osmdb.addNode(tmp);
+      parsedNodes.add(tmp);
     }
   }
 
@@ -201,7 +207,7 @@ class OsmParser extends BinaryParser {
         lastId = j + lastId;
       }
 
-      osmdb.addWay(tmp);
+      parsedWays.add(tmp);
     }
   }
 
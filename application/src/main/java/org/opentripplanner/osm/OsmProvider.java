@@ -5,7 +5,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -22,7 +21,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. In each pass the blocks of the file are decoded in
+ * parallel, see {@link OsmBlockReader}.
  */
 public class OsmProvider {
 
@@ -40,6 +40,9 @@ public class OsmProvider {
   private final WayPropertySet wayPropertySet;
   private byte[] cachedBytes = null;
 
+  /** The number of threads decoding the PBF blocks, the result does not depend on it. */
+  private final int parserThreads = Runtime.getRuntime().availableProcessors();
+
   /** For tests */
   public OsmProvider(File file, boolean cacheDataInMem) {
     this(
@@ -67,16 +70,14 @@ public class OsmProvider {
   }
 
   public void readOsm(OsmDatabase osmdb) {
-    try {
-      OsmParser parser = new OsmParser(osmdb, this);
-
-      parsePhase(parser, OsmParserPhase.Relations);
+    try (var reader = new OsmBlockReader(this, parserThreads)) {
+      parsePhase(reader, osmdb, OsmParserPhase.Relations);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(reader, osmdb, OsmParserPhase.Ways);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(reader, osmdb, OsmParserPhase.Nodes);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
@@ -105,21 +106,10 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
-    parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-      }
+  private void parsePhase(OsmBlockReader reader, OsmDatabase osmdb, OsmParserPhase phase)
+    throws IOException {
+    try (InputStream in = createInputStream(phase)) {
+      reader.read(in, phase, osmdb);
     }
   }
 
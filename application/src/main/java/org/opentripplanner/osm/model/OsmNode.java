@@ -15,6 +15,20 @@ public class OsmNode extends OsmWithTags {
     return "osm node " + id;
   }
 
+  /**
+   * Nodes are equal if they have the same id. The node store of the OSM database may create a new
+   * instance each time a node is looked up.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof OsmNode other && id == other.id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
+
   public Coordinate getCoordinate() {
     return new Coordinate(this.lon, this.lat);
   }
@@ -1,12 +1,16 @@
 package org.opentripplanner.raptor;
 
+import java.util.List;
 import java.util.stream.Collectors;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.api.response.StopArrivalsConsumer;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.service.HeuristicSearchTask;
+import org.opentripplanner.raptor.service.OneToAllSearch;
 import org.opentripplanner.raptor.service.RangeRaptorDynamicSearch;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
@@ -35,7 +39,12 @@ public class RaptorService<T extends RaptorTripSchedule> {
     RaptorResponse<T> response;
 
     if (request.isDynamicSearch()) {
-      response = new RangeRaptorDynamicSearch<>(config, transitData, request).route();
+      var search = new RangeRaptorDynamicSearch<>(config, transitData, request);
+      try {
+        response = search.route();
+      } finally {
+        search.releaseHeuristics();
+      }
     } else {
       response = routeUsingStdWorker(transitData, request);
     }
@@ -43,6 +52,58 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Find all pareto-optimal departures within the search-window in one multi-criteria Range
+   * Raptor search. The result is a departure-time profile for the origin-destination pair: all
+   * paths which are optimal on departure-time, arrival-time, number-of-transfers and cost.
+   * <p>
+   * This is a regular {@link #route(RaptorRequest, RaptorTransitDataProvider)} search with the
+   * timetable-view enabled, but the search-window is not adjusted. Instead of paging through a
+   * long period with many small searches, the Range Raptor iterations reuse the state from the
+   * previous iteration and the access and egress paths are only computed once.
+   *
+   * @throws IllegalArgumentException if the request is not a multi-criteria forward search with
+   *                                  the earliest-departure-time and search-window set.
+   */
+  public RaptorResponse<T> profile(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData
+  ) {
+    var s = request.searchParams();
+    if (
+      !request.profile().is(RaptorProfile.MULTI_CRITERIA) ||
+      request.searchDirection().isInReverse() ||
+      !s.isEarliestDepartureTimeSet() ||
+      !s.isSearchWindowSet()
+    ) {
+      throw new IllegalArgumentException(
+        "A profile search must be a multi-criteria forward search with the " +
+        "earliest-departure-time and search-window set: " +
+        request
+      );
+    }
+    if (!s.timetable()) {
+      request = request.mutate().searchParams().timetable(true).build();
+    }
+    return route(request, transitData);
+  }
+
+  /**
+   * Run a standard one-to-all search for each request, and pass the best arrival times at all
+   * stops to the consumer. Each request should contain the access paths for one origin. This is
+   * used to compute travel-time matrices, the searches run in parallel if Raptor is configured
+   * with a thread-pool. The consumer must be thread-safe, see {@link StopArrivalsConsumer}.
+   *
+   * @throws IllegalArgumentException if a request is not a STANDARD or BEST_TIME forward search.
+   */
+  public void oneToAll(
+    List<RaptorRequest<T>> requests,
+    RaptorTransitDataProvider<T> transitData,
+    StopArrivalsConsumer consumer
+  ) {
+    new OneToAllSearch<>(config, transitData, requests).route(consumer);
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -60,6 +121,9 @@ public class RaptorService<T extends RaptorTripSchedule> {
     revHeur.forceRun();
 
     fwdHeur.debugCompareResult(revHeur);
+
+    fwdHeur.release();
+    revHeur.release();
   }
 
   /* private methods */
@@ -20,6 +20,38 @@ public interface RaptorTuningParameters {
     return 60;
   }
 
+  /**
+   * Split the search-window of a multi-criteria search into time-slices of this size, and run
+   * them in parallel. Zero(default) disables the feature. This requires a thread-pool and the
+   * {@link Optimization#PARALLEL} optimization to be enabled.
+   * <p>
+   * see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig}
+   */
+  default int searchWindowTimeSliceInSeconds() {
+    return 0;
+  }
+
+  /**
+   * The maximum number of destination heuristics to keep in the heuristics cache. The heuristics
+   * are shared between requests with the same destination, see
+   * {@link org.opentripplanner.raptor.spi.RaptorTransitDataProvider#transitDataCacheKey()}.
+   * <p>
+   * see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig}
+   */
+  default int heuristicsCacheMaxSize() {
+    return 100;
+  }
+
+  /**
+   * How long a destination heuristics is kept in the heuristics cache. Zero(default) disables
+   * the cache.
+   * <p>
+   * see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig}
+   */
+  default int heuristicsCacheTimeToLiveInSeconds() {
+    return 0;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
@@ -0,0 +1,17 @@
+package org.opentripplanner.raptor.api.response;
+
+/**
+ * Receive the result of a one-to-all search, one call for each request.
+ * <p>
+ * The searches may run in parallel, so the implementation MUST BE THREAD-SAFE. The stop
+ * arrivals are only valid during the call; The state is reused by the next search, so any
+ * information needed later must be copied.
+ */
+@FunctionalInterface
+public interface StopArrivalsConsumer {
+  /**
+   * @param requestIndex The index of the request in the list of requests passed into the search.
+   * @param arrivals The best arrival times for all stops reached.
+   */
+  void accept(int requestIndex, StopArrivals arrivals);
+}
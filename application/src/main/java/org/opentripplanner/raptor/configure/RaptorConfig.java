@@ -1,6 +1,10 @@
 package org.opentripplanner.raptor.configure;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorEnvironment;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
@@ -8,17 +12,22 @@ import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptorWorkerComposite;
+import org.opentripplanner.raptor.rangeraptor.TimeSlicedRangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContextViaLeg;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.PassThroughPointsService;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RangeRaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.raptor.rangeraptor.standard.configure.HeuristicsCache;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.standard.configure.StdWorkerStatePool;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 
@@ -34,6 +43,8 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   private final RaptorEnvironment environment;
   private final RaptorTuningParameters tuningParameters;
+  private final StdWorkerStatePool stdWorkerStatePool = new StdWorkerStatePool();
+  private final HeuristicsCache<T> heuristicsCache;
 
   /** The service is not final, because it depends on the request. */
   private PassThroughPointsService passThroughPointsService = null;
@@ -41,6 +52,11 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   public RaptorConfig(RaptorTuningParameters tuningParameters, RaptorEnvironment environment) {
     this.tuningParameters = tuningParameters;
     this.environment = environment;
+    this.heuristicsCache =
+      new HeuristicsCache<>(
+        tuningParameters.heuristicsCacheMaxSize(),
+        Duration.ofSeconds(tuningParameters.heuristicsCacheTimeToLiveInSeconds())
+      );
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -60,19 +76,17 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
   ) {
-    var context = context(transitData, request);
-    var stdConfig = new StdRangeRaptorConfig<>(context);
-    return createRangeRaptor(
-      context,
-      createWorker(context.legs().getFirst(), stdConfig.state(), stdConfig.strategy())
-    );
+    return createRangeRaptorWithStdWorker(transitData, request, null);
   }
 
-  public RangeRaptor<T> createRangeRaptorWithMcWorker(
+  public RaptorRouter<T> createRangeRaptorWithMcWorker(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
     Heuristics heuristics
   ) {
+    if (useSearchWindowTimeSlices(request)) {
+      return createTimeSlicedRangeRaptorWithMcWorker(transitData, request, heuristics);
+    }
     var context = context(transitData, request);
     RangeRaptorWorker<T> worker = null;
     McStopArrivals<T> nextStopArrivals = null;
@@ -95,11 +109,84 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createRangeRaptor(context, worker);
   }
 
+  /**
+   * Split the search-window into time-slices and create one multi-criteria Range Raptor search
+   * for each slice. The slices are aligned with the iteration departure step, so together they
+   * iterate over the same departure times as a single search would do.
+   */
+  private RaptorRouter<T> createTimeSlicedRangeRaptorWithMcWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Heuristics heuristics
+  ) {
+    int step = tuningParameters.iterationDepartureStepInSeconds();
+    // Round up to a whole number of iteration steps
+    int sliceSize = ((tuningParameters.searchWindowTimeSliceInSeconds() + step - 1) / step) * step;
+    int edt = request.searchParams().earliestDepartureTime();
+    int searchWindow = request.searchParams().searchWindowInSeconds();
+
+    List<RaptorRouter<T>> slices = new ArrayList<>();
+    DestinationArrivalPaths<T> firstSlicePaths = null;
+
+    for (int offset = 0; offset < searchWindow; offset += sliceSize) {
+      var sliceRequest = request
+        .mutate()
+        .searchParams()
+        .earliestDepartureTime(edt + offset)
+        .searchWindowInSeconds(Math.min(sliceSize, searchWindow - offset))
+        .build();
+      var context = context(transitData, sliceRequest);
+      var leg = context.legs().getFirst();
+      var c = new McRangeRaptorConfig<>(leg, passThroughPointsService).withHeuristics(heuristics);
+      slices.add(createRangeRaptor(context, createWorker(leg, c.state(), c.strategy())));
+      if (firstSlicePaths == null) {
+        firstSlicePaths = c.destinationArrivalPaths();
+      }
+    }
+    return new TimeSlicedRangeRaptor<>(slices, firstSlicePaths, environment);
+  }
+
   public RangeRaptor<T> createRangeRaptorWithHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
   ) {
-    return createRangeRaptorWithStdWorker(transitData, request);
+    return createRangeRaptorWithStdWorker(transitData, request, stdWorkerStatePool);
+  }
+
+  /**
+   * Create a standard Range Raptor search with the worker state taken from a pool. The
+   * {@link RaptorRouterResult#release()} must be called when the result is no longer used, to
+   * return the state to the pool.
+   */
+  public RangeRaptor<T> createRangeRaptorWithPooledStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    return createRangeRaptorWithStdWorker(transitData, request, stdWorkerStatePool);
+  }
+
+  /**
+   * Return the result of a heuristic search shared with other requests, or {@code null} if the
+   * heuristic search can not be shared. See {@link HeuristicsCache}.
+   */
+  @Nullable
+  public RaptorRouterResult<T> findSharedHeuristicSearchResult(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    if (!heuristicsCache.isCacheable(transitData, request)) {
+      return null;
+    }
+    return heuristicsCache.get(
+      context(transitData, request),
+      transitData,
+      request,
+      sharedRequest -> createRangeRaptorWithStdWorker(transitData, sharedRequest, null).route()
+    );
+  }
+
+  public HeuristicsCache<T> heuristicsCache() {
+    return heuristicsCache;
   }
 
   public Heuristics createHeuristic(
@@ -108,7 +195,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     RaptorRouterResult<T> results
   ) {
     var context = context(transitData, request);
-    return new StdRangeRaptorConfig<>(context).createHeuristics(results);
+    return StdRangeRaptorConfig.createHeuristics(context, results);
   }
 
   public boolean isMultiThreaded() {
@@ -135,6 +222,44 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   /* private factory methods */
 
+  /**
+   * The heuristic searches reuse the best times arrays, the result must be released when the
+   * heuristics are no longer needed.
+   */
+  private RangeRaptor<T> createRangeRaptorWithStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    @Nullable StdWorkerStatePool statePool
+  ) {
+    var context = context(transitData, request);
+    var stdConfig = new StdRangeRaptorConfig<>(context, statePool);
+    return createRangeRaptor(
+      context,
+      createWorker(context.legs().getFirst(), stdConfig.state(), stdConfig.strategy())
+    );
+  }
+
+  /**
+   * The time-sliced search is opt-in, and only supported for a plain forward search. Debugging is
+   * not supported, since the debug handlers are not thread-safe.
+   */
+  private boolean useSearchWindowTimeSlices(RaptorRequest<T> request) {
+    var s = request.searchParams();
+    int sliceSize = tuningParameters.searchWindowTimeSliceInSeconds();
+    return (
+      sliceSize > 0 &&
+      isMultiThreaded() &&
+      request.runInParallel() &&
+      request.searchDirection().isForward() &&
+      request.debug().stops().isEmpty() &&
+      request.debug().path().isEmpty() &&
+      !s.hasViaLocations() &&
+      s.isEarliestDepartureTimeSet() &&
+      s.isSearchWindowSet() &&
+      s.searchWindowInSeconds() > sliceSize
+    );
+  }
+
   private static PassThroughPointsService createPassThroughPointsService(RaptorRequest<?> request) {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
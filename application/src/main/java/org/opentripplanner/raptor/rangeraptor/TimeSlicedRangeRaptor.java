@@ -0,0 +1,84 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+
+/**
+ * Run a Range Raptor search as a set of independent searches, one for each time-slice of the
+ * search-window. The slices run in parallel using the Raptor thread-pool, each with its own
+ * worker state. When all slices are complete, the paths found are merged into the
+ * {@link DestinationArrivalPaths} of the first slice - the slice with the earliest departure
+ * times. The first slice runs in the caller thread, and its result is returned.
+ * <p>
+ * Each slice does not get the pruning from the later iterations of the search, so the total
+ * amount of work is larger than for a single search. The benefit is a lower response time for
+ * long search-windows, when there are idle cores available.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class TimeSlicedRangeRaptor<T extends RaptorTripSchedule> implements RaptorRouter<T> {
+
+  private final List<RaptorRouter<T>> slices;
+  private final DestinationArrivalPaths<T> firstSlicePaths;
+  private final RaptorEnvironment environment;
+
+  /**
+   * @param slices The searches to run, the first slice should be the one with the earliest
+   *               departure times.
+   * @param firstSlicePaths The destination paths of the first slice, the paths from the other
+   *                        slices are merged into this.
+   */
+  public TimeSlicedRangeRaptor(
+    List<RaptorRouter<T>> slices,
+    DestinationArrivalPaths<T> firstSlicePaths,
+    RaptorEnvironment environment
+  ) {
+    if (slices.size() < 2) {
+      throw new IllegalArgumentException("At least two slices expected: " + slices.size());
+    }
+    this.slices = List.copyOf(slices);
+    this.firstSlicePaths = firstSlicePaths;
+    this.environment = environment;
+  }
+
+  @Override
+  public RaptorRouterResult<T> route() {
+    var threadPool = environment.threadPool();
+    List<Future<RaptorRouterResult<T>>> asyncResults = new ArrayList<>();
+    try {
+      for (var slice : slices.subList(1, slices.size())) {
+        asyncResults.add(threadPool.submit(slice::route));
+      }
+      var result = slices.getFirst().route();
+
+      for (var it : asyncResults) {
+        firstSlicePaths.addAll(it.get().extractPaths());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw environment.mapInterruptedException(e);
+    } catch (ExecutionException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run time-sliced Range Raptor search. Details: " + e.getMessage(),
+        e
+      );
+    } catch (RuntimeException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      throw e;
+    }
+  }
+}
@@ -32,4 +32,10 @@ public interface RaptorRouterResult<T extends RaptorTripSchedule> {
    * Return {@code true} if the destination was reached at least once.
    */
   boolean isDestinationReached();
+
+  /**
+   * Release resources held by the result, like pooled arrays. The result and the stop arrivals
+   * extracted from it can NOT be used after this. The default is to do nothing.
+   */
+  default void release() {}
 }
@@ -1,8 +1,6 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -35,7 +33,7 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
   private final DestinationArrivalPaths<T> paths;
   private final HeuristicsProvider<T> heuristics;
   private final McStopArrivalFactory<T> stopArrivalFactory;
-  private final List<McStopArrival<T>> arrivalsCache = new ArrayList<>();
+  private final McStopArrivalCandidates<T> arrivalsCache;
   private final RaptorCostCalculator<T> calculatorGeneralizedCost;
   private final RaptorTransitCalculator<T> transitCalculator;
 
@@ -48,6 +46,7 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     DestinationArrivalPaths<T> paths,
     HeuristicsProvider<T> heuristics,
     McStopArrivalFactory<T> stopArrivalFactory,
+    McStopArrivalCandidates<T> arrivalsCache,
     RaptorCostCalculator<T> calculatorGeneralizedCost,
     RaptorTransitCalculator<T> transitCalculator,
     WorkerLifeCycle lifeCycle
@@ -56,6 +55,7 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     this.paths = paths;
     this.heuristics = heuristics;
     this.stopArrivalFactory = stopArrivalFactory;
+    this.arrivalsCache = arrivalsCache;
     this.calculatorGeneralizedCost = calculatorGeneralizedCost;
     this.transitCalculator = transitCalculator;
 
@@ -136,14 +136,7 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
 
     final int c1 = calculateC1(ride, alightStop, alightTime, alightSlack);
 
-    var transitState = stopArrivalFactory.createTransitStopArrival(
-      ride,
-      alightStop,
-      stopArrivalTime,
-      c1
-    );
-
-    arrivalsCache.add(transitState);
+    arrivalsCache.addTransitArrival(ride, alightStop, stopArrivalTime, c1);
   }
 
   /* private methods */
@@ -158,12 +151,12 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
   /** This method is called by the Worker life cycle */
   private void transitsForRoundComplete() {
     arrivals.clearTouchedStopsAndSetStopMarkers();
-    commitCachedArrivals();
+    arrivalsCache.commit();
   }
 
   /** This method is part of Worker life cycle */
   private void transfersForRoundComplete() {
-    commitCachedArrivals();
+    arrivalsCache.commit();
   }
 
   private void transferToStop(
@@ -176,18 +169,11 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
       int arrivalTime = it.arrivalTime() + transferTimeInSeconds;
 
       if (!exceedsTimeLimit(arrivalTime)) {
-        arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
+        arrivalsCache.addTransferArrival(it, transfer, arrivalTime);
       }
     }
   }
 
-  private void commitCachedArrivals() {
-    for (McStopArrival<T> arrival : arrivalsCache) {
-      addStopArrival(arrival);
-    }
-    arrivalsCache.clear();
-  }
-
   private void addStopArrival(McStopArrival<T> arrival) {
     // TODO: 2023-05-17 via pass through: this is a problem for passThrough searches
     //  we need to figure out how to perform heuristic optimization for those searches
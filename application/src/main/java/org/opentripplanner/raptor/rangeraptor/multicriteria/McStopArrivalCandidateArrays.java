@@ -0,0 +1,157 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
+
+import java.util.Arrays;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.PatternRide;
+
+/**
+ * Keep the stop arrival candidates in a struct-of-arrays, and only create the stop arrival
+ * objects for candidates which are accepted by the heuristics and the stop arrival pareto-set.
+ * Most candidates are rejected, so this avoids creating a large number of short-lived objects.
+ * The arrays are reused for all rounds and iterations in the search, they are only resized if
+ * the capacity is too small.
+ * <p>
+ * The candidate is checked against the existing arrivals at the stop BEFORE the arrival is
+ * created, see {@link McStopArrivals#isDominated(int, int, int, int, boolean)}. This is only
+ * equivalent with adding the arrival to the pareto-set if the arrival comparator is transitive,
+ * so this can NOT be used if c1 is relaxed or c2 is used. Rejected candidates are not reported
+ * to the debug listeners, so this can not be used if stop arrivals are debugged either.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class McStopArrivalCandidateArrays<T extends RaptorTripSchedule>
+  implements McStopArrivalCandidates<T> {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final McStopArrivals<T> arrivals;
+  private final HeuristicsProvider<T> heuristics;
+  private final McStopArrivalFactory<T> stopArrivalFactory;
+
+  private int size = 0;
+  private int[] stops = new int[INITIAL_CAPACITY];
+  private int[] arrivalTimes = new int[INITIAL_CAPACITY];
+  private int[] paretoRounds = new int[INITIAL_CAPACITY];
+  private int[] travelDurations = new int[INITIAL_CAPACITY];
+  private int[] c1s = new int[INITIAL_CAPACITY];
+
+  /** The previous arrival, used to create transfer arrivals. */
+  private McStopArrival<?>[] previous = new McStopArrival<?>[INITIAL_CAPACITY];
+
+  /** The ride for transit arrivals, {@code null} for transfers. */
+  private PatternRide<?>[] rides = new PatternRide<?>[INITIAL_CAPACITY];
+
+  /** The transfer for transfer arrivals, {@code null} for transit. */
+  private RaptorTransfer[] transfers = new RaptorTransfer[INITIAL_CAPACITY];
+
+  public McStopArrivalCandidateArrays(
+    McStopArrivals<T> arrivals,
+    HeuristicsProvider<T> heuristics,
+    McStopArrivalFactory<T> stopArrivalFactory
+  ) {
+    this.arrivals = arrivals;
+    this.heuristics = heuristics;
+    this.stopArrivalFactory = stopArrivalFactory;
+  }
+
+  @Override
+  public void addTransitArrival(PatternRide<T> ride, int alightStop, int arrivalTime, int c1) {
+    var prev = ride.prevArrival();
+    // The pareto-round increment must match the TransitStopArrival
+    int paretoRound = prev.paretoRound() + (prev.arrivedBy(TRANSIT) ? 2 : 1);
+    int i = add(prev, alightStop, arrivalTime, paretoRound, c1);
+    rides[i] = ride;
+  }
+
+  @Override
+  public void addTransferArrival(
+    McStopArrival<T> previous,
+    RaptorTransfer transfer,
+    int arrivalTime
+  ) {
+    int c1 = previous.c1() + transfer.c1();
+    int i = add(previous, transfer.stop(), arrivalTime, previous.paretoRound() + 1, c1);
+    transfers[i] = transfer;
+  }
+
+  @Override
+  public void commit() {
+    for (int i = 0; i < size; ++i) {
+      // Only transit arrivals arrive on-board
+      boolean arrivedOnBoard = rides[i] != null;
+      if (
+        heuristics.rejectDestinationArrivalBasedOnHeuristic(
+          stops[i],
+          arrivalTimes[i],
+          travelDurations[i],
+          c1s[i]
+        ) ||
+        arrivals.isDominated(stops[i], arrivalTimes[i], paretoRounds[i], c1s[i], arrivedOnBoard)
+      ) {
+        continue;
+      }
+      arrivals.addStopArrival(createStopArrival(i));
+    }
+    clear();
+  }
+
+  @Override
+  public void clear() {
+    // Release the references, so the garbage collector can collect the objects
+    Arrays.fill(previous, 0, size, null);
+    Arrays.fill(rides, 0, size, null);
+    Arrays.fill(transfers, 0, size, null);
+    size = 0;
+  }
+
+  /* private methods */
+
+  private int add(McStopArrival<?> prev, int stop, int arrivalTime, int paretoRound, int c1) {
+    if (size == stops.length) {
+      grow();
+    }
+    int i = size++;
+    stops[i] = stop;
+    arrivalTimes[i] = arrivalTime;
+    paretoRounds[i] = paretoRound;
+    travelDurations[i] = prev.travelDuration() + (arrivalTime - prev.arrivalTime());
+    c1s[i] = c1;
+    previous[i] = prev;
+    return i;
+  }
+
+  @SuppressWarnings("unchecked")
+  private McStopArrival<T> createStopArrival(int i) {
+    if (rides[i] != null) {
+      return stopArrivalFactory.createTransitStopArrival(
+        (PatternRide<T>) rides[i],
+        stops[i],
+        arrivalTimes[i],
+        c1s[i]
+      );
+    }
+    return stopArrivalFactory.createTransferStopArrival(
+      (McStopArrival<T>) previous[i],
+      transfers[i],
+      arrivalTimes[i]
+    );
+  }
+
+  private void grow() {
+    int capacity = stops.length * 2;
+    stops = Arrays.copyOf(stops, capacity);
+    arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+    paretoRounds = Arrays.copyOf(paretoRounds, capacity);
+    travelDurations = Arrays.copyOf(travelDurations, capacity);
+    c1s = Arrays.copyOf(c1s, capacity);
+    previous = Arrays.copyOf(previous, capacity);
+    rides = Arrays.copyOf(rides, capacity);
+    transfers = Arrays.copyOf(transfers, capacity);
+  }
+}
@@ -0,0 +1,68 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.PatternRide;
+
+/**
+ * Create a stop arrival for each candidate and keep them in a list until they are committed. This
+ * support all multi-criteria configurations, including debugging.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class McStopArrivalCandidateList<T extends RaptorTripSchedule>
+  implements McStopArrivalCandidates<T> {
+
+  private final McStopArrivals<T> arrivals;
+  private final HeuristicsProvider<T> heuristics;
+  private final McStopArrivalFactory<T> stopArrivalFactory;
+  private final List<McStopArrival<T>> arrivalsCache = new ArrayList<>();
+
+  public McStopArrivalCandidateList(
+    McStopArrivals<T> arrivals,
+    HeuristicsProvider<T> heuristics,
+    McStopArrivalFactory<T> stopArrivalFactory
+  ) {
+    this.arrivals = arrivals;
+    this.heuristics = heuristics;
+    this.stopArrivalFactory = stopArrivalFactory;
+  }
+
+  @Override
+  public void addTransitArrival(PatternRide<T> ride, int alightStop, int arrivalTime, int c1) {
+    arrivalsCache.add(
+      stopArrivalFactory.createTransitStopArrival(ride, alightStop, arrivalTime, c1)
+    );
+  }
+
+  @Override
+  public void addTransferArrival(
+    McStopArrival<T> previous,
+    RaptorTransfer transfer,
+    int arrivalTime
+  ) {
+    arrivalsCache.add(
+      stopArrivalFactory.createTransferStopArrival(previous, transfer, arrivalTime)
+    );
+  }
+
+  @Override
+  public void commit() {
+    for (McStopArrival<T> arrival : arrivalsCache) {
+      if (!heuristics.rejectDestinationArrivalBasedOnHeuristic(arrival)) {
+        arrivals.addStopArrival(arrival);
+      }
+    }
+    arrivalsCache.clear();
+  }
+
+  @Override
+  public void clear() {
+    arrivalsCache.clear();
+  }
+}
@@ -0,0 +1,37 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.PatternRide;
+
+/**
+ * The stop arrivals found while processing transit or transfers in a round are not added to the
+ * stop arrivals right away. They are buffered and committed when the transit or transfer phase of
+ * the round is complete. This interface allow the {@link McRangeRaptorWorkerState} to use
+ * different buffer implementations.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public interface McStopArrivalCandidates<T extends RaptorTripSchedule> {
+  /**
+   * Add a new arrival alighting the given pattern-ride at the given stop.
+   */
+  void addTransitArrival(PatternRide<T> ride, int alightStop, int arrivalTime, int c1);
+
+  /**
+   * Add a new arrival transferring from the given arrival.
+   */
+  void addTransferArrival(McStopArrival<T> previous, RaptorTransfer transfer, int arrivalTime);
+
+  /**
+   * Add all buffered arrivals to the stop arrivals, the arrivals are added in the same order as
+   * they are buffered. The buffer is empty after this.
+   */
+  void commit();
+
+  /**
+   * Drop all buffered arrivals.
+   */
+  void clear();
+}
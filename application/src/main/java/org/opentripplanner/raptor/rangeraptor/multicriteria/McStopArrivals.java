@@ -115,6 +115,29 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Return {@code true} if an existing arrival at the given stop is at least as good as a new
+   * arrival with the given values for all criteria. If so, adding the new arrival would be
+   * rejected. This is used to avoid creating arrivals which are rejected anyway, and is only
+   * equivalent to the add operation if the comparator used is transitive and do not relax any
+   * of the criteria.
+   */
+  boolean isDominated(int stop, int arrivalTime, int paretoRound, int c1, boolean arrivedOnBoard) {
+    var set = arrivals[stop];
+    if (set == null) {
+      return false;
+    }
+    // Iterate by index to avoid creating an iterator in this tight loop
+    for (int i = 0; i < set.size(); ++i) {
+      if (
+        !McStopArrival.leftDominanceExist(arrivalTime, paretoRound, c1, arrivedOnBoard, set.get(i))
+      ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   void debugStateInfo() {
     debugStats.debugStatInfo(arrivals);
   }
@@ -81,7 +81,7 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     return (paretoRound + 1) / 2;
   }
 
-  protected final int paretoRound() {
+  public final int paretoRound() {
     return paretoRound;
   }
 
@@ -161,6 +161,26 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     );
   }
 
+  /**
+   * Return {@code true} if an arrival with the given values is better than the {@code right}
+   * arrival for at least one criteria. This is the same as {@link #compareBase} combined with
+   * {@link #compareArrivedOnBoard}, but it does not require an instance for the left arrival.
+   */
+  public static boolean leftDominanceExist(
+    int arrivalTime,
+    int paretoRound,
+    int c1,
+    boolean arrivedOnBoard,
+    McStopArrival<?> right
+  ) {
+    return (
+      arrivalTime < right.arrivalTime ||
+      paretoRound < right.paretoRound ||
+      c1 < right.c1 ||
+      (arrivedOnBoard && !right.arrivedOnBoard())
+    );
+  }
+
   /**
    * Compare arrivedOnBoard. On-board arrival dominate arrive by transfer(foot) since
    * you can continue on foot; hence has more options.
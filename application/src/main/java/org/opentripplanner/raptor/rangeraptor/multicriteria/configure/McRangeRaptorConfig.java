@@ -14,6 +14,9 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.PassThroughPointsServi
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McRangeRaptorWorkerState;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivalCandidateArrays;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivalCandidateList;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivalCandidates;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.MultiCriteriaRoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
@@ -120,6 +123,14 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return arrivals;
   }
 
+  /**
+   * The destination paths of this search. This is used to merge paths from other searches, like
+   * the time-slices of a search-window, into the result of this search.
+   */
+  public DestinationArrivalPaths<T> destinationArrivalPaths() {
+    return createDestinationArrivalPaths();
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createTransitWorkerStrategy(McRangeRaptorWorkerState<T> state) {
@@ -154,12 +165,15 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
 
   private McRangeRaptorWorkerState<T> createState(Heuristics heuristics) {
     if (state == null) {
+      var heuristicsProvider = createHeuristicsProvider(heuristics);
+      var stopArrivalFactory = createStopArrivalFactory();
       state =
         new McRangeRaptorWorkerState<>(
           stopArrivals(),
           createDestinationArrivalPaths(),
-          createHeuristicsProvider(heuristics),
-          createStopArrivalFactory(),
+          heuristicsProvider,
+          stopArrivalFactory,
+          createStopArrivalCandidates(heuristicsProvider, stopArrivalFactory),
           context().costCalculator(),
           context().calculator(),
           context().lifeCycle()
@@ -172,6 +186,29 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return includeC2() ? new StopArrivalFactoryC2<>() : new StopArrivalFactoryC1<>();
   }
 
+  /**
+   * Use the struct-of-arrays candidates if possible, it creates fewer objects. It rejects
+   * candidates before the arrival is created, which is only safe if the stop arrival comparator
+   * is transitive(no c2 and no relaxed c1). It does not support debugging stop arrivals.
+   */
+  private McStopArrivalCandidates<T> createStopArrivalCandidates(
+    HeuristicsProvider<T> heuristicsProvider,
+    McStopArrivalFactory<T> stopArrivalFactory
+  ) {
+    if (
+      !includeC2() &&
+      mcRequest().relaxC1().isNormal() &&
+      !context().debugFactory().isDebugStopArrival()
+    ) {
+      return new McStopArrivalCandidateArrays<>(
+        stopArrivals(),
+        heuristicsProvider,
+        stopArrivalFactory
+      );
+    }
+    return new McStopArrivalCandidateList<>(stopArrivals(), heuristicsProvider, stopArrivalFactory);
+  }
+
   private SearchContext<T> context() {
     return contextLeg.parent();
   }
@@ -51,10 +51,7 @@ public final class HeuristicsProvider<T extends RaptorTripSchedule> {
    * This is a very effective optimization, enabled by the {@link Optimization#PARETO_CHECK_AGAINST_DESTINATION}.
    */
   public boolean rejectDestinationArrivalBasedOnHeuristic(McStopArrival<T> arrival) {
-    if (heuristics == null || paths.isEmpty()) {
-      return false;
-    }
-    boolean rejected = !qualify(
+    boolean rejected = rejectDestinationArrivalBasedOnHeuristic(
       arrival.stop(),
       arrival.arrivalTime(),
       arrival.travelDuration(),
@@ -67,6 +64,22 @@ public final class HeuristicsProvider<T extends RaptorTripSchedule> {
     return rejected;
   }
 
+  /**
+   * Same as {@link #rejectDestinationArrivalBasedOnHeuristic(McStopArrival)}, but for an arrival
+   * not yet created. No debug event is published if the arrival is rejected.
+   */
+  public boolean rejectDestinationArrivalBasedOnHeuristic(
+    int stop,
+    int arrivalTime,
+    int travelDuration,
+    int c1
+  ) {
+    if (heuristics == null || paths.isEmpty()) {
+      return false;
+    }
+    return !qualify(stop, arrivalTime, travelDuration, c1);
+  }
+
   /* private methods */
 
   private void debugRejectByOptimization(McStopArrival<T> arrival) {
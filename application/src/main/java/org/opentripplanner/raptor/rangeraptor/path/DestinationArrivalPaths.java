@@ -139,6 +139,17 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     return paths;
   }
 
+  /**
+   * Add paths found by another search for the same request, like a search for another time-slice
+   * of the search-window. The paths are only subject to the pareto comparison, the time-limit and
+   * c2 checks are assumed to be done by the other search.
+   */
+  public void addAll(Collection<RaptorPath<T>> other) {
+    for (RaptorPath<T> path : other) {
+      paths.add(path);
+    }
+  }
+
   public void debugReject(ArrivalView<T> stopArrival, RaptorAccessEgress egress, String reason) {
     if (isDebugOn()) {
       var destinationArrival = createDestinationArrivalView(stopArrival, egress);
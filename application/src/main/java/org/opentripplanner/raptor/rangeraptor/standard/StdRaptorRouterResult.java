@@ -60,4 +60,9 @@ public class StdRaptorRouterResult<T extends RaptorTripSchedule> implements Rapt
   public boolean isDestinationReached() {
     return !extractPaths().isEmpty();
   }
+
+  @Override
+  public void release() {
+    bestTimes.release();
+  }
 }
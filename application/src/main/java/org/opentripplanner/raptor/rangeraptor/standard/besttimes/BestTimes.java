@@ -1,7 +1,5 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
-import static org.opentripplanner.framework.lang.IntUtils.intArray;
-
 import java.util.BitSet;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
@@ -27,6 +25,8 @@ import org.opentripplanner.raptor.util.BitSetIterator;
  */
 public final class BestTimes {
 
+  private final BestTimesArrays arrays;
+
   /** The best times to reach a stop, across rounds and iterations. */
   private final int[] times;
 
@@ -36,6 +36,8 @@ public final class BestTimes {
    */
   private final int[] transitArrivalTimes;
   private final BitSet reachedByTransitCurrentRound;
+  /** All stops updated in the search, used to reset the arrays. */
+  private final BitSet touchedStops;
   private final TransitCalculator<?> calculator;
   /** Stops touched in the CURRENT round. */
   private BitSet reachedCurrentRound;
@@ -43,13 +45,26 @@ public final class BestTimes {
   private BitSet reachedLastRound;
 
   public BestTimes(int nStops, TransitCalculator<?> calculator, WorkerLifeCycle lifeCycle) {
+    this(BestTimesArrays.create(nStops, calculator.unreachedTime()), calculator, lifeCycle);
+  }
+
+  public BestTimes(
+    BestTimesArrays arrays,
+    TransitCalculator<?> calculator,
+    WorkerLifeCycle lifeCycle
+  ) {
+    if (arrays.unreachedTime() != calculator.unreachedTime() || !arrays.isReset()) {
+      throw new IllegalArgumentException("The arrays are not reset for this search: " + arrays);
+    }
+    this.arrays = arrays;
     this.calculator = calculator;
-    this.times = intArray(nStops, calculator.unreachedTime());
-    this.reachedCurrentRound = new BitSet(nStops);
-    this.reachedLastRound = new BitSet(nStops);
+    this.times = arrays.times;
+    this.reachedCurrentRound = arrays.reachedCurrentRound;
+    this.reachedLastRound = arrays.reachedLastRound;
 
-    this.transitArrivalTimes = intArray(nStops, calculator.unreachedTime());
-    this.reachedByTransitCurrentRound = new BitSet(nStops);
+    this.transitArrivalTimes = arrays.transitArrivalTimes;
+    this.reachedByTransitCurrentRound = arrays.reachedByTransitCurrentRound;
+    this.touchedStops = arrays.touchedStops;
 
     // Attach to Worker life cycle
     lifeCycle.onSetupIteration(ignore -> setupIteration());
@@ -140,6 +155,14 @@ public final class BestTimes {
     return new IntArraySingleCriteriaArrivals(calculator.unreachedTime(), transitArrivalTimes);
   }
 
+  /**
+   * Release the arrays, the arrays are reused if they are pooled. The extracted arrivals and this
+   * instance can NOT be used after this.
+   */
+  public void release() {
+    arrays.release();
+  }
+
   @Override
   public String toString() {
     final int unreachedTime = calculator.unreachedTime();
@@ -191,6 +214,7 @@ public final class BestTimes {
   private void setTime(final int stop, final int time) {
     times[stop] = time;
     reachedCurrentRound.set(stop);
+    touchedStops.set(stop);
   }
 
   private boolean isBestTime(int stop, int time) {
@@ -204,6 +228,7 @@ public final class BestTimes {
   private void setBestTransitTime(int stop, int time) {
     transitArrivalTimes[stop] = time;
     reachedByTransitCurrentRound.set(stop);
+    touchedStops.set(stop);
   }
 
   private void swapReachedCurrentAndLastRound() {
@@ -0,0 +1,122 @@
+package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
+
+import static org.opentripplanner.framework.lang.IntUtils.intArray;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.util.BitSetIterator;
+
+/**
+ * The stop indexed arrays and bit-sets used by {@link BestTimes} and
+ * {@link SimpleBestNumberOfTransfers}. The arrays are kept in a separate class, so they can be
+ * reused by the next search after a search is complete. The stops updated are tracked, so
+ * {@link #reset()} only need to visit the touched stops, not all stops. A heuristic search
+ * visit a small fraction of all stops, so this is a lot cheaper than allocating new arrays.
+ * <p>
+ * This class is NOT thread-safe, the arrays can only be used by one search at the time.
+ */
+public final class BestTimesArrays {
+
+  private static final Consumer<BestTimesArrays> NOOP_RELEASE_HANDLER = ignore -> {};
+
+  private final int unreachedTime;
+  private final Consumer<BestTimesArrays> releaseHandler;
+
+  final int[] times;
+  final int[] transitArrivalTimes;
+  final BitSet reachedCurrentRound;
+  final BitSet reachedLastRound;
+  final BitSet reachedByTransitCurrentRound;
+  final BitSet touchedStops;
+
+  /** Only used by the heuristic searches, so this is created lazy. */
+  private int[] bestNumOfTransfers;
+
+  /**
+   * @param releaseHandler is called when the search is done with the arrays, after the arrays
+   *                       are reset.
+   */
+  public BestTimesArrays(
+    int nStops,
+    int unreachedTime,
+    Consumer<BestTimesArrays> releaseHandler
+  ) {
+    this.unreachedTime = unreachedTime;
+    this.releaseHandler = releaseHandler;
+    this.times = intArray(nStops, unreachedTime);
+    this.transitArrivalTimes = intArray(nStops, unreachedTime);
+    this.reachedCurrentRound = new BitSet(nStops);
+    this.reachedLastRound = new BitSet(nStops);
+    this.reachedByTransitCurrentRound = new BitSet(nStops);
+    this.touchedStops = new BitSet(nStops);
+  }
+
+  /**
+   * Create arrays which are not reused, releasing them does nothing.
+   */
+  public static BestTimesArrays create(int nStops, int unreachedTime) {
+    return new BestTimesArrays(nStops, unreachedTime, NOOP_RELEASE_HANDLER);
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  public int unreachedTime() {
+    return unreachedTime;
+  }
+
+  /**
+   * Return {@code true} if all values are unreached, and the arrays are ready to be used by a new
+   * search.
+   */
+  public boolean isReset() {
+    return touchedStops.isEmpty() && reachedCurrentRound.isEmpty() && reachedLastRound.isEmpty();
+  }
+
+  /**
+   * Reset all stops touched by the last search to unreached.
+   */
+  public void reset() {
+    for (var it = new BitSetIterator(touchedStops); it.hasNext();) {
+      int stop = it.next();
+      times[stop] = unreachedTime;
+      transitArrivalTimes[stop] = unreachedTime;
+      if (bestNumOfTransfers != null) {
+        bestNumOfTransfers[stop] = RaptorConstants.N_TRANSFERS_UNREACHED;
+      }
+    }
+    touchedStops.clear();
+    reachedCurrentRound.clear();
+    reachedLastRound.clear();
+    reachedByTransitCurrentRound.clear();
+  }
+
+  /**
+   * Reset the arrays and hand them back to the owner, the arrays can not be used after this.
+   */
+  public void release() {
+    if (releaseHandler != NOOP_RELEASE_HANDLER) {
+      reset();
+      releaseHandler.accept(this);
+    }
+  }
+
+  int[] bestNumOfTransfers() {
+    if (bestNumOfTransfers == null) {
+      bestNumOfTransfers = intArray(times.length, RaptorConstants.N_TRANSFERS_UNREACHED);
+    }
+    return bestNumOfTransfers;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(BestTimesArrays.class)
+      .addNum("size", size())
+      .addBitSetSize("touchedStops", touchedStops)
+      .toString();
+  }
+}
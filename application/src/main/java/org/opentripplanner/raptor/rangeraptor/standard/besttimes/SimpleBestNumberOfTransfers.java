@@ -1,5 +1,6 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
+import java.util.BitSet;
 import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
@@ -13,10 +14,23 @@ import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArri
 public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
 
   private final int[] bestNumOfTransfers;
+  private final BitSet touchedStops;
   private int round;
 
   public SimpleBestNumberOfTransfers(int nStops, WorkerLifeCycle lifeCycle) {
     this.bestNumOfTransfers = IntUtils.intArray(nStops, unreachedMinNumberOfTransfers());
+    this.touchedStops = new BitSet(nStops);
+
+    lifeCycle.onPrepareForNextRound(r -> this.round = r);
+  }
+
+  /**
+   * Use the arrays shared with the {@link BestTimes}, the stops updated are marked as touched, so
+   * the arrays can be reset and reused.
+   */
+  public SimpleBestNumberOfTransfers(BestTimesArrays arrays, WorkerLifeCycle lifeCycle) {
+    this.bestNumOfTransfers = arrays.bestNumOfTransfers();
+    this.touchedStops = arrays.touchedStops;
 
     lifeCycle.onPrepareForNextRound(r -> this.round = r);
   }
@@ -33,6 +47,7 @@ public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
     final int numOfTransfers = round - 1;
     if (numOfTransfers < bestNumOfTransfers[stop]) {
       bestNumOfTransfers[stop] = numOfTransfers;
+      touchedStops.set(stop);
     }
   }
 
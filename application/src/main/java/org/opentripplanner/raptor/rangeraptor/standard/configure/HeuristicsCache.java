@@ -0,0 +1,332 @@
+package org.opentripplanner.raptor.rangeraptor.standard.configure;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Share the result of the REVERSE heuristic search between requests with the same destination.
+ * The reverse heuristic search is used for destination pruning in the multi-criteria search. For
+ * a depart-after search, the reverse search starts at the end of the transit data, so the result
+ * only depend on the transit data, the egress paths and a few search parameters. If many requests
+ * go to the same destinations, the result can be reused within a short time-to-live.
+ * <p>
+ * The shared search is performed without the time-limit (earliest-departure-time), and it does
+ * not stop when the origin is reached. When the result is used, the time-limit of the request is
+ * applied and the destination-reached check is done with the access paths of the request. The
+ * result is at least as optimistic as the result of a search for a single request, so it is
+ * still safe to use for destination pruning. The search-window calculated from the heuristics may
+ * differ slightly, since the shared search is not stopped when the origin is reached.
+ * <p>
+ * The transit data version and search date is part of the key, see
+ * {@link RaptorTransitDataProvider#transitDataCacheKey()}. If two requests miss the same key at
+ * the same time both will perform the search, the last result is kept.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public final class HeuristicsCache<T extends RaptorTripSchedule> {
+
+  private final int maxSize;
+  private final long timeToLiveMillis;
+  private final LongSupplier clock;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final Map<CacheKey, CacheEntry> cache;
+
+  public HeuristicsCache(int maxSize, Duration timeToLive) {
+    this(maxSize, timeToLive, System::currentTimeMillis);
+  }
+
+  HeuristicsCache(int maxSize, Duration timeToLive, LongSupplier clock) {
+    this.maxSize = maxSize;
+    this.timeToLiveMillis = timeToLive.toMillis();
+    this.clock = clock;
+    // Use access-order to evict the least recently used entry
+    this.cache =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+          return size() > maxSize;
+        }
+      };
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0 && timeToLiveMillis > 0;
+  }
+
+  /**
+   * Return {@code true} if the heuristic search for the given request can be shared with other
+   * requests.
+   */
+  public boolean isCacheable(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request) {
+    var s = request.searchParams();
+    return (
+      isEnabled() &&
+      request.searchDirection().isInReverse() &&
+      s.isLatestArrivalTimeSet() &&
+      !s.hasViaLocations() &&
+      request.debug().stops().isEmpty() &&
+      request.debug().path().isEmpty() &&
+      noneHasOpeningHours(s.accessPaths()) &&
+      noneHasOpeningHours(s.egressPaths()) &&
+      transitData.transitDataCacheKey() != null
+    );
+  }
+
+  /**
+   * Return the shared heuristic search result for the given request. If the result is not
+   * cached the given {@code search} is performed with a request shared by all requests with the
+   * same key.
+   *
+   * @param ctx the search context for the request, the time-limit and egress paths are used to
+   *            adapt the shared result to the request.
+   */
+  public RaptorRouterResult<T> get(
+    SearchContext<T> ctx,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Function<RaptorRequest<T>, RaptorRouterResult<T>> search
+  ) {
+    if (!isCacheable(transitData, request)) {
+      throw new IllegalArgumentException("The heuristics for the request can not be shared.");
+    }
+    var key = CacheKey.of(transitData.transitDataCacheKey(), request);
+    var entry = getIfPresent(key);
+
+    if (entry == null) {
+      missCount.increment();
+      entry = CacheEntry.of(search.apply(sharedRequest(request, ctx.nRounds())), expiresAt());
+      put(key, entry);
+    } else {
+      hitCount.increment();
+    }
+    return new SharedResult<>(entry, ctx.calculator(), ctx.legs().getLast().egressPaths());
+  }
+
+  public long hitCount() {
+    return hitCount.sum();
+  }
+
+  public long missCount() {
+    return missCount.sum();
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(HeuristicsCache.class)
+      .addNum("maxSize", maxSize)
+      .addDurationSec("timeToLive", (int) (timeToLiveMillis / 1000))
+      .addNum("size", size())
+      .addNum("hitCount", hitCount())
+      .addNum("missCount", missCount())
+      .toString();
+  }
+
+  /* private methods */
+
+  /**
+   * The shared search has no time-limit and does not stop when the origin is reached, so the
+   * result does not depend on the origin or the request time.
+   */
+  private static <T extends RaptorTripSchedule> RaptorRequest<T> sharedRequest(
+    RaptorRequest<T> request,
+    int nRounds
+  ) {
+    return request
+      .mutate()
+      .searchParams()
+      .earliestDepartureTime(RaptorConstants.TIME_NOT_SET)
+      .numberOfAdditionalTransfers(nRounds)
+      .build();
+  }
+
+  private static boolean noneHasOpeningHours(Collection<RaptorAccessEgress> paths) {
+    return paths.stream().noneMatch(RaptorAccessEgress::hasOpeningHours);
+  }
+
+  private long expiresAt() {
+    return clock.getAsLong() + timeToLiveMillis;
+  }
+
+  /**
+   * Expired entries are removed on every access. A new transit data version is a new key, so the
+   * entries of old versions are otherwise kept until they are evicted by the size limit.
+   */
+  @Nullable
+  private synchronized CacheEntry getIfPresent(CacheKey key) {
+    removeExpired();
+    return cache.get(key);
+  }
+
+  private synchronized void put(CacheKey key, CacheEntry entry) {
+    removeExpired();
+    cache.put(key, entry);
+  }
+
+  private void removeExpired() {
+    long now = clock.getAsLong();
+    cache.values().removeIf(it -> it.isExpired(now));
+  }
+
+  /**
+   * The egress paths are the origin of the reverse search, only the fields used by the heuristic
+   * search are part of the key. The opening hours are not, requests with opening hours are not
+   * cached.
+   */
+  private record EgressKey(
+    int stop,
+    int durationInSeconds,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    private static EgressKey of(RaptorAccessEgress egress) {
+      return new EgressKey(
+        egress.stop(),
+        egress.durationInSeconds(),
+        egress.numberOfRides(),
+        egress.stopReachedOnBoard()
+      );
+    }
+  }
+
+  private record CacheKey(
+    Object transitDataKey,
+    int latestArrivalTime,
+    int maxNumberOfTransfers,
+    boolean constrainedTransfers,
+    Set<EgressKey> egressPaths
+  ) {
+    private static CacheKey of(Object transitDataKey, RaptorRequest<?> request) {
+      var s = request.searchParams();
+      return new CacheKey(
+        transitDataKey,
+        s.latestArrivalTime(),
+        s.maxNumberOfTransfers(),
+        s.constrainedTransfers(),
+        s.egressPaths().stream().map(EgressKey::of).collect(Collectors.toUnmodifiableSet())
+      );
+    }
+  }
+
+  private record CacheEntry(
+    SingleCriteriaStopArrivals bestOverallArrivals,
+    SingleCriteriaStopArrivals bestTransitArrivals,
+    SingleCriteriaStopArrivals bestNumberOfTransfers,
+    long expiresAt
+  ) {
+    private static CacheEntry of(RaptorRouterResult<?> result, long expiresAt) {
+      return new CacheEntry(
+        result.extractBestOverallArrivals(),
+        result.extractBestTransitArrivals(),
+        result.extractBestNumberOfTransfers(),
+        expiresAt
+      );
+    }
+
+    private boolean isExpired(long now) {
+      return now >= expiresAt;
+    }
+  }
+
+  /**
+   * The shared result adapted to a request. Arrivals exceeding the time-limit of the request are
+   * treated as unreached. No paths are available, only the stop arrivals.
+   */
+  private static final class SharedResult<T extends RaptorTripSchedule>
+    implements RaptorRouterResult<T> {
+
+    private final SingleCriteriaStopArrivals bestOverallArrivals;
+    private final SingleCriteriaStopArrivals bestTransitArrivals;
+    private final SingleCriteriaStopArrivals bestNumberOfTransfers;
+    private final EgressPaths egressPaths;
+
+    private SharedResult(
+      CacheEntry entry,
+      RaptorTransitCalculator<T> calculator,
+      EgressPaths egressPaths
+    ) {
+      this.bestOverallArrivals = timeLimited(entry.bestOverallArrivals(), calculator);
+      this.bestTransitArrivals = timeLimited(entry.bestTransitArrivals(), calculator);
+      this.bestNumberOfTransfers = entry.bestNumberOfTransfers();
+      this.egressPaths = egressPaths;
+    }
+
+    @Override
+    public Collection<RaptorPath<T>> extractPaths() {
+      return List.of();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+      return bestOverallArrivals;
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+      return bestTransitArrivals;
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+      return bestNumberOfTransfers;
+    }
+
+    /**
+     * An egress starting by walking can not follow a transfer, the same rule as used when paths
+     * are created in the heuristic search.
+     */
+    @Override
+    public boolean isDestinationReached() {
+      for (RaptorAccessEgress egress : egressPaths.listAll()) {
+        var arrivals = egress.stopReachedByWalking() ? bestTransitArrivals : bestOverallArrivals;
+        if (arrivals.isReached(egress.stop())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static SingleCriteriaStopArrivals timeLimited(
+      SingleCriteriaStopArrivals arrivals,
+      RaptorTransitCalculator<?> calculator
+    ) {
+      return new SingleCriteriaStopArrivals() {
+        @Override
+        public boolean isReached(int stop) {
+          return arrivals.isReached(stop) && !calculator.exceedsTimeLimit(arrivals.value(stop));
+        }
+
+        @Override
+        public int value(int stop) {
+          return arrivals.value(stop);
+        }
+      };
+    }
+  }
+}
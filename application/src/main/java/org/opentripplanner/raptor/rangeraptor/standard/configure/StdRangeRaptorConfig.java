@@ -6,6 +6,7 @@ import static org.opentripplanner.raptor.rangeraptor.path.PathParetoSetComparato
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
@@ -20,6 +21,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.MinTravelDurationRoutingS
 import org.opentripplanner.raptor.rangeraptor.standard.StdRangeRaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.standard.StdWorkerState;
 import org.opentripplanner.raptor.rangeraptor.standard.besttimes.BestTimes;
+import org.opentripplanner.raptor.rangeraptor.standard.besttimes.BestTimesArrays;
 import org.opentripplanner.raptor.rangeraptor.standard.besttimes.BestTimesOnlyStopArrivalsState;
 import org.opentripplanner.raptor.rangeraptor.standard.besttimes.SimpleArrivedAtDestinationCheck;
 import org.opentripplanner.raptor.rangeraptor.standard.besttimes.SimpleBestNumberOfTransfers;
@@ -49,15 +51,28 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
   private final RoutingStrategy<T> strategy;
   private final Set<Class<?>> oneOfInstanceTypes = new HashSet<>();
 
+  @Nullable
+  private final StdWorkerStatePool statePool;
+
   private RaptorWorkerState<T> state;
+  private BestTimesArrays bestTimesArrays;
   private BestTimes bestTimes;
   private StdStopArrivals<T> stopArrivals;
   private ArrivedAtDestinationCheck arrivedAtDestinationCheck;
   private BestNumberOfTransfers bestNumberOfTransfers;
 
   public StdRangeRaptorConfig(SearchContext<T> context) {
+    this(context, null);
+  }
+
+  /**
+   * @param statePool if not null, the best times arrays are taken from the pool. The arrays must
+   *                  be released by the caller, see {@link RaptorRouterResult#release()}.
+   */
+  public StdRangeRaptorConfig(SearchContext<T> context, @Nullable StdWorkerStatePool statePool) {
     new VerifyRequestIsValid(context).verify();
     this.ctx = context;
+    this.statePool = statePool;
     this.pathConfig = new PathConfig<>(context);
     this.strategy = createWorkerStrategy();
   }
@@ -70,18 +85,22 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     return strategy;
   }
 
-  public Heuristics createHeuristics(RaptorRouterResult<T> results) {
-    return oneOf(
-      new HeuristicsAdapter(
-        ctx.nStops(),
-        egressPaths(),
-        ctx.calculator(),
-        ctx.costCalculator(),
-        results.extractBestOverallArrivals(),
-        results.extractBestTransitArrivals(),
-        results.extractBestNumberOfTransfers()
-      ),
-      Heuristics.class
+  /**
+   * Create heuristics from the result of a standard Range Raptor search. This does not need any
+   * worker state, so it is a static method - creating a new config would create a new state.
+   */
+  public static <T extends RaptorTripSchedule> Heuristics createHeuristics(
+    SearchContext<T> ctx,
+    RaptorRouterResult<T> results
+  ) {
+    return new HeuristicsAdapter(
+      ctx.nStops(),
+      egressPaths(ctx),
+      ctx.calculator(),
+      ctx.costCalculator(),
+      results.extractBestOverallArrivals(),
+      results.extractBestTransitArrivals(),
+      results.extractBestNumberOfTransfers()
     );
   }
 
@@ -126,11 +145,26 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private BestTimes resolveBestTimes() {
     if (bestTimes == null) {
-      bestTimes = new BestTimes(ctx.nStops(), ctx.calculator(), ctx.lifeCycle());
+      bestTimes = new BestTimes(resolveBestTimesArrays(), ctx.calculator(), ctx.lifeCycle());
     }
     return bestTimes;
   }
 
+  /**
+   * The arrays are shared by the best times and the best number of transfers, they are pooled if
+   * a pool exist.
+   */
+  private BestTimesArrays resolveBestTimesArrays() {
+    if (bestTimesArrays == null) {
+      int unreachedTime = ctx.calculator().unreachedTime();
+      bestTimesArrays =
+        statePool == null
+          ? BestTimesArrays.create(ctx.nStops(), unreachedTime)
+          : statePool.acquire(ctx.nStops(), unreachedTime);
+    }
+    return bestTimesArrays;
+  }
+
   private StopArrivalsState<T> createStopArrivals() {
     return switch (ctx.profile()) {
       case STANDARD -> stdStopArrivalsState();
@@ -234,7 +268,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private SimpleBestNumberOfTransfers createSimpleBestNumberOfTransfers() {
     return withBestNumberOfTransfers(
-      new SimpleBestNumberOfTransfers(ctx.nStops(), ctx.lifeCycle())
+      new SimpleBestNumberOfTransfers(resolveBestTimesArrays(), ctx.lifeCycle())
     );
   }
 
@@ -267,6 +301,10 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
   }
 
   private EgressPaths egressPaths() {
+    return egressPaths(ctx);
+  }
+
+  private static EgressPaths egressPaths(SearchContext<?> ctx) {
     return Objects.requireNonNull(
       ctx.legs().getLast().egressPaths(),
       "Last leg must have non-null egressPaths"
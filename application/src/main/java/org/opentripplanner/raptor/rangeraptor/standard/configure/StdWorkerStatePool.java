@@ -0,0 +1,79 @@
+package org.opentripplanner.raptor.rangeraptor.standard.configure;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.rangeraptor.standard.besttimes.BestTimesArrays;
+
+/**
+ * Pool the stop indexed arrays used by the standard Range Raptor heuristic searches. Two
+ * heuristic searches are performed for most requests, and each search needs a set of arrays with
+ * one element for each stop. Instead of allocating new arrays for each search, the arrays are
+ * reset and reused. Only the stops touched by the previous search are reset.
+ * <p>
+ * Each thread has its own small pool, so there is no contention between threads. The arrays are
+ * returned to the pool of the thread which created them, even if released by another thread.
+ * Arrays with the wrong size (the transit data is updated) are dropped.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public final class StdWorkerStatePool {
+
+  /** The forward and reverse heuristic searches are run at the same time. */
+  private static final int DEFAULT_MAX_POOLED_PER_THREAD = 2;
+
+  private final int maxPooledPerThread;
+  private final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+  public StdWorkerStatePool() {
+    this(DEFAULT_MAX_POOLED_PER_THREAD);
+  }
+
+  StdWorkerStatePool(int maxPooledPerThread) {
+    this.maxPooledPerThread = maxPooledPerThread;
+  }
+
+  /**
+   * Take a set of reset arrays from the pool of the current thread, or create new arrays if no
+   * arrays with the given size and unreached value exist. Call {@link BestTimesArrays#release()}
+   * to return the arrays to the pool.
+   */
+  public BestTimesArrays acquire(int nStops, int unreachedTime) {
+    var pool = pools.get();
+    var arrays = pool.take(nStops, unreachedTime);
+    return arrays == null ? new BestTimesArrays(nStops, unreachedTime, pool::put) : arrays;
+  }
+
+  /**
+   * Return the number of arrays in the pool for the current thread, used by unit-tests.
+   */
+  int size() {
+    return pools.get().size();
+  }
+
+  private final class Pool {
+
+    private final List<BestTimesArrays> elements = new ArrayList<>();
+
+    synchronized BestTimesArrays take(int nStops, int unreachedTime) {
+      for (int i = elements.size() - 1; i >= 0; --i) {
+        var it = elements.get(i);
+        if (it.size() != nStops) {
+          elements.remove(i);
+        } else if (it.unreachedTime() == unreachedTime) {
+          return elements.remove(i);
+        }
+      }
+      return null;
+    }
+
+    synchronized void put(BestTimesArrays arrays) {
+      if (elements.size() < maxPooledPerThread && !elements.contains(arrays)) {
+        elements.add(arrays);
+      }
+    }
+
+    synchronized int size() {
+      return elements.size();
+    }
+  }
+}
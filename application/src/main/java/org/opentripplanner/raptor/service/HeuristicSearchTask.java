@@ -37,6 +37,7 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   private RaptorRequest<T> originalRequest;
   private RaptorRequest<T> heuristicRequest;
   private RaptorRouterResult<T> result = null;
+  private Heuristics heuristics = null;
 
   public HeuristicSearchTask(
     RaptorRequest<T> request,
@@ -80,7 +81,23 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     if (result == null) {
       return null;
     }
-    return config.createHeuristic(transitData, heuristicRequest, result);
+    if (heuristics == null) {
+      heuristics = config.createHeuristic(transitData, heuristicRequest, result);
+    }
+    return heuristics;
+  }
+
+  /**
+   * Release the result of the heuristic search, the state used by the search is reused by the
+   * next heuristic search. The heuristics returned by {@link #result()} can NOT be used after
+   * this.
+   */
+  public void release() {
+    if (result != null) {
+      result.release();
+      result = null;
+      heuristics = null;
+    }
   }
 
   public HeuristicSearchTask<T> withRequest(RaptorRequest<T> request) {
@@ -110,10 +127,15 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
     long start = System.currentTimeMillis();
 
-    createHeuristicSearchIfNotExist(originalRequest);
+    createHeuristicRequestIfNotExist(originalRequest);
 
     LOG.debug("Heuristic search: {}", heuristicRequest);
-    this.result = search.route();
+    this.result = config.findSharedHeuristicSearchResult(transitData, heuristicRequest);
+
+    if (result == null) {
+      createHeuristicSearchIfNotExist();
+      this.result = search.route();
+    }
     LOG.debug("Heuristic result: {}", result);
 
     if (!result.isDestinationReached()) {
@@ -125,8 +147,8 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     }
   }
 
-  private void createHeuristicSearchIfNotExist(RaptorRequest<T> request) {
-    if (search == null) {
+  private void createHeuristicRequestIfNotExist(RaptorRequest<T> request) {
+    if (heuristicRequest == null) {
       var profile = MIN_TRAVEL_DURATION;
 
       var builder = request
@@ -144,6 +166,11 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       );
 
       heuristicRequest = builder.build();
+    }
+  }
+
+  private void createHeuristicSearchIfNotExist() {
+    if (search == null) {
       search = config.createRangeRaptorWithHeuristicSearch(transitData, heuristicRequest);
     }
   }
@@ -0,0 +1,99 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.StopArrivalsConsumer;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Run one standard Range Raptor search for each request and pass the stop arrivals to a
+ * consumer. This is used to compute many-to-many travel-time matrices: each request has the
+ * access paths for one origin, and the arrival times at all stops are read from the result. The
+ * searches share the transit data, and the worker state is pooled and reused.
+ * <p>
+ * If Raptor is configured with a thread-pool the searches are run in parallel, at most one
+ * search per thread in the pool. The caller thread waits for all searches to complete.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public class OneToAllSearch<T extends RaptorTripSchedule> {
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final List<RaptorRequest<T>> requests;
+
+  public OneToAllSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    List<RaptorRequest<T>> requests
+  ) {
+    for (var request : requests) {
+      if (
+        !request.profile().isOneOf(RaptorProfile.STANDARD, RaptorProfile.BEST_TIME) ||
+        request.searchDirection().isInReverse()
+      ) {
+        throw new IllegalArgumentException(
+          "A one-to-all search must be a STANDARD or BEST_TIME forward search: " + request
+        );
+      }
+    }
+    this.config = config;
+    this.transitData = transitData;
+    this.requests = List.copyOf(requests);
+  }
+
+  public void route(StopArrivalsConsumer consumer) {
+    if (config.isMultiThreaded() && requests.size() > 1) {
+      routeInParallel(consumer);
+    } else {
+      for (int i = 0; i < requests.size(); ++i) {
+        route(i, consumer);
+      }
+    }
+  }
+
+  private void routeInParallel(StopArrivalsConsumer consumer) {
+    var threadPool = config.threadPool();
+    List<Future<?>> asyncResults = new ArrayList<>(requests.size());
+    try {
+      for (int i = 0; i < requests.size(); ++i) {
+        final int index = i;
+        asyncResults.add(threadPool.submit(() -> route(index, consumer)));
+      }
+      for (var it : asyncResults) {
+        it.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      asyncResults.forEach(it -> it.cancel(true));
+      throw config.mapInterruptedException(e);
+    } catch (ExecutionException e) {
+      asyncResults.forEach(it -> it.cancel(true));
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run one-to-all search. Details: " + e.getMessage(),
+        e
+      );
+    }
+  }
+
+  private void route(int index, StopArrivalsConsumer consumer) {
+    var result = config
+      .createRangeRaptorWithPooledStdWorker(transitData, requests.get(index))
+      .route();
+    try {
+      consumer.accept(index, new DefaultStopArrivals(result));
+    } finally {
+      result.release();
+    }
+  }
+}
@@ -18,8 +18,8 @@ import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.api.request.SearchParamsBuilder;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
-import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
@@ -86,6 +86,15 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Release the state used by the heuristic searches, call this when the search is complete. The
+   * {@link #getDestinationHeuristics()} can not be used after this.
+   */
+  public void releaseHeuristics() {
+    fwdHeuristics.release();
+    revHeuristics.release();
+  }
+
   /**
    * Only exposed for testing purposes
    */
@@ -128,7 +137,7 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
-    RangeRaptor<T> rangeRaptorRouter;
+    RaptorRouter<T> rangeRaptorRouter;
 
     // Create worker
     if (request.profile().is(MULTI_CRITERIA)) {
@@ -2,6 +2,7 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorStopNameResolver;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
@@ -149,4 +150,17 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * REVERSE search.
    */
   RaptorConstrainedBoardingSearch<T> transferConstraintsReverseSearch(int routeIndex);
+
+  /**
+   * Return a key identifying the data provided by this instance. Two providers with equal keys
+   * must provide the same routes, trips, transfers and slack. The key must implement
+   * {@code equals()} and {@code hashCode()}. Raptor use the key to share the result of a search
+   * between requests, for example the destination heuristics.
+   * <p>
+   * Return {@code null} if the data can not be shared, this is the default.
+   */
+  @Nullable
+  default Object transitDataCacheKey() {
+    return null;
+  }
 }
@@ -72,6 +72,7 @@ public class RoutingWorker {
 
   public RoutingWorker(OtpServerRequestContext serverContext, RouteRequest request, ZoneId zoneId) {
     request.applyPageCursor();
+    request.applyDepartureProfile();
     this.request = request;
     this.serverContext = serverContext;
     this.debugTimingAggregator =
@@ -66,7 +66,7 @@ public class RouteRequestToFilterChainMapper {
     }
 
     builder
-      .withMaxNumberOfItineraries(Math.min(request.numItineraries(), MAX_NUMBER_OF_ITINERARIES))
+      .withMaxNumberOfItineraries(maxNumberOfItineraries(request))
       .withMaxNumberOfItinerariesCropSection(request.cropItinerariesAt())
       .withTransitGeneralizedCostLimit(params.transitGeneralizedCostLimit())
       .withBikeRentalDistanceRatio(params.bikeRentalDistanceRatio())
@@ -125,6 +125,16 @@ public class RouteRequestToFilterChainMapper {
     return builder.build();
   }
 
+  /**
+   * A departure profile should return all pareto-optimal itineraries in the search-window, so
+   * the number of itineraries is not limited.
+   */
+  private static int maxNumberOfItineraries(RouteRequest request) {
+    return request.departureProfile()
+      ? Integer.MAX_VALUE
+      : Math.min(request.numItineraries(), MAX_NUMBER_OF_ITINERARIES);
+  }
+
   private static double minBikeParkingDistance(RouteRequest request) {
     var modes = request.journey().modes();
     boolean hasBikePark = List
@@ -143,7 +143,9 @@ public class TransitRouter {
 
     // Route transit
     var raptorService = new RaptorService<>(serverContext.raptorConfig());
-    var transitResponse = raptorService.route(raptorRequest, requestTransitDataProvider);
+    var transitResponse = request.departureProfile()
+      ? raptorService.profile(raptorRequest, requestTransitDataProvider)
+      : raptorService.route(raptorRequest, requestTransitDataProvider);
 
     checkIfTransitConnectionExists(transitResponse);
 
@@ -262,7 +264,9 @@ public class TransitRouter {
       serverContext.dataOverlayContext(accessRequest),
       type,
       durationLimit,
-      stopCountLimit
+      stopCountLimit,
+      serverContext.transitService().getTransitLayer().getAccessEgressCache(),
+      serverContext.graph().getStreetIndex().getRealtimeEdgeIndexVersion()
     );
     var accessEgresses = AccessEgressMapper.mapNearbyStops(nearbyStops, type);
     accessEgresses = timeshiftRideHailing(streetRequest, type, accessEgresses);
@@ -0,0 +1,162 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Cache the stops found by the access and egress street searches. Popular origins and
+ * destinations, like stop places, points of interest and geocoded addresses, are searched from
+ * again and again with the same street preferences.
+ * <p>
+ * The key is the origin of the search, the street relevant request options and the version of the
+ * realtime edge index (see {@link org.opentripplanner.routing.graph.index.StreetIndex#getRealtimeEdgeIndexVersion()}).
+ * The origin is the index of each graph vertex, or the coordinate and name of the temporary
+ * vertex of a coordinate. When realtime edges are added or removed, like when a vehicle rental
+ * station is linked to the street graph, new searches use a new key, and the old entries are
+ * evicted by size or age.
+ * <p>
+ * Only walk and bicycle searches are cached. They do not depend on the time of the request,
+ * except for time-limited turn restrictions, which are evaluated at the time of the request that
+ * created the entry. The access and egress legs are time-shifted when the itinerary is created,
+ * so the times of the cached states are not used. Searches for other modes depend on realtime
+ * vehicle rental and parking availability, and are never cached.
+ */
+public class AccessEgressCache {
+
+  private final Cache<CacheKey, List<NearbyStop>> cache;
+
+  public AccessEgressCache(int maximumSize, Duration timeToLive) {
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build();
+  }
+
+  /** The underlying cache, used to report metrics. */
+  public Cache<CacheKey, List<NearbyStop>> getCache() {
+    return cache;
+  }
+
+  /**
+   * Return the cached stops for the key, or run the search and cache the result. The search may
+   * run more than once for the same key if two requests miss the cache at the same time.
+   */
+  public Collection<NearbyStop> get(CacheKey key, Supplier<Collection<NearbyStop>> search) {
+    var stops = cache.getIfPresent(key);
+    if (stops == null) {
+      stops = List.copyOf(search.get());
+      cache.put(key, stops);
+    }
+    return stops;
+  }
+
+  /**
+   * Create the cache key for a street search from the given origin vertices.
+   *
+   * @return the key, or {@code null} if the search can not be cached.
+   */
+  @Nullable
+  public static CacheKey key(
+    Set<Vertex> originVertices,
+    Set<Vertex> ignoreVertices,
+    boolean reverseDirection,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    Duration durationLimit,
+    int maxStopCount,
+    long realtimeEdgeIndexVersion
+  ) {
+    var mode = streetRequest.mode();
+    if (mode != StreetMode.WALK && mode != StreetMode.BIKE) {
+      return null;
+    }
+    var origin = originKey(originVertices);
+    var ignore = originKey(ignoreVertices);
+    if (origin == null || ignore == null) {
+      return null;
+    }
+    var preferences = request.preferences();
+    boolean wheelchair = request.wheelchair();
+    return new CacheKey(
+      origin,
+      ignore,
+      reverseDirection,
+      mode,
+      durationLimit,
+      maxStopCount,
+      wheelchair,
+      preferences.walk(),
+      mode == StreetMode.BIKE ? preferences.bike() : BikePreferences.DEFAULT,
+      preferences.street(),
+      wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT,
+      realtimeEdgeIndexVersion
+    );
+  }
+
+  /**
+   * The graph vertices are identified by their index, the temporary vertex created for a
+   * coordinate by its coordinate, name and direction. Other temporary vertices are not cached.
+   */
+  @Nullable
+  private static Set<Object> originKey(Set<Vertex> vertices) {
+    var result = new ArrayList<>(vertices.size());
+    for (Vertex v : vertices) {
+      if (v.getIndex() != Vertex.NO_INDEX) {
+        result.add(v.getIndex());
+      } else if (v instanceof TemporaryStreetLocation location) {
+        result.add(
+          new LocationKey(
+            location.getLat(),
+            location.getLon(),
+            location.getName().toString(),
+            location.isEndVertex()
+          )
+        );
+      } else {
+        return null;
+      }
+    }
+    return Set.copyOf(result);
+  }
+
+  private record LocationKey(double lat, double lon, String name, boolean endVertex) {}
+
+  /**
+   * The extract of the request which may influence the walk and bicycle access and egress
+   * search.
+   */
+  public record CacheKey(
+    Set<Object> origin,
+    Set<Object> ignore,
+    boolean reverseDirection,
+    StreetMode mode,
+    Duration durationLimit,
+    int maxStopCount,
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences,
+    long realtimeEdgeIndexVersion
+  ) {}
+}
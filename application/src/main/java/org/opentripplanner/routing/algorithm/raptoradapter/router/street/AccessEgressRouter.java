@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
@@ -36,6 +37,37 @@ public class AccessEgressRouter {
     AccessEgressType accessOrEgress,
     Duration durationLimit,
     int maxStopCount
+  ) {
+    return findAccessEgresses(
+      request,
+      verticesContainer,
+      streetRequest,
+      dataOverlayContext,
+      accessOrEgress,
+      durationLimit,
+      maxStopCount,
+      null,
+      0
+    );
+  }
+
+  /**
+   * Find accesses or egresses, using the cache for the street search if it is given and the
+   * search can be cached.
+   *
+   * @param realtimeEdgeIndexVersion the version of the realtime edge index, see
+   *                                 {@link AccessEgressCache}
+   */
+  public static Collection<NearbyStop> findAccessEgresses(
+    RouteRequest request,
+    TemporaryVerticesContainer verticesContainer,
+    StreetRequest streetRequest,
+    @Nullable DataOverlayContext dataOverlayContext,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount,
+    @Nullable AccessEgressCache cache,
+    long realtimeEdgeIndexVersion
   ) {
     OTPRequestTimeoutException.checkForTimeout();
 
@@ -58,13 +90,25 @@ public class AccessEgressRouter {
     var originVertices = accessOrEgress.isAccess()
       ? verticesContainer.getFromVertices()
       : verticesContainer.getToVertices();
-    var streetAccessEgress = new StreetNearbyStopFinder(
-      durationLimit,
-      maxStopCount,
-      dataOverlayContext,
-      ignoreVertices
-    )
-      .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
+    Supplier<Collection<NearbyStop>> streetSearch = () ->
+      new StreetNearbyStopFinder(durationLimit, maxStopCount, dataOverlayContext, ignoreVertices)
+        .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
+
+    var cacheKey = cache == null || dataOverlayContext != null
+      ? null
+      : AccessEgressCache.key(
+        originVertices,
+        ignoreVertices,
+        accessOrEgress.isEgress(),
+        request,
+        streetRequest,
+        durationLimit,
+        maxStopCount,
+        realtimeEdgeIndexVersion
+      );
+    var streetAccessEgress = cacheKey == null
+      ? streetSearch.get()
+      : cache.get(cacheKey, streetSearch);
 
     var results = ListUtils.combine(zeroDistanceAccessEgress, streetAccessEgress);
     LOG.debug("Found {} {} stops", results.size(), accessOrEgress);
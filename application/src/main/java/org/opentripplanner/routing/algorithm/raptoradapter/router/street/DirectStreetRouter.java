@@ -51,7 +51,9 @@ public class DirectStreetRouter {
       GraphPathFinder gpFinder = new GraphPathFinder(
         serverContext.traverseVisitor(),
         serverContext.dataOverlayContext(request),
-        maxCarSpeed
+        maxCarSpeed,
+        serverContext.graph().getLandmarkDistances(),
+        serverContext.graph().getCarContractionHierarchy()
       );
       List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
         directRequest,
@@ -4,12 +4,18 @@ import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
 public class RaptorTransferIndex {
 
+  private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+  /** A number identifying this instance, for use in cache keys. */
+  private final long version = VERSION_COUNTER.incrementAndGet();
+
   private final List<RaptorTransfer>[] forwardTransfers;
 
   private final List<RaptorTransfer>[] reversedTransfers;
@@ -59,6 +65,10 @@ public class RaptorTransferIndex {
     return new RaptorTransferIndex(forwardTransfers, reversedTransfers);
   }
 
+  public long getVersion() {
+    return version;
+  }
+
   public List<RaptorTransfer> getForwardTransfers(int stopIndex) {
     return forwardTransfers[stopIndex];
   }
@@ -6,11 +6,14 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestPatternCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
@@ -29,13 +32,26 @@ import org.opentripplanner.transit.service.SiteRepository;
  */
 public class TransitLayer {
 
+  private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+  /**
+   * A number identifying this instance. A new transit layer is created for each realtime update,
+   * so this is a version number of the transit data, which can be used in cache keys without
+   * keeping a reference to the transit layer.
+   */
+  private final long version = VERSION_COUNTER.incrementAndGet();
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
+   * <p>
+   * The collections are never modified, the {@link #replaceTripPatternsForDate} replace the
+   * collection for a date. The realtime updater replace the lists with immutable persistent
+   * collections, which share structure with the previous version.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, Collection<TripPatternForDate>> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -52,6 +68,20 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  /**
+   * The cached patterns are only valid for this instance, so the cache is never shared with a
+   * copy of this transit layer.
+   */
+  @Nullable
+  private final RaptorRequestPatternCache patternCache;
+
+  /**
+   * The access/egress searches do not depend on the transit data, so the cache is shared with
+   * copies of this transit layer.
+   */
+  @Nullable
+  private final AccessEgressCache accessEgressCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -62,7 +92,7 @@ public class TransitLayer {
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The copy gets a new empty pattern cache.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -71,6 +101,8 @@ public class TransitLayer {
       transitLayer.transferService,
       transitLayer.siteRepository,
       transitLayer.transferCache,
+      transitLayer.patternCache == null ? null : transitLayer.patternCache.emptyCopy(),
+      transitLayer.accessEgressCache,
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightTransferCosts
@@ -78,11 +110,13 @@ public class TransitLayer {
   }
 
   public TransitLayer(
-    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    Map<LocalDate, ? extends Collection<TripPatternForDate>> tripPatternsRunningOnDate,
     List<List<Transfer>> transfersByStopIndex,
     TransferService transferService,
     SiteRepository siteRepository,
     RaptorRequestTransferCache transferCache,
+    @Nullable RaptorRequestPatternCache patternCache,
+    @Nullable AccessEgressCache accessEgressCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
@@ -92,11 +126,17 @@ public class TransitLayer {
     this.transferService = transferService;
     this.siteRepository = siteRepository;
     this.transferCache = transferCache;
+    this.patternCache = patternCache;
+    this.accessEgressCache = accessEgressCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
   @Nullable
   public StopLocation getStopByIndex(int stop) {
     return stop == -1 ? null : this.siteRepository.stopByIndex(stop);
@@ -121,7 +161,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
+    var tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
     return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
   }
 
@@ -157,6 +197,24 @@ public class TransitLayer {
     return transferCache;
   }
 
+  /**
+   * Cache for the date and filter dependent trip pattern indexes used by the Raptor transit data
+   * provider. Returns {@code null} if caching is disabled.
+   */
+  @Nullable
+  public RaptorRequestPatternCache getPatternCache() {
+    return patternCache;
+  }
+
+  /**
+   * Cache for the walk and bicycle access/egress street searches. Returns {@code null} if caching
+   * is disabled.
+   */
+  @Nullable
+  public AccessEgressCache getAccessEgressCache() {
+    return accessEgressCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -177,11 +235,11 @@ public class TransitLayer {
 
   /**
    * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * to the HashMap implementation. The given collection must not be modified after it is added.
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> tripPatternForDates
   ) {
     this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
   }
@@ -47,6 +47,21 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int patternCacheMaxSize() {
+      return 5;
+    }
+
+    @Override
+    public int accessEgressCacheMaxSize() {
+      return 0;
+    }
+
+    @Override
+    public Duration accessEgressCacheTimeToLive() {
+      return Duration.ofMinutes(10);
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +98,24 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of date-range and filter combinations for which the trip patterns used by
+   * Raptor should be cached. Each entry holds the trip schedules for all active patterns over the
+   * search days, so this can use a lot of memory on large graphs. Zero disables the cache.
+   */
+  int patternCacheMaxSize();
+
+  /**
+   * The maximum number of walk and bicycle access/egress street searches to cache. Each entry
+   * holds the paths to all the stops found. Zero disables the cache.
+   */
+  int accessEgressCacheMaxSize();
+
+  /**
+   * How long a cached access/egress street search is used.
+   */
+  Duration accessEgressCacheTimeToLive();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
@@ -13,6 +13,7 @@ import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
@@ -20,6 +21,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternFo
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.RaptorCostConverter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestPatternCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
@@ -81,6 +83,15 @@ public class TransitLayerMapper {
     }
 
     var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var patternCache = tuningParameters.patternCacheMaxSize() > 0
+      ? new RaptorRequestPatternCache(tuningParameters.patternCacheMaxSize())
+      : null;
+    var accessEgressCache = tuningParameters.accessEgressCacheMaxSize() > 0
+      ? new AccessEgressCache(
+        tuningParameters.accessEgressCacheMaxSize(),
+        tuningParameters.accessEgressCacheTimeToLive()
+      )
+      : null;
 
     LOG.info("Mapping complete.");
 
@@ -90,6 +101,8 @@ public class TransitLayerMapper {
       transitService.getTransferService(),
       siteRepository,
       transferCache,
+      patternCache,
+      accessEgressCache,
       constrainedTransfers,
       transferIndexGenerator,
       createStopBoardAlightTransferCosts(siteRepository, tuningParameters)
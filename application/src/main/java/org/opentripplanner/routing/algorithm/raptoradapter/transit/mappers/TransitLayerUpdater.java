@@ -2,8 +2,10 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,6 +14,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.collection.PersistentHashMap;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -34,11 +37,18 @@ import org.slf4j.LoggerFactory;
  * recent TimetableSnapshot) without repeatedly deriving it from scratch every few seconds. The same
  * incremental changes are applied to both the TimetableSnapshot and the TransitLayer and they are
  * published together.
+ * <p>
+ * The TripPatternForDates running on each date are kept in a {@link PersistentHashMap}, so an
+ * update only copies the path to the changed elements, not the full list of patterns for each
+ * updated date. The cost of an update is proportional to the number of updated timetables, not
+ * to the size of the network. The update time and size is recorded as metrics.
  */
 public class TransitLayerUpdater {
 
   private static final Logger LOG = LoggerFactory.getLogger(TransitLayerUpdater.class);
 
+  private static final String METRICS_PREFIX = "transit_layer_updates";
+
   private final TransitEditorService transitService;
 
   /**
@@ -53,10 +63,33 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The patterns running on each date, as a persistent set. The latest version is published in the
+   * realtime transit layer, older versions may still be in use by routing requests.
+   */
+  private final Map<LocalDate, PersistentHashMap<TripPatternForDate, TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+
+  private final Timer updateTimer;
+  private final Counter updatedTimetablesCounter;
+  private final Counter updatedDatesCounter;
 
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
+    this.updateTimer =
+      Timer
+        .builder(METRICS_PREFIX + "_duration")
+        .description("Time used to apply realtime updates to the transit layer")
+        .register(Metrics.globalRegistry);
+    this.updatedTimetablesCounter =
+      Counter
+        .builder(METRICS_PREFIX + "_timetables")
+        .description("Total number of updated timetables applied to the transit layer")
+        .register(Metrics.globalRegistry);
+    this.updatedDatesCounter =
+      Counter
+        .builder(METRICS_PREFIX + "_running_dates")
+        .description("Total number of running dates updated in the transit layer")
+        .register(Metrics.globalRegistry);
   }
 
   public void update(
@@ -67,7 +100,7 @@ public class TransitLayerUpdater {
       return;
     }
 
-    long startTime = System.currentTimeMillis();
+    Timer.Sample timerSample = Timer.start();
 
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
@@ -155,14 +188,12 @@ public class TransitLayerUpdater {
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
+      // Remove old cached tripPatterns where tripTimes are no longer running
+      var patternsForDate = tripPatternsRunningOnDateMapCache.computeIfAbsent(
         date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
+        p -> PersistentHashMap.copyOfSet(realtimeTransitLayer.getTripPatternsForRunningDate(date))
       );
 
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
       for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
         .asMap()
         .entrySet()) {
@@ -170,7 +201,7 @@ public class TransitLayerUpdater {
           // Remove old TripPatternForDate for this date if it was valid on this date
           if (oldTripPatternForDate != null) {
             if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
+              patternsForDate = patternsForDate.minus(oldTripPatternForDate);
             }
           }
         }
@@ -192,7 +223,7 @@ public class TransitLayerUpdater {
               .orElse(false);
 
             if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
+              patternsForDate = patternsForDate.minus(tripPatternForDate);
             }
           } else {
             LOG.warn("Could not fetch timetable for {}", pattern);
@@ -207,13 +238,14 @@ public class TransitLayerUpdater {
           // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
           if (newTripPatternForDate != null) {
             if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
+              patternsForDate = patternsForDate.plus(newTripPatternForDate, newTripPatternForDate);
             }
           }
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      tripPatternsRunningOnDateMapCache.put(date, patternsForDate);
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate.keys());
     }
 
     if (transferIndexGenerator != null) {
@@ -224,10 +256,14 @@ public class TransitLayerUpdater {
     // guarantee that the reference is set after all the fields have been updated.
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
 
+    long durationNanos = timerSample.stop(updateTimer);
+    updatedTimetablesCounter.increment(updatedTimetables.size());
+    updatedDatesCounter.increment(datesToBeUpdated.size());
+
     LOG.debug(
       "UPDATING {} tripPatterns took {} ms",
       updatedTimetables.size(),
-      System.currentTimeMillis() - startTime
+      durationNanos / 1_000_000
     );
   }
 }
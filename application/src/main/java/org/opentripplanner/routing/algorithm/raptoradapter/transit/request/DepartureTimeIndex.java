@@ -0,0 +1,114 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.function.IntUnaryOperator;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+
+/**
+ * A departure-time bucket table for one stop position in a pattern. The time span of the
+ * departures is divided into buckets of equal size, and for each bucket we keep the index of the
+ * first trip departing after the bucket. This is used by the {@link TripScheduleBoardSearch}
+ * instead of the binary search to find where to start the search, for patterns with a lot of
+ * trips. The search then only need to step through the trips in the same bucket as the earliest
+ * board time.
+ * <p>
+ * The trips are sorted on the departure time at the first stop, but trips can pass each other.
+ * The index is build using the latest departure time seen so far, so the returned upper bound is
+ * never too small if the trips are sorted, and otherwise a good guess - the same assumption as
+ * the board search makes.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class DepartureTimeIndex {
+
+  /**
+   * The average number of trips in each bucket. The board search steps through the trips in a
+   * bucket, so a small number is good, but increases the size of the index.
+   */
+  private static final int TRIPS_PER_BUCKET = 4;
+
+  private final int nTrips;
+  private final int startTime;
+  private final int bucketSize;
+
+  /**
+   * For each bucket, the index of the first trip departing after the bucket end time.
+   */
+  private final int[] tripIndexUpperBounds;
+
+  private DepartureTimeIndex(
+    int nTrips,
+    int startTime,
+    int bucketSize,
+    int[] tripIndexUpperBounds
+  ) {
+    this.nTrips = nTrips;
+    this.startTime = startTime;
+    this.bucketSize = bucketSize;
+    this.tripIndexUpperBounds = tripIndexUpperBounds;
+  }
+
+  /**
+   * Create a new index for the given departure times.
+   *
+   * @param departureTimes the departure times for one stop position, indexed by trip index.
+   * @param nTrips the number of trips, must be at least one.
+   */
+  public static DepartureTimeIndex of(IntUnaryOperator departureTimes, int nTrips) {
+    if (nTrips < 1) {
+      throw new IllegalArgumentException("At least one trip expected: " + nTrips);
+    }
+    int startTime = departureTimes.applyAsInt(0);
+    int endTime = startTime;
+    for (int i = 1; i < nTrips; ++i) {
+      endTime = Math.max(endTime, departureTimes.applyAsInt(i));
+    }
+    int timeSpan = endTime - startTime + 1;
+    int nBuckets = ceilDiv(nTrips, TRIPS_PER_BUCKET);
+    int bucketSize = ceilDiv(timeSpan, nBuckets);
+    nBuckets = ceilDiv(timeSpan, bucketSize);
+
+    var tripIndexUpperBounds = new int[nBuckets];
+    int bucket = 0;
+    int latestDepartureTime = startTime;
+
+    for (int i = 0; i < nTrips; ++i) {
+      latestDepartureTime = Math.max(latestDepartureTime, departureTimes.applyAsInt(i));
+      int tripBucket = (latestDepartureTime - startTime) / bucketSize;
+      while (bucket < tripBucket) {
+        tripIndexUpperBounds[bucket++] = i;
+      }
+    }
+    while (bucket < nBuckets) {
+      tripIndexUpperBounds[bucket++] = nTrips;
+    }
+    return new DepartureTimeIndex(nTrips, startTime, bucketSize, tripIndexUpperBounds);
+  }
+
+  /**
+   * Return the upper bound trip index (exclusive) for where to start a board search stepping
+   * backwards in time. All trips departing in the same bucket as the given time have a smaller
+   * index, all trips with the same or a greater index depart after the bucket.
+   */
+  public int tripIndexUpperBound(int earliestBoardTime) {
+    if (earliestBoardTime < startTime) {
+      return tripIndexUpperBounds[0];
+    }
+    int bucket = (earliestBoardTime - startTime) / bucketSize;
+    return bucket < tripIndexUpperBounds.length ? tripIndexUpperBounds[bucket] : nTrips;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(DepartureTimeIndex.class)
+      .addNum("nTrips", nTrips)
+      .addServiceTime("startTime", startTime)
+      .addDurationSec("bucketSize", bucketSize)
+      .addNum("nBuckets", tripIndexUpperBounds.length)
+      .toString();
+  }
+
+  private static int ceilDiv(int a, int b) {
+    return (a + b - 1) / b;
+  }
+}
@@ -0,0 +1,105 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache the date and filter dependent part of the {@link RaptorRoutingRequestTransitData}: the
+ * pattern index and the active patterns per stop. Creating these require filtering all
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate}s for
+ * the search days, which is a significant part of the request time on large graphs.
+ * <p>
+ * The cache is owned by the {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer},
+ * so the transit layer version is implicitly part of the key. When a new realtime transit layer
+ * is published by the {@code TransitLayerUpdater}, the new layer starts with an empty cache.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RaptorRequestPatternCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RaptorRequestPatternCache.class);
+
+  private final int maximumSize;
+  private final Cache<CacheKey, PatternIndex> cache;
+
+  public RaptorRequestPatternCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Create a new empty cache with the same configuration as this. Used when a new transit layer
+   * is created, the cached entries are not valid for the new layer.
+   */
+  public RaptorRequestPatternCache emptyCopy() {
+    return new RaptorRequestPatternCache(maximumSize);
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  PatternIndex get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Supplier<PatternIndex> loader
+  ) {
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(
+        key,
+        () -> {
+          LOG.debug("Adding pattern index to cache: {}", key);
+          return loader.get();
+        }
+      );
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from pattern cache", e);
+    }
+  }
+
+  /**
+   * The trip patterns indexed by pattern index, and the active patterns for each stop.
+   */
+  record PatternIndex(
+    List<TripPatternForDates> patternIndex,
+    List<int[]> activeTripPatternsPerStop
+  ) {}
+
+  /**
+   * The filter is part of the key, so it must implement {@code equals()} and
+   * {@code hashCode()}. A filter without value semantics is still correct, but will never result
+   * in a cache hit.
+   */
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    @Override
+    public String toString() {
+      return ToStringBuilder
+        .of(CacheKey.class)
+        .addObj("transitSearchTimeZero", transitSearchTimeZero)
+        .addNum("additionalPastSearchDays", additionalPastSearchDays)
+        .addNum("additionalFutureSearchDays", additionalFutureSearchDays)
+        .addObj("filter", filter)
+        .toString();
+    }
+  }
+}
@@ -1,9 +1,11 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.time.ServiceDateUtils;
@@ -27,7 +29,10 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestPatternCache.PatternIndex;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.framework.DurationForEnum;
+import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
 
@@ -69,6 +74,8 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final int validTransitDataEndTime;
 
+  private final TransitDataCacheKey transitDataCacheKey;
+
   public RaptorRoutingRequestTransitData(
     TransitLayer transitLayer,
     TransitGroupPriorityService transitGroupPriorityService,
@@ -89,14 +96,37 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       transitLayer,
       transitSearchTimeZero
     );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      transitGroupPriorityService
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+
+    // The transit-group-priority ids are assigned dynamically per request, so the patterns can
+    // only be cached if the feature is off.
+    var patternCache = transitLayer.getPatternCache();
+    boolean cachePatterns = patternCache != null && !transitGroupPriorityService.isEnabled();
+
+    Supplier<PatternIndex> createPatternIndex = () -> {
+      List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transitGroupPriorityService,
+        cachePatterns
+      );
+      return new PatternIndex(
+        transitDataCreator.createPatternIndex(tripPatterns),
+        transitDataCreator.createTripPatternsPerStop(tripPatterns)
+      );
+    };
+
+    var patterns = cachePatterns
+      ? patternCache.get(
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        createPatternIndex
+      )
+      : createPatternIndex.get();
+    this.patternIndex = patterns.patternIndex();
+    this.activeTripPatternsPerStop = patterns.activeTripPatternsPerStop();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
@@ -115,6 +145,19 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
         request.preferences().transit().alightSlack()
       );
 
+    this.transitDataCacheKey =
+      new TransitDataCacheKey(
+        transitLayer.getVersion(),
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transferIndex.getVersion(),
+        request.preferences().transfer().slack(),
+        request.preferences().transit().boardSlack(),
+        request.preferences().transit().alightSlack()
+      );
+
     this.validTransitDataStartTime =
       ServiceDateUtils.secondsSinceStartOfTime(
         this.transitSearchTimeZero,
@@ -207,6 +250,11 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     };
   }
 
+  @Override
+  public Object transitDataCacheKey() {
+    return transitDataCacheKey;
+  }
+
   @Override
   public int getValidTransitDataStartTime() {
     return validTransitDataStartTime;
@@ -242,4 +290,21 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  /**
+   * A new transit layer is created for each realtime update, and the transfer index is cached per
+   * transfer request, so their versions identify the data. The versions are used instead of the
+   * instances, so the cached entries of old versions do not keep them in memory.
+   */
+  private record TransitDataCacheKey(
+    long transitLayerVersion,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    long transferIndexVersion,
+    Duration transferSlack,
+    DurationForEnum<TransitMode> boardSlack,
+    DurationForEnum<TransitMode> alightSlack
+  ) {}
 }
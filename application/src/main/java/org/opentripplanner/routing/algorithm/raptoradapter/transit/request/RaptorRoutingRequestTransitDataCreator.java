@@ -89,12 +89,16 @@ class RaptorRoutingRequestTransitDataCreator {
    * list of TripPatternsForDates. The purpose of doing this is so that TripSchedules for several
    * dates are combined by TripPattern instead of having their own TripPattern. This is to improve
    * performance for searching, as each TripPattern is searched only once per round.
+   * <p>
+   * Set {@code cached} if the result is shared between requests, this enables the departure time
+   * index in the board search, see {@link TripSearchTimetable#isDepartureTimeIndexEnabled()}.
    */
   static List<TripPatternForDates> merge(
     ZonedDateTime transitSearchTimeZero,
     List<TripPatternForDate> patternForDateList,
     TransitDataProviderFilter filter,
-    TransitGroupPriorityService transitGroupPriorityService
+    TransitGroupPriorityService transitGroupPriorityService,
+    boolean cached
   ) {
     // Group TripPatternForDate objects by TripPattern.
     // This is done in a loop to increase performance.
@@ -148,7 +152,8 @@ class RaptorRoutingRequestTransitDataCreator {
             tripPattern.getAlightingPossible(),
             BoardAlight.ALIGHT
           ),
-          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
+          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern()),
+          cached
         )
       );
     }
@@ -160,7 +165,8 @@ class RaptorRoutingRequestTransitDataCreator {
     int additionalPastSearchDays,
     int additionalFutureSearchDays,
     TransitDataProviderFilter filter,
-    TransitGroupPriorityService transitGroupPriorityService
+    TransitGroupPriorityService transitGroupPriorityService,
+    boolean cached
   ) {
     List<TripPatternForDate> tripPatternForDates = getTripPatternsForDateRange(
       additionalPastSearchDays,
@@ -168,7 +174,13 @@ class RaptorRoutingRequestTransitDataCreator {
       filter
     );
 
-    return merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService);
+    return merge(
+      transitSearchTimeZero,
+      tripPatternForDates,
+      filter,
+      transitGroupPriorityService,
+      cached
+    );
   }
 
   private static List<TripPatternForDate> filterActiveTripPatterns(
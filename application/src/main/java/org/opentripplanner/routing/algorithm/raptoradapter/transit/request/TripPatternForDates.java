@@ -62,13 +62,27 @@ public class TripPatternForDates
 
   private final int priorityGroupId;
 
+  /**
+   * The departure time index is only enabled if this instance is cached and shared between
+   * requests. Otherwise, creating the index would cost more than it saves.
+   */
+  private final boolean departureTimeIndexEnabled;
+
+  /**
+   * The departure time indexes are created lazily for each stop position, and only for trip
+   * patterns with a lot of trips. This is not synchronized, the instance may be shared between
+   * requests, but creating an index twice is harmless and the index is immutable.
+   */
+  private DepartureTimeIndex[] departureTimeIndexes = null;
+
   TripPatternForDates(
     RoutingTripPattern tripPattern,
     TripPatternForDate[] tripPatternForDates,
     int[] offsets,
     BitSet boardingPossible,
     BitSet alightningPossible,
-    int priorityGroupId
+    int priorityGroupId,
+    boolean departureTimeIndexEnabled
   ) {
     this.tripPattern = tripPattern;
     this.tripPatternForDates = tripPatternForDates;
@@ -76,6 +90,7 @@ public class TripPatternForDates
     this.boardingPossible = boardingPossible;
     this.alightingPossible = alightningPossible;
     this.priorityGroupId = priorityGroupId;
+    this.departureTimeIndexEnabled = departureTimeIndexEnabled;
 
     int numberOfTripSchedules = 0;
     boolean hasFrequencies = false;
@@ -216,6 +231,27 @@ public class TripPatternForDates
     return (int index) -> departureTimes[base + index];
   }
 
+  @Override
+  public boolean isDepartureTimeIndexEnabled() {
+    return departureTimeIndexEnabled;
+  }
+
+  @Override
+  public DepartureTimeIndex getDepartureTimeIndex(int stopPositionInPattern) {
+    var indexes = departureTimeIndexes;
+    if (indexes == null) {
+      indexes = new DepartureTimeIndex[numberOfStopsInPattern()];
+      departureTimeIndexes = indexes;
+    }
+    var index = indexes[stopPositionInPattern];
+    if (index == null) {
+      index =
+        DepartureTimeIndex.of(getDepartureTimes(stopPositionInPattern), numberOfTripSchedules);
+      indexes[stopPositionInPattern] = index;
+    }
+    return index;
+  }
+
   public IntUnaryOperator getArrivalTimesForTrip(int index) {
     return (int stopPositionInPattern) ->
       arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
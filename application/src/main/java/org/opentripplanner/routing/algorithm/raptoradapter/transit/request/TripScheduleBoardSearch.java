@@ -17,7 +17,8 @@ import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
  * <p/>
  * The search uses a binary search if the number of trip schedules is above a given threshold. A
  * linear search is slow when the number of schedules is very large, let say more than 300 trip
- * schedules.
+ * schedules. For very large timetables the {@link DepartureTimeIndex} can be used instead of the
+ * binary search.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -27,6 +28,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   private final TripSearchTimetable<T> timetable;
   private final int nTrips;
   private final int binarySearchThreshold;
+  private final boolean useDepartureTimeIndex;
 
   private int earliestBoardTime;
   private int stopPositionInPattern;
@@ -40,9 +42,22 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
    * trip schedule search.
    */
   TripScheduleBoardSearch(TripSearchTimetable<T> timetable, int binarySearchThreshold) {
+    this(timetable, binarySearchThreshold, false);
+  }
+
+  /**
+   * @param useDepartureTimeIndex use the {@link TripSearchTimetable#getDepartureTimeIndex(int)}
+   *                              instead of a binary search to find where to start the search.
+   */
+  TripScheduleBoardSearch(
+    TripSearchTimetable<T> timetable,
+    int binarySearchThreshold,
+    boolean useDepartureTimeIndex
+  ) {
     this.timetable = timetable;
     this.nTrips = timetable.numberOfTripSchedules();
     this.binarySearchThreshold = binarySearchThreshold;
+    this.useDepartureTimeIndex = useDepartureTimeIndex;
   }
 
   /* TripScheduleBoardOrAlightEvent implementation using fly-weight pattern */
@@ -134,7 +149,11 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   /* private methods */
 
   private RaptorBoardOrAlightEvent<T> findFirstBoardingOptimizedForLargeSetOfTrips() {
-    int indexBestGuess = binarySearchForTripIndex();
+    int indexBestGuess = useDepartureTimeIndex
+      ? timetable
+        .getDepartureTimeIndex(stopPositionInPattern)
+        .tripIndexUpperBound(earliestBoardTime)
+      : binarySearchForTripIndex();
 
     // Use the upper bound from the binary search to look for a candidate trip
     // We can not use lower bound to exit the search. We need to continue
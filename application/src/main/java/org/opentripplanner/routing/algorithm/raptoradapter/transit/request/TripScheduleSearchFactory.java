@@ -19,6 +19,15 @@ public class TripScheduleSearchFactory {
    */
   private static final int BINARY_SEARCH_THRESHOLD = 50;
 
+  /**
+   * Above this number of trips the board search use a {@link DepartureTimeIndex} to find where to
+   * start the search, instead of the binary search. The index is created for each stop position
+   * the first time it is used, so this only pays off for large timetables, and only if the
+   * timetable is reused - see {@link TripSearchTimetable#isDepartureTimeIndexEnabled()} and the
+   * {@code TripScheduleBoardSearchBenchmark}.
+   */
+  private static final int DEPARTURE_TIME_INDEX_THRESHOLD = 200;
+
   /**
    * Create a new search based on the given direction:
    * <ou>
@@ -31,7 +40,12 @@ public class TripScheduleSearchFactory {
     TripSearchTimetable<T> timetable
   ) {
     return searchDirection.isForward()
-      ? new TripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD)
+      ? new TripScheduleBoardSearch<>(
+        timetable,
+        BINARY_SEARCH_THRESHOLD,
+        timetable.isDepartureTimeIndexEnabled() &&
+        timetable.numberOfTripSchedules() > DEPARTURE_TIME_INDEX_THRESHOLD
+      )
       : new TripScheduleAlightSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
   }
 }
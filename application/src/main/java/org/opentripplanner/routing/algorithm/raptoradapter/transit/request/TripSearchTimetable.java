@@ -26,4 +26,25 @@ public interface TripSearchTimetable<T extends RaptorTripSchedule> extends Rapto
    * seconds from midnight on the search date.
    */
   IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+
+  /**
+   * Return {@code true} if the board search may use the {@link #getDepartureTimeIndex(int)}. The
+   * index is created the first time it is used, so this should only be enabled if the timetable
+   * is reused by many searches. The default is {@code false}.
+   */
+  default boolean isDepartureTimeIndexEnabled() {
+    return false;
+  }
+
+  /**
+   * Get an index of the departure times at a specific stop index. The index is used by the board
+   * search for timetables with a lot of trips, see {@link TripScheduleSearchFactory}. The default
+   * implementation creates a new index for each call, so implementations should cache it.
+   */
+  default DepartureTimeIndex getDepartureTimeIndex(int stopPositionInPattern) {
+    return DepartureTimeIndex.of(
+      getDepartureTimes(stopPositionInPattern),
+      numberOfTripSchedules()
+    );
+  }
 }
@@ -43,6 +43,8 @@ public class RouteRequest implements Cloneable, Serializable {
 
   private static final long NOW_THRESHOLD_SEC = durationInSeconds("15h");
 
+  private static final Duration DEPARTURE_PROFILE_SEARCH_WINDOW = Duration.ofDays(1);
+
   /* FIELDS UNIQUELY IDENTIFYING AN SPT REQUEST */
 
   private GenericLocation from;
@@ -62,6 +64,8 @@ public class RouteRequest implements Cloneable, Serializable {
 
   private boolean timetableView = true;
 
+  private boolean departureProfile = false;
+
   private boolean arriveBy = false;
 
   private int numItineraries = 50;
@@ -197,6 +201,27 @@ public class RouteRequest implements Cloneable, Serializable {
     }
   }
 
+  /**
+   * Prepare the request for a departure-profile search, if {@link #departureProfile()} is set. A
+   * profile is a depart-after search with the timetable-view enabled. If the search-window is not
+   * set, all departures the next 24 hours are included, limited by the max search-window.
+   */
+  public void applyDepartureProfile() {
+    if (!departureProfile) {
+      return;
+    }
+    if (arriveBy) {
+      throw new IllegalArgumentException("A departure profile can not be combined with arriveBy.");
+    }
+    timetableView = true;
+    if (searchWindow == null) {
+      searchWindow =
+        hasMaxSearchWindow() && maxSearchWindow.compareTo(DEPARTURE_PROFILE_SEARCH_WINDOW) < 0
+          ? maxSearchWindow
+          : DEPARTURE_PROFILE_SEARCH_WINDOW;
+    }
+  }
+
   /**
    * When paging we must crop the list of itineraries in the right end according to the sorting of
    * the original search and according to the paging direction (next or previous). We always
@@ -403,6 +428,24 @@ public class RouteRequest implements Cloneable, Serializable {
     this.timetableView = timetableView;
   }
 
+  /**
+   * Search for all pareto-optimal itineraries departing within the search-window, not only the
+   * first {@link #numItineraries()}. This performs one multi-criteria Range Raptor search for the
+   * whole search-window, instead of paging through the period with many small searches. The
+   * result is the departure-time profile between the origin and the destination.
+   * <p>
+   * Default: false
+   *
+   * @see #applyDepartureProfile()
+   */
+  public boolean departureProfile() {
+    return departureProfile;
+  }
+
+  public void setDepartureProfile(boolean departureProfile) {
+    this.departureProfile = departureProfile;
+  }
+
   /**
    * Whether the trip should depart at dateTime (false, the default), or arrive at dateTime.
    */
@@ -435,6 +478,7 @@ public class RouteRequest implements Cloneable, Serializable {
       .addObj("to", to)
       .addDateTime("dateTime", dateTime)
       .addBoolIfTrue("arriveBy", arriveBy)
+      .addBoolIfTrue("departureProfile", departureProfile)
       .addObj("modes", journey.modes())
       .addCol("filters", journey.transit().filters())
       .toString();
@@ -25,6 +25,8 @@ import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingService;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.contraction.CarContractionHierarchy;
+import org.opentripplanner.street.model.landmark.LandmarkDistances;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
@@ -69,6 +71,9 @@ public class Graph implements Serializable {
   // Ideally we could just get rid of vertex labels, but they're used in tests and graph building.
   private final Map<VertexLabel, Vertex> vertices = new ConcurrentHashMap<>();
 
+  /** The index given to the next vertex added, see {@link Vertex#getIndex()}. */
+  private int nextVertexIndex = 0;
+
   /** Conserve memory by reusing immutable instances of Strings, integer arrays, etc. */
   public final transient Deduplicator deduplicator;
 
@@ -114,6 +119,20 @@ public class Graph implements Serializable {
   private final VehicleParkingService vehicleParkingService = new VehicleParkingService();
   private FareService fareService;
 
+  /**
+   * Landmark distances used by the ALT heuristic in direct street searches, or {@code null} if
+   * not computed during graph build.
+   */
+  @Nullable
+  private LandmarkDistances landmarkDistances;
+
+  /**
+   * Contraction hierarchy used by direct car searches, or {@code null} if not computed during
+   * graph build.
+   */
+  @Nullable
+  private CarContractionHierarchy carContractionHierarchy;
+
   /**
    * Hack. I've tried three different ways of generating unique labels. Previously we were just
    * tolerating edge label collisions. For some reason we're repeatedly generating splits on the
@@ -149,6 +168,9 @@ public class Graph implements Serializable {
 
   /** Add the given vertex to the graph. */
   public void addVertex(Vertex v) {
+    if (v.getIndex() == Vertex.NO_INDEX) {
+      v.setIndex(nextVertexIndex());
+    }
     Vertex old = vertices.put(v.getLabel(), v);
     if (old != null) {
       if (old == v) {
@@ -162,6 +184,18 @@ public class Graph implements Serializable {
     }
   }
 
+  /**
+   * Vertices are given a dense index in the order they are added. Removed vertices leave a gap,
+   * so the index is at most {@code getVertexIndexSize() - 1}, not {@code countVertices() - 1}.
+   */
+  public synchronized int getVertexIndexSize() {
+    return nextVertexIndex;
+  }
+
+  private synchronized int nextVertexIndex() {
+    return nextVertexIndex++;
+  }
+
   /**
    * Removes an edge from the graph. This method is not thread-safe.
    *
@@ -374,6 +408,26 @@ public class Graph implements Serializable {
     this.fareService = fareService;
   }
 
+  @Nullable
+  public LandmarkDistances getLandmarkDistances() {
+    return landmarkDistances;
+  }
+
+  public void setLandmarkDistances(@Nullable LandmarkDistances landmarkDistances) {
+    this.landmarkDistances = landmarkDistances;
+  }
+
+  @Nullable
+  public CarContractionHierarchy getCarContractionHierarchy() {
+    return carContractionHierarchy;
+  }
+
+  public void setCarContractionHierarchy(
+    @Nullable CarContractionHierarchy carContractionHierarchy
+  ) {
+    this.carContractionHierarchy = carContractionHierarchy;
+  }
+
   private void indexIfNotIndexed(SiteRepository siteRepository) {
     if (streetIndex == null) {
       index(siteRepository);
@@ -20,6 +20,7 @@ import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.framework.concurrent.TaskGraph;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
@@ -164,6 +165,21 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
+  /**
+   * Rebuild the edge lists and the transit indexes after deserialization. The street graph and the
+   * transit model are independent, so the edge lists are rebuilt while the transit model is
+   * indexed.
+   */
+  private void indexAfterDeserialization() {
+    var siteRepository = timetableRepository.getSiteRepository();
+    try (var tasks = new TaskGraph("graph_load")) {
+      tasks.add("edge_lists", this::reconstructEdgeLists);
+      var siteIndex = tasks.add("site_index", siteRepository::reindexAfterDeserialization);
+      tasks.add("transit_index", timetableRepository::index, siteIndex);
+      tasks.run();
+    }
+  }
+
   private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
     // TODO store version information, halt load if versions mismatch
     try (inputStream) {
@@ -183,9 +199,7 @@ public class SerializedGraphObject implements Serializable {
         serObj.graph.getDistanceBetweenElevationSamples()
       );
       LOG.debug("Graph read.");
-      serObj.reconstructEdgeLists();
-      serObj.timetableRepository.getSiteRepository().reindexAfterDeserialization();
-      serObj.timetableRepository.index();
+      serObj.indexAfterDeserialization();
       logSerializationCompleteStatus(serObj.graph, serObj.timetableRepository);
       return serObj;
     } catch (IOException e) {
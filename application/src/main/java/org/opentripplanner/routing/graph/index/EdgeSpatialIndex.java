@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.graph.index;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
@@ -36,10 +37,16 @@ public class EdgeSpatialIndex {
 
   private final HashGridSpatialIndex<Edge> realTimeEdgeIndex = new HashGridSpatialIndex<>();
 
+  /** Incremented each time an edge is inserted into or removed from the realtime index. */
+  private final AtomicLong realTimeEdgeIndexVersion = new AtomicLong();
+
   public void insert(LineString lineString, Object obj, Scope scope) {
     switch (scope) {
       case PERMANENT -> permanentEdgeIndex.insert(lineString, obj);
-      case REALTIME -> realTimeEdgeIndex.insert(lineString, obj);
+      case REALTIME -> {
+        realTimeEdgeIndex.insert(lineString, obj);
+        realTimeEdgeIndexVersion.incrementAndGet();
+      }
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
@@ -47,7 +54,10 @@ public class EdgeSpatialIndex {
   public void remove(Envelope envelope, final Object item, Scope scope) {
     switch (scope) {
       case PERMANENT -> permanentEdgeIndex.remove(envelope, item);
-      case REALTIME -> realTimeEdgeIndex.remove(envelope, item);
+      case REALTIME -> {
+        realTimeEdgeIndex.remove(envelope, item);
+        realTimeEdgeIndexVersion.incrementAndGet();
+      }
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
@@ -62,6 +72,14 @@ public class EdgeSpatialIndex {
     };
   }
 
+  /**
+   * The version of the realtime index. Results of searches which may use the realtime edges can
+   * be cached as long as the version does not change.
+   */
+  public long realTimeEdgeIndexVersion() {
+    return realTimeEdgeIndexVersion.get();
+  }
+
   public void compact() {
     permanentEdgeIndex.compact();
   }
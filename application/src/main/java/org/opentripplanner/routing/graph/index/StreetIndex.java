@@ -176,6 +176,14 @@ public class StreetIndex {
       .toList();
   }
 
+  /**
+   * The version of the realtime edge index, changed each time a realtime update links or unlinks
+   * an edge.
+   */
+  public long getRealtimeEdgeIndexVersion() {
+    return edgeSpatialIndex.realTimeEdgeIndexVersion();
+  }
+
   /**
    * Gets a set of vertices corresponding to the location provided. It first tries to match one of
    * the stop or station types by id, and if not successful it uses the coordinates if provided.
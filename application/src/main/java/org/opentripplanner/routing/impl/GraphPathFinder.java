@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.PathComparator;
@@ -16,13 +17,17 @@ import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.error.PathNotFoundException;
 import org.opentripplanner.street.model.StreetConstants;
+import org.opentripplanner.street.model.contraction.CarContractionHierarchy;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.landmark.LandmarkDistances;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.contraction.CarContractionHierarchySearch;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +64,12 @@ public class GraphPathFinder {
 
   private final float maxCarSpeed;
 
+  @Nullable
+  private final LandmarkDistances landmarkDistances;
+
+  @Nullable
+  private final CarContractionHierarchy carContractionHierarchy;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED);
   }
@@ -67,10 +78,28 @@ public class GraphPathFinder {
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext,
     float maxCarSpeed
+  ) {
+    this(traverseVisitor, dataOverlayContext, maxCarSpeed, null, null);
+  }
+
+  /**
+   * @param landmarkDistances       If set, the ALT heuristic is used instead of the euclidean
+   *                                heuristic for the street modes with landmark distances.
+   * @param carContractionHierarchy If set, it is used for the car requests it supports, see
+   *                                {@link CarContractionHierarchySearch#canBeUsed}.
+   */
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    float maxCarSpeed,
+    @Nullable LandmarkDistances landmarkDistances,
+    @Nullable CarContractionHierarchy carContractionHierarchy
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
     this.maxCarSpeed = maxCarSpeed;
+    this.landmarkDistances = landmarkDistances;
+    this.carContractionHierarchy = carContractionHierarchy;
   }
 
   /**
@@ -84,9 +113,23 @@ public class GraphPathFinder {
   ) {
     StreetPreferences preferences = request.preferences().street();
 
+    // The contraction hierarchy does not support traverse visitors or data overlay costs
+    if (
+      traverseVisitor == null &&
+      dataOverlayContext == null &&
+      CarContractionHierarchySearch.canBeUsed(carContractionHierarchy, request)
+    ) {
+      var paths = new CarContractionHierarchySearch(carContractionHierarchy)
+        .findPaths(request, from, to);
+      if (paths != null) {
+        return paths;
+      }
+      LOG.debug("No path found in the car contraction hierarchy, using A*.");
+    }
+
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic(maxCarSpeed))
+      .setHeuristic(createHeuristic())
       .setSkipEdgeStrategy(
         new DurationSkipEdgeStrategy(
           preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
@@ -119,6 +162,12 @@ public class GraphPathFinder {
     return paths;
   }
 
+  private RemainingWeightHeuristic<State> createHeuristic() {
+    return landmarkDistances == null
+      ? new EuclideanRemainingWeightHeuristic(maxCarSpeed)
+      : new LandmarkRemainingWeightHeuristic(landmarkDistances, maxCarSpeed);
+  }
+
   /**
    * Try to find N paths through the Graph
    */
@@ -8,6 +8,7 @@ import org.geotools.referencing.factory.DeferredAuthorityFactory;
 import org.geotools.util.WeakCollectionCleaner;
 import org.opentripplanner.framework.application.ApplicationShutdownSupport;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.framework.concurrent.TaskGraph;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
@@ -186,9 +187,23 @@ public class OTPMain {
   }
 
   private static void startOtpWebServer(CommandLineParameters params, ConstructApplication app) {
-    // Index graph for travel search
-    app.timetableRepository().index();
-    app.graph().index(app.timetableRepository().getSiteRepository());
+    // Index graph for travel search. The street index does not depend on the transit index, so
+    // they are built concurrently. The Raptor transit layer is built when the transit is indexed.
+    try (var tasks = new TaskGraph("startup")) {
+      var timetableRepository = app.timetableRepository();
+      var transitIndex = tasks.add("transit_index", timetableRepository::index);
+      tasks.add("street_index", () -> app.graph().index(timetableRepository.getSiteRepository()));
+      tasks.add(
+        "transit_layer",
+        () ->
+          ConstructApplication.creatTransitLayerForRaptor(
+            timetableRepository,
+            app.routerConfig().transitTuningConfig()
+          ),
+        transitIndex
+      );
+      tasks.run();
+    }
 
     // publishing the config version info make it available to the APIs
     setOtpConfigVersionsOnServerInfo(app);
@@ -116,6 +116,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean platformEntriesLinking;
 
+  public final boolean carContractionHierarchy;
+
   /** See {@link S3BucketConfig}. */
   public final S3BucketConfig elevationBucket;
 
@@ -147,6 +149,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean osmCacheDataInMem;
 
+  public final boolean osmMemoryMappedNodes;
+
   /** See {@link IslandPruningConfig}. */
   public final IslandPruningConfig islandPruning;
 
@@ -170,6 +174,7 @@ public class BuildConfig implements OtpDataStoreConfig {
   public final TransitFeeds transitFeeds;
   public final boolean staticParkAndRide;
   public final boolean staticBikeParkAndRide;
+  public final int streetLandmarks;
   public final double distanceBetweenElevationSamples;
   public final double maxElevationPropagationMeters;
   public final boolean readCachedElevations;
@@ -210,6 +215,21 @@ public class BuildConfig implements OtpDataStoreConfig {
             """
         )
         .asBoolean(false);
+    carContractionHierarchy =
+      root
+        .of("carContractionHierarchy")
+        .since(V2_7)
+        .summary("Build a contraction hierarchy to speed up direct car street routing.")
+        .description(
+          """
+A contraction hierarchy is built over the car street network during graph build, with the turn
+restrictions and turn costs included. Direct car searches use it instead of the A* search, which
+makes them much faster on large street networks, at the cost of a longer graph build and a bigger
+graph. The hierarchy is built with the default car and turn reluctance and intersection traversal
+model, requests with other values and arrive-by requests still use the A* search.
+"""
+        )
+        .asBoolean(false);
     configVersion =
       root
         .of("configVersion")
@@ -329,6 +349,21 @@ all of the elevation values in the street edges.
       """
         )
         .asBoolean(false);
+    osmMemoryMappedNodes =
+      root
+        .of("osmMemoryMappedNodes")
+        .since(V2_7)
+        .summary("If OSM nodes should be kept in memory-mapped files during processing.")
+        .description(
+          """
+      The OSM nodes are the largest part of the OSM data kept in memory while building the street
+      graph. Set this parameter to `true` to store them in temporary memory-mapped files instead,
+      which the operating system can page out. This allows building large graphs on machines with
+      less memory, at the cost of a slower build. The files are deleted when the OSM data has been
+      processed.
+      """
+        )
+        .asBoolean(false);
     platformEntriesLinking =
       root
         .of("platformEntriesLinking")
@@ -360,6 +395,21 @@ all of the elevation values in the street edges.
         .since(V1_5)
         .summary("Whether we should create car P+R stations from OSM data.")
         .asBoolean(true);
+    streetLandmarks =
+      root
+        .of("streetLandmarks")
+        .since(V2_7)
+        .summary("The number of landmarks used to speed up direct car and bicycle street routing.")
+        .description(
+          """
+The distances from and to a small set of landmarks are computed for every street vertex during
+graph build, and used as the A* heuristic in the direct car and bicycle street searches (ALT). This
+makes the searches explore far fewer states on large street networks, at the cost of a longer graph
+build and a bigger graph. Each landmark adds 16 bytes per vertex. Use a value between 8 and 16 to
+enable, 0 disables the landmarks.
+"""
+        )
+        .asInt(0);
     subwayAccessTime =
       root
         .of("subwayAccessTime")
@@ -13,6 +13,11 @@ import org.opentripplanner.raptor.api.request.RaptorEnvironment;
 public class RaptorEnvironmentFactory {
 
   public static RaptorEnvironment create(final int threadPoolSize) {
+    // The thread-pool has application scope, create it once and not for each call
+    final ExecutorService threadPool = threadPoolSize > 0
+      ? Executors.newFixedThreadPool(threadPoolSize, OtpRequestThreadFactory.of("raptor-%d"))
+      : null;
+
     return new RaptorEnvironment() {
       @Override
       public Runnable timeoutHook() {
@@ -32,9 +37,7 @@ public class RaptorEnvironmentFactory {
       @Nullable
       @Override
       public ExecutorService threadPool() {
-        return threadPoolSize > 0
-          ? Executors.newFixedThreadPool(threadPoolSize, OtpRequestThreadFactory.of("raptor-%d"))
-          : null;
+        return threadPool;
       }
     };
   }
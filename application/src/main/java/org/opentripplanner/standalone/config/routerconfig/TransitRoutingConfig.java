@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -27,7 +28,13 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final Duration searchWindowTimeSlice;
   private final int transferCacheMaxSize;
+  private final int patternCacheMaxSize;
+  private final int heuristicsCacheMaxSize;
+  private final Duration heuristicsCacheTimeToLive;
+  private final int accessEgressCacheMaxSize;
+  private final Duration accessEgressCacheTimeToLive;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -113,6 +120,25 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(0);
+    this.searchWindowTimeSlice =
+      c
+        .of("searchWindowTimeSlice")
+        .since(V2_7)
+        .summary(
+          "Split the search-window of a multi-criteria search into time-slices and search them in parallel."
+        )
+        .description(
+          """
+Each time-slice is searched as an independent Range Raptor search, using the thread-pool set up
+by `searchThreadPoolSize`, and the results are merged. This reduces the response time for long
+search-windows when there are idle cores available, but the total amount of work increase, since
+each slice does not get the pruning from the later departures in the search-window. The slice
+size is rounded up to a whole number of `iterationDepartureStepInSeconds`. Only plain forward
+searches are split, and only when the search-window is longer than the slice. If zero(default),
+the search-window is not split.
+"""
+        )
+        .asDuration(Duration.ZERO);
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -158,6 +184,82 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
           " If too low, requests may be slower. If too high, more memory may be used then required."
         )
         .asInt(25);
+    this.patternCacheMaxSize =
+      c
+        .of("patternCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of distinct search dates and transit filters to cache trip patterns for."
+        )
+        .description(
+          """
+Before each transit search the trip patterns running on the search days are filtered using the
+transit filters in the request. The result is cached and reused by requests with the same search
+date and filters, until the next realtime update is applied. Each entry holds the trip schedules
+for all the search days, so on large graphs a high value may use a lot of memory. Set it to `0`
+to disable the cache.
+"""
+        )
+        .asInt(5);
+    this.heuristicsCacheTimeToLive =
+      c
+        .of("heuristicsCacheTimeToLive")
+        .since(V2_7)
+        .summary("How long the destination heuristics are shared between requests.")
+        .description(
+          """
+Most multi-criteria searches start with a reverse heuristic search from the destination, used to
+prune the main search. When requests go to the same destinations, the result can be shared by
+requests with the same egress, search date and transit filters, until the next realtime update is
+applied. The shared search does not stop when the origin is reached, so it may take a bit longer
+and the calculated search-window may differ slightly from an unshared search. Requests with
+via-locations or opening hours on access/egress are not shared. Arrive-by searches only share
+heuristics with requests arriving at the exact same time. If zero(default), the heuristics are not
+shared.
+"""
+        )
+        .asDuration(Duration.ZERO);
+    this.heuristicsCacheMaxSize =
+      c
+        .of("heuristicsCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of destination heuristics to share between requests.")
+        .description(
+          """
+Each entry holds three arrays with one element for each stop. The cache is only used if
+`heuristicsCacheTimeToLive` is set.
+"""
+        )
+        .asInt(100);
+    this.accessEgressCacheMaxSize =
+      c
+        .of("accessEgressCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of walk and bicycle access/egress searches to cache.")
+        .description(
+          """
+The stops found by the access and egress street search are cached and reused by requests from the
+same origin or to the same destination with the same street preferences. Only walk and bicycle
+searches are cached, the result of searches with rental, parking and car depends on realtime
+availability. An entry is no longer used when a realtime update links or unlinks an edge in the
+street graph. Each entry holds the paths to all the stops found, so a high value may use a lot of
+memory. If zero(default), the searches are not cached.
+"""
+        )
+        .asInt(0);
+    this.accessEgressCacheTimeToLive =
+      c
+        .of("accessEgressCacheTimeToLive")
+        .since(V2_7)
+        .summary("How long a cached access/egress search is used.")
+        .description(
+          """
+Time-limited turn restrictions are evaluated at the time of the request which made the search, so
+a short value limits how long a restriction which has expired or come into effect is ignored. See
+`accessEgressCacheMaxSize`.
+"""
+        )
+        .asDuration(Duration.ofMinutes(10));
 
     this.transferCacheRequests =
       c
@@ -248,6 +350,21 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowTimeSliceInSeconds() {
+    return (int) searchWindowTimeSlice.toSeconds();
+  }
+
+  @Override
+  public int heuristicsCacheMaxSize() {
+    return heuristicsCacheMaxSize;
+  }
+
+  @Override
+  public int heuristicsCacheTimeToLiveInSeconds() {
+    return (int) heuristicsCacheTimeToLive.toSeconds();
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -268,6 +385,21 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public int patternCacheMaxSize() {
+    return patternCacheMaxSize;
+  }
+
+  @Override
+  public int accessEgressCacheMaxSize() {
+    return accessEgressCacheMaxSize;
+  }
+
+  @Override
+  public Duration accessEgressCacheTimeToLive() {
+    return accessEgressCacheTimeToLive;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
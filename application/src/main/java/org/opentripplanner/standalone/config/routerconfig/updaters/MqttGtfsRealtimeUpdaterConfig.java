@@ -2,7 +2,9 @@ package org.opentripplanner.standalone.config.routerconfig.updaters;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
+import java.time.Duration;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.updater.trip.BackwardsDelayPropagationType;
 import org.opentripplanner.updater.trip.MqttGtfsRealtimeUpdaterParameters;
@@ -41,7 +43,21 @@ public class MqttGtfsRealtimeUpdaterConfig {
   The updated times are exposed through APIs.
 """
         )
-        .asEnum(BackwardsDelayPropagationType.REQUIRED_NO_DATA)
+        .asEnum(BackwardsDelayPropagationType.REQUIRED_NO_DATA),
+      c
+        .of("batchWindow")
+        .since(V2_7)
+        .summary("How long to collect messages before the trip updates are applied.")
+        .description(
+          """
+  The trip updates received during the window are applied together, and only the newest update
+  for each trip and service date is applied. This reduces the work done when the broker delivers
+  bursts of messages with several updates for the same trip. The number of updates which are
+  replaced by a newer one is logged and counted in the metrics. By default, each message is
+  applied when it is received.
+"""
+        )
+        .asDuration(Duration.ZERO)
     );
   }
 }
@@ -156,7 +156,10 @@ public class ConstructApplication {
     enableRequestTraceLogging();
     createMetricsLogging();
 
-    creatTransitLayerForRaptor(timetableRepository(), routerConfig().transitTuningConfig());
+    // The transit layer is created at startup, together with the indexes
+    if (timetableRepository().getTransitLayer() == null) {
+      creatTransitLayerForRaptor(timetableRepository(), routerConfig().transitTuningConfig());
+    }
 
     /* Create updater modules from JSON config. */
     UpdaterConfigurator.configure(
@@ -1,5 +1,7 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
@@ -21,8 +23,10 @@ import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.standard.configure.HeuristicsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.transit.service.TimetableRepository;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 
 /**
  * This class is responsible for wiring up various metrics to micrometer, which we use for
@@ -55,6 +59,16 @@ public class MetricsLogging {
         List.of(Tag.of("cache", "raptorTransfers"))
       )
         .bindTo(Metrics.globalRegistry);
+
+      var accessEgressCache = timetableRepository.getTransitLayer().getAccessEgressCache();
+      if (accessEgressCache != null) {
+        new GuavaCacheMetrics<>(
+          accessEgressCache.getCache(),
+          "accessEgressCache",
+          List.of(Tag.of("cache", "accessEgress"))
+        )
+          .bindTo(Metrics.globalRegistry);
+      }
     }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
@@ -78,12 +92,14 @@ public class MetricsLogging {
       )
         .bindTo(Metrics.globalRegistry);
 
-      new ExecutorServiceMetrics(
-        timetableRepository.getUpdaterManager().getScheduler(),
-        "graphUpdateScheduler",
-        List.of(Tag.of("pool", "graphUpdateScheduler"))
-      )
-        .bindTo(Metrics.globalRegistry);
+      for (var resource : GraphWriterResource.values()) {
+        new ExecutorServiceMetrics(
+          timetableRepository.getUpdaterManager().getScheduler(resource),
+          "graphUpdateScheduler",
+          List.of(Tag.of("pool", "graphUpdateScheduler"), Tag.of("resource", resource.name()))
+        )
+          .bindTo(Metrics.globalRegistry);
+      }
     }
 
     if (raptorConfig.isMultiThreaded()) {
@@ -95,6 +111,28 @@ public class MetricsLogging {
         .bindTo(Metrics.globalRegistry);
     }
 
+    var heuristicsCache = raptorConfig.heuristicsCache();
+    if (heuristicsCache.isEnabled()) {
+      var cacheTags = List.of(Tag.of("cache", "raptorHeuristics"));
+      FunctionCounter
+        .builder("cache.gets", heuristicsCache, HeuristicsCache::hitCount)
+        .tags(cacheTags)
+        .tag("result", "hit")
+        .description("The number of times a heuristic search result was found in the cache")
+        .register(Metrics.globalRegistry);
+      FunctionCounter
+        .builder("cache.gets", heuristicsCache, HeuristicsCache::missCount)
+        .tags(cacheTags)
+        .tag("result", "miss")
+        .description("The number of times a heuristic search was performed and cached")
+        .register(Metrics.globalRegistry);
+      Gauge
+        .builder("cache.size", heuristicsCache, HeuristicsCache::size)
+        .tags(cacheTags)
+        .description("The number of heuristic search results in the cache")
+        .register(Metrics.globalRegistry);
+    }
+
     final Map<String, Long> issueCount = issueSummary.asMap();
 
     var totalIssues = issueCount.values().stream().mapToLong(i -> i).sum();
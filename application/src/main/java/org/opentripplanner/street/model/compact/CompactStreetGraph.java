@@ -0,0 +1,186 @@
+package org.opentripplanner.street.model.compact;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * An immutable snapshot of the street graph adjacency in compressed sparse row form, used by the
+ * graph build. The vertices are identified by their {@link Vertex#getIndex()}, and the edges by a
+ * dense id. The edges are numbered in order of their from vertex, so the outgoing edges of a
+ * vertex are the ids from {@link #firstOutgoing(int)} (inclusive) to
+ * {@link #firstOutgoing(int) firstOutgoing(v + 1)} (exclusive). The incoming edges are stored in
+ * a separate array in the same way.
+ * <p>
+ * The length and car speed of the street edges are packed in primitive arrays, indexed by edge
+ * id. Other edges have a zero length, use {@link #edge(int)} to get the original edge.
+ * <p>
+ * This is intended for algorithms traversing the whole graph, like the landmark and contraction
+ * hierarchy precomputation, which otherwise spend most of their time following references
+ * between vertices and edges. Changes to the graph after the snapshot is created are not
+ * reflected, and vertices without an index, like the temporary vertices, are not part of it.
+ * <p>
+ * The snapshot is only used during the graph build, it is not created when the graph is loaded.
+ * The street search does not use it, {@link StreetEdge} traversal reads the edge fields.
+ */
+public class CompactStreetGraph {
+
+  private final Vertex[] vertices;
+  private final Edge[] edges;
+
+  private final int[] outStart;
+  private final int[] inStart;
+  private final int[] inEdges;
+  private final int[] fromVertex;
+  private final int[] toVertex;
+
+  private final int[] lengthMm;
+  private final float[] carSpeed;
+
+  private CompactStreetGraph(Vertex[] vertices, int numberOfEdges) {
+    this.vertices = vertices;
+    this.edges = new Edge[numberOfEdges];
+    this.outStart = new int[vertices.length + 1];
+    this.inStart = new int[vertices.length + 1];
+    this.inEdges = new int[numberOfEdges];
+    this.fromVertex = new int[numberOfEdges];
+    this.toVertex = new int[numberOfEdges];
+    this.lengthMm = new int[numberOfEdges];
+    this.carSpeed = new float[numberOfEdges];
+  }
+
+  /** Create a snapshot of all the vertices and edges in the graph. */
+  public static CompactStreetGraph of(Graph graph) {
+    Vertex[] vertices = new Vertex[graph.getVertexIndexSize()];
+    for (Vertex v : graph.getVertices()) {
+      int index = v.getIndex();
+      if (index >= 0 && index < vertices.length && vertices[index] == null) {
+        vertices[index] = v;
+      }
+    }
+
+    int numberOfEdges = 0;
+    for (Vertex v : vertices) {
+      if (v != null) {
+        for (Edge e : v.getOutgoing()) {
+          if (contains(vertices, e.getToVertex())) {
+            ++numberOfEdges;
+          }
+        }
+      }
+    }
+
+    var graphSnapshot = new CompactStreetGraph(vertices, numberOfEdges);
+    graphSnapshot.addEdges();
+    return graphSnapshot;
+  }
+
+  /** The number of vertex ids, some ids may not be used by any vertex. */
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public int numberOfEdges() {
+    return edges.length;
+  }
+
+  /** The vertex with the given index, or {@code null} if it is not in the graph. */
+  @Nullable
+  public Vertex vertex(int vertex) {
+    return vertices[vertex];
+  }
+
+  public Edge edge(int edge) {
+    return edges[edge];
+  }
+
+  /** The id of the first outgoing edge of the vertex, or of the next vertex if none. */
+  public int firstOutgoing(int vertex) {
+    return outStart[vertex];
+  }
+
+  public int outDegree(int vertex) {
+    return outStart[vertex + 1] - outStart[vertex];
+  }
+
+  public int inDegree(int vertex) {
+    return inStart[vertex + 1] - inStart[vertex];
+  }
+
+  /** The id of the i-th incoming edge of the vertex. */
+  public int incoming(int vertex, int i) {
+    return inEdges[inStart[vertex] + i];
+  }
+
+  public int fromVertex(int edge) {
+    return fromVertex[edge];
+  }
+
+  public int toVertex(int edge) {
+    return toVertex[edge];
+  }
+
+  public boolean isStreetEdge(int edge) {
+    return edges[edge] instanceof StreetEdge;
+  }
+
+  /** The length of a street edge in millimeters, see {@link StreetEdge#getDistanceMeters()}. */
+  public int lengthMm(int edge) {
+    return lengthMm[edge];
+  }
+
+  public float carSpeed(int edge) {
+    return carSpeed[edge];
+  }
+
+  private void addEdges() {
+    int edge = 0;
+    for (int v = 0; v < vertices.length; ++v) {
+      outStart[v] = edge;
+      if (vertices[v] == null) {
+        continue;
+      }
+      for (Edge e : vertices[v].getOutgoing()) {
+        if (contains(vertices, e.getToVertex())) {
+          addEdge(edge++, v, e);
+        }
+      }
+    }
+    outStart[vertices.length] = edge;
+
+    // Count the incoming edges of each vertex, then fill them in using the running offsets
+    for (int to : toVertex) {
+      ++inStart[to + 1];
+    }
+    for (int v = 1; v < inStart.length; ++v) {
+      inStart[v] += inStart[v - 1];
+    }
+    int[] insertPos = Arrays.copyOf(inStart, vertices.length);
+    for (int e = 0; e < edges.length; ++e) {
+      inEdges[insertPos[toVertex[e]]++] = e;
+    }
+  }
+
+  private void addEdge(int edge, int from, Edge e) {
+    edges[edge] = e;
+    fromVertex[edge] = from;
+    toVertex[edge] = e.getToVertex().getIndex();
+
+    if (e instanceof StreetEdge streetEdge) {
+      lengthMm[edge] = (int) Math.round(streetEdge.getDistanceMeters() * 1000);
+      carSpeed[edge] = streetEdge.getCarSpeed();
+    }
+  }
+
+  /**
+   * A vertex keeps the index it got in the first graph it was added to, so check that the index
+   * refers to this vertex.
+   */
+  private static boolean contains(Vertex[] vertices, Vertex v) {
+    int index = v.getIndex();
+    return index >= 0 && index < vertices.length && vertices[index] == v;
+  }
+}
@@ -0,0 +1,163 @@
+package org.opentripplanner.street.model.contraction;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.intersection_model.DrivingDirection;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalModel;
+
+/**
+ * An edge-based contraction hierarchy over the car street network. Each node in the hierarchy
+ * is a car-permitted {@link StreetEdge}, and an arc from node a to node b is the turn from edge a
+ * onto edge b. The weight of an arc is the turn cost plus the cost of traversing edge b, so turn
+ * restrictions and U-turn bans are part of the topology.
+ * <p>
+ * The weights are the car routing weight divided by the car reluctance: the driving time plus
+ * the turn duration multiplied with {@link #turnReluctanceRatio()}. The hierarchy can be used for
+ * a request with the same intersection traversal model, driving direction and ratio between the
+ * turn and car reluctance, see {@link #supports(RoutingPreferences)}.
+ * <p>
+ * The nodes are numbered by rank, the order they were contracted in. For each node the arcs to
+ * higher ranked nodes are stored in {@link #up()}, and the arcs from higher ranked nodes in
+ * {@link #down()}. A shortcut arc from a to b replaces the path a, m, b through the lower ranked
+ * middle node m. The arc from a to m is found in the down arcs of m, and the arc from m to b in
+ * the up arcs of m.
+ */
+public class CarContractionHierarchy implements Serializable {
+
+  public static final int NO_MIDDLE = -1;
+  public static final int NOT_A_NODE = -1;
+
+  private final StreetEdge[] edges;
+  private final Map<StreetEdge, Integer> nodeIndex;
+  private final float[] nodeCost;
+
+  private final Arcs up;
+  private final Arcs down;
+
+  private final double turnReluctanceRatio;
+  private final IntersectionTraversalModel intersectionTraversalModel;
+  private final DrivingDirection drivingDirection;
+
+  /**
+   * @param edges    the street edge of each node, ordered by increasing rank
+   * @param nodeCost the cost of traversing each edge, without any turn cost
+   * @param up       for each node the arcs to higher ranked nodes
+   * @param down     for each node the arcs from higher ranked nodes
+   */
+  public CarContractionHierarchy(
+    StreetEdge[] edges,
+    float[] nodeCost,
+    Arcs up,
+    Arcs down,
+    double turnReluctanceRatio,
+    IntersectionTraversalModel intersectionTraversalModel,
+    DrivingDirection drivingDirection
+  ) {
+    this.edges = edges;
+    this.nodeCost = nodeCost;
+    this.nodeIndex = new HashMap<>(edges.length);
+    for (int i = 0; i < edges.length; ++i) {
+      nodeIndex.put(edges[i], i);
+    }
+    this.up = up;
+    this.down = down;
+    this.turnReluctanceRatio = turnReluctanceRatio;
+    this.intersectionTraversalModel = intersectionTraversalModel;
+    this.drivingDirection = drivingDirection;
+  }
+
+  public int numberOfNodes() {
+    return edges.length;
+  }
+
+  public int numberOfArcs() {
+    return up.node.length + down.node.length;
+  }
+
+  /** @return the node for the given edge or {@link #NOT_A_NODE}. */
+  public int node(Edge edge) {
+    Integer node = edge instanceof StreetEdge ? nodeIndex.get(edge) : null;
+    return node == null ? NOT_A_NODE : node;
+  }
+
+  public StreetEdge edge(int node) {
+    return edges[node];
+  }
+
+  /** The cost of traversing the edge of the node, without any turn cost. */
+  public float nodeCost(int node) {
+    return nodeCost[node];
+  }
+
+  /** The arcs from the node to higher ranked nodes. */
+  public Arcs up() {
+    return up;
+  }
+
+  /** The arcs from higher ranked nodes into the node. */
+  public Arcs down() {
+    return down;
+  }
+
+  public double turnReluctanceRatio() {
+    return turnReluctanceRatio;
+  }
+
+  /**
+   * The hierarchy gives the shortest path for requests with the same turn cost model, and the
+   * same ratio between turn and car reluctance as the hierarchy is built with.
+   */
+  public boolean supports(RoutingPreferences preferences) {
+    var street = preferences.street();
+    double ratio = street.turnReluctance() / preferences.car().reluctance();
+    return (
+      street.intersectionTraversalModel() == intersectionTraversalModel &&
+      street.drivingDirection() == drivingDirection &&
+      Math.abs(ratio - turnReluctanceRatio) < 1e-9
+    );
+  }
+
+  /**
+   * The arcs of all nodes in compressed sparse row format, the arcs of node n are indexed from
+   * {@code start(n)} to {@code end(n)}.
+   *
+   * @param node   the node at the other end of each arc
+   * @param middle the contracted node a shortcut arc is made of, or {@link #NO_MIDDLE}
+   */
+  public record Arcs(int[] start, int[] node, float[] weight, int[] middle)
+    implements Serializable {
+    public int start(int n) {
+      return start[n];
+    }
+
+    public int end(int n) {
+      return start[n + 1];
+    }
+
+    public int node(int arc) {
+      return node[arc];
+    }
+
+    public float weight(int arc) {
+      return weight[arc];
+    }
+
+    public int middle(int arc) {
+      return middle[arc];
+    }
+
+    /** @return the arc between node n and the other node or -1. */
+    public int find(int n, int other) {
+      for (int arc = start[n]; arc < start[n + 1]; ++arc) {
+        if (node[arc] == other) {
+          return arc;
+        }
+      }
+      return -1;
+    }
+  }
+}
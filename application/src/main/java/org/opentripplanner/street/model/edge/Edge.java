@@ -10,6 +10,7 @@ import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.state.State;
 import org.slf4j.Logger;
@@ -189,8 +190,12 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
     for (Edge edge : this.fromv.getIncoming()) {
       edge.removeTurnRestrictionsTo(this);
     }
-    this.fromv.removeOutgoing(this);
-    this.tov.removeIncoming(this);
+    if (isInEdgeListOfFromVertex()) {
+      this.fromv.removeOutgoing(this);
+    }
+    if (isInEdgeListOfToVertex()) {
+      this.tov.removeIncoming(this);
+    }
   }
 
   public void removeTurnRestrictionsTo(Edge origin) {}
@@ -202,8 +207,28 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
    * might become reachable before being fully constructed.
    */
   protected void connectToGraph() {
-    fromv.addOutgoing(this);
-    tov.addIncoming(this);
+    if (isInEdgeListOfFromVertex()) {
+      fromv.addOutgoing(this);
+    }
+    if (isInEdgeListOfToVertex()) {
+      tov.addIncoming(this);
+    }
+  }
+
+  /**
+   * An edge from a vertex shared by all requests to a vertex created for a single request is not
+   * added to the shared vertex, see {@link TemporaryVertex#isRequestScoped()}.
+   */
+  private boolean isInEdgeListOfFromVertex() {
+    return TemporaryVertex.isRequestScoped(fromv) || !TemporaryVertex.isRequestScoped(tov);
+  }
+
+  /**
+   * An edge from a vertex created for a single request to a vertex shared by all requests is not
+   * added to the shared vertex, see {@link TemporaryVertex#isRequestScoped()}.
+   */
+  private boolean isInEdgeListOfToVertex() {
+    return TemporaryVertex.isRequestScoped(tov) || !TemporaryVertex.isRequestScoped(fromv);
   }
 
   protected static <T extends Edge> T connectToGraph(T edge) {
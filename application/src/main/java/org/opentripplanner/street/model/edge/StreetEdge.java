@@ -31,6 +31,7 @@ import org.opentripplanner.street.model.vertex.BarrierVertex;
 import org.opentripplanner.street.model.vertex.IntersectionVertex;
 import org.opentripplanner.street.model.vertex.SplitterVertex;
 import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.street.search.state.State;
@@ -741,7 +742,13 @@ public class StreetEdge
     }
 
     var splitEdges = new SplitStreetEdge(e1, e2);
-    copyRestrictionsToSplitEdges(this, splitEdges);
+    if (TemporaryVertex.isRequestScoped(v)) {
+      // A request must not change the turn restrictions of the graph edges leading to this edge.
+      // They still apply to the head, as it is equivalent to this edge, see canTurnOnto().
+      copyRestrictionsToSplitEdges(this, new SplitStreetEdge(null, e2));
+    } else {
+      copyRestrictionsToSplitEdges(this, splitEdges);
+    }
     return splitEdges;
   }
 
@@ -0,0 +1,52 @@
+package org.opentripplanner.street.model.landmark;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Precomputed landmark distances for the street graph, used by the ALT (A*, landmarks and
+ * triangle inequality) remaining weight heuristic. The {@link LandmarkTable}s of all street modes
+ * are indexed by the {@link Vertex#getIndex()} of the vertices known at graph build time, so the
+ * heuristic does not need a map lookup for each state. Vertices added later, like the temporary
+ * vertices created for each request, are not indexed.
+ */
+public class LandmarkDistances implements Serializable {
+
+  public static final int NOT_INDEXED = -1;
+
+  private final Vertex[] vertices;
+  private final int numberOfVertices;
+  private final Map<StreetMode, LandmarkTable> tables;
+
+  /**
+   * @param vertices the indexed vertices, by {@link Vertex#getIndex()}. The array may contain
+   *                 {@code null} for indices not used by any vertex.
+   */
+  public LandmarkDistances(Vertex[] vertices, Map<StreetMode, LandmarkTable> tables) {
+    this.vertices = vertices;
+    this.numberOfVertices = (int) Arrays.stream(vertices).filter(Objects::nonNull).count();
+    this.tables = Map.copyOf(tables);
+  }
+
+  public int numberOfVertices() {
+    return numberOfVertices;
+  }
+
+  /** @return the index of the vertex or {@link #NOT_INDEXED}. */
+  public int vertexIndex(Vertex vertex) {
+    int index = vertex.getIndex();
+    // A vertex keeps the index it got in the first graph it was added to, check that it is the same
+    return index >= 0 && index < vertices.length && vertices[index] == vertex ? index : NOT_INDEXED;
+  }
+
+  /** The landmark table for the given mode or {@code null} if the mode is not supported. */
+  @Nullable
+  public LandmarkTable table(StreetMode mode) {
+    return tables.get(mode);
+  }
+}
@@ -0,0 +1,74 @@
+package org.opentripplanner.street.model.landmark;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The shortest distance from and to a small set of landmarks for every vertex in the street
+ * graph, for one street mode. The distances are lower bounds of the real cost of traversing the
+ * streets, the unit is seconds for driving and meters for cycling. A vertex not reachable
+ * from/to a landmark has the distance {@link #UNREACHED}.
+ * <p>
+ * The vertices are indexed using the {@link LandmarkDistances#vertexIndex(Vertex)}.
+ */
+public class LandmarkTable implements Serializable {
+
+  public static final float UNREACHED = Float.POSITIVE_INFINITY;
+
+  private final Vertex[] landmarks;
+  private final float[][] fromLandmark;
+  private final float[][] toLandmark;
+  private final Map<VehicleRoutingOptimizeType, Double> weightRatios;
+
+  /**
+   * @param fromLandmark the distance from each landmark to each vertex, indexed by
+   *                     {@code [landmark][vertex]}.
+   * @param toLandmark   the distance from each vertex to each landmark, indexed by
+   *                     {@code [landmark][vertex]}.
+   * @param weightRatios the smallest ratio between the distance used by each optimize type and
+   *                     the distance stored in this table, for any edge. Only used for cycling.
+   */
+  public LandmarkTable(
+    Vertex[] landmarks,
+    float[][] fromLandmark,
+    float[][] toLandmark,
+    Map<VehicleRoutingOptimizeType, Double> weightRatios
+  ) {
+    if (landmarks.length != fromLandmark.length || landmarks.length != toLandmark.length) {
+      throw new IllegalArgumentException("One set of distances is expected for each landmark.");
+    }
+    this.landmarks = landmarks;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+    this.weightRatios = weightRatios.isEmpty() ? Map.of() : new EnumMap<>(weightRatios);
+  }
+
+  public int numberOfLandmarks() {
+    return landmarks.length;
+  }
+
+  public Vertex landmark(int landmark) {
+    return landmarks[landmark];
+  }
+
+  /** The distance from the given landmark to the vertex with the given index. */
+  public float fromLandmark(int landmark, int vertexIndex) {
+    return fromLandmark[landmark][vertexIndex];
+  }
+
+  /** The distance from the vertex with the given index to the given landmark. */
+  public float toLandmark(int landmark, int vertexIndex) {
+    return toLandmark[landmark][vertexIndex];
+  }
+
+  /**
+   * The smallest ratio between the distance used for the given optimize type and the distance
+   * stored in this table. Zero is returned if unknown, which is always a valid lower bound.
+   */
+  public double weightRatio(VehicleRoutingOptimizeType optimizeType) {
+    return weightRatios.getOrDefault(optimizeType, 0.0);
+  }
+}
@@ -11,6 +11,7 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 public class TemporarySplitterVertex extends SplitterVertex implements TemporaryVertex {
 
   private final boolean endVertex;
+  private final boolean requestScoped;
   private boolean wheelchairAccessible;
 
   public TemporarySplitterVertex(
@@ -19,9 +20,25 @@ public class TemporarySplitterVertex extends SplitterVertex implements Temporary
     double y,
     StreetEdge streetEdge,
     boolean endVertex
+  ) {
+    this(label, x, y, streetEdge, endVertex, false);
+  }
+
+  /**
+   * @param requestScoped true if the vertex is created for a single request, false if it is
+   *                      created by a realtime update and shared by all requests.
+   */
+  public TemporarySplitterVertex(
+    String label,
+    double x,
+    double y,
+    StreetEdge streetEdge,
+    boolean endVertex,
+    boolean requestScoped
   ) {
     super(label, x, y, streetEdge.getName());
     this.endVertex = endVertex;
+    this.requestScoped = requestScoped;
     this.wheelchairAccessible = streetEdge.isWheelchairAccessible();
   }
 
@@ -37,6 +54,11 @@ public class TemporarySplitterVertex extends SplitterVertex implements Temporary
     super.addIncoming(edge);
   }
 
+  @Override
+  public boolean isRequestScoped() {
+    return requestScoped;
+  }
+
   @Override
   public boolean isEndVertex() {
     return endVertex;
@@ -47,6 +47,11 @@ public final class TemporaryStreetLocation extends StreetLocation implements Tem
     }
   }
 
+  @Override
+  public boolean isRequestScoped() {
+    return true;
+  }
+
   @Override
   public boolean isEndVertex() {
     return endVertex;
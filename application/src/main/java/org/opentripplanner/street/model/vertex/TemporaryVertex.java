@@ -22,5 +22,24 @@ public interface TemporaryVertex {
     TemporaryVertexDispose.dispose(vertex);
   }
 
+  /**
+   * Return {@code true} if the vertex is created for a single request, like the origin and
+   * destination of the request and the vertices splitting the streets they are linked to. An edge
+   * between a request vertex and a vertex shared with other requests is only added to the edge
+   * list of the request vertex, so the shared vertex is never changed by a request. The search
+   * finds these edges with a {@link org.opentripplanner.street.search.TemporaryEdgeOverlay}.
+   */
+  default boolean isRequestScoped() {
+    return false;
+  }
+
+  /**
+   * Return {@code true} if the vertex is a {@link TemporaryVertex} created for a single request,
+   * see {@link #isRequestScoped()}.
+   */
+  static boolean isRequestScoped(Vertex vertex) {
+    return vertex instanceof TemporaryVertex temporaryVertex && temporaryVertex.isRequestScoped();
+  }
+
   boolean isEndVertex();
 }
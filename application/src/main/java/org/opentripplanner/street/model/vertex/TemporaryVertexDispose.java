@@ -56,10 +56,10 @@ class TemporaryVertexDispose {
       Vertex current = next();
       if (isNotAlreadyProcessed(current)) {
         for (Edge edge : current.getOutgoing()) {
-          disposeVertex(edge.getToVertex(), edge, true);
+          disposeVertex(current, edge.getToVertex(), edge, true);
         }
         for (Edge edge : current.getIncoming()) {
-          disposeVertex(edge.getFromVertex(), edge, false);
+          disposeVertex(current, edge.getFromVertex(), edge, false);
         }
         done.add(current);
       }
@@ -70,11 +70,21 @@ class TemporaryVertexDispose {
    * Add the temporary vertex to processing queue OR disconnect edge from vertex if vertex is part
    * of the main graph.
    *
+   * <p>
+   * The edges of a request scoped vertex are not added to the vertices shared by all requests, see
+   * {@link TemporaryVertex#isRequestScoped()}. So the traversal stops at the shared vertices,
+   * including the temporary vertices created by realtime updates, without changing them.
+   *
+   * @param current       the temporary vertex being processed
    * @param v             the vertex to dispose
    * @param connectedEdge the connected temporary edge
    * @param incoming      true if the edge is an incoming edge, false if it is an outgoing edge
    */
-  private void disposeVertex(Vertex v, Edge connectedEdge, boolean incoming) {
+  private void disposeVertex(Vertex current, Vertex v, Edge connectedEdge, boolean incoming) {
+    boolean requestScoped = TemporaryVertex.isRequestScoped(current);
+    if (requestScoped && !TemporaryVertex.isRequestScoped(v)) {
+      return;
+    }
     if (v instanceof TemporaryVertex) {
       addVertexToProcessTodoList(v);
     } else {
@@ -36,6 +36,9 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private transient Edge[] outgoing = new Edge[0];
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
+  /** Assigned when the vertex is added to the graph, see {@link #getIndex()}. */
+  private int index = NO_INDEX;
+
   /* CONSTRUCTORS */
 
   protected Vertex(double x, double y) {
@@ -105,6 +108,21 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     return Arrays.asList(incoming);
   }
 
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Set the index of the vertex in the graph. The index is only assigned once, a vertex added to
+   * a second graph keeps the index it got in the first one.
+   */
+  public void setIndex(int index) {
+    if (this.index == NO_INDEX) {
+      this.index = index;
+    }
+  }
+
   public int getDegreeOut() {
     return outgoing.length;
   }
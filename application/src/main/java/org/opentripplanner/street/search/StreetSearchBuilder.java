@@ -1,9 +1,12 @@
 package org.opentripplanner.street.search;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import org.opentripplanner.astar.AStarBuilder;
+import org.opentripplanner.astar.model.AdjacencyOverlay;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
@@ -18,6 +21,7 @@ import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 
 public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, StreetSearchBuilder> {
 
@@ -25,6 +29,7 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   private StreetRequest streetRequest = new StreetRequest();
   private IntersectionTraversalCalculator intersectionTraversalCalculator;
   private DataOverlayContext dataOverlayContext;
+  private Collection<Vertex> temporaryVertices = List.of();
 
   public static StreetSearchBuilder of() {
     return new StreetSearchBuilder();
@@ -52,6 +57,17 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return this;
   }
 
+  /**
+   * Request vertices which are not part of the origin or destination of the search, but should be
+   * reachable by it. The edges linking the origin and destination vertices to the graph are added
+   * to the search, see {@link TemporaryEdgeOverlay}. Use this to add the edges of other request
+   * vertices, like the destination of a search from the origin to all vertices within a distance.
+   */
+  public StreetSearchBuilder setTemporaryVertices(Collection<Vertex> temporaryVertices) {
+    this.temporaryVertices = temporaryVertices;
+    return this;
+  }
+
   public StreetSearchBuilder setIntersectionTraversalCalculator(
     IntersectionTraversalCalculator intersectionTraversalCalculator
   ) {
@@ -97,6 +113,25 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     }
   }
 
+  @Override
+  protected AdjacencyOverlay<State, Edge, Vertex> createAdjacencyOverlay(
+    Set<Vertex> origin,
+    Set<Vertex> destination,
+    Collection<State> initialStates
+  ) {
+    var vertices = new ArrayList<>(temporaryVertices);
+    if (origin != null) {
+      vertices.addAll(origin);
+    }
+    if (destination != null) {
+      vertices.addAll(destination);
+    }
+    for (var state : initialStates) {
+      vertices.add(state.getVertex());
+    }
+    return TemporaryEdgeOverlay.of(vertices);
+  }
+
   @Override
   protected void initializeHeuristic(
     RemainingWeightHeuristic<State> heuristic,
@@ -113,6 +148,13 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
         arriveBy,
         routeRequest.preferences()
       );
+    } else if (heuristic instanceof LandmarkRemainingWeightHeuristic landmarkHeuristic) {
+      landmarkHeuristic.initialize(
+        streetRequest.mode(),
+        destination,
+        arriveBy,
+        routeRequest.preferences()
+      );
     } else {
       throw new IllegalArgumentException("Unknown heuristic type: " + heuristic);
     }
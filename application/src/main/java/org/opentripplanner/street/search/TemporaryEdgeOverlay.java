@@ -0,0 +1,71 @@
+package org.opentripplanner.street.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.AdjacencyOverlay;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Create the {@link AdjacencyOverlay} for a street search, with the edges between the vertices
+ * created for the request and the vertices of the graph. These edges are only in the edge lists
+ * of the request vertices, see {@link TemporaryVertex#isRequestScoped()}.
+ * <p>
+ * The subgraph of request vertices connected to the given vertices is traversed, like in
+ * {@link TemporaryVertex#dispose(Vertex)}, and each edge leading to or from a graph vertex is
+ * added to the overlay.
+ */
+public class TemporaryEdgeOverlay {
+
+  private final AdjacencyOverlay<State, Edge, Vertex> overlay = new AdjacencyOverlay<>();
+  private final Set<Vertex> done = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final List<Vertex> todo = new ArrayList<>();
+
+  private TemporaryEdgeOverlay() {}
+
+  /**
+   * @return the overlay, or {@code null} if none of the vertices is connected to a request
+   * vertex.
+   */
+  @Nullable
+  public static AdjacencyOverlay<State, Edge, Vertex> of(Iterable<Vertex> vertices) {
+    var builder = new TemporaryEdgeOverlay();
+    for (Vertex v : vertices) {
+      builder.add(v);
+    }
+    builder.traverse();
+    return builder.overlay.isEmpty() ? null : builder.overlay;
+  }
+
+  private void add(Vertex v) {
+    if (TemporaryVertex.isRequestScoped(v) && done.add(v)) {
+      todo.add(v);
+    }
+  }
+
+  private void traverse() {
+    while (!todo.isEmpty()) {
+      Vertex current = todo.removeLast();
+      for (Edge edge : current.getOutgoing()) {
+        if (TemporaryVertex.isRequestScoped(edge.getToVertex())) {
+          add(edge.getToVertex());
+        } else {
+          overlay.addIncoming(edge);
+        }
+      }
+      for (Edge edge : current.getIncoming()) {
+        if (TemporaryVertex.isRequestScoped(edge.getFromVertex())) {
+          add(edge.getFromVertex());
+        } else {
+          overlay.addOutgoing(edge);
+        }
+      }
+    }
+  }
+}
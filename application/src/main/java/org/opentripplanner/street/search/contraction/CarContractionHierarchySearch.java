@@ -0,0 +1,373 @@
+package org.opentripplanner.street.search.contraction;
+
+import static org.opentripplanner.street.model.contraction.CarContractionHierarchy.NOT_A_NODE;
+import static org.opentripplanner.street.model.contraction.CarContractionHierarchy.NO_MIDDLE;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.contraction.CarContractionHierarchy;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+/**
+ * Find a direct car path using a {@link CarContractionHierarchy}.
+ * <p>
+ * The origin and destination are usually temporary vertices, and may be inside areas not part of
+ * the hierarchy, like no-through-traffic streets. A small street search from the origin, and an
+ * arrive-by street search from the destination, find the costs to and from the hierarchy edges
+ * closest to them. The hierarchy is then searched in both directions from these edges. The
+ * resulting edges are traversed one by one from the origin state, so the path has the same times
+ * and weights as a path found by the A* search.
+ * <p>
+ * A new instance should be created for each request.
+ */
+public class CarContractionHierarchySearch {
+
+  private final CarContractionHierarchy hierarchy;
+  private final CarContractionHierarchy.Arcs up;
+  private final CarContractionHierarchy.Arcs down;
+
+  /** The state before traversing each forward seed edge. */
+  private final Map<Integer, State> forwardSeeds = new HashMap<>();
+
+  /** The arrive-by state at the end of each backward seed edge. */
+  private final Map<Integer, State> backwardSeeds = new HashMap<>();
+
+  public CarContractionHierarchySearch(CarContractionHierarchy hierarchy) {
+    this.hierarchy = hierarchy;
+    this.up = hierarchy.up();
+    this.down = hierarchy.down();
+  }
+
+  /** The hierarchy can only be used for depart-after car requests with the default costs. */
+  public static boolean canBeUsed(@Nullable CarContractionHierarchy hierarchy, RouteRequest req) {
+    return (
+      hierarchy != null &&
+      !req.arriveBy() &&
+      req.journey().direct().mode() == StreetMode.CAR &&
+      hierarchy.supports(req.preferences())
+    );
+  }
+
+  /**
+   * @return the path found, an empty list if the path is longer than the max direct duration, or
+   * {@code null} if the hierarchy could not be used to find a path. The caller should then fall
+   * back to the A* search.
+   */
+  @Nullable
+  public List<GraphPath<State, Edge, Vertex>> findPaths(
+    RouteRequest request,
+    Set<Vertex> from,
+    Set<Vertex> to
+  ) {
+    Duration maxDuration = request
+      .preferences()
+      .street()
+      .maxDirectDuration()
+      .valueOf(request.journey().direct().mode());
+    double carReluctance = request.preferences().car().reluctance();
+
+    var forwardTree = seedSearch(request, from, to, false, maxDuration);
+    var backwardTree = seedSearch(request, from, to, true, maxDuration);
+
+    var forward = new SearchSpace();
+    var backward = new SearchSpace();
+    for (State state : forwardTree.getAllStates()) {
+      addForwardSeeds(state, forward, carReluctance);
+    }
+    for (State state : backwardTree.getAllStates()) {
+      addBackwardSeeds(state, backward, carReluctance);
+    }
+
+    State best = bestDirectState(forwardTree, to);
+    int meetingNode = search(forward, backward);
+    if (meetingNode != NOT_A_NODE) {
+      State state = traversePath(forward, backward, meetingNode);
+      if (state != null && (best == null || state.getWeight() < best.getWeight())) {
+        best = state;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+    if (best.getElapsedTimeSeconds() > maxDuration.toSeconds()) {
+      return List.of();
+    }
+    return List.of(new GraphPath<>(best));
+  }
+
+  /**
+   * Search the streets around the origin or destination, but do not continue past the first
+   * hierarchy edge.
+   */
+  private ShortestPathTree<State, Edge, Vertex> seedSearch(
+    RouteRequest request,
+    Set<Vertex> from,
+    Set<Vertex> to,
+    boolean arriveBy,
+    Duration maxDuration
+  ) {
+    SkipEdgeStrategy<State, Edge> afterHierarchyEdge = (state, edge) ->
+      isHierarchyEdge(state.getBackEdge());
+    SkipEdgeStrategy<State, Edge> skipEdgeStrategy = new ComposingSkipEdgeStrategy<>(
+      afterHierarchyEdge,
+      new DurationSkipEdgeStrategy<>(maxDuration)
+    );
+    var builder = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(skipEdgeStrategy)
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setArriveBy(arriveBy)
+      .setStreetRequest(request.journey().direct());
+    return arriveBy
+      ? builder.setTo(to).setTemporaryVertices(from).getShortestPathTree()
+      : builder.setFrom(from).setTemporaryVertices(to).getShortestPathTree();
+  }
+
+  private boolean isHierarchyEdge(@Nullable Edge edge) {
+    return edge != null && hierarchy.node(edge) != NOT_A_NODE;
+  }
+
+  private void addForwardSeeds(State state, SearchSpace forward, double carReluctance) {
+    if (isHierarchyEdge(state.getBackEdge())) {
+      return;
+    }
+    for (Edge edge : state.getVertex().getOutgoing()) {
+      int node = hierarchy.node(edge);
+      State next = node == NOT_A_NODE ? null : traverse(edge, state);
+      if (next != null && forward.seed(node, next.getWeight() / carReluctance)) {
+        forwardSeeds.put(node, state);
+      }
+    }
+  }
+
+  /** The backward cost of a node does not include the cost of the node itself. */
+  private void addBackwardSeeds(State state, SearchSpace backward, double carReluctance) {
+    if (isHierarchyEdge(state.getBackEdge())) {
+      return;
+    }
+    for (Edge edge : state.getVertex().getIncoming()) {
+      int node = hierarchy.node(edge);
+      State next = node == NOT_A_NODE ? null : traverse(edge, state);
+      if (next == null) {
+        continue;
+      }
+      double cost = Math.max(0, next.getWeight() / carReluctance - hierarchy.nodeCost(node));
+      if (backward.seed(node, cost)) {
+        backwardSeeds.put(node, state);
+      }
+    }
+  }
+
+  @Nullable
+  private static State bestDirectState(ShortestPathTree<State, Edge, Vertex> tree, Set<Vertex> to) {
+    State best = null;
+    for (Vertex vertex : to) {
+      State state = tree.getState(vertex);
+      if (
+        state != null &&
+        state.isFinal() &&
+        (best == null || state.getWeight() < best.getWeight())
+      ) {
+        best = state;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Bidirectional Dijkstra, forward on the up arcs and backward on the down arcs. The search
+   * stops when both queues have reached the cost of the best path found.
+   *
+   * @return the node where the best forward and backward paths meet, or {@link #NOT_A_NODE}.
+   */
+  private int search(SearchSpace forward, SearchSpace backward) {
+    double bestCost = Double.POSITIVE_INFINITY;
+    int meetingNode = NOT_A_NODE;
+
+    while (true) {
+      double forwardMin = forward.minCost();
+      double backwardMin = backward.minCost();
+      if (Math.min(forwardMin, backwardMin) >= bestCost) {
+        return meetingNode;
+      }
+      boolean isForward = forwardMin <= backwardMin;
+      SearchSpace space = isForward ? forward : backward;
+      SearchSpace other = isForward ? backward : forward;
+      CarContractionHierarchy.Arcs arcs = isForward ? up : down;
+
+      int node = space.settleNext();
+      if (node == NOT_A_NODE) {
+        continue;
+      }
+      double cost = space.cost(node);
+      double total = cost + other.cost(node);
+      if (total < bestCost) {
+        bestCost = total;
+        meetingNode = node;
+      }
+      for (int arc = arcs.start(node); arc < arcs.end(node); ++arc) {
+        space.relax(arcs.node(arc), cost + arcs.weight(arc), node, arc);
+      }
+    }
+  }
+
+  /**
+   * Unpack the shortcuts of the path through the meeting node, and traverse the edges from the
+   * origin state.
+   *
+   * @return the final state or {@code null} if the path can not be traversed, for example because
+   * of a time-dependent turn restriction.
+   */
+  @Nullable
+  private State traversePath(SearchSpace forward, SearchSpace backward, int meetingNode) {
+    var nodes = new ArrayList<Integer>();
+
+    // Forward part, collected backwards from the meeting node
+    var forwardNodes = new ArrayList<Integer>();
+    int node = meetingNode;
+    while (forward.parent(node) != NOT_A_NODE) {
+      int parent = forward.parent(node);
+      int arc = forward.parentArc(node);
+      var unpacked = new ArrayList<Integer>();
+      unpack(parent, node, up.middle(arc), unpacked);
+      for (int i = unpacked.size() - 1; i >= 0; --i) {
+        forwardNodes.add(unpacked.get(i));
+      }
+      node = parent;
+    }
+    int firstNode = node;
+    nodes.add(firstNode);
+    for (int i = forwardNodes.size() - 1; i >= 0; --i) {
+      nodes.add(forwardNodes.get(i));
+    }
+
+    // Backward part, the parent of a node is the next node on the path
+    node = meetingNode;
+    while (backward.parent(node) != NOT_A_NODE) {
+      int next = backward.parent(node);
+      unpack(node, next, down.middle(backward.parentArc(node)), nodes);
+      node = next;
+    }
+    int lastNode = node;
+
+    State state = forwardSeeds.get(firstNode);
+    for (int n : nodes) {
+      state = traverse(hierarchy.edge(n), state);
+      if (state == null) {
+        return null;
+      }
+    }
+    for (State s = backwardSeeds.get(lastNode); s.getBackState() != null; s = s.getBackState()) {
+      state = traverse(s.getBackEdge(), state);
+      if (state == null) {
+        return null;
+      }
+    }
+    return state.isFinal() ? state : null;
+  }
+
+  /**
+   * Add the nodes of the arc from a to b to the result, excluding a. The arc from a to the middle
+   * node m is stored in the down arcs of m, and the arc from m to b in the up arcs of m.
+   */
+  private void unpack(int a, int b, int middle, List<Integer> result) {
+    var stack = new ArrayDeque<int[]>();
+    stack.push(new int[] { a, b, middle });
+    while (!stack.isEmpty()) {
+      int[] arc = stack.pop();
+      int m = arc[2];
+      if (m == NO_MIDDLE) {
+        result.add(arc[1]);
+        continue;
+      }
+      int toMiddle = down.find(m, arc[0]);
+      int fromMiddle = up.find(m, arc[1]);
+      if (toMiddle < 0 || fromMiddle < 0) {
+        throw new IllegalStateException("Shortcut arc " + arc[0] + "-" + arc[1] + " not found.");
+      }
+      stack.push(new int[] { m, arc[1], up.middle(fromMiddle) });
+      stack.push(new int[] { arc[0], m, down.middle(toMiddle) });
+    }
+  }
+
+  @Nullable
+  private static State traverse(Edge edge, State state) {
+    State best = null;
+    for (State next : edge.traverse(state)) {
+      if (best == null || next.getWeight() < best.getWeight()) {
+        best = next;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * The nodes reached by one direction of the search. The search space is usually a small part of
+   * the hierarchy, so a map is used instead of arrays over all nodes.
+   */
+  private static class SearchSpace {
+
+    private final Map<Integer, Label> labels = new HashMap<>();
+    private final BinHeap<Integer> queue = new BinHeap<>(100);
+
+    /** @return true if this is the lowest cost seen for the node. */
+    boolean seed(int node, double cost) {
+      return relax(node, cost, NOT_A_NODE, -1);
+    }
+
+    boolean relax(int node, double cost, int parent, int parentArc) {
+      Label label = labels.get(node);
+      if (label != null && label.cost <= cost) {
+        return false;
+      }
+      labels.put(node, new Label(cost, parent, parentArc));
+      queue.insert(node, cost);
+      return true;
+    }
+
+    double minCost() {
+      return queue.empty() ? Double.POSITIVE_INFINITY : queue.peek_min_key();
+    }
+
+    /** @return the next node to settle, or {@link #NOT_A_NODE} if the queue entry is outdated. */
+    int settleNext() {
+      double cost = queue.peek_min_key();
+      int node = queue.extract_min();
+      return cost > labels.get(node).cost ? NOT_A_NODE : node;
+    }
+
+    double cost(int node) {
+      Label label = labels.get(node);
+      return label == null ? Double.POSITIVE_INFINITY : label.cost;
+    }
+
+    int parent(int node) {
+      return labels.get(node).parent;
+    }
+
+    int parentArc(int node) {
+      return labels.get(node).parentArc;
+    }
+  }
+
+  private record Label(double cost, int parent, int parentArc) {}
+}
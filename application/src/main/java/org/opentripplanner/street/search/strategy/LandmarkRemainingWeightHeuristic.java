@@ -0,0 +1,196 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.opentripplanner.street.model.landmark.LandmarkDistances.NOT_INDEXED;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.landmark.LandmarkDistances;
+import org.opentripplanner.street.model.landmark.LandmarkTable;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * An ALT (A*, landmarks and triangle inequality) remaining weight heuristic. For a landmark L,
+ * vertex v and target t the triangle inequality gives the lower bounds
+ * {@code d(v,t) >= d(L,t) - d(L,v)} and {@code d(v,t) >= d(v,L) - d(t,L)}. The distances to and
+ * from the landmarks are precomputed during graph build, see {@link LandmarkDistances}.
+ * <p>
+ * The estimate is the max of the landmark bounds and the
+ * {@link EuclideanRemainingWeightHeuristic}. The landmark bounds are only used for the street
+ * modes with a {@link LandmarkTable}, and the euclidean estimate is used alone for other modes
+ * and for vertices not in the table, like the temporary vertices at the origin.
+ * <p>
+ * The target is usually a temporary vertex. All paths to it pass through the closest indexed
+ * vertices, so the bounds for the target are computed using these instead.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic<State> {
+
+  private final LandmarkDistances distances;
+  private final EuclideanRemainingWeightHeuristic euclidean;
+
+  private LandmarkTable table;
+  private boolean arriveBy;
+  /** The weight of one unit of landmark distance. */
+  private double weightFactor;
+  /**
+   * Forward search: the min distance from each landmark to the target. Arrive-by search: the
+   * min distance from the target to each landmark.
+   */
+  private float[] targetMinDistance;
+  /**
+   * Forward search: the max distance from the target to each landmark. Arrive-by search: the
+   * max distance from each landmark to the target.
+   */
+  private float[] targetMaxDistance;
+
+  public LandmarkRemainingWeightHeuristic(LandmarkDistances distances, Float maxCarSpeed) {
+    this.distances = distances;
+    this.euclidean = new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    euclidean.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    this.table = distances.table(streetMode);
+    this.weightFactor = table == null ? 0.0 : weightFactor(streetMode, preferences);
+
+    if (table == null || weightFactor <= 0.0) {
+      table = null;
+      return;
+    }
+    int n = table.numberOfLandmarks();
+    targetMinDistance = new float[n];
+    targetMaxDistance = new float[n];
+    Arrays.fill(targetMinDistance, LandmarkTable.UNREACHED);
+
+    Set<Integer> frontier = indexedVerticesBefore(toVertices);
+    if (frontier.isEmpty()) {
+      table = null;
+      return;
+    }
+    for (int vertex : frontier) {
+      for (int l = 0; l < n; ++l) {
+        float min = arriveBy ? table.toLandmark(l, vertex) : table.fromLandmark(l, vertex);
+        float max = arriveBy ? table.fromLandmark(l, vertex) : table.toLandmark(l, vertex);
+        targetMinDistance[l] = Math.min(targetMinDistance[l], min);
+        targetMaxDistance[l] = Math.max(targetMaxDistance[l], max);
+      }
+    }
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s);
+    if (table == null) {
+      return estimate;
+    }
+    int vertex = distances.vertexIndex(s.getVertex());
+    if (vertex == NOT_INDEXED) {
+      return estimate;
+    }
+    return Math.max(estimate, weightFactor * landmarkEstimate(vertex));
+  }
+
+  private float landmarkEstimate(int vertex) {
+    float max = 0f;
+    for (int l = 0; l < targetMinDistance.length; ++l) {
+      float from = table.fromLandmark(l, vertex);
+      float to = table.toLandmark(l, vertex);
+      // Skip unreached distances on the positive side, the difference is not defined
+      if (arriveBy) {
+        if (from != LandmarkTable.UNREACHED) {
+          max = Math.max(max, from - targetMaxDistance[l]);
+        }
+        if (targetMinDistance[l] != LandmarkTable.UNREACHED) {
+          max = Math.max(max, targetMinDistance[l] - to);
+        }
+      } else {
+        if (targetMinDistance[l] != LandmarkTable.UNREACHED) {
+          max = Math.max(max, targetMinDistance[l] - from);
+        }
+        if (to != LandmarkTable.UNREACHED) {
+          max = Math.max(max, to - targetMaxDistance[l]);
+        }
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Find the indexed vertices closest to the targets, all paths reaching the targets must pass
+   * through one of these. Searching forward, the edges are followed backwards from the targets.
+   */
+  private Set<Integer> indexedVerticesBefore(Set<Vertex> targets) {
+    Set<Integer> result = new HashSet<>();
+    Set<Vertex> visited = new HashSet<>(targets);
+    var queue = new ArrayDeque<>(targets);
+
+    while (!queue.isEmpty()) {
+      Vertex v = queue.poll();
+      int index = distances.vertexIndex(v);
+      if (index != NOT_INDEXED) {
+        result.add(index);
+        continue;
+      }
+      for (Edge e : arriveBy ? v.getOutgoing() : v.getIncoming()) {
+        Vertex next = arriveBy ? e.getToVertex() : e.getFromVertex();
+        if (visited.add(next)) {
+          queue.add(next);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The landmark distances are lower bounds of the edge traversal time, or distance for
+   * cycling. The weight is the time multiplied by the reluctance, the bicycle optimization may
+   * reduce the weight further.
+   */
+  private double weightFactor(StreetMode streetMode, RoutingPreferences preferences) {
+    return switch (streetMode) {
+      case CAR -> preferences.car().reluctance();
+      case BIKE -> bikeWeightFactor(preferences);
+      default -> 0.0;
+    };
+  }
+
+  private double bikeWeightFactor(RoutingPreferences preferences) {
+    BikePreferences bike = preferences.bike();
+    double reluctance = Math.min(
+      Math.min(bike.reluctance(), bike.walking().reluctance()),
+      preferences.walk().stairsReluctance()
+    );
+    double maxSpeed =
+      Math.max(bike.speed(), bike.walking().speed()) /
+      Math.min(1.0, preferences.walk().stairsTimeFactor());
+
+    // Walking the bike is not affected by the optimization
+    return (reluctance * Math.min(1.0, optimizeFactor(bike))) / maxSpeed;
+  }
+
+  private double optimizeFactor(BikePreferences bike) {
+    if (bike.optimizeType() != VehicleRoutingOptimizeType.TRIANGLE) {
+      return table.weightRatio(bike.optimizeType());
+    }
+    var triangle = bike.optimizeTriangle();
+    return (
+      triangle.time() * table.weightRatio(VehicleRoutingOptimizeType.SHORTEST_DURATION) +
+      triangle.slope() * table.weightRatio(VehicleRoutingOptimizeType.FLAT_STREETS) +
+      triangle.safety() * table.weightRatio(VehicleRoutingOptimizeType.SAFE_STREETS)
+    );
+  }
+}
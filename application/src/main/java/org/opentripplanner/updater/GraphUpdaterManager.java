@@ -1,18 +1,27 @@
 package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.slf4j.Logger;
@@ -32,6 +41,7 @@ import org.slf4j.LoggerFactory;
 public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterStatus {
 
   private static final Logger LOG = LoggerFactory.getLogger(GraphUpdaterManager.class);
+  private static final String METRICS_PREFIX = "graph_writer";
   /**
    * This ensures a reasonable level of parallelism even for instances with a low CPU count.
    */
@@ -39,14 +49,15 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
   /**
    * OTP's multi-version concurrency control model for graph updating allows simultaneous reads, but
-   * never simultaneous writes. We ensure this policy is respected by having a single writer thread,
-   * which sequentially executes all graph updater tasks. Each task is a runnable that is scheduled
-   * with the ExecutorService to run at regular intervals.
+   * never simultaneous writes to the same data. We ensure this policy is respected by having a
+   * single writer thread for each {@link GraphWriterResource}, which sequentially executes the
+   * graph updater tasks using that resource. Tasks using different resources, like the timetable
+   * snapshot and the vehicle rental repository, run concurrently.
    * FIXME: In reality we're not using scheduleAtFixedInterval.
    *        We're scheduling for immediate execution from separate threads that sleep in a loop.
    *        We should perhaps switch to having polling GraphUpdaters call scheduleAtFixedInterval.
    */
-  private final ScheduledExecutorService scheduler;
+  private final GraphWriterScheduler scheduler;
 
   private final ScheduledExecutorService pollingUpdaterPool;
 
@@ -66,15 +77,22 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final RealTimeUpdateContext realtimeUpdateContext;
 
+  /**
+   * Used for graph writers submitted directly to the manager, not by one of the updaters. These
+   * may modify any resource.
+   */
+  private final UpdaterGraphWriter exclusiveWriter;
+
   /**
    * Constructor.
    *
    */
   public GraphUpdaterManager(RealTimeUpdateContext context, List<GraphUpdater> updaters) {
     this.realtimeUpdateContext = context;
+    this.scheduler = new GraphWriterScheduler();
+    this.exclusiveWriter =
+      new UpdaterGraphWriter("graph-updater-manager", EnumSet.allOf(GraphWriterResource.class));
     // Thread factories used to create new threads, giving them more human-readable names.
-    var graphWriterThreadFactory = new ThreadFactoryBuilder().setNameFormat("graph-writer").build();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor(graphWriterThreadFactory);
     var updaterThreadFactory = new ThreadFactoryBuilder().setNameFormat("updater-%d").build();
     this.pollingUpdaterPool =
       Executors.newScheduledThreadPool(
@@ -85,7 +103,12 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
     for (GraphUpdater updater : updaters) {
       updaterList.add(updater);
-      updater.setup(this);
+      updater.setup(
+        new UpdaterGraphWriter(
+          Objects.requireNonNullElse(updater.getConfigRef(), updater.getClass().getSimpleName()),
+          updater.graphWriterResources()
+        )
+      );
     }
   }
 
@@ -167,9 +190,8 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     updaterList.clear();
 
     // Shutdown scheduler
-    scheduler.shutdownNow();
     try {
-      boolean ok = scheduler.awaitTermination(30, TimeUnit.SECONDS);
+      boolean ok = scheduler.shutdownNow(30, TimeUnit.SECONDS);
       if (!ok) {
         LOG.warn("Timeout waiting for scheduled task to finish.");
       }
@@ -180,15 +202,18 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     LOG.info("Stopped updater manager");
   }
 
+  /**
+   * Run the graph writer when no other graph writer using the same resources is running. The
+   * writers submitted by an updater, through the callback given to it in
+   * {@link GraphUpdater#setup(WriteToGraphCallback)}, use the resources of the updater. Other
+   * writers use all resources, and run when no other graph writer is running.
+   */
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
-      try {
-        runnable.run(realtimeUpdateContext);
-      } catch (Exception e) {
-        LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
-      }
-    });
+    if (runnable instanceof UpdaterGraphWriterRunnable it) {
+      return it.writer().submit(it.runnable());
+    }
+    return exclusiveWriter.submit(runnable);
   }
 
   @Override
@@ -252,8 +277,12 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return nonPollingUpdaterPool;
   }
 
-  public ScheduledExecutorService getScheduler() {
-    return scheduler;
+  /**
+   * The scheduler running the graph writers of the given resource. Tasks scheduled directly on it
+   * must only modify this resource.
+   */
+  public ScheduledExecutorService getScheduler(GraphWriterResource resource) {
+    return scheduler.scheduler(resource);
   }
 
   /**
@@ -291,4 +320,67 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
         }
       });
   }
+
+  /**
+   * The callback given to an updater. The graph writers are passed on to
+   * {@link #execute(GraphWriterRunnable)}, and run with the resources of the updater. The number
+   * of queued writers and the latency from submission to completion are recorded per updater.
+   */
+  private final class UpdaterGraphWriter implements WriteToGraphCallback {
+
+    private final Set<GraphWriterResource> resources;
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final Timer latency;
+
+    private UpdaterGraphWriter(String configRef, Set<GraphWriterResource> resources) {
+      this.resources = EnumSet.copyOf(resources);
+      var tags = Tags.of("configRef", configRef);
+      Gauge
+        .builder(METRICS_PREFIX + "_queue_size", queueSize::get)
+        .description("Graph writers waiting to run")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      this.latency =
+        Timer
+          .builder(METRICS_PREFIX + "_latency")
+          .description("Time from a graph writer is submitted until it is done")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public Future<?> execute(GraphWriterRunnable runnable) {
+      return GraphUpdaterManager.this.execute(new UpdaterGraphWriterRunnable(this, runnable));
+    }
+
+    private Future<?> submit(GraphWriterRunnable runnable) {
+      long submitted = System.nanoTime();
+      queueSize.incrementAndGet();
+      return scheduler.submit(
+        resources,
+        () -> {
+          queueSize.decrementAndGet();
+          try {
+            runnable.run(realtimeUpdateContext);
+          } catch (Exception e) {
+            LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
+          } finally {
+            latency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+          }
+        }
+      );
+    }
+  }
+
+  /** A graph writer submitted by an updater. */
+  private record UpdaterGraphWriterRunnable(
+    UpdaterGraphWriter writer,
+    GraphWriterRunnable runnable
+  )
+    implements GraphWriterRunnable {
+    @Override
+    public void run(RealTimeUpdateContext context) {
+      runnable.run(context);
+    }
+  }
 }
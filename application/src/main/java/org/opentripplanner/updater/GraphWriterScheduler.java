@@ -0,0 +1,156 @@
+package org.opentripplanner.updater;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.opentripplanner.updater.spi.GraphWriterResource;
+
+/**
+ * Run graph writer tasks on one single-threaded scheduler per {@link GraphWriterResource}. Tasks
+ * using different resources run concurrently, tasks using the same resource run one at a time, in
+ * the order they are submitted.
+ * <p>
+ * A task using more than one resource runs on the scheduler of its first resource. A barrier task
+ * is added to the schedulers of the other resources, which blocks them while the task runs. All
+ * the parts of a task are added to the schedulers in one synchronized step, so the tasks are in
+ * the same order in all schedulers. The earliest task waiting for a barrier can therefore always
+ * proceed, which prevents deadlocks.
+ */
+class GraphWriterScheduler {
+
+  private final Map<GraphWriterResource, ScheduledExecutorService> schedulers = new EnumMap<>(
+    GraphWriterResource.class
+  );
+
+  GraphWriterScheduler() {
+    for (GraphWriterResource resource : GraphWriterResource.values()) {
+      var name = "graph-writer-" + resource.name().toLowerCase(Locale.ROOT).replace('_', '-');
+      schedulers.put(
+        resource,
+        Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat(name).build()
+        )
+      );
+    }
+  }
+
+  /**
+   * The scheduler of the given resource. Tasks scheduled directly on it must only use this
+   * resource.
+   */
+  ScheduledExecutorService scheduler(GraphWriterResource resource) {
+    return schedulers.get(resource);
+  }
+
+  /**
+   * Run the task when no earlier task using any of the given resources is running.
+   */
+  synchronized Future<?> submit(Set<GraphWriterResource> resources, Runnable task) {
+    if (resources.isEmpty()) {
+      throw new IllegalArgumentException("A graph writer must use at least one resource.");
+    }
+    List<GraphWriterResource> sorted = new ArrayList<>(EnumSet.copyOf(resources));
+    var primary = schedulers.get(sorted.getFirst());
+    if (sorted.size() == 1) {
+      return primary.submit(task);
+    }
+
+    var others = sorted.subList(1, sorted.size());
+    var blocked = new CountDownLatch(others.size());
+    var done = new CountDownLatch(1);
+    for (GraphWriterResource resource : others) {
+      schedulers
+        .get(resource)
+        .execute(() -> {
+          blocked.countDown();
+          try {
+            done.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    }
+    var primaryTask = new PrimaryTask(blocked, done, task);
+    try {
+      primary.execute(primaryTask);
+    } catch (RejectedExecutionException e) {
+      primaryTask.cancel(false);
+      throw e;
+    }
+    return primaryTask;
+  }
+
+  /**
+   * The part of a writer using several resources which runs on the scheduler of its first
+   * resource. The barriers on the other schedulers are released when the writer is done, or when
+   * it is cancelled or rejected before it starts, otherwise they would block those schedulers
+   * forever.
+   */
+  private static class PrimaryTask extends FutureTask<Void> {
+
+    private final CountDownLatch blocked;
+    private final CountDownLatch done;
+
+    /** Set by the first of {@link #run()} and {@link #done()}, the other does nothing. */
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private PrimaryTask(CountDownLatch blocked, CountDownLatch done, Runnable task) {
+      super(task, null);
+      this.blocked = blocked;
+      this.done = done;
+    }
+
+    @Override
+    public void run() {
+      if (!claimed.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        blocked.await();
+        super.run();
+      } catch (InterruptedException e) {
+        setException(e);
+        Thread.currentThread().interrupt();
+      } finally {
+        done.countDown();
+      }
+    }
+
+    @Override
+    protected void done() {
+      if (claimed.compareAndSet(false, true)) {
+        done.countDown();
+      }
+    }
+  }
+
+  /**
+   * Cancel the running tasks and wait for the schedulers to terminate.
+   *
+   * @return {@code false} if the timeout elapsed before all schedulers terminated.
+   */
+  boolean shutdownNow(long timeout, TimeUnit unit) throws InterruptedException {
+    schedulers.values().forEach(ScheduledExecutorService::shutdownNow);
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (ScheduledExecutorService scheduler : schedulers.values()) {
+      long remaining = deadline - System.nanoTime();
+      if (!scheduler.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -2,12 +2,15 @@ package org.opentripplanner.updater.alert;
 
 import com.google.transit.realtime.GtfsRealtime.FeedMessage;
 import java.net.URI;
+import java.util.EnumSet;
+import java.util.Set;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.service.TimetableRepository;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -53,6 +56,12 @@ public class GtfsRealtimeAlertsUpdater extends PollingGraphUpdater implements Tr
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    // The trips are resolved with the real-time transit data
+    return EnumSet.of(GraphWriterResource.ALERTS, GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   public TransitAlertService getTransitAlertService() {
     return transitAlertService;
   }
@@ -23,6 +23,7 @@ import org.opentripplanner.updater.siri.updater.SiriETUpdater;
 import org.opentripplanner.updater.siri.updater.SiriSXUpdater;
 import org.opentripplanner.updater.siri.updater.google.SiriETGooglePubsubUpdater;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.TimetableSnapshotFlush;
 import org.opentripplanner.updater.trip.MqttGtfsRealtimeUpdater;
 import org.opentripplanner.updater.trip.PollingTripUpdater;
@@ -255,7 +256,7 @@ public class UpdaterConfigurator {
   private void configureTimetableSnapshotFlush(GraphUpdaterManager updaterManager) {
     if (siriTimetableSnapshotSource != null || gtfsTimetableSnapshotSource != null) {
       updaterManager
-        .getScheduler()
+        .getScheduler(GraphWriterResource.TIMETABLE_SNAPSHOT)
         .scheduleWithFixedDelay(
           new TimetableSnapshotFlush(siriTimetableSnapshotSource, gtfsTimetableSnapshotSource),
           0,
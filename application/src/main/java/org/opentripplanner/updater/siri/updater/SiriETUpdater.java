@@ -1,8 +1,11 @@
 package org.opentripplanner.updater.siri.updater;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import org.opentripplanner.updater.siri.SiriTimetableSnapshotSource;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.ResultLogger;
 import org.opentripplanner.updater.spi.UpdateResult;
@@ -66,6 +69,11 @@ public class SiriETUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   /**
    * Repeatedly makes blocking calls to an UpdateStreamer to retrieve new stop time updates, and
    * applies those updates to the graph.
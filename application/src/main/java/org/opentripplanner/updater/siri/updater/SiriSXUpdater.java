@@ -2,7 +2,9 @@ package org.opentripplanner.updater.siri.updater;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.retry.OtpRetry;
@@ -12,6 +14,7 @@ import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.opentripplanner.updater.alert.TransitAlertProvider;
 import org.opentripplanner.updater.siri.SiriAlertsUpdateHandler;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.slf4j.Logger;
@@ -83,6 +86,12 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
     this.writeToGraphCallback = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    // The trips are resolved with the real-time transit data
+    return EnumSet.of(GraphWriterResource.ALERTS, GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   public TransitAlertService getTransitAlertService() {
     return transitAlertService;
   }
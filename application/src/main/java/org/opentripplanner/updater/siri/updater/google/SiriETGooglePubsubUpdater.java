@@ -1,11 +1,14 @@
 package org.opentripplanner.updater.siri.updater.google;
 
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Consumer;
 import org.opentripplanner.updater.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.updater.siri.updater.AsyncEstimatedTimetableProcessor;
 import org.opentripplanner.updater.siri.updater.AsyncEstimatedTimetableSource;
 import org.opentripplanner.updater.siri.updater.EstimatedTimetableHandler;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
@@ -54,6 +57,11 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   @Override
   public void run() {
     AsyncEstimatedTimetableProcessor asyncEstimatedTimetableProcessor = new AsyncEstimatedTimetableProcessor(
@@ -1,5 +1,8 @@
 package org.opentripplanner.updater.spi;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Interface for classes that fetch or receive information while the OTP instance is running and
  * make changes to the Graph and associated transit data to reflect the current situation. This is
@@ -17,8 +20,8 @@ package org.opentripplanner.updater.spi;
  * by submitting instances implementing GraphWriterRunnable (often anonymous functions) to the
  * Graph writing callback function supplied to them by the GraphUpdaterManager after they're
  * constructed. In this way, changes are queued up by many GraphUpdaters running in parallel on
- * different threads, but are applied sequentially in a single-threaded manner to simplify reasoning
- * about concurrent reads and writes to the Graph.
+ * different threads, but the changes to each {@link GraphWriterResource} are applied sequentially
+ * in a single-threaded manner to simplify reasoning about concurrent reads and writes to the Graph.
  */
 public interface GraphUpdater {
   /**
@@ -54,6 +57,15 @@ public interface GraphUpdater {
     return true;
   }
 
+  /**
+   * The resources modified by the graph writers of this updater. Writers of updaters with disjoint
+   * resources may run concurrently. The default is all resources, so the writers of the updater
+   * never run concurrently with any other writer.
+   */
+  default Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.allOf(GraphWriterResource.class);
+  }
+
   /**
    * A GraphUpdater implementation uses this method to report its corresponding value of the "type"
    * field in the configuration file. This value should ONLY be used when providing human-friendly
@@ -0,0 +1,26 @@
+package org.opentripplanner.updater.spi;
+
+/**
+ * The data structures a graph writer modifies. Graph writers which modify different resources
+ * do not interfere with each other and are allowed to run concurrently, while writers to the same
+ * resource are run one at a time in the order they are submitted.
+ *
+ * @see GraphUpdater#graphWriterResources()
+ */
+public enum GraphWriterResource {
+  /**
+   * The real-time timetable snapshot buffer. This includes reading real-time data through the
+   * transit service and the trip matchers of the update context, since these read the buffer.
+   */
+  TIMETABLE_SNAPSHOT,
+  /** The vehicle rental repository. */
+  VEHICLE_RENTAL,
+  /** The vehicle parking repository. */
+  VEHICLE_PARKING,
+  /** The realtime vehicle positions. */
+  VEHICLE_POSITIONS,
+  /** The transit alerts. */
+  ALERTS,
+  /** The street graph, for example linking new rental stations or parking into it. */
+  STREET_GRAPH,
+}
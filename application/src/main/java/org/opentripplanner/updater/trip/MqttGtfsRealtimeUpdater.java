@@ -3,12 +3,22 @@ package org.opentripplanner.updater.trip;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.transit.realtime.GtfsRealtime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
 import org.eclipse.paho.client.mqttv3.MqttClient;
@@ -18,6 +28,7 @@ import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
@@ -41,6 +52,10 @@ import org.slf4j.LoggerFactory;
  *   "fuzzyTripMatching": true
  * }
  * </pre>
+ * <p>
+ * If a batch window is configured, the trip updates received during the window are collected by
+ * a {@link TripUpdateCoalescer}, and applied together in one graph writer at the end of the
+ * window.
  */
 public class MqttGtfsRealtimeUpdater implements GraphUpdater {
 
@@ -59,6 +74,13 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
 
   private final boolean fuzzyTripMatching;
 
+  private final Duration batchWindow;
+  private final TripUpdateCoalescer coalescer;
+  private final Counter coalescedCounter;
+
+  @Nullable
+  private final ScheduledExecutorService batchScheduler;
+
   private MqttClient client;
 
   public MqttGtfsRealtimeUpdater(
@@ -75,6 +97,21 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     // Set properties of realtime data snapshot source
     this.fuzzyTripMatching = parameters.getFuzzyTripMatching();
     this.recordMetrics = TripUpdateMetrics.streaming(parameters);
+    this.batchWindow = parameters.getBatchWindow();
+    this.coalescer = new TripUpdateCoalescer(feedId);
+    this.coalescedCounter =
+      Counter
+        .builder("streaming_trip_updates.coalesced")
+        .description("Total trip updates replaced by a newer update in the same batch window")
+        .tag("configRef", configRef)
+        .tag("feedId", feedId)
+        .register(Metrics.globalRegistry);
+    this.batchScheduler =
+      batchWindow.isPositive()
+        ? Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("mqtt-batch-" + feedId).setDaemon(true).build()
+        )
+        : null;
     LOG.info("Creating streaming GTFS-RT TripUpdate updater subscribing to MQTT broker at {}", url);
   }
 
@@ -83,6 +120,11 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   @Override
   public void run() throws Exception {
     client = new MqttClient(url, clientId, persistence);
@@ -103,6 +145,9 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
 
   @Override
   public void teardown() {
+    if (batchScheduler != null) {
+      batchScheduler.shutdownNow();
+    }
     try {
       client.disconnect();
     } catch (MqttException e) {
@@ -115,6 +160,67 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     return configRef;
   }
 
+  private void applyUpdates(
+    UpdateIncrementality updateIncrementality,
+    List<GtfsRealtime.TripUpdate> updates
+  ) {
+    saveResultOnGraph.execute(
+      new TripUpdateGraphWriterRunnable(
+        snapshotSource,
+        fuzzyTripMatching,
+        backwardsDelayPropagationType,
+        updateIncrementality,
+        updates,
+        feedId,
+        recordMetrics
+      )
+    );
+  }
+
+  /**
+   * Add the updates to the current batch, and schedule the batch to be applied at the end of the
+   * batch window if this is the first message of the batch.
+   */
+  private void addToBatch(
+    UpdateIncrementality updateIncrementality,
+    List<GtfsRealtime.TripUpdate> updates,
+    long feedTimestamp
+  ) {
+    synchronized (coalescer) {
+      if (coalescer.isEmpty()) {
+        batchScheduler.schedule(this::applyBatch, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      coalescer.add(updateIncrementality, updates, feedTimestamp);
+    }
+  }
+
+  private void applyBatch() {
+    List<TripUpdateGraphWriterRunnable> runnables = new ArrayList<>();
+    synchronized (coalescer) {
+      for (var batch : coalescer.batches()) {
+        runnables.add(
+          new TripUpdateGraphWriterRunnable(
+            snapshotSource,
+            fuzzyTripMatching,
+            backwardsDelayPropagationType,
+            batch.incrementality(),
+            batch.updates(),
+            feedId,
+            recordMetrics
+          )
+        );
+      }
+      LOG.debug(
+        "Applying batch of {} trip updates, {} were replaced by newer updates.",
+        coalescer.received(),
+        coalescer.coalesced()
+      );
+      coalescedCounter.increment(coalescer.coalesced());
+      coalescer.clear();
+    }
+    saveResultOnGraph.execute(context -> runnables.forEach(it -> it.run(context)));
+  }
+
   private class Callback implements MqttCallbackExtended {
 
     @Override
@@ -136,6 +242,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     public void messageArrived(String topic, MqttMessage message) {
       List<GtfsRealtime.TripUpdate> updates = null;
       UpdateIncrementality updateIncrementality = FULL_DATASET;
+      long feedTimestamp = 0;
       try {
         // Decode message
         GtfsRealtime.FeedMessage feedMessage = GtfsRealtime.FeedMessage.PARSER.parseFrom(
@@ -154,6 +261,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
         ) {
           updateIncrementality = DIFFERENTIAL;
         }
+        feedTimestamp = feedMessage.getHeader().getTimestamp();
 
         // Create List of TripUpdates
         updates = new ArrayList<>(feedEntityList.size());
@@ -166,19 +274,14 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
         LOG.error("Could not decode gtfs-rt message:", e);
       }
 
-      if (updates != null) {
-        // Handle trip updates via graph writer runnable
-        saveResultOnGraph.execute(
-          new TripUpdateGraphWriterRunnable(
-            snapshotSource,
-            fuzzyTripMatching,
-            backwardsDelayPropagationType,
-            updateIncrementality,
-            updates,
-            feedId,
-            recordMetrics
-          )
-        );
+      if (updates == null) {
+        return;
+      }
+      // Handle trip updates via graph writer runnable
+      if (batchScheduler == null) {
+        applyUpdates(updateIncrementality, updates);
+      } else {
+        addToBatch(updateIncrementality, updates, feedTimestamp);
       }
     }
 
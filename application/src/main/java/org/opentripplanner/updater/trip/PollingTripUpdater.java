@@ -1,9 +1,12 @@
 package org.opentripplanner.updater.trip;
 
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -68,6 +71,11 @@ public class PollingTripUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.TIMETABLE_SNAPSHOT);
+  }
+
   /**
    * Repeatedly makes blocking calls to an UpdateStreamer to retrieve new stop time updates, and
    * applies those updates to the graph.
@@ -79,13 +87,24 @@ public class PollingTripUpdater extends PollingGraphUpdater {
     var incrementality = updateSource.incrementalityOfLastUpdates();
 
     if (updates != null) {
+      // A feed may contain several updates for the same trip, only the newest is applied
+      var coalescer = new TripUpdateCoalescer(feedId);
+      coalescer.add(incrementality, updates, 0);
+      if (coalescer.coalesced() > 0) {
+        LOG.debug(
+          "{} of {} trip updates are replaced by newer updates for the same trip.",
+          coalescer.coalesced(),
+          coalescer.received()
+        );
+      }
+
       // Handle trip updates via graph writer runnable
       TripUpdateGraphWriterRunnable runnable = new TripUpdateGraphWriterRunnable(
         snapshotSource,
         fuzzyTripMatching,
         backwardsDelayPropagationType,
         incrementality,
-        updates,
+        coalescer.batches().getFirst().updates(),
         feedId,
         recordMetrics
       );
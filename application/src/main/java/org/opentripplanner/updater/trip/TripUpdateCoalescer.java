@@ -0,0 +1,175 @@
+package org.opentripplanner.updater.trip;
+
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
+
+/**
+ * Collect the GTFS-RT trip updates of several messages, and keep only the newest update for each
+ * trip and service date. A GTFS-RT trip update describes the complete real-time state of a trip,
+ * so an update replaces the previous update for the same trip.
+ * <p>
+ * The result is the same as applying the updates one message at a time, with these exceptions:
+ * <ul>
+ *   <li>
+ *     An update with an older timestamp than the update already collected for the trip is
+ *     dropped, since it is out of date.
+ *   </li>
+ *   <li>
+ *     An update only replaces the previous one if both have the same schedule relationship.
+ *     Otherwise, both are kept and applied in order, for example an added trip which is then
+ *     canceled.
+ *   </li>
+ *   <li>
+ *     Updates without a trip id or a start date are never replaced, since the trip is not known
+ *     before the update is applied.
+ *   </li>
+ * </ul>
+ * A full dataset replaces all updates collected before it. Differential updates following a full
+ * dataset are collected in a separate batch, so the batches are applied in order with the
+ * incrementality they were received with.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+class TripUpdateCoalescer {
+
+  private final String feedId;
+  private final List<Batch> batches = new ArrayList<>();
+  private int received = 0;
+  private int coalesced = 0;
+
+  TripUpdateCoalescer(String feedId) {
+    this.feedId = feedId;
+  }
+
+  /**
+   * Add the trip updates of a message.
+   *
+   * @param feedTimestamp the timestamp in the header of the message, used for the updates
+   *                      without a timestamp. Use 0 if it is not known.
+   */
+  void add(UpdateIncrementality incrementality, List<TripUpdate> updates, long feedTimestamp) {
+    if (incrementality == FULL_DATASET) {
+      batches.forEach(batch -> coalesced += batch.updates.size());
+      batches.clear();
+      batches.add(new Batch(FULL_DATASET));
+    } else if (batches.isEmpty() || batches.getLast().incrementality != DIFFERENTIAL) {
+      batches.add(new Batch(DIFFERENTIAL));
+    }
+    var batch = batches.getLast();
+    for (TripUpdate update : updates) {
+      ++received;
+      if (!batch.add(update, feedTimestamp)) {
+        ++coalesced;
+      }
+    }
+  }
+
+  boolean isEmpty() {
+    return batches.isEmpty();
+  }
+
+  /** The number of updates received since the last call to {@link #clear()}. */
+  int received() {
+    return received;
+  }
+
+  /**
+   * The number of received updates which are replaced by a newer update, or dropped because they
+   * are out of date.
+   */
+  int coalesced() {
+    return coalesced;
+  }
+
+  /** The batches to apply, in order. */
+  List<Batch> batches() {
+    return List.copyOf(batches);
+  }
+
+  void clear() {
+    batches.clear();
+    received = 0;
+    coalesced = 0;
+  }
+
+  @Nullable
+  private TripIdAndServiceDate key(TripUpdate update) {
+    var trip = update.getTrip();
+    if (!trip.hasTripId() || trip.getTripId().isBlank() || !trip.hasStartDate()) {
+      return null;
+    }
+    try {
+      return new TripIdAndServiceDate(
+        new FeedScopedId(feedId, trip.getTripId()),
+        ServiceDateUtils.parseString(trip.getStartDate())
+      );
+    } catch (ParseException e) {
+      return null;
+    }
+  }
+
+  /** The updates to apply in one call to the snapshot source. */
+  final class Batch {
+
+    private final UpdateIncrementality incrementality;
+    private final List<TripUpdate> updates = new ArrayList<>();
+    private final List<Long> timestamps = new ArrayList<>();
+
+    /** The index of the last update of each trip. */
+    private final Map<TripIdAndServiceDate, Integer> lastIndex = new HashMap<>();
+
+    private Batch(UpdateIncrementality incrementality) {
+      this.incrementality = incrementality;
+    }
+
+    UpdateIncrementality incrementality() {
+      return incrementality;
+    }
+
+    List<TripUpdate> updates() {
+      return List.copyOf(updates);
+    }
+
+    /**
+     * Add the update, return {@code false} if an update was replaced or the given update is
+     * dropped.
+     */
+    private boolean add(TripUpdate update, long feedTimestamp) {
+      long timestamp = update.hasTimestamp() ? update.getTimestamp() : feedTimestamp;
+      var key = key(update);
+      Integer index = key == null ? null : lastIndex.get(key);
+
+      if (index != null && relationship(updates.get(index)) == relationship(update)) {
+        // Both timestamps must be known to decide that the update is out of date
+        boolean outOfDate = timestamp > 0 && timestamp < timestamps.get(index);
+        if (!outOfDate) {
+          updates.set(index, update);
+          timestamps.set(index, timestamp);
+        }
+        return false;
+      }
+      updates.add(update);
+      timestamps.add(timestamp);
+      if (key != null) {
+        lastIndex.put(key, updates.size() - 1);
+      }
+      return true;
+    }
+
+    private static ScheduleRelationship relationship(TripUpdate update) {
+      return update.getTrip().getScheduleRelationship();
+    }
+  }
+}
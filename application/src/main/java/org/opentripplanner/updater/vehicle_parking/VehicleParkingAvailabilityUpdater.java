@@ -1,7 +1,9 @@
 package org.opentripplanner.updater.vehicle_parking;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -12,6 +14,7 @@ import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.DataSource;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.slf4j.Logger;
@@ -48,6 +51,11 @@ public class VehicleParkingAvailabilityUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    return EnumSet.of(GraphWriterResource.VEHICLE_PARKING);
+  }
+
   @Override
   protected void runPolling() {
     if (source.update()) {
@@ -1,6 +1,7 @@
 package org.opentripplanner.updater.vehicle_parking;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -26,6 +27,7 @@ import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.DataSource;
+import org.opentripplanner.updater.spi.GraphWriterResource;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.slf4j.Logger;
@@ -68,6 +70,12 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = writeToGraphCallback;
   }
 
+  @Override
+  public Set<GraphWriterResource> graphWriterResources() {
+    // New parking facilities are linked to the street graph
+    return EnumSet.of(GraphWriterResource.VEHICLE_PARKING, GraphWriterResource.STREET_GRAPH);
+  }
+
   @Override
   protected void runPolling() {
     LOG.debug("Updating vehicle parkings from {}", source);
@@ -8,10 +8,18 @@ import static org.opentripplanner.street.model.vertex.VertexLabel.string;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.BucketQueue;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.IndexedDaryHeap;
+import org.opentripplanner.astar.model.SearchQueue;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
@@ -116,6 +124,35 @@ public class AStarTest {
     assertEquals("leary_20th", states.get(6).getVertex().getLabelString());
   }
 
+  static Stream<Supplier<SearchQueue<State>>> searchQueues() {
+    return Stream.of(IndexedDaryHeap::new, () -> new BucketQueue<>(1.0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("searchQueues")
+  public void testSearchQueue(Supplier<SearchQueue<State>> searchQueue) {
+    var request = new RouteRequest();
+    Vertex from = graph.getVertex("56th_24th");
+
+    var expected = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setFrom(from)
+      .setSearchQueue(BinHeap::new)
+      .getShortestPathTree();
+    var tree = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setFrom(from)
+      .setSearchQueue(searchQueue)
+      .getShortestPathTree();
+
+    assertEquals(expected.getVertexCount(), tree.getVertexCount());
+    for (Vertex v : graph.getVertices()) {
+      assertEquals(expected.getState(v).getWeight(), tree.getState(v).getWeight(), 1e-6);
+    }
+  }
+
   @Test
   public void testBack() {
     var request = new RouteRequest();
@@ -0,0 +1,159 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SearchQueueTest {
+
+  private static final int N = 20_000;
+
+  /** An element with a key, compared by identity. */
+  private record Element(double key) {}
+
+  static Stream<Arguments> queues() {
+    return Stream.of(
+      Arguments.of("BinHeap", (Supplier<SearchQueue<Element>>) BinHeap::new),
+      Arguments.of("IndexedDaryHeap", (Supplier<SearchQueue<Element>>) IndexedDaryHeap::new),
+      Arguments.of("BucketQueue", (Supplier<SearchQueue<Element>>) () -> new BucketQueue<>(1.0)),
+      Arguments.of(
+        "BucketQueue, wide buckets",
+        (Supplier<SearchQueue<Element>>) () -> new BucketQueue<>(250.0)
+      )
+    );
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queues")
+  void extractInKeyOrder(String name, Supplier<SearchQueue<Element>> factory) {
+    var queue = factory.get();
+    var random = new Random(7);
+    List<Element> elements = new ArrayList<>();
+    for (int i = 0; i < N; ++i) {
+      // a wide range of keys, to make the bucket queue use the overflow
+      var e = new Element(random.nextDouble() * 100_000.0);
+      elements.add(e);
+      queue.insert(e, e.key());
+    }
+    assertEquals(N, queue.size());
+
+    elements.sort(Comparator.comparingDouble(Element::key));
+    for (Element expected : elements) {
+      assertEquals(expected.key(), queue.peek_min_key());
+      assertEquals(expected.key(), queue.extract_min().key());
+    }
+    assertTrue(queue.empty());
+    assertNull(queue.extract_min());
+    assertThrows(IllegalStateException.class, queue::peek_min_key);
+  }
+
+  /**
+   * Simulate a search: each extracted element is followed by a few elements with a higher key,
+   * and sometimes a lower key, like with an inconsistent heuristic.
+   */
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queues")
+  void searchPattern(String name, Supplier<SearchQueue<Element>> factory) {
+    var queue = factory.get();
+    var random = new Random(11);
+    queue.insert(new Element(0.0), 0.0);
+    int inserted = 1;
+    double last = Double.NEGATIVE_INFINITY;
+    double lowest = Double.POSITIVE_INFINITY;
+
+    while (!queue.empty()) {
+      var min = queue.extract_min();
+      // a lower key than the last extracted is only allowed if inserted after it was extracted
+      assertTrue(min.key() >= last || min.key() >= lowest, name);
+      last = min.key();
+      lowest = Double.POSITIVE_INFINITY;
+      for (int b = 0; b < 3 && inserted < N; ++b, ++inserted) {
+        double key = min.key() + (random.nextInt(10) == 0 ? -5.0 : random.nextDouble() * 100.0);
+        lowest = Math.min(lowest, key);
+        queue.insert(new Element(key), key);
+      }
+    }
+    assertEquals(N, inserted);
+  }
+
+  @Test
+  void replaceInIndexedDaryHeap() {
+    var queue = new IndexedDaryHeap<Element>();
+    var random = new Random(3);
+    List<Element> elements = new ArrayList<>();
+    for (int i = 0; i < N; ++i) {
+      var e = new Element(random.nextDouble() * 1000.0);
+      elements.add(e);
+      queue.insert(e, e.key());
+    }
+
+    // replace every other element with one with a lower or a higher key
+    List<Element> expected = new ArrayList<>();
+    for (int i = 0; i < N; ++i) {
+      var old = elements.get(i);
+      if (i % 2 == 0) {
+        var e = new Element(old.key() + (i % 4 == 0 ? -500.0 : 500.0));
+        assertTrue(queue.replace(old, e, e.key()));
+        assertFalse(queue.contains(old));
+        assertTrue(queue.contains(e));
+        expected.add(e);
+      } else {
+        expected.add(old);
+      }
+    }
+    assertEquals(N, queue.size());
+
+    expected.sort(Comparator.comparingDouble(Element::key));
+    for (Element e : expected) {
+      assertEquals(e.key(), queue.extract_min().key());
+      assertFalse(queue.contains(e));
+    }
+    assertFalse(queue.replace(expected.getFirst(), new Element(0), 0));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queues")
+  void infiniteAndVeryLargeKeys(String name, Supplier<SearchQueue<Element>> factory) {
+    var queue = factory.get();
+    var keys = List.of(Double.POSITIVE_INFINITY, 1.0, Double.MAX_VALUE, 1e300, 3.0, 1e19);
+    for (double key : keys) {
+      queue.insert(new Element(key), key);
+    }
+
+    assertEquals(1.0, queue.extract_min().key());
+    assertEquals(3.0, queue.extract_min().key());
+    assertEquals(1e19, queue.extract_min().key());
+    assertEquals(1e300, queue.extract_min().key());
+
+    // The queue keeps working after advancing to the largest keys
+    queue.insert(new Element(2.0), 2.0);
+    queue.insert(new Element(Double.POSITIVE_INFINITY), Double.POSITIVE_INFINITY);
+    assertEquals(2.0, queue.extract_min().key());
+    assertEquals(Double.MAX_VALUE, queue.extract_min().key());
+    assertEquals(Double.POSITIVE_INFINITY, queue.peek_min_key());
+    assertEquals(Double.POSITIVE_INFINITY, queue.extract_min().key());
+    assertEquals(Double.POSITIVE_INFINITY, queue.extract_min().key());
+    assertTrue(queue.empty());
+  }
+
+  @Test
+  void replaceIsNotSupportedByBinHeap() {
+    var queue = new BinHeap<Element>();
+    var e = new Element(1.0);
+    queue.insert(e, e.key());
+    assertFalse(queue.replace(e, new Element(0.0), 0.0));
+  }
+}
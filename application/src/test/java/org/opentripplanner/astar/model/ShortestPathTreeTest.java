@@ -0,0 +1,123 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class ShortestPathTreeTest {
+
+  private static final StreetSearchRequest REQUEST = StreetSearchRequest.of().build();
+
+  /** The rank of each state, a lower rank dominates a higher one. */
+  private final Map<State, Integer> rank = new IdentityHashMap<>();
+
+  private final DominanceFunction<State> byRank = (a, b) -> rank.get(a) <= rank.get(b);
+
+  @Test
+  void singleStatePerVertex() {
+    var spt = new ShortestPathTree<State, Edge, Vertex>(byRank);
+    var vertex = intersectionVertex(0, 0);
+
+    var first = state(vertex, 2);
+    assertTrue(spt.add(first));
+    assertFalse(spt.add(state(vertex, 3)));
+    assertFalse(spt.add(state(vertex, 2)));
+    assertTrue(spt.visit(first));
+
+    var better = state(vertex, 1);
+    assertTrue(spt.add(better));
+    assertFalse(spt.visit(first));
+    assertTrue(spt.visit(better));
+    assertSame(better, spt.getState(vertex));
+    assertEquals(List.of(better), spt.getStates(vertex));
+    assertEquals(1, spt.getVertexCount());
+  }
+
+  @Test
+  void coDominantStates() {
+    var spt = new ShortestPathTree<State, Edge, Vertex>((a, b) -> false);
+    var vertex = intersectionVertex(0, 0);
+    var a = state(vertex, 1);
+    var b = state(vertex, 1);
+    var c = state(vertex, 1);
+
+    assertTrue(spt.add(a));
+    assertTrue(spt.add(b));
+    assertTrue(spt.add(c));
+    assertEquals(List.of(a, b, c), spt.getStates(vertex));
+    assertTrue(spt.visit(b));
+    assertEquals(3, spt.getAllStates().size());
+    assertEquals(1, spt.getVertexCount());
+  }
+
+  @Test
+  void indexedAndTemporaryVertices() {
+    var graph = new Graph();
+    var spt = new ShortestPathTree<State, Edge, Vertex>(byRank);
+    List<State> states = new ArrayList<>();
+
+    // more vertices than the initial capacity, half of them not in the graph
+    for (int i = 0; i < 20_000; ++i) {
+      var vertex = intersectionVertex("V" + i, i * 1e-5, 0);
+      if (i % 2 == 0) {
+        graph.addVertex(vertex);
+        assertEquals(i / 2, vertex.getIndex());
+      } else {
+        assertEquals(Vertex.NO_INDEX, vertex.getIndex());
+      }
+      var state = state(vertex, i);
+      states.add(state);
+      assertTrue(spt.add(state));
+    }
+
+    assertEquals(states.size(), spt.getVertexCount());
+    assertEquals(states.size(), spt.getVertices().size());
+    assertEquals(states.size(), spt.getAllStates().size());
+    for (State state : states) {
+      assertSame(state, spt.getState(state.getVertex()));
+      assertTrue(spt.visit(state));
+    }
+    assertNull(spt.getState(intersectionVertex(1, 1)));
+    assertNull(spt.getStates(intersectionVertex(1, 1)));
+  }
+
+  @Test
+  void clear() {
+    var spt = new ShortestPathTree<State, Edge, Vertex>(byRank);
+    var a = intersectionVertex(0, 0);
+    var b = intersectionVertex(0, 1);
+    spt.add(state(a, 1));
+
+    spt.clear();
+
+    assertEquals(0, spt.getVertexCount());
+    assertTrue(spt.getAllStates().isEmpty());
+    assertNull(spt.getState(a));
+
+    var state = state(b, 1);
+    assertTrue(spt.add(state));
+    assertSame(state, spt.getState(b));
+    assertEquals(1, spt.getVertexCount());
+  }
+
+  private State state(Vertex vertex, int rank) {
+    var state = new State(vertex, REQUEST);
+    this.rank.put(state, rank);
+    return state;
+  }
+}
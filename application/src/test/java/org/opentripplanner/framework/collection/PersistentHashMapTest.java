@@ -0,0 +1,180 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PersistentHashMapTest {
+
+  @Test
+  void empty() {
+    PersistentHashMap<String, Integer> subject = PersistentHashMap.of();
+    assertTrue(subject.isEmpty());
+    assertEquals(0, subject.size());
+    assertNull(subject.get("A"));
+    assertSame(subject, subject.minus("A"));
+    assertFalse(subject.keys().iterator().hasNext());
+  }
+
+  @Test
+  void plusAndMinus() {
+    PersistentHashMap<String, Integer> m0 = PersistentHashMap.of();
+    var m1 = m0.plus("A", 1);
+    var m2 = m1.plus("B", 2);
+    var m3 = m2.plus("A", 3);
+
+    // The old versions are not changed
+    assertEquals(0, m0.size());
+    assertEquals(1, m1.size());
+    assertEquals(1, m1.get("A"));
+    assertNull(m1.get("B"));
+    assertEquals(2, m3.size());
+    assertEquals(3, m3.get("A"));
+    assertEquals(2, m3.get("B"));
+
+    var m4 = m3.minus("A");
+    assertEquals(1, m4.size());
+    assertNull(m4.get("A"));
+    assertEquals(3, m3.get("A"));
+
+    assertTrue(m4.minus("B").isEmpty());
+  }
+
+  @Test
+  void sameInstanceIfNotChanged() {
+    var value = Integer.valueOf(1000);
+    var subject = PersistentHashMap.<String, Integer>of().plus("A", value);
+    assertSame(subject, subject.plus("A", value));
+    assertSame(subject, subject.minus("B"));
+  }
+
+  @Test
+  void nullIsNotAllowed() {
+    PersistentHashMap<String, Integer> subject = PersistentHashMap.of();
+    assertThrows(NullPointerException.class, () -> subject.plus(null, 1));
+    assertThrows(NullPointerException.class, () -> subject.plus("A", null));
+  }
+
+  @Test
+  void hashCollisions() {
+    var a = new Key("A", 7);
+    var b = new Key("B", 7);
+    var c = new Key("C", 7 + (1 << 20));
+
+    var subject = PersistentHashMap.<Key, String>of().plus(a, "a").plus(b, "b").plus(c, "c");
+    assertEquals(3, subject.size());
+    assertEquals("a", subject.get(a));
+    assertEquals("b", subject.get(b));
+    assertEquals("c", subject.get(c));
+    assertNull(subject.get(new Key("D", 7)));
+    assertEquals(Set.of("a", "b", "c"), new HashSet<>(subject.values()));
+
+    var withoutA = subject.minus(a);
+    assertEquals(2, withoutA.size());
+    assertNull(withoutA.get(a));
+    assertEquals("b", withoutA.get(b));
+    assertEquals("a", subject.get(a));
+  }
+
+  @Test
+  void copyOfSet() {
+    var subject = PersistentHashMap.copyOfSet(List.of("A", "B", "A"));
+    assertEquals(2, subject.size());
+    assertTrue(subject.keys().contains("A"));
+    assertFalse(subject.keys().contains("C"));
+    assertFalse(subject.keys().contains(null));
+  }
+
+  /**
+   * Apply the same random changes to a HashMap and a PersistentHashMap, and verify that they have
+   * the same content. Keep all versions to verify that they are not changed.
+   */
+  @Test
+  void randomOperationsSameAsHashMap() {
+    var random = new Random(5);
+    var expected = new HashMap<Integer, Integer>();
+    var subject = PersistentHashMap.<Integer, Integer>of();
+    List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+    List<PersistentHashMap<Integer, Integer>> versions = new ArrayList<>();
+
+    for (int i = 0; i < 5000; ++i) {
+      // Use a key range with many hits, and some large numbers to get deep tries
+      int key = random.nextBoolean() ? random.nextInt(2000) : random.nextInt();
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        subject = subject.minus(key);
+      } else {
+        expected.put(key, i);
+        subject = subject.plus(key, i);
+      }
+      if (i % 500 == 0) {
+        expectedVersions.add(new HashMap<>(expected));
+        versions.add(subject);
+      }
+    }
+    expectedVersions.add(expected);
+    versions.add(subject);
+
+    for (int v = 0; v < versions.size(); ++v) {
+      assertSameContent(expectedVersions.get(v), versions.get(v));
+    }
+  }
+
+  @Test
+  void minusIf() {
+    var subject = PersistentHashMap.<String, Integer>of().plus("A", 1).plus("B", 2).plus("C", 3);
+
+    var result = subject.minusIf(key -> !key.equals("B"));
+    assertEquals(Map.of("B", 2), result.asMap());
+    assertEquals(3, subject.size());
+    assertSame(subject, subject.minusIf(key -> key.equals("D")));
+  }
+
+  @Test
+  void asMap() {
+    var subject = PersistentHashMap.<String, Integer>of().plus("A", 1).plus("B", 2).asMap();
+
+    assertEquals(Map.of("A", 1, "B", 2), subject);
+    assertEquals(2, subject.get("B"));
+    assertNull(subject.get(null));
+    assertFalse(subject.containsKey("C"));
+    assertThrows(UnsupportedOperationException.class, () -> subject.put("C", 3));
+  }
+
+  private static void assertSameContent(
+    Map<Integer, Integer> expected,
+    PersistentHashMap<Integer, Integer> subject
+  ) {
+    assertEquals(expected.size(), subject.size());
+    assertEquals(expected.size(), subject.keys().size());
+
+    var actual = new HashMap<Integer, Integer>();
+    subject.forEach(actual::put);
+    assertEquals(expected, actual);
+    assertEquals(expected.keySet(), new HashSet<>(subject.keys()));
+    assertEquals(expected, subject.asMap());
+
+    for (var e : expected.entrySet()) {
+      assertEquals(e.getValue(), subject.get(e.getKey()));
+    }
+  }
+
+  private record Key(String name, int hash) {
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package org.opentripplanner.framework.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class TaskGraphTest {
+
+  @Test
+  void tasksRunAfterTheirDependencies() {
+    List<String> done = new CopyOnWriteArrayList<>();
+    try (var subject = new TaskGraph("test")) {
+      var a = subject.add("a", () -> done.add("a"));
+      var b = subject.add("b", () -> done.add("b"));
+      subject.add("c", () -> done.add("c"), a, b);
+
+      // Nothing is run before run() is called
+      assertTrue(done.isEmpty());
+      subject.run();
+    }
+    assertEquals(3, done.size());
+    assertEquals("c", done.get(2));
+  }
+
+  @Test
+  void failureIsRethrownAndDependentTasksAreSkipped() {
+    var error = new IllegalArgumentException("failed");
+    var dependentRun = new AtomicBoolean(false);
+    var independentRun = new AtomicBoolean(false);
+
+    try (var subject = new TaskGraph("test")) {
+      var a = subject.add(
+        "a",
+        () -> {
+          throw error;
+        }
+      );
+      subject.add("b", () -> dependentRun.set(true), a);
+      subject.add("c", () -> independentRun.set(true));
+
+      var thrown = assertThrows(IllegalArgumentException.class, subject::run);
+      assertSame(error, thrown);
+    }
+    assertFalse(dependentRun.get());
+    assertTrue(independentRun.get());
+  }
+}
@@ -0,0 +1,154 @@
+package org.opentripplanner.graph_builder.module.contraction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.graph_builder.module.linking.LinkingTest;
+import org.opentripplanner.graph_builder.module.osm.OsmModule;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.contraction.CarContractionHierarchy;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.contraction.CarContractionHierarchySearch;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.test.support.ResourceLoader;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+class CarContractionHierarchyModuleTest {
+
+  private static final int NUMBER_OF_SEARCHES = 50;
+
+  private static Graph graph;
+  private static CarContractionHierarchy hierarchy;
+  private static List<Vertex> carVertices;
+
+  @BeforeAll
+  static void buildGraph() {
+    graph = new Graph(new Deduplicator());
+    File file = ResourceLoader.of(LinkingTest.class).file("columbus.osm.pbf");
+    OsmModule.of(new OsmProvider(file, true), graph).build().buildGraph();
+    new CarContractionHierarchyModule(graph).buildGraph();
+    hierarchy = graph.getCarContractionHierarchy();
+
+    carVertices = new ArrayList<>();
+    for (StreetEdge edge : graph.getStreetEdges()) {
+      if (edge.canTraverse(TraverseMode.CAR)) {
+        carVertices.add(edge.getFromVertex());
+      }
+    }
+  }
+
+  @Test
+  void hierarchy() {
+    assertNotNull(hierarchy);
+    assertTrue(hierarchy.numberOfNodes() > 0);
+
+    for (int node = 0; node < hierarchy.numberOfNodes(); ++node) {
+      assertEquals(node, hierarchy.node(hierarchy.edge(node)));
+      var up = hierarchy.up();
+      for (int arc = up.start(node); arc < up.end(node); ++arc) {
+        assertTrue(up.node(arc) > node);
+      }
+      var down = hierarchy.down();
+      for (int arc = down.start(node); arc < down.end(node); ++arc) {
+        assertTrue(down.node(arc) > node);
+      }
+    }
+  }
+
+  @Test
+  void supportsDefaultPreferencesOnly() {
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.CAR);
+    assertTrue(CarContractionHierarchySearch.canBeUsed(hierarchy, request));
+
+    request.withPreferences(p -> p.withCar(c -> c.withReluctance(5.0)));
+    assertFalse(CarContractionHierarchySearch.canBeUsed(hierarchy, request));
+
+    var arriveBy = new RouteRequest();
+    arriveBy.journey().direct().setMode(StreetMode.CAR);
+    arriveBy.setArriveBy(true);
+    assertFalse(CarContractionHierarchySearch.canBeUsed(hierarchy, arriveBy));
+  }
+
+  /**
+   * The A* search in the vertex graph may miss a path with a lower weight, when a turn cost or
+   * restriction makes the best path to a vertex a bad start for the rest of the trip. The
+   * hierarchy is built on the edges, so the weight should never be higher.
+   */
+  @Test
+  void sameOrLowerWeightThanAStar() {
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.CAR);
+    var random = new Random(42);
+    int found = 0;
+
+    for (int i = 0; i < NUMBER_OF_SEARCHES; ++i) {
+      Vertex from = carVertices.get(random.nextInt(carVertices.size()));
+      Vertex to = carVertices.get(random.nextInt(carVertices.size()));
+
+      var aStar = aStarPath(request, from, to);
+      var paths = new CarContractionHierarchySearch(hierarchy).findPaths(
+        request,
+        Set.of(from),
+        Set.of(to)
+      );
+      if (aStar == null) {
+        assertTrue(paths == null || paths.isEmpty());
+        continue;
+      }
+      assertNotNull(paths, from + " -> " + to);
+      var path = paths.getFirst();
+      assertEquals(from, path.states.getFirst().getVertex());
+      assertEquals(to, path.states.getLast().getVertex());
+      assertTrue(
+        path.getWeight() <= aStar.getWeight() + 0.01,
+        from + " -> " + to + ": " + path.getWeight() + " > " + aStar.getWeight()
+      );
+      ++found;
+    }
+    assertTrue(found > NUMBER_OF_SEARCHES / 2);
+  }
+
+  @Test
+  void noHierarchyForWalkOnlyGraph() {
+    var walkGraph = new Graph(new Deduplicator());
+    new CarContractionHierarchyModule(walkGraph).buildGraph();
+    assertNull(walkGraph.getCarContractionHierarchy());
+  }
+
+  private static GraphPath<State, Edge, Vertex> aStarPath(
+    RouteRequest request,
+    Vertex from,
+    Vertex to
+  ) {
+    var paths = StreetSearchBuilder
+      .of()
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(StreetMode.CAR))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+    return paths.isEmpty() ? null : paths.getFirst();
+  }
+}
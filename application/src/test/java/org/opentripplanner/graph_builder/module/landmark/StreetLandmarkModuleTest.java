@@ -0,0 +1,170 @@
+package org.opentripplanner.graph_builder.module.landmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.io.File;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.graph_builder.module.osm.OsmModule;
+import org.opentripplanner.graph_builder.module.osm.TriangleInequalityTest;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetConstants;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.landmark.LandmarkDistances;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
+import org.opentripplanner.test.support.ResourceLoader;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+class StreetLandmarkModuleTest {
+
+  private static final int NUMBER_OF_LANDMARKS = 4;
+
+  private static Graph graph;
+  private static LandmarkDistances distances;
+  private static Vertex start;
+  private static Vertex end;
+
+  @BeforeAll
+  static void buildGraph() {
+    graph = new Graph(new Deduplicator());
+    File file = ResourceLoader.of(TriangleInequalityTest.class).file("NYC_small.osm.pbf");
+    OsmModule.of(new OsmProvider(file, true), graph).build().buildGraph();
+    new StreetLandmarkModule(graph, NUMBER_OF_LANDMARKS).buildGraph();
+
+    distances = graph.getLandmarkDistances();
+    start = graph.getVertex(VertexLabel.osm(1919595913));
+    end = graph.getVertex(VertexLabel.osm(42448554));
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void landmarkTables(StreetMode mode) {
+    assertNotNull(distances);
+    assertEquals(graph.countVertices(), distances.numberOfVertices());
+
+    var table = distances.table(mode);
+    assertNotNull(table);
+    assertEquals(NUMBER_OF_LANDMARKS, table.numberOfLandmarks());
+
+    for (int l = 0; l < table.numberOfLandmarks(); ++l) {
+      int index = distances.vertexIndex(table.landmark(l));
+      assertEquals(0f, table.fromLandmark(l, index));
+      assertEquals(0f, table.toLandmark(l, index));
+    }
+  }
+
+  /**
+   * The farthest vertex is at the end of a one-way street, so nothing is reached from the first
+   * landmark. The selection must continue with the vertices not reached from any landmark.
+   */
+  @Test
+  void landmarkAtDeadEnd() {
+    var graph = new Graph(new Deduplicator());
+    StreetVertex center = intersectionVertex("center", 0.0, 0.0);
+    StreetVertex deadEnd = intersectionVertex("deadEnd", 0.0, 0.01);
+    graph.addVertex(center);
+    graph.addVertex(deadEnd);
+    for (int i = 0; i < 3; ++i) {
+      StreetVertex leaf = intersectionVertex("leaf" + i, 0.001 * (i + 1), 0.0);
+      graph.addVertex(leaf);
+      streetEdge(center, leaf, 100, StreetTraversalPermission.CAR);
+      streetEdge(leaf, center, 100, StreetTraversalPermission.CAR);
+    }
+    streetEdge(center, deadEnd, 1000, StreetTraversalPermission.CAR);
+
+    new StreetLandmarkModule(graph, 3).buildGraph();
+
+    var table = graph.getLandmarkDistances().table(StreetMode.CAR);
+    assertEquals(3, table.numberOfLandmarks());
+    assertEquals(deadEnd, table.landmark(0));
+  }
+
+  @Test
+  void walkingIsNotSupported() {
+    assertNull(distances.table(StreetMode.WALK));
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void sameWeightWithFewerStates(StreetMode mode) {
+    var request = new RouteRequest();
+    var euclidean = search(request, mode, new EuclideanRemainingWeightHeuristic());
+    var landmark = search(request, mode, landmarkHeuristic());
+
+    assertNotNull(euclidean.getPath(end));
+    assertEquals(euclidean.getPath(end).getWeight(), landmark.getPath(end).getWeight(), 0.01);
+    assertTrue(
+      landmark.getVertexCount() <= euclidean.getVertexCount(),
+      landmark.getVertexCount() + " > " + euclidean.getVertexCount()
+    );
+  }
+
+  /**
+   * Compute the weight from every vertex to the end with a reverse search, and check that the
+   * heuristic never overestimates the remaining weight.
+   */
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void heuristicIsAdmissible(StreetMode mode) {
+    var request = new RouteRequest();
+    request.setArriveBy(true);
+
+    ShortestPathTree<State, Edge, Vertex> tree = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setTo(end)
+      .getShortestPathTree();
+
+    var heuristic = landmarkHeuristic();
+    heuristic.initialize(mode, Set.of(end), false, request.preferences());
+
+    for (State state : tree.getAllStates()) {
+      double estimate = heuristic.estimateRemainingWeight(state);
+      assertTrue(
+        estimate <= state.getWeight() + 0.01,
+        state.getVertex() + ": " + estimate + " > " + state.getWeight()
+      );
+    }
+  }
+
+  private static LandmarkRemainingWeightHeuristic landmarkHeuristic() {
+    return new LandmarkRemainingWeightHeuristic(distances, StreetConstants.DEFAULT_MAX_CAR_SPEED);
+  }
+
+  private static ShortestPathTree<State, Edge, Vertex> search(
+    RouteRequest request,
+    StreetMode mode,
+    RemainingWeightHeuristic<State> heuristic
+  ) {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(heuristic)
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(start)
+      .setTo(end)
+      .getShortestPathTree();
+  }
+}
@@ -149,6 +149,30 @@ class StreetNearbyStopFinderTest extends GraphRoutingTest {
     assertStopAtDistance(stopD, 300, sortedNearbyStops.get(1));
   }
 
+  @Test
+  void testReuseSearchState() {
+    var durationLimit = Duration.ofMinutes(10);
+    var finder = new StreetNearbyStopFinder(durationLimit, 0, null, Set.of(), true);
+
+    // The second search reuses the tree of the first one, and must not see its states
+    for (var origin : List.of(stopA, stopD, isolatedStop)) {
+      var expected = sort(
+        new StreetNearbyStopFinder(durationLimit, 0, null)
+          .findNearbyStops(origin, new RouteRequest(), new StreetRequest(), false)
+      );
+      var actual = sort(
+        finder.findNearbyStops(origin, new RouteRequest(), new StreetRequest(), false)
+      );
+
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); ++i) {
+        assertEquals(expected.get(i).stop, actual.get(i).stop);
+        assertEquals(expected.get(i).distance, actual.get(i).distance);
+        assertEquals(expected.get(i).edges, actual.get(i).edges);
+      }
+    }
+  }
+
   @Test
   @Disabled("Currently disabled because of a bug in stop counting")
   void testIgnoreStopsWithMaxStops() {
@@ -0,0 +1,133 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.test.support.ResourceLoader;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+class MappedOsmNodeStoreTest {
+
+  private static final ResourceLoader RESOURCE_LOADER = ResourceLoader.of(
+    MappedOsmNodeStoreTest.class
+  );
+
+  /** The coordinates are stored with the precision of the OSM data. */
+  private static final double DELTA = 1e-9;
+
+  private final MappedOsmNodeStore subject = new MappedOsmNodeStore();
+
+  @AfterEach
+  void close() {
+    subject.close();
+  }
+
+  @Test
+  void nodesAreStoredWithTagsAndProvider() {
+    var provider = new OsmProvider(RESOURCE_LOADER.file("map.osm.pbf"), false);
+    var node = node(42, 59.9138688, 10.7522454);
+    node.addTag("highway", "traffic_signals");
+    node.addTag("name", "Torggata");
+    node.setOsmProvider(provider);
+    subject.put(node);
+
+    var result = subject.get(42);
+
+    assertNotSame(node, result);
+    assertEquals(node, result);
+    assertEquals(node.lat, result.lat, DELTA);
+    assertEquals(node.lon, result.lon, DELTA);
+    assertEquals(Map.of("highway", "traffic_signals", "name", "Torggata"), result.getTags());
+    assertSame(provider, result.getOsmProvider());
+    assertTrue(result.hasHighwayTrafficLight());
+  }
+
+  @Test
+  void unorderedIdsAreStoredInRuns() {
+    long[] ids = { 5, 7, 30, 1, 2, 3, 8, 6, 100 };
+    for (long id : ids) {
+      subject.put(node(id, id, -id));
+    }
+
+    assertEquals(ids.length, subject.size());
+    for (long id : ids) {
+      assertTrue(subject.containsKey(id));
+      var node = subject.get(id);
+      assertEquals(id, node.getId());
+      assertEquals(id, node.lat, DELTA);
+      assertEquals(-id, node.lon, DELTA);
+      assertTrue(node.getTags().isEmpty());
+    }
+    assertFalse(subject.containsKey(4));
+    assertNull(subject.get(31));
+  }
+
+  @Test
+  void virtualNodesAreKeptOnTheHeap() {
+    subject.put(node(1, 1.0, 1.0));
+    var virtual = node(-100000, 1.123456789, 2.123456789);
+    subject.put(virtual);
+
+    assertEquals(2, subject.size());
+    assertSame(virtual, subject.get(-100000));
+    assertNull(subject.get(-100001));
+  }
+
+  @Test
+  void sameGraphAsWithNodesOnHeap() {
+    File file = RESOURCE_LOADER.file("map.osm.pbf");
+    var heapGraph = buildGraph(file, false);
+    var mappedGraph = buildGraph(file, true);
+
+    var expected = heapGraph
+      .getVertices()
+      .stream()
+      .sorted(Comparator.comparing(Vertex::getLabelString))
+      .toList();
+    var actual = mappedGraph
+      .getVertices()
+      .stream()
+      .sorted(Comparator.comparing(Vertex::getLabelString))
+      .toList();
+
+    assertEquals(expected.size(), actual.size());
+    assertEquals(heapGraph.getEdges().size(), mappedGraph.getEdges().size());
+    for (int i = 0; i < expected.size(); ++i) {
+      assertEquals(expected.get(i).getLabel(), actual.get(i).getLabel());
+      assertEquals(expected.get(i).getCoordinate(), actual.get(i).getCoordinate());
+      assertEquals(expected.get(i).getDegreeOut(), actual.get(i).getDegreeOut());
+    }
+  }
+
+  private static Graph buildGraph(File file, boolean memoryMappedNodes) {
+    var graph = new Graph(new Deduplicator());
+    OsmModule
+      .of(new OsmProvider(file, true), graph)
+      .withAreaVisibility(true)
+      .withMemoryMappedNodes(memoryMappedNodes)
+      .build()
+      .buildGraph();
+    return graph;
+  }
+
+  private static OsmNode node(long id, double lat, double lon) {
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = lat;
+    node.lon = lon;
+    return node;
+  }
+}
@@ -0,0 +1,96 @@
+package org.opentripplanner.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.graph_builder.module.osm.TriangleInequalityTest;
+import org.opentripplanner.osm.model.OsmWay;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class OsmBlockReaderTest {
+
+  private static final File FILE = ResourceLoader
+    .of(TriangleInequalityTest.class)
+    .file("NYC_small.osm.pbf");
+  private static final OsmProvider PROVIDER = new OsmProvider(FILE, true);
+
+  @Test
+  void sameResultWithAnyNumberOfThreads() throws IOException {
+    var expected = read(1);
+    assertTrue(expected.wayCount() > 0);
+    assertTrue(expected.nodeCount() > 0);
+
+    for (int threads : new int[] { 2, 4 }) {
+      var actual = read(threads);
+      assertEquals(expected.wayCount(), actual.wayCount());
+      assertEquals(expected.nodeCount(), actual.nodeCount());
+
+      OsmWay[] expectedWays = expected.getWays().toArray(OsmWay[]::new);
+      OsmWay[] actualWays = actual.getWays().toArray(OsmWay[]::new);
+      for (int i = 0; i < expectedWays.length; ++i) {
+        OsmWay way = expectedWays[i];
+        assertEquals(way.getId(), actualWays[i].getId());
+        assertEquals(way.getNodeRefs(), actualWays[i].getNodeRefs());
+        assertEquals(way.getTags(), actualWays[i].getTags());
+
+        for (long nodeId : way.getNodeRefs().toArray()) {
+          var node = expected.getNode(nodeId);
+          var actualNode = actual.getNode(nodeId);
+          if (node == null) {
+            continue;
+          }
+          assertNotNull(actualNode);
+          assertEquals(node.getCoordinate(), actualNode.getCoordinate());
+          assertEquals(node.getTags(), actualNode.getTags());
+        }
+      }
+    }
+  }
+
+  @Test
+  void truncatedFile() throws IOException {
+    byte[] bytes = Files.readAllBytes(FILE.toPath());
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 10);
+    var osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+
+    for (int threads : new int[] { 1, 4 }) {
+      try (var reader = new OsmBlockReader(PROVIDER, threads)) {
+        assertThrows(
+          IOException.class,
+          () -> reader.read(new ByteArrayInputStream(truncated), OsmParserPhase.Ways, osmdb)
+        );
+      }
+    }
+  }
+
+  private static OsmDatabase read(int threads) throws IOException {
+    var osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+    try (var reader = new OsmBlockReader(PROVIDER, threads)) {
+      read(reader, OsmParserPhase.Relations, osmdb);
+      osmdb.doneFirstPhaseRelations();
+      read(reader, OsmParserPhase.Ways, osmdb);
+      osmdb.doneSecondPhaseWays();
+      read(reader, OsmParserPhase.Nodes, osmdb);
+      osmdb.doneThirdPhaseNodes();
+    }
+    return osmdb;
+  }
+
+  private static void read(OsmBlockReader reader, OsmParserPhase phase, OsmDatabase osmdb)
+    throws IOException {
+    try (InputStream input = Files.newInputStream(FILE.toPath())) {
+      reader.read(input, phase, osmdb);
+    }
+  }
+}
@@ -3,12 +3,14 @@ package org.opentripplanner.raptor._data.transit;
 import java.util.function.IntUnaryOperator;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.DepartureTimeIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripSearchTimetable;
 
 public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSchedule> {
 
   private final TestTripSchedule[] trips;
+  private final DepartureTimeIndex[] departureTimeIndexes;
 
   public TestTripSearchTimetable(TestRoute route) {
     int nTrips = route.timetable().numberOfTripSchedules();
@@ -17,6 +19,7 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
     for (int i = 0; i < nTrips; ++i) {
       trips[i] = route.getTripSchedule(i);
     }
+    this.departureTimeIndexes = new DepartureTimeIndex[route.pattern().numberOfStopsInPattern()];
   }
 
   @Override
@@ -39,6 +42,15 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
     return (int tripIndex) -> trips[tripIndex].departure(stopPositionInPattern);
   }
 
+  @Override
+  public DepartureTimeIndex getDepartureTimeIndex(int stopPositionInPattern) {
+    if (departureTimeIndexes[stopPositionInPattern] == null) {
+      departureTimeIndexes[stopPositionInPattern] =
+        TripSearchTimetable.super.getDepartureTimeIndex(stopPositionInPattern);
+    }
+    return departureTimeIndexes[stopPositionInPattern];
+  }
+
   @Override
   public RaptorTripScheduleSearch<TestTripSchedule> tripSearch(SearchDirection direction) {
     return TripScheduleSearchFactory.create(direction, this);
@@ -0,0 +1,108 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * A profile search should return all pareto-optimal paths departing within the search-window in
+ * one search, even if the timetable-view is not enabled in the request.
+ */
+public class A05_DepartureProfileTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * Stops: 0..2
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2
+   *
+   * Schedule:
+   *   R1: 00:05 - 00:10
+   *   R1: 00:20 - 00:25
+   *   R1: 00:35 - 00:40
+   *   R1: 01:35 - 01:40
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   2  20s
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B))
+        .withTimetable(
+          schedule("00:05, 00:10"),
+          schedule("00:20, 00:25"),
+          schedule("00:35, 00:40"),
+          schedule("01:35, 01:40")
+        )
+    );
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_B, D20s))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofHours(1))
+      .timetable(false);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @Test
+  void allDeparturesInSearchWindow() {
+    var response = raptorService.profile(requestBuilder.build(), data);
+
+    assertEquals(
+      PathUtils.join(
+        "Walk 30s ~ A ~ BUS R1 0:05 0:10 ~ B ~ Walk 20s [0:04:30 0:10:20 5m50s Tₓ0 C₁1_000]",
+        "Walk 30s ~ A ~ BUS R1 0:20 0:25 ~ B ~ Walk 20s [0:19:30 0:25:20 5m50s Tₓ0 C₁1_000]",
+        "Walk 30s ~ A ~ BUS R1 0:35 0:40 ~ B ~ Walk 20s [0:34:30 0:40:20 5m50s Tₓ0 C₁1_000]",
+        // The best path for the last iteration departs after the search-window, it is removed
+        // later by the itinerary filter chain
+        "Walk 30s ~ A ~ BUS R1 1:35 1:40 ~ B ~ Walk 20s [1:34:30 1:40:20 5m50s Tₓ0 C₁1_000]"
+      ),
+      pathsToString(response)
+    );
+  }
+
+  @Test
+  void onlyMultiCriteriaForwardSearchIsAllowed() {
+    var standard = requestBuilder.profile(RaptorProfile.STANDARD).build();
+    assertThrows(IllegalArgumentException.class, () -> raptorService.profile(standard, data));
+  }
+
+  @Test
+  void searchWindowIsRequired() {
+    requestBuilder.searchParams().searchWindow(null);
+    var request = requestBuilder.build();
+    assertThrows(IllegalArgumentException.class, () -> raptorService.profile(request, data));
+  }
+}
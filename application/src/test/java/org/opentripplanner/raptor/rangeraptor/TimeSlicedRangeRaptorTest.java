@@ -0,0 +1,98 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * The time-sliced search should find the same paths as a normal multi-criteria search, the
+ * slices are searched in parallel and merged.
+ */
+class TimeSlicedRangeRaptorTest implements RaptorTestConstants {
+
+  private static final int SLICE_SIZE = (int) Duration.ofMinutes(10).toSeconds();
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private ExecutorService threadPool;
+
+  @BeforeEach
+  void setup() {
+    threadPool = Executors.newFixedThreadPool(2);
+
+    var r1 = route("R1", STOP_A, STOP_B, STOP_C);
+    var r2 = route("R2", STOP_A, STOP_C);
+    for (int i = 0; i < 12; ++i) {
+      int t = T00_00 + i * D5m;
+      r1.withTimetable(schedule().departures(t, t + D5m, t + D10m));
+      // A slower, but cheaper direct route
+      r2.withTimetable(schedule().departures(t + D2m, t + D20m));
+    }
+    data.withRoute(r1).withRoute(r2);
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_C, D1m))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofMinutes(45))
+      .timetable(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @Test
+  void sameResultAsSingleSearch() {
+    var expected = pathsToString(
+      new RaptorService<>(config(0)).route(requestBuilder.build(), data)
+    );
+    var result = pathsToString(
+      new RaptorService<>(config(SLICE_SIZE)).route(requestBuilder.build(), data)
+    );
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, result);
+  }
+
+  private RaptorConfig<TestTripSchedule> config(int sliceSize) {
+    return new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override
+        public int searchWindowTimeSliceInSeconds() {
+          return sliceSize;
+        }
+      },
+      new RaptorEnvironment() {
+        @Override
+        public ExecutorService threadPool() {
+          return threadPool;
+        }
+      }
+    );
+  }
+}
@@ -0,0 +1,117 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToStringDetailed;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.GeneralizedCostParameters;
+
+/**
+ * The {@link McStopArrivalCandidateArrays} should give the same result as the
+ * {@link McStopArrivalCandidateList}. The list is used if stop arrivals are debugged, so we
+ * run the same search with and without a stop arrival debug listener, and compare the paths.
+ * The network is random, but generated with a fixed seed.
+ */
+class McStopArrivalCandidateArraysTest {
+
+  private static final int N_STOPS = 100;
+  private static final int N_ROUTES = 40;
+  private static final int N_STOPS_IN_PATTERN = 10;
+  private static final int EDT = 8 * 3600;
+  private static final int LAT = 11 * 3600;
+
+  private final RaptorService<TestTripSchedule> service = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+  /** The test data only has stop board/alight costs for a few stops, this network has more. */
+  private final TestTransitData data = new TestTransitData() {
+    @Override
+    public RaptorCostCalculator<TestTripSchedule> multiCriteriaCostCalculator() {
+      var parameters = GeneralizedCostParameters.of().build();
+      return CostCalculatorFactory.createCostCalculator(parameters, null);
+    }
+  };
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+
+  @BeforeEach
+  void setup() {
+    var random = new Random(7);
+
+    for (int r = 0; r < N_ROUTES; ++r) {
+      var stops = new int[N_STOPS_IN_PATTERN];
+      stops[0] = random.nextInt(N_STOPS);
+      for (int i = 1; i < N_STOPS_IN_PATTERN; ++i) {
+        stops[i] = (stops[i - 1] + 1 + random.nextInt(8)) % N_STOPS;
+      }
+      var route = TestRoute.route(TestTripPattern.pattern("R" + r, stops));
+      int headway = 300 + 60 * random.nextInt(15);
+      int hopTime = 60 + 30 * random.nextInt(6);
+
+      for (int t = EDT - 3600 + random.nextInt(headway); t < LAT; t += headway) {
+        var times = new int[N_STOPS_IN_PATTERN];
+        times[0] = t;
+        for (int i = 1; i < N_STOPS_IN_PATTERN; ++i) {
+          times[i] = times[i - 1] + hopTime;
+        }
+        route.withTimetable(TestTripSchedule.schedule().times(times));
+      }
+      data.withRoute(route);
+    }
+
+    for (int s = 0; s < N_STOPS; ++s) {
+      int toStop = (s + 1 + random.nextInt(5)) % N_STOPS;
+      data.withTransfer(s, TestTransfer.transfer(toStop, 60 + random.nextInt(300)));
+    }
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .earliestDepartureTime(EDT)
+      .latestArrivalTime(LAT)
+      .searchWindowInSeconds(3600)
+      .timetable(true);
+
+    for (int i = 0; i < 3; ++i) {
+      int accessStop = random.nextInt(N_STOPS / 4);
+      int egressStop = N_STOPS / 2 + random.nextInt(N_STOPS / 4);
+      requestBuilder
+        .searchParams()
+        .addAccessPaths(TestAccessEgress.walk(accessStop, 60 + 120 * i))
+        .addEgressPaths(TestAccessEgress.walk(egressStop, 60 + 60 * i));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void sameResultAsCandidateList(boolean checkAgainstDestination) {
+    if (checkAgainstDestination) {
+      requestBuilder.enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+    }
+
+    var expected = pathsToStringDetailed(service.route(requestBuilder.build(), data));
+
+    // Debugging stop arrivals forces the search to use the McStopArrivalCandidateList
+    requestBuilder.debug().stopArrivalListener(event -> {});
+    var result = pathsToStringDetailed(service.route(requestBuilder.build(), data));
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, result);
+  }
+}
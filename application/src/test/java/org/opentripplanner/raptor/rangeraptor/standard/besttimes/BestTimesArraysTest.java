@@ -0,0 +1,89 @@
+package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.raptor.rangeraptor.transit.ForwardTransitCalculator;
+import org.opentripplanner.raptor.rangeraptor.transit.TransitCalculator;
+
+class BestTimesArraysTest {
+
+  private static final int N_STOPS = 5;
+  private static final TransitCalculator<TestTripSchedule> CALCULATOR =
+    new ForwardTransitCalculator<>();
+  private static final int UNREACHED = CALCULATOR.unreachedTime();
+
+  private final List<BestTimesArrays> released = new ArrayList<>();
+  private final BestTimesArrays subject = new BestTimesArrays(N_STOPS, UNREACHED, released::add);
+
+  @Test
+  void releaseResetTouchedStops() {
+    var lifeCycleSubscriptions = new LifeCycleSubscriptions();
+    var bestTimes = new BestTimes(subject, CALCULATOR, lifeCycleSubscriptions);
+    var bestNumOfTransfers = new SimpleBestNumberOfTransfers(subject, lifeCycleSubscriptions);
+    var lifeCycle = new LifeCycleEventPublisher(lifeCycleSubscriptions);
+
+    lifeCycle.setupIteration(0);
+    lifeCycle.prepareForNextRound(1);
+    bestTimes.updateNewBestTime(1, 100);
+    bestTimes.updateBestTransitArrivalTime(3, 200);
+    bestNumOfTransfers.arriveAtStop(3);
+
+    assertFalse(subject.isReset());
+    assertEquals(100, bestTimes.time(1));
+    assertEquals(0, bestNumOfTransfers.calculateMinNumberOfTransfers(3));
+
+    bestTimes.release();
+
+    assertTrue(subject.isReset());
+    assertSame(subject, released.getFirst());
+
+    // A new search on the same arrays should start with all stops unreached
+    var nextBestTimes = new BestTimes(subject, CALCULATOR, new LifeCycleSubscriptions());
+    var nextBestNumOfTransfers = new SimpleBestNumberOfTransfers(
+      subject,
+      new LifeCycleSubscriptions()
+    );
+    for (int stop = 0; stop < N_STOPS; ++stop) {
+      assertFalse(nextBestTimes.isStopReached(stop));
+      assertFalse(nextBestTimes.isStopReachedByTransit(stop));
+      assertEquals(
+        RaptorConstants.N_TRANSFERS_UNREACHED,
+        nextBestNumOfTransfers.calculateMinNumberOfTransfers(stop)
+      );
+    }
+  }
+
+  @Test
+  void arraysNotResetCanNotBeUsed() {
+    var bestTimes = new BestTimes(subject, CALCULATOR, new LifeCycleSubscriptions());
+    bestTimes.updateNewBestTime(1, 100);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BestTimes(subject, CALCULATOR, new LifeCycleSubscriptions())
+    );
+  }
+
+  @Test
+  void releaseArraysNotPooled() {
+    var arrays = BestTimesArrays.create(N_STOPS, UNREACHED);
+    var bestTimes = new BestTimes(arrays, CALCULATOR, new LifeCycleSubscriptions());
+    bestTimes.updateNewBestTime(1, 100);
+
+    bestTimes.release();
+
+    // The result may still be in use, so arrays not pooled are not reset
+    assertEquals(100, bestTimes.time(1));
+  }
+}
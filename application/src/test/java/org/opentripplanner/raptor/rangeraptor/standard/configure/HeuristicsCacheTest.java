@@ -0,0 +1,155 @@
+package org.opentripplanner.raptor.rangeraptor.standard.configure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+
+class HeuristicsCacheTest implements RaptorTestConstants {
+
+  private static final Duration TTL = Duration.ofSeconds(60);
+  private static final Object TRANSIT_DATA_KEY = "TransitData-V1";
+
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private final TestTransitData data = new TestTransitData() {
+    @Override
+    public Object transitDataCacheKey() {
+      return TRANSIT_DATA_KEY;
+    }
+  };
+  private final AtomicInteger searchCount = new AtomicInteger();
+  private long now = 0;
+  private final HeuristicsCache<TestTripSchedule> subject = new HeuristicsCache<>(
+    10,
+    TTL,
+    () -> now
+  );
+
+  /**
+   * Stops: A..D
+   *   R1: B 00:01 - C 00:03 - D 00:05
+   */
+  HeuristicsCacheTest() {
+    data.withRoute(
+      route(pattern("R1", STOP_B, STOP_C, STOP_D)).withTimetable(schedule("00:01, 00:03, 00:05"))
+    );
+  }
+
+  @Test
+  void isCacheable() {
+    assertTrue(subject.isCacheable(data, request(T00_00, STOP_D)));
+    assertFalse(subject.isCacheable(new TestTransitData(), request(T00_00, STOP_D)));
+
+    var forward = request(T00_00, STOP_D).mutate().searchDirection(SearchDirection.FORWARD).build();
+    assertFalse(subject.isCacheable(data, forward));
+
+    var disabled = new HeuristicsCache<TestTripSchedule>(10, Duration.ZERO);
+    assertFalse(disabled.isCacheable(data, request(T00_00, STOP_D)));
+  }
+
+  @Test
+  void sameResultAsHeuristicSearch() {
+    var request = request(T00_00, STOP_D);
+    var expected = search().apply(request);
+    var result = get(request);
+
+    for (int stop = STOP_A; stop <= STOP_D; ++stop) {
+      var expArrivals = expected.extractBestOverallArrivals();
+      var arrivals = result.extractBestOverallArrivals();
+      assertEquals(expArrivals.isReached(stop), arrivals.isReached(stop), "Stop " + stop);
+      if (expArrivals.isReached(stop)) {
+        assertEquals(expArrivals.value(stop), arrivals.value(stop), "Stop " + stop);
+      }
+    }
+    assertEquals(expected.isDestinationReached(), result.isDestinationReached());
+  }
+
+  @Test
+  void shareResultBetweenRequests() {
+    get(request(T00_00, STOP_D));
+    var result = get(request(T00_02, STOP_D));
+
+    assertEquals(1, searchCount.get());
+    assertEquals(1, subject.missCount());
+    assertEquals(1, subject.hitCount());
+
+    // The time-limit of the request is applied to the shared result
+    assertFalse(result.extractBestOverallArrivals().isReached(STOP_B));
+    assertTrue(result.extractBestOverallArrivals().isReached(STOP_C));
+    assertFalse(result.isDestinationReached());
+
+    // Another destination does not share the result
+    get(request(T00_00, STOP_C));
+    assertEquals(2, searchCount.get());
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void expireEntries() {
+    get(request(T00_00, STOP_D));
+    now += TTL.toMillis() - 1;
+    get(request(T00_00, STOP_D));
+    assertEquals(1, searchCount.get());
+
+    now += 1;
+    get(request(T00_00, STOP_D));
+    assertEquals(2, searchCount.get());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void expiredEntriesAreRemovedOnGet() {
+    get(request(T00_00, STOP_D));
+    now += TTL.toMillis() / 2;
+    get(request(T00_00, STOP_C));
+    assertEquals(2, subject.size());
+
+    // The entry for stop D expires while the entry for stop C is used
+    now += TTL.toMillis() / 2;
+    get(request(T00_00, STOP_C));
+    assertEquals(1, subject.hitCount());
+    assertEquals(1, subject.size());
+  }
+
+  private RaptorRouterResult<TestTripSchedule> get(RaptorRequest<TestTripSchedule> request) {
+    return subject.get(config.context(data, request), data, request, search());
+  }
+
+  private Function<RaptorRequest<TestTripSchedule>, RaptorRouterResult<TestTripSchedule>> search() {
+    return r -> {
+      searchCount.incrementAndGet();
+      return config.createRangeRaptorWithStdWorker(data, r).route();
+    };
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int edt, int egressStop) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchDirection(SearchDirection.REVERSE)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(egressStop, D20s))
+      .earliestDepartureTime(edt)
+      .latestArrivalTime(T00_10)
+      .searchOneIterationOnly();
+    return builder.build();
+  }
+}
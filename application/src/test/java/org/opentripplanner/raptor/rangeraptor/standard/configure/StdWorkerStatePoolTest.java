@@ -0,0 +1,75 @@
+package org.opentripplanner.raptor.rangeraptor.standard.configure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class StdWorkerStatePoolTest {
+
+  private static final int N_STOPS = 10;
+  private static final int FORWARD_UNREACHED = Integer.MAX_VALUE;
+  private static final int REVERSE_UNREACHED = Integer.MIN_VALUE;
+
+  private final StdWorkerStatePool subject = new StdWorkerStatePool(2);
+
+  @Test
+  void reuseReleasedArrays() {
+    var a = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    var b = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    assertNotSame(a, b);
+    assertEquals(0, subject.size());
+
+    a.release();
+    assertEquals(1, subject.size());
+    assertSame(a, subject.acquire(N_STOPS, FORWARD_UNREACHED));
+  }
+
+  @Test
+  void matchSizeAndUnreachedTime() {
+    var fwd = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    var rev = subject.acquire(N_STOPS, REVERSE_UNREACHED);
+    fwd.release();
+    rev.release();
+
+    assertSame(fwd, subject.acquire(N_STOPS, FORWARD_UNREACHED));
+    assertSame(rev, subject.acquire(N_STOPS, REVERSE_UNREACHED));
+  }
+
+  @Test
+  void dropArraysWithWrongSize() {
+    subject.acquire(N_STOPS, FORWARD_UNREACHED).release();
+
+    var other = subject.acquire(N_STOPS + 1, FORWARD_UNREACHED);
+    assertEquals(N_STOPS + 1, other.size());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void limitNumberOfPooledArrays() {
+    var a = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    var b = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    var c = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+    a.release();
+    b.release();
+    c.release();
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void releaseFromAnotherThread() throws Exception {
+    var a = subject.acquire(N_STOPS, FORWARD_UNREACHED);
+
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(a::release).get();
+      // The arrays are returned to the pool of the thread which created them
+      assertEquals(1, subject.size());
+      assertEquals(0, (int) executor.submit(subject::size).get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
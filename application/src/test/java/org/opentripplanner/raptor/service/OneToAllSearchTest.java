@@ -0,0 +1,126 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class OneToAllSearchTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final ExecutorService threadPool = Executors.newFixedThreadPool(2);
+
+  /**
+   * Stops: A..D
+   *   R1: A 00:01 - B 00:03 - C 00:05 - D 00:07
+   */
+  OneToAllSearchTest() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B, STOP_C, STOP_D))
+        .withTimetable(schedule("00:01, 00:03, 00:05, 00:07"))
+    );
+  }
+
+  @AfterEach
+  void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @Test
+  void oneSearchForEachRequest() {
+    var result = search(RaptorConfig.defaultConfigForTest());
+
+    assertEquals(
+      Map.of(0, "B 00:03:00, C 00:05:00, D 00:07:00", 1, "C 00:05:00, D 00:07:00"),
+      result
+    );
+  }
+
+  @Test
+  void sameResultInParallel() {
+    var config = new RaptorConfig<TestTripSchedule>(
+      new RaptorTuningParameters() {},
+      new RaptorEnvironment() {
+        @Override
+        public ExecutorService threadPool() {
+          return threadPool;
+        }
+      }
+    );
+    assertEquals(search(RaptorConfig.defaultConfigForTest()), search(config));
+  }
+
+  @Test
+  void onlyStandardForwardSearchIsAllowed() {
+    var config = RaptorConfig.<TestTripSchedule>defaultConfigForTest();
+    var request = request(STOP_A, RaptorProfile.MULTI_CRITERIA);
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new OneToAllSearch<>(config, data, List.of(request))
+    );
+  }
+
+  private Map<Integer, String> search(RaptorConfig<TestTripSchedule> config) {
+    var result = new ConcurrentHashMap<Integer, String>();
+    var requests = List.of(
+      request(STOP_A, RaptorProfile.STANDARD),
+      request(STOP_B, RaptorProfile.BEST_TIME)
+    );
+
+    new RaptorService<>(config)
+      .oneToAll(
+        requests,
+        data,
+        (index, arrivals) -> {
+          var buf = new StringBuilder();
+          for (int stop = STOP_B; stop <= STOP_D; ++stop) {
+            if (arrivals.reachedByTransit(stop)) {
+              buf
+                .append(buf.isEmpty() ? "" : ", ")
+                .append(stopIndexToName(stop))
+                .append(" ")
+                .append(TimeUtils.timeToStrLong(arrivals.bestTransitArrivalTime(stop)));
+            }
+          }
+          assertFalse(result.containsKey(index));
+          result.put(index, buf.toString());
+        }
+      );
+    return result;
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int accessStop, RaptorProfile profile) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.free(accessStop))
+      .addEgressPaths(TestAccessEgress.free(STOP_D))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_10)
+      .searchOneIterationOnly();
+    return builder.build();
+  }
+}
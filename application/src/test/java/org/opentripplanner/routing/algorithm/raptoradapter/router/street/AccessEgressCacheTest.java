@@ -0,0 +1,214 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class AccessEgressCacheTest extends GraphRoutingTest {
+
+  private static final WgsCoordinate ORIGIN = new WgsCoordinate(0.0, 0.0);
+  private static final WgsCoordinate FAR_AWAY = ORIGIN.moveEastMeters(100000);
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(10);
+  private static final int MAX_STOP_COUNT = 10;
+
+  private Graph graph;
+  private Vertex intersection;
+  private AccessEgressCache cache;
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    var otpModel = modelOf(
+      new GraphRoutingTest.Builder() {
+        @Override
+        public void build() {
+          var A = intersection("A", ORIGIN);
+          var B = intersection("B", ORIGIN.moveEastMeters(100));
+          var C = intersection("C", ORIGIN.moveEastMeters(200));
+          var farAway = intersection("FarAway", FAR_AWAY);
+
+          biStreet(A, B, 100);
+          biStreet(B, C, 100);
+          biStreet(farAway, A, 1000000);
+
+          biLink(B, stop("S1", B.toWgsCoordinate()));
+          biLink(C, stop("S2", C.toWgsCoordinate()));
+          intersection = A;
+        }
+      }
+    );
+    graph = otpModel.graph();
+    cache = new AccessEgressCache(10, Duration.ofMinutes(10));
+  }
+
+  @Test
+  void cacheSearchFromCoordinate() {
+    var from = location(ORIGIN.moveEastMeters(5));
+    var first = findAccess(request(from), StreetMode.WALK, 0);
+    assertEquals(2, first.size());
+    assertEquals(1, cache.getCache().stats().missCount());
+
+    // The temporary vertices of the second request are not the same, but the coordinate is
+    var second = findAccess(request(from), StreetMode.WALK, 0);
+    assertSameStops(first, second);
+    assertEquals(1, cache.getCache().stats().hitCount());
+  }
+
+  @Test
+  void cacheSearchFromStop() {
+    var from = new GenericLocation(null, new FeedScopedId("F", "S1"), null, null);
+    var first = findAccess(request(from), StreetMode.WALK, 0);
+    var second = findAccess(request(from), StreetMode.WALK, 0);
+    // The zero distance access to the stop itself is not cached
+    assertEquals(first.size(), second.size());
+    assertEquals(1, cache.getCache().stats().hitCount());
+    assertEquals(1, cache.getCache().size());
+  }
+
+  @Test
+  void differentPreferencesAreNotShared() {
+    var from = location(ORIGIN.moveEastMeters(5));
+    findAccess(request(from), StreetMode.WALK, 0);
+
+    var slowWalk = request(from);
+    slowWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+    findAccess(slowWalk, StreetMode.WALK, 0);
+    findAccess(request(from), StreetMode.BIKE, 0);
+
+    assertEquals(0, cache.getCache().stats().hitCount());
+    assertEquals(3, cache.getCache().size());
+  }
+
+  @Test
+  void realtimeEdgeIndexVersionInvalidatesEntries() {
+    var from = location(ORIGIN.moveEastMeters(5));
+    findAccess(request(from), StreetMode.WALK, 0);
+    findAccess(request(from), StreetMode.WALK, 1);
+    assertEquals(0, cache.getCache().stats().hitCount());
+    assertEquals(2, cache.getCache().stats().missCount());
+  }
+
+  @Test
+  void onlyWalkAndBikeSearchesAreCached() {
+    var request = new RouteRequest();
+    var origin = Set.of(intersection);
+    Set<Vertex> ignore = Set.of();
+
+    for (var mode : List.of(StreetMode.WALK, StreetMode.BIKE)) {
+      assertNotNull(key(origin, ignore, request, mode), mode.name());
+    }
+    for (var mode : List.of(
+      StreetMode.CAR,
+      StreetMode.BIKE_RENTAL,
+      StreetMode.BIKE_TO_PARK,
+      StreetMode.CAR_TO_PARK,
+      StreetMode.CAR_HAILING,
+      StreetMode.FLEXIBLE
+    )) {
+      assertNull(key(origin, ignore, request, mode), mode.name());
+    }
+  }
+
+  @Test
+  void keyIgnoresPreferencesOfOtherModes() {
+    var request = new RouteRequest();
+    var origin = Set.of(intersection);
+    Set<Vertex> ignore = Set.of();
+    var walk = key(origin, ignore, request, StreetMode.WALK);
+
+    request.withPreferences(p -> p.withBike(b -> b.withSpeed(2.0)));
+    assertEquals(walk, key(origin, ignore, request, StreetMode.WALK));
+
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+    assertNotEquals(walk, key(origin, ignore, request, StreetMode.WALK));
+  }
+
+  /* Helper methods */
+
+  private static AccessEgressCache.CacheKey key(
+    Set<Vertex> origin,
+    Set<Vertex> ignore,
+    RouteRequest request,
+    StreetMode mode
+  ) {
+    return AccessEgressCache.key(
+      origin,
+      ignore,
+      false,
+      request,
+      new StreetRequest(mode),
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      0
+    );
+  }
+
+  private static GenericLocation location(WgsCoordinate coordinate) {
+    return new GenericLocation(coordinate.latitude(), coordinate.longitude());
+  }
+
+  private static RouteRequest request(GenericLocation from) {
+    var request = new RouteRequest();
+    request.setFrom(from);
+    request.setTo(location(FAR_AWAY));
+    return request;
+  }
+
+  private static void assertSameStops(
+    Collection<NearbyStop> expected,
+    Collection<NearbyStop> actual
+  ) {
+    assertEquals(expected.size(), actual.size());
+    var it = actual.iterator();
+    for (NearbyStop stop : expected) {
+      assertSame(stop, it.next());
+    }
+  }
+
+  private Collection<NearbyStop> findAccess(
+    RouteRequest request,
+    StreetMode mode,
+    long realtimeEdgeIndexVersion
+  ) {
+    try (
+      var verticesContainer = new TemporaryVerticesContainer(
+        graph,
+        request.from(),
+        request.to(),
+        mode,
+        mode
+      )
+    ) {
+      return AccessEgressRouter.findAccessEgresses(
+        request,
+        verticesContainer,
+        new StreetRequest(mode),
+        null,
+        AccessEgressType.ACCESS,
+        DURATION_LIMIT,
+        MAX_STOP_COUNT,
+        cache,
+        realtimeEdgeIndexVersion
+      );
+    }
+  }
+}
@@ -65,6 +65,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsRunningOnDateCopy(date);
@@ -94,6 +96,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
@@ -122,6 +126,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(date);
@@ -150,6 +156,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(serviceDate);
@@ -183,6 +191,8 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(firstRunningDate);
@@ -0,0 +1,91 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSearchTimetable;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+class DepartureTimeIndexTest implements RaptorTestConstants {
+
+  private static final int[] DEPARTURE_TIMES = { 100, 100, 110, 150, 200, 210, 400, 401 };
+
+  private final DepartureTimeIndex subject = DepartureTimeIndex.of(
+    i -> DEPARTURE_TIMES[i],
+    DEPARTURE_TIMES.length
+  );
+
+  @Test
+  void tripIndexUpperBound() {
+    for (int time = 0; time < 500; ++time) {
+      int upperBound = subject.tripIndexUpperBound(time);
+      int firstTripAfter = firstTripDepartingAtOrAfter(time);
+
+      // All trips departing at or after the time must be found stepping backwards from the
+      // upper bound, and then forward if none is found.
+      if (firstTripAfter < DEPARTURE_TIMES.length) {
+        assertTrue(firstTripAfter <= upperBound, "time: " + time + ", bound: " + upperBound);
+      }
+      // The upper bound should be a tight bound, not more than one bucket away
+      for (int i = upperBound; i < DEPARTURE_TIMES.length; ++i) {
+        assertTrue(DEPARTURE_TIMES[i] > time, "time: " + time + ", trip: " + i);
+      }
+    }
+  }
+
+  @Test
+  void oneTrip() {
+    var index = DepartureTimeIndex.of(i -> 100, 1);
+    assertEquals(1, index.tripIndexUpperBound(50));
+    assertEquals(1, index.tripIndexUpperBound(100));
+    assertEquals(1, index.tripIndexUpperBound(150));
+  }
+
+  @Test
+  void noTrips() {
+    assertThrows(IllegalArgumentException.class, () -> DepartureTimeIndex.of(i -> 0, 0));
+  }
+
+  /**
+   * The board search should find the same trips using the index and the binary search.
+   */
+  @Test
+  void boardSearchFindSameTripAsBinarySearch() {
+    var random = new Random(11);
+    var route = TestRoute.route(TestTripPattern.pattern("R1", STOP_A, STOP_B));
+    int time = 3600;
+    for (int i = 0; i < 2000; ++i) {
+      time += 60 + random.nextInt(120);
+      route.withTimetable(schedule().departures(time, time + 300 + random.nextInt(60)));
+    }
+    var timetable = new TestTripSearchTimetable(route);
+    RaptorTripScheduleSearch<?> binarySearch = new TripScheduleBoardSearch<>(timetable, 50, false);
+    RaptorTripScheduleSearch<?> indexSearch = new TripScheduleBoardSearch<>(timetable, 50, true);
+
+    for (int stopPos = 0; stopPos < 2; ++stopPos) {
+      for (int t = 0; t < time + 1000; t += 17) {
+        assertEquals(
+          binarySearch.search(t, stopPos).tripIndex(),
+          indexSearch.search(t, stopPos).tripIndex(),
+          "time: " + t + ", stopPos: " + stopPos
+        );
+      }
+    }
+  }
+
+  private static int firstTripDepartingAtOrAfter(int time) {
+    for (int i = 0; i < DEPARTURE_TIMES.length; ++i) {
+      if (DEPARTURE_TIMES[i] >= time) {
+        return i;
+      }
+    }
+    return DEPARTURE_TIMES.length;
+  }
+}
@@ -0,0 +1,103 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestPatternCache.PatternIndex;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class RaptorRequestPatternCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ServiceDateUtils.asStartOfService(
+    LocalDate.of(2024, 11, 1),
+    ZoneIds.OSLO
+  );
+  private static final TransitDataProviderFilter FILTER = new RouteRequestTransitDataProviderFilter(
+    new RouteRequest()
+  );
+
+  private int loadCount = 0;
+
+  @Test
+  void cacheHitForSameDateRangeAndFilter() {
+    var subject = new RaptorRequestPatternCache(5);
+
+    var first = subject.get(TIME_ZERO, 1, 1, FILTER, this::load);
+    var second = subject.get(
+      TIME_ZERO,
+      1,
+      1,
+      new RouteRequestTransitDataProviderFilter(new RouteRequest()),
+      this::load
+    );
+
+    assertSame(first, second);
+    assertEquals(1, loadCount);
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void cacheMissForDifferentDateRange() {
+    var subject = new RaptorRequestPatternCache(5);
+
+    var first = subject.get(TIME_ZERO, 1, 1, FILTER, this::load);
+
+    assertNotSame(first, subject.get(TIME_ZERO.plusDays(1), 1, 1, FILTER, this::load));
+    assertNotSame(first, subject.get(TIME_ZERO, 0, 1, FILTER, this::load));
+    assertNotSame(first, subject.get(TIME_ZERO, 1, 2, FILTER, this::load));
+    assertEquals(4, loadCount);
+  }
+
+  @Test
+  void cacheMissForDifferentFilter() {
+    var subject = new RaptorRequestPatternCache(5);
+    var request = new RouteRequest();
+    request.journey().transit().setBannedTripsFromString("F:T1");
+
+    var first = subject.get(TIME_ZERO, 1, 1, FILTER, this::load);
+    var second = subject.get(
+      TIME_ZERO,
+      1,
+      1,
+      new RouteRequestTransitDataProviderFilter(request),
+      this::load
+    );
+
+    assertNotSame(first, second);
+    assertEquals(2, loadCount);
+  }
+
+  @Test
+  void cacheIsBounded() {
+    var subject = new RaptorRequestPatternCache(2);
+
+    for (int i = 0; i < 5; ++i) {
+      subject.get(TIME_ZERO.plusDays(i), 1, 1, FILTER, this::load);
+    }
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void emptyCopy() {
+    var subject = new RaptorRequestPatternCache(5);
+    subject.get(TIME_ZERO, 1, 1, FILTER, this::load);
+
+    var copy = subject.emptyCopy();
+
+    assertEquals(0, copy.size());
+    copy.get(TIME_ZERO, 1, 1, FILTER, this::load);
+    assertEquals(2, loadCount);
+  }
+
+  private PatternIndex load() {
+    ++loadCount;
+    return new PatternIndex(List.of(), List.of());
+  }
+}
@@ -67,7 +67,8 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
       startOfTime,
       tripPatternsForDates,
       new TestTransitDataProviderFilter(),
-      TransitGroupPriorityService.empty()
+      TransitGroupPriorityService.empty(),
+      false
     );
 
     // Get the results
@@ -87,6 +88,27 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     assertEquals(86400, ((TripScheduleWithOffset) r3.getTripSchedule(2)).getSecondsOffset());
   }
 
+  @Test
+  public void testDepartureTimeIndexIsOnlyEnabledForCachedPatterns() {
+    LocalDate date = LocalDate.of(2019, 3, 30);
+    ZonedDateTime startOfTime = ServiceDateUtils.asStartOfService(date, ZoneIds.LONDON);
+    List<TripTimes> tripTimes = List.of(createTripTimesForTest());
+    var tripPatternsForDates = List.of(
+      new TripPatternForDate(createTripPattern(TP_ID_1), tripTimes, List.of(), date)
+    );
+
+    for (boolean cached : new boolean[] { false, true }) {
+      var result = RaptorRoutingRequestTransitDataCreator.merge(
+        startOfTime,
+        tripPatternsForDates,
+        new TestTransitDataProviderFilter(),
+        TransitGroupPriorityService.empty(),
+        cached
+      );
+      assertEquals(cached, result.getFirst().isDepartureTimeIndexEnabled());
+    }
+  }
+
   private static TripPatternForDates findTripPatternForDate(
     int patternIndex,
     List<TripPatternForDates> list
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -20,6 +21,7 @@ import org.opentripplanner.framework.geometry.WgsCoordinate;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.model.StopTime;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.AccessibilityPreferences;
 import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
 import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
@@ -267,6 +269,31 @@ class RouteRequestTransitDataProviderFilterTest {
     assertFalse(valid);
   }
 
+  @Test
+  void testEqualsAndHashCode() {
+    var subject = new RouteRequestTransitDataProviderFilter(new RouteRequest());
+    var same = new RouteRequestTransitDataProviderFilter(new RouteRequest());
+
+    assertEquals(subject, same);
+    assertEquals(subject.hashCode(), same.hashCode());
+
+    var other = new RouteRequest();
+    other.journey().transit().setBannedTrips(List.of(TRIP_ID));
+    assertNotEquals(subject, new RouteRequestTransitDataProviderFilter(other));
+
+    other = new RouteRequest();
+    other
+      .journey()
+      .transit()
+      .setFilters(
+        filterForModesAndFilterForBannedAgencies(
+          List.of(new MainAndSubMode(TransitMode.BUS)),
+          List.of(TimetableRepositoryForTest.OTHER_AGENCY.getId())
+        )
+      );
+    assertNotEquals(subject, new RouteRequestTransitDataProviderFilter(other));
+  }
+
   /**
    * Filtering trips with 2 filters: a selection by submode filter and an exclusion by agency filter.
    * A trip matches if it matches either of them.
@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -118,6 +120,35 @@ class RouteRequestTest {
     request.validateOriginAndDestination();
   }
 
+  @Test
+  void applyDepartureProfile() {
+    RouteRequest request = new RouteRequest();
+    request.setTimetableView(false);
+    request.applyDepartureProfile();
+    assertFalse(request.timetableView());
+    assertNull(request.searchWindow());
+
+    request.setDepartureProfile(true);
+    request.applyDepartureProfile();
+    assertTrue(request.timetableView());
+    assertEquals(DURATION_24_HOURS, request.searchWindow());
+
+    // The search-window is limited by the max search-window
+    request = new RouteRequest();
+    request.setDepartureProfile(true);
+    request.setMaxSearchWindow(Duration.ofHours(2));
+    request.applyDepartureProfile();
+    assertEquals(Duration.ofHours(2), request.searchWindow());
+
+    // Keep the search-window if set
+    request.setSearchWindow(DURATION_ONE_MINUTE);
+    request.applyDepartureProfile();
+    assertEquals(DURATION_ONE_MINUTE, request.searchWindow());
+
+    request.setArriveBy(true);
+    assertThrows(IllegalArgumentException.class, request::applyDepartureProfile);
+  }
+
   @Test
   void testValidSearchWindow() {
     RouteRequest request = new RouteRequest();
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.astar.model.AdjacencyOverlay;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.model.GenericLocation;
@@ -26,7 +28,9 @@ import org.opentripplanner.street.model.edge.TemporaryEdge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TemporaryEdgeOverlay;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.service.SiteRepository;
 
@@ -65,12 +69,19 @@ public class TemporaryVerticesContainerTest {
     // Then:
     originAndDestinationInsertedCorrect();
 
+    // And - the permanent vertexes are not changed
+    assertPermanentVertexesAreNotReferencingTemporaryElements();
+
     // And When:
     subject.close();
 
-    // Then - permanent vertexes
+    // Then - permanent vertexes does not reference the any temporary nodes
+    assertPermanentVertexesAreNotReferencingTemporaryElements();
+  }
+
+  private void assertPermanentVertexesAreNotReferencingTemporaryElements() {
     for (Vertex v : permanentVertexes) {
-      // - does not reference the any temporary nodes anymore
+      // - does not reference the any temporary nodes
       for (Edge e : v.getIncoming()) {
         assertVertexEdgeIsNotReferencingTemporaryElements(v, e, e.getFromVertex());
       }
@@ -81,6 +92,7 @@ public class TemporaryVerticesContainerTest {
   }
 
   private static <T extends Collection<String>> T findAllReachableVertexes(
+    AdjacencyOverlay<State, Edge, Vertex> overlay,
     Vertex vertex,
     boolean forward,
     T list
@@ -91,11 +103,13 @@ public class TemporaryVerticesContainerTest {
 
     list.add(vertex.getDefaultName());
     if (forward) {
-      vertex.getOutgoing().forEach(it -> findAllReachableVertexes(it.getToVertex(), forward, list));
+      overlay
+        .getOutgoing(vertex)
+        .forEach(it -> findAllReachableVertexes(overlay, it.getToVertex(), forward, list));
     } else {
-      vertex
-        .getIncoming()
-        .forEach(it -> findAllReachableVertexes(it.getFromVertex(), forward, list));
+      overlay
+        .getIncoming(vertex)
+        .forEach(it -> findAllReachableVertexes(overlay, it.getFromVertex(), forward, list));
     }
     return list;
   }
@@ -105,9 +119,16 @@ public class TemporaryVerticesContainerTest {
     assertEquals("Origin", subject.getFromVertices().iterator().next().getDefaultName());
     assertEquals("Destination", subject.getToVertices().iterator().next().getDefaultName());
 
+    // The edges to and from the permanent vertexes are seen by a search through the overlay
+    var origin = subject.getFromVertices().iterator().next();
+    var destination = subject.getToVertices().iterator().next();
+    var overlay = TemporaryEdgeOverlay.of(List.of(origin, destination));
+    assertNotNull(overlay);
+
     // And - from the origin
     Collection<String> vertexesReachableFromOrigin = findAllReachableVertexes(
-      subject.getFromVertices().iterator().next(),
+      overlay,
+      origin,
       true,
       new ArrayList<>()
     );
@@ -121,7 +142,8 @@ public class TemporaryVerticesContainerTest {
 
     // And - from the destination we can backtrack
     Collection<String> vertexesReachableFromDestination = findAllReachableVertexes(
-      subject.getToVertices().iterator().next(),
+      overlay,
+      destination,
       false,
       new ArrayList<>()
     );
@@ -0,0 +1,106 @@
+package org.opentripplanner.street.model.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+class CompactStreetGraphTest {
+
+  private final Graph graph = new Graph(new Deduplicator());
+  private final StreetVertex a = intersectionVertex("A", 0.0, 0.0);
+  private final StreetVertex b = intersectionVertex("B", 0.0, 0.001);
+  private final StreetVertex c = intersectionVertex("C", 0.001, 0.001);
+
+  private StreetEdge ab;
+  private StreetEdge bc;
+  private StreetEdge cb;
+
+  @BeforeEach
+  void setUp() {
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    ab = streetEdge(a, b, 111.2, StreetTraversalPermission.PEDESTRIAN);
+    bc =
+      streetEdgeBuilder(b, c, 123.456, StreetTraversalPermission.ALL)
+        .withCarSpeed(13.5f)
+        .buildAndConnect();
+    cb = streetEdge(c, b, 123.456, StreetTraversalPermission.CAR);
+  }
+
+  @Test
+  void adjacency() {
+    var subject = CompactStreetGraph.of(graph);
+
+    assertEquals(3, subject.numberOfVertices());
+    assertEquals(3, subject.numberOfEdges());
+
+    int vb = b.getIndex();
+    assertSame(b, subject.vertex(vb));
+    assertEquals(1, subject.outDegree(vb));
+    assertEquals(2, subject.inDegree(vb));
+
+    int first = subject.firstOutgoing(vb);
+    assertSame(bc, subject.edge(first));
+    assertEquals(vb, subject.fromVertex(first));
+    assertEquals(c.getIndex(), subject.toVertex(first));
+
+    Set<Edge> incoming = new HashSet<>();
+    for (int i = 0; i < subject.inDegree(vb); ++i) {
+      int e = subject.incoming(vb, i);
+      assertEquals(vb, subject.toVertex(e));
+      incoming.add(subject.edge(e));
+    }
+    assertEquals(Set.of(ab, cb), incoming);
+  }
+
+  @Test
+  void edgeAttributes() {
+    var subject = CompactStreetGraph.of(graph);
+    int e = subject.firstOutgoing(b.getIndex());
+
+    assertTrue(subject.isStreetEdge(e));
+    assertEquals(123456, subject.lengthMm(e));
+    assertEquals(13.5f, subject.carSpeed(e));
+  }
+
+  @Test
+  void verticesNotInGraphAreLeftOut() {
+    graph.remove(a);
+    var location = new TemporaryStreetLocation(
+      "origin",
+      c.getCoordinate(),
+      I18NString.of("origin"),
+      false
+    );
+    TemporaryFreeEdge.createTemporaryFreeEdge(location, c);
+
+    var subject = CompactStreetGraph.of(graph);
+
+    // The index of the removed vertex is not reused
+    assertEquals(3, subject.numberOfVertices());
+    assertNull(subject.vertex(a.getIndex()));
+    assertEquals(0, subject.outDegree(a.getIndex()));
+    assertEquals(2, subject.numberOfEdges());
+    assertEquals(1, subject.inDegree(b.getIndex()));
+    assertEquals(1, subject.inDegree(c.getIndex()));
+  }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.opentripplanner.TestOtpModel;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -20,6 +21,8 @@ import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TemporarySplitterVertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
 
 class StreetEdgeSplittingTest extends GraphRoutingTest {
 
@@ -108,6 +111,26 @@ class StreetEdgeSplittingTest extends GraphRoutingTest {
     assertOnlyOriginalRestrictionExists();
   }
 
+  @Test
+  public void turnRestrictionToEdgeSplitForRequest() {
+    var splitVtx = new TemporarySplitterVertex("Split_Vertex", 1.0, 1.0, streetEdge2, false, true);
+    var disposableEdgeCollection = new DisposableEdgeCollection(graph);
+
+    var splitResult = streetEdge2.splitNonDestructively(
+      splitVtx,
+      disposableEdgeCollection,
+      LinkingDirection.BOTH_WAYS
+    );
+
+    // The graph edge is not changed, the original restriction applies to the head
+    assertOnlyOriginalRestrictionExists();
+    var state = new State(V2, StreetSearchRequest.of().withMode(StreetMode.CAR).build());
+    assertFalse(streetEdge1.canTurnOnto(splitResult.head(), state, TraverseMode.CAR));
+
+    disposableEdgeCollection.disposeEdges();
+    assertOnlyOriginalRestrictionExists();
+  }
+
   @Test
   public void turnRestrictionFromEdgeSplitWithToVertex() {
     var splitVtx = new TemporarySplitterVertex("Split_Vertex", 1.0, 0.0, streetEdge1, true);
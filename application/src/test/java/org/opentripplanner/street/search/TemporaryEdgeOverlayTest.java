@@ -0,0 +1,137 @@
+package org.opentripplanner.street.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TemporarySplitterVertex;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class TemporaryEdgeOverlayTest {
+
+  private final StreetVertex a = intersectionVertex("A", 0.0, 0.0);
+  private final StreetVertex b = intersectionVertex("B", 0.0, 0.001);
+  private final TemporaryStreetLocation origin = location("origin", 0.0, -0.0001, false);
+  private final TemporaryStreetLocation destination = location("destination", 0.0, 0.0011, true);
+
+  {
+    streetEdge(a, b);
+  }
+
+  @Test
+  void requestEdgesAreNotAddedToGraphVertices() {
+    var toGraph = TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+    var fromGraph = TemporaryFreeEdge.createTemporaryFreeEdge(b, destination);
+
+    assertEquals(List.of(toGraph), origin.getOutgoing());
+    assertEquals(List.of(fromGraph), destination.getIncoming());
+    assertTrue(a.getIncoming().isEmpty());
+    assertTrue(b.getOutgoing().isEmpty());
+
+    var overlay = TemporaryEdgeOverlay.of(List.of(origin));
+    assertNotNull(overlay);
+    assertTrue(overlay.getIncoming(a).contains(toGraph));
+    assertFalse(overlay.getOutgoing(b).contains(fromGraph));
+
+    overlay = TemporaryEdgeOverlay.of(List.of(origin, destination));
+    assertNotNull(overlay);
+    assertTrue(overlay.getOutgoing(b).contains(fromGraph));
+
+    // Removing the edges does not touch the graph vertices either
+    toGraph.remove();
+    fromGraph.remove();
+    assertTrue(origin.getOutgoing().isEmpty());
+    assertTrue(destination.getIncoming().isEmpty());
+    assertTrue(b.getOutgoing().isEmpty());
+  }
+
+  @Test
+  void searchFindsRequestEdges() {
+    TemporaryFreeEdge.createTemporaryFreeEdge(origin, a);
+    TemporaryFreeEdge.createTemporaryFreeEdge(b, destination);
+
+    var paths = StreetSearchBuilder
+      .of()
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(StreetMode.WALK))
+      .setFrom(origin)
+      .setTo(destination)
+      .getPathsToTarget();
+    assertEquals(1, paths.size());
+    assertEquals(destination, paths.getFirst().states.getLast().getVertex());
+
+    // A search from the origin only does not see the edges to the destination
+    var tree = StreetSearchBuilder
+      .of()
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(StreetMode.WALK))
+      .setFrom(origin)
+      .getShortestPathTree();
+    assertNotNull(tree.getState(b));
+    assertNull(tree.getState(destination));
+
+    tree =
+      StreetSearchBuilder
+        .of()
+        .setRequest(new RouteRequest())
+        .setStreetRequest(new StreetRequest(StreetMode.WALK))
+        .setFrom(origin)
+        .setTemporaryVertices(List.of(destination))
+        .getShortestPathTree();
+    assertNotNull(tree.getState(destination));
+  }
+
+  @Test
+  void realtimeVerticesAreSharedByAllRequests() {
+    var edge = streetEdge(b, a);
+    var realtime = new TemporarySplitterVertex("realtime", 0.0, 0.0005, edge, false);
+    var request = new TemporarySplitterVertex("request", 0.0, 0.0005, edge, false, true);
+    assertFalse(TemporaryVertex.isRequestScoped(realtime));
+    assertTrue(TemporaryVertex.isRequestScoped(request));
+
+    var realtimeEdge = TemporaryFreeEdge.createTemporaryFreeEdge(realtime, a);
+    assertTrue(a.getIncoming().contains(realtimeEdge));
+
+    var requestEdge = TemporaryFreeEdge.createTemporaryFreeEdge(origin, (Vertex) realtime);
+    assertFalse(realtime.getIncoming().contains(requestEdge));
+
+    // The overlay stops at the realtime vertex
+    var overlay = TemporaryEdgeOverlay.of(List.of(origin));
+    assertNotNull(overlay);
+    assertEquals(a.getIncoming(), overlay.getIncoming(a));
+    assertTrue(overlay.getIncoming(realtime).contains(requestEdge));
+
+    // And so does the disposal of the request vertices
+    TemporaryVertex.dispose(origin);
+    assertTrue(a.getIncoming().contains(realtimeEdge));
+  }
+
+  @Test
+  void noOverlayWithoutRequestVertices() {
+    assertNull(TemporaryEdgeOverlay.of(List.of(a, b)));
+  }
+
+  private static TemporaryStreetLocation location(
+    String id,
+    double lat,
+    double lon,
+    boolean endVertex
+  ) {
+    return new TemporaryStreetLocation(id, new Coordinate(lon, lat), I18NString.of(id), endVertex);
+  }
+}
@@ -0,0 +1,121 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.updater.spi.GraphWriterResource.STREET_GRAPH;
+import static org.opentripplanner.updater.spi.GraphWriterResource.TIMETABLE_SNAPSHOT;
+import static org.opentripplanner.updater.spi.GraphWriterResource.VEHICLE_RENTAL;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GraphWriterSchedulerTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private final GraphWriterScheduler subject = new GraphWriterScheduler();
+  private final List<String> done = new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void shutdown() throws InterruptedException {
+    subject.shutdownNow(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void writersOfDisjointResourcesRunConcurrently() throws Exception {
+    var timetableWriterRunning = new CountDownLatch(1);
+
+    // The rental writer can only finish if the timetable writer runs at the same time
+    var rental = subject.submit(Set.of(VEHICLE_RENTAL), () -> await(timetableWriterRunning));
+    var timetable = subject.submit(Set.of(TIMETABLE_SNAPSHOT), timetableWriterRunning::countDown);
+
+    get(rental);
+    get(timetable);
+  }
+
+  @Test
+  void writerOfSeveralResourcesRunsAlone() throws Exception {
+    var release = new CountDownLatch(1);
+
+    var a = subject.submit(Set.of(TIMETABLE_SNAPSHOT), () -> record("A", release));
+    var b = subject.submit(Set.of(VEHICLE_RENTAL, TIMETABLE_SNAPSHOT), () -> record("B", null));
+    var c = subject.submit(Set.of(VEHICLE_RENTAL), () -> record("C", null));
+    var d = subject.submit(Set.of(STREET_GRAPH), () -> record("D", null));
+
+    // D does not share any resources with the others
+    get(d);
+    assertEquals(List.of("D"), done);
+
+    // B waits for A, and C waits for B, even if the rental scheduler is idle
+    release.countDown();
+    get(a);
+    get(b);
+    get(c);
+    assertEquals(List.of("D", "A", "B", "C"), done);
+  }
+
+  @Test
+  void cancelledWriterReleasesTheOtherResources() throws Exception {
+    var release = new CountDownLatch(1);
+
+    var a = subject.submit(Set.of(TIMETABLE_SNAPSHOT), () -> record("A", release));
+    var b = subject.submit(Set.of(VEHICLE_RENTAL, TIMETABLE_SNAPSHOT), () -> record("B", null));
+    assertTrue(b.cancel(false));
+
+    // B is queued behind A on the timetable scheduler, but no longer blocks the rental scheduler
+    var c = subject.submit(Set.of(VEHICLE_RENTAL), () -> record("C", null));
+    get(c);
+    assertEquals(List.of("C"), done);
+
+    release.countDown();
+    get(a);
+    var d = subject.submit(Set.of(TIMETABLE_SNAPSHOT), () -> record("D", null));
+    get(d);
+    assertTrue(b.isCancelled());
+    assertEquals(List.of("C", "A", "D"), done);
+  }
+
+  @Test
+  void writersOfTheSameResourceRunInOrder() throws Exception {
+    Future<?> last = null;
+    for (int i = 0; i < 20; ++i) {
+      var name = Integer.toString(i);
+      last = subject.submit(Set.of(TIMETABLE_SNAPSHOT), () -> record(name, null));
+    }
+    get(last);
+    for (int i = 0; i < 20; ++i) {
+      assertEquals(Integer.toString(i), done.get(i));
+    }
+  }
+
+  @Test
+  void writerMustUseAResource() {
+    assertThrows(IllegalArgumentException.class, () -> subject.submit(Set.of(), () -> {}));
+  }
+
+  private void record(String name, CountDownLatch release) {
+    if (release != null) {
+      await(release);
+    }
+    done.add(name);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void get(Future<?> future) throws Exception {
+    future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+}
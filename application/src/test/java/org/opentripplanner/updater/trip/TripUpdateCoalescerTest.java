@@ -0,0 +1,133 @@
+package org.opentripplanner.updater.trip;
+
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.ADDED;
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.CANCELED;
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.SCHEDULED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TripUpdateCoalescerTest {
+
+  private static final String FEED_ID = "F";
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2024, 5, 8);
+  private static final LocalDate NEXT_DAY = SERVICE_DATE.plusDays(1);
+  private static final ZoneId ZONE_ID = ZoneId.of("Europe/Oslo");
+
+  private final TripUpdateCoalescer subject = new TripUpdateCoalescer(FEED_ID);
+
+  @Test
+  void newestUpdateOfEachTripIsKept() {
+    var a1 = update("A", SERVICE_DATE, SCHEDULED, 1);
+    var b = update("B", SERVICE_DATE, SCHEDULED, 1);
+    var a2 = update("A", SERVICE_DATE, SCHEDULED, 2);
+    var aNextDay = update("A", NEXT_DAY, SCHEDULED, 1);
+
+    subject.add(DIFFERENTIAL, List.of(a1, b), 0);
+    subject.add(DIFFERENTIAL, List.of(a2, aNextDay), 0);
+
+    var batches = subject.batches();
+    assertEquals(1, batches.size());
+    assertEquals(DIFFERENTIAL, batches.getFirst().incrementality());
+    assertEquals(List.of(a2, b, aNextDay), batches.getFirst().updates());
+    assertEquals(4, subject.received());
+    assertEquals(1, subject.coalesced());
+  }
+
+  @Test
+  void outOfDateUpdateIsDropped() {
+    var newer = update("A", SERVICE_DATE, SCHEDULED, 20);
+    var older = update("A", SERVICE_DATE, SCHEDULED, 10);
+
+    subject.add(DIFFERENTIAL, List.of(newer), 0);
+    subject.add(DIFFERENTIAL, List.of(older), 0);
+
+    assertEquals(List.of(newer), subject.batches().getFirst().updates());
+    assertEquals(1, subject.coalesced());
+  }
+
+  @Test
+  void feedTimestampIsUsedForUpdatesWithoutTimestamp() {
+    var newer = update("A", SERVICE_DATE, SCHEDULED);
+    var older = update("A", SERVICE_DATE, SCHEDULED);
+
+    subject.add(DIFFERENTIAL, List.of(newer), 20);
+    subject.add(DIFFERENTIAL, List.of(older), 10);
+
+    assertEquals(List.of(newer), subject.batches().getFirst().updates());
+  }
+
+  @Test
+  void updatesWithDifferentScheduleRelationshipAreKept() {
+    var added = update("A", SERVICE_DATE, ADDED, 1);
+    var canceled = update("A", SERVICE_DATE, CANCELED, 2);
+    var canceledAgain = update("A", SERVICE_DATE, CANCELED, 3);
+
+    subject.add(DIFFERENTIAL, List.of(added, canceled, canceledAgain), 0);
+
+    assertEquals(List.of(added, canceledAgain), subject.batches().getFirst().updates());
+    assertEquals(1, subject.coalesced());
+  }
+
+  @Test
+  void updatesWithoutStartDateAreNotCoalesced() {
+    var update = update("A", SERVICE_DATE, SCHEDULED, 1);
+    update = update.toBuilder().setTrip(update.getTrip().toBuilder().clearStartDate()).build();
+
+    subject.add(DIFFERENTIAL, List.of(update, update), 0);
+
+    assertEquals(List.of(update, update), subject.batches().getFirst().updates());
+    assertEquals(0, subject.coalesced());
+  }
+
+  @Test
+  void fullDatasetReplacesPreviousUpdates() {
+    var a = update("A", SERVICE_DATE, SCHEDULED, 1);
+    var b = update("B", SERVICE_DATE, SCHEDULED, 2);
+    var c = update("C", SERVICE_DATE, SCHEDULED, 3);
+
+    subject.add(DIFFERENTIAL, List.of(a), 0);
+    subject.add(FULL_DATASET, List.of(b), 0);
+    subject.add(DIFFERENTIAL, List.of(c), 0);
+
+    var batches = subject.batches();
+    assertEquals(2, batches.size());
+    assertEquals(FULL_DATASET, batches.get(0).incrementality());
+    assertEquals(List.of(b), batches.get(0).updates());
+    assertEquals(DIFFERENTIAL, batches.get(1).incrementality());
+    assertEquals(List.of(c), batches.get(1).updates());
+    assertEquals(1, subject.coalesced());
+
+    subject.clear();
+    assertTrue(subject.isEmpty());
+    assertEquals(0, subject.received());
+    assertEquals(0, subject.coalesced());
+  }
+
+  private static TripUpdate update(
+    String tripId,
+    LocalDate serviceDate,
+    ScheduleRelationship relationship,
+    long timestamp
+  ) {
+    return update(tripId, serviceDate, relationship).toBuilder().setTimestamp(timestamp).build();
+  }
+
+  private static TripUpdate update(
+    String tripId,
+    LocalDate serviceDate,
+    ScheduleRelationship relationship
+  ) {
+    return new TripUpdateBuilder(tripId, serviceDate, relationship, ZONE_ID)
+      .addDelayedStopTime(1, 60)
+      .build();
+  }
+}